@@ -0,0 +1,62 @@
+package it.polimi.ingsw.benchmarks;
+
+import it.polimi.ingsw.common.model.events.EventContext;
+import it.polimi.ingsw.model.game.Board;
+import it.polimi.ingsw.model.player.PlayerData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the operations on the flight board of the {@link Scenarios}.
+ * <ul>
+ *     <li>{@code movePlayer}: a player moves forward and back again, jumping over the ones on his way,
+ *     as done by the open space and the cards that cost flight days</li>
+ *     <li>{@code calcRanking}: the credits of the end of the game, the credits of the players keep growing</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    private static final int DAYS = 5;
+
+    @Param({"1", "2"})
+    public int scenario;
+
+    private Board board;
+    private List<PlayerData> players;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        board = Scenarios.flying(scenario).getBoard();
+        players = List.copyOf(board.getPlayersByPos());
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        EventContext.clear(); // Snapshots of the positions
+    }
+
+    @Benchmark
+    public int movePlayer() {
+        PlayerData player = players.get(next);
+        next = (next + 1) % players.size();
+        board.movePlayer(player, DAYS);
+        board.movePlayer(player, -DAYS);
+        return board.getPlayers().getFirst().getValue();
+    }
+
+    @Benchmark
+    public int calcRanking() {
+        board.calcRanking();
+        return players.getFirst().getCredits();
+    }
+
+}
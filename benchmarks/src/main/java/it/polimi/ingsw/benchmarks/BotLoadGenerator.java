@@ -0,0 +1,294 @@
+package it.polimi.ingsw.benchmarks;
+
+import it.polimi.ingsw.Constants;
+import it.polimi.ingsw.model.factory.Catalog;
+import it.polimi.ingsw.network.RequestDispatcher;
+import it.polimi.ingsw.network.metrics.MetricsEndpoint;
+import it.polimi.ingsw.network.metrics.ServerMetrics;
+import it.polimi.ingsw.network.rmi.RMIServer;
+import it.polimi.ingsw.network.socket.client.ClientSocket;
+import it.polimi.ingsw.network.rmi.RMIClient;
+import it.polimi.ingsw.network.socket.codec.WireFormat;
+import it.polimi.ingsw.network.socket.server.SocketServer;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load generator playing whole games with scripted bots ({@link BotPlayer}), to size the servers.
+ * A server JVM is forked on the default ports, then the given number of bots connect to it through {@link ClientSocket}
+ * and {@link RMIClient} without a view, and play one game after the other for the given time: each group of bots creates
+ * and joins a lobby, builds legal ships and flies until the end of the game, playing every card type of the decks.
+ * <p>
+ * Every interval and at the end it reports the game commands per second, the 50th and 99th percentiles of the time from
+ * a command to the events answering it, the errors and timeouts, and the server CPU (of the forked process) and heap
+ * (read from its {@link MetricsEndpoint}), in total and per active game. The heap per game is the live heap, after the last
+ * collection, above the one of the idle server.
+ * <p>
+ * Usage: {@code java -cp benchmarks.jar it.polimi.ingsw.benchmarks.BotLoadGenerator [bots]}, default 40.
+ * Properties: botload.duration (seconds, 60), botload.interval (seconds between two reports, 10),
+ * botload.think (average ms between two commands of a bot, 100), botload.transport (socket, rmi or mixed, the default, which
+ * alternates them), botload.players (players of a game, 4), botload.tiles (components of a ship, 10), botload.learner (false),
+ * {@value RequestDispatcher#PROPERTY} and {@value WireFormat#PROPERTY}, passed to the server.
+ */
+public class BotLoadGenerator {
+
+    private static final int DURATION = Integer.getInteger("botload.duration", 60);
+    private static final int INTERVAL = Integer.getInteger("botload.interval", 10);
+    private static final int THINK_TIME = Integer.getInteger("botload.think", 100);
+    private static final String TRANSPORT = System.getProperty("botload.transport", "mixed");
+    private static final int PLAYERS = Integer.getInteger("botload.players", 4);
+    private static final int TILES = Integer.getInteger("botload.tiles", 10);
+    private static final boolean LEARNER = Boolean.getBoolean("botload.learner");
+    private static final String HOST = "127.0.0.1";
+    private static final int SERVER_TIMEOUT = 30_000;
+
+    /**
+     * Width of a latency bucket, in microseconds
+     */
+    private static final int BUCKET_MICROS = 100;
+
+    /**
+     * Latency of the last bucket, in microseconds: the slower commands are counted in it
+     */
+    private static final int MAX_MICROS = 10_000_000;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--server")) {
+            runServer();
+            return;
+        }
+
+        int bots = args.length > 0 ? Integer.parseInt(args[0]) : 40;
+        PrintStream report = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // Logs of the clients
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+        System.setProperty("java.rmi.server.hostname", HOST);
+
+        int metricsPort;
+        try (ServerSocket probe = new ServerSocket(0)) {
+            metricsPort = probe.getLocalPort();
+        }
+        Process server = forkServer(metricsPort);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::destroyForcibly));
+        Sample idle = Sample.take(server, metricsPort);
+
+        report.printf("%d bots (%s), %d players per game, %s mode, %d ms think time, %d s%n", bots, TRANSPORT, PLAYERS,
+                LEARNER ? "learner" : "advanced", THINK_TIME, DURATION);
+        report.printf("%6s %8s %6s %9s %8s %8s %7s %8s %7s %11s %8s %12s%n", "time s", "in game", "games", "cmd/s", "p50 ms", "p99 ms",
+                "errors", "timeouts", "cpu %", "cpu ms/game", "heap MB", "live KB/game");
+
+        Stats stats = new Stats();
+        List<BotPlayer> players = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < bots; i++) {
+            boolean socket = TRANSPORT.equals("socket") || (TRANSPORT.equals("mixed") && i % 2 == 0);
+            BotPlayer bot = new BotPlayer(stats, "bot" + i, "g" + i / PLAYERS, i % PLAYERS == 0, PLAYERS, LEARNER, TILES, THINK_TIME, socket, HOST);
+            players.add(bot);
+            threads.add(Thread.ofVirtual().name("bot" + i).start(bot));
+        }
+
+        Sample first = Sample.take(server, metricsPort);
+        Sample last = first;
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(DURATION);
+        while (System.nanoTime() < end) {
+            Thread.sleep(Math.min(TimeUnit.SECONDS.toMillis(INTERVAL), TimeUnit.NANOSECONDS.toMillis(end - System.nanoTime()) + 1));
+            Window window = stats.swap();
+            Sample sample = Sample.take(server, metricsPort);
+            int inGame = (int) players.stream().filter(BotPlayer::isInGame).count();
+            report.println(line(TimeUnit.NANOSECONDS.toSeconds(sample.time - first.time) + "", inGame, window, last, sample, idle));
+            last = sample;
+        }
+
+        for (BotPlayer bot : players)
+            bot.stop();
+        for (Thread thread : threads)
+            thread.join(Constants.NETWORK_TIMEOUT);
+        server.destroy();
+
+        report.println(line("total", bots, stats.total, first, last, idle));
+        report.printf("games finished: %d, abandoned: %d%n", stats.finished.size(), stats.abandoned.sum());
+        report.println("cards drawn: " + new TreeMap<>(stats.cards));
+        System.exit(0);
+    }
+
+    /**
+     * Runs the server in this JVM, until the generator stops it, with its logs discarded.
+     */
+    private static void runServer() throws Exception {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+        ProcessHandle.current().parent().ifPresent(parent -> parent.onExit().thenRun(() -> System.exit(0)));
+
+        Catalog.getInstance();
+        SocketServer.getInstance(Constants.DEFAULT_SOCKET_PORT);
+        RMIServer.getInstance(Constants.DEFAULT_RMI_PORT);
+        ServerMetrics.getInstance().registerMBeans();
+        System.gc(); // Live heap of the idle server, the baseline of the heap per game
+        MetricsEndpoint.getInstance();
+        Thread.sleep(Long.MAX_VALUE);
+    }
+
+    private static Process forkServer(int metricsPort) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of(
+                System.getProperty("java.home") + File.separator + "bin" + File.separator + "java",
+                "-D" + MetricsEndpoint.PROPERTY + "=" + metricsPort,
+                "-D" + WireFormat.PROPERTY + "=" + WireFormat.fromProperty().name().toLowerCase(),
+                "-Djava.rmi.server.hostname=" + HOST));
+        if (System.getProperty(RequestDispatcher.PROPERTY) != null)
+            command.add("-D" + RequestDispatcher.PROPERTY + "=" + System.getProperty(RequestDispatcher.PROPERTY));
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments().stream().filter(arg -> arg.startsWith("-X") || arg.equals("--enable-preview")).toList());
+        command.addAll(List.of("-cp", System.getProperty("java.class.path"), BotLoadGenerator.class.getName(), "--server"));
+        Process server = new ProcessBuilder(command).redirectOutput(ProcessBuilder.Redirect.DISCARD).redirectError(ProcessBuilder.Redirect.DISCARD).start();
+
+        long deadline = System.currentTimeMillis() + SERVER_TIMEOUT;
+        while (true) {
+            try {
+                Sample.metrics(metricsPort);
+                return server;
+            } catch (IOException e) {
+                if (!server.isAlive() || System.currentTimeMillis() > deadline)
+                    throw new IOException("The server cannot be started", e);
+                Thread.sleep(200);
+            }
+        }
+    }
+
+    private static String line(String time, int inGame, Window window, Sample from, Sample to, Sample idle) {
+        double seconds = (to.time - from.time) / 1e9;
+        double games = Math.max(1, (from.games + to.games) / 2.0);
+        double cpu = (to.cpuNanos - from.cpuNanos) / 1e6 / seconds; // ms of CPU per second
+        long live = to.liveBytes > 0 ? to.liveBytes : to.heapBytes;
+        long baseline = idle.liveBytes > 0 ? idle.liveBytes : idle.heapBytes;
+        return String.format(Locale.ROOT, "%6s %8d %6d %9.1f %8.1f %8.1f %7d %8d %7.1f %11.2f %8.1f %12.1f", time, inGame, to.games,
+                window.commands.sum() / seconds, window.percentile(0.5), window.percentile(0.99), window.errors.sum(), window.timeouts.sum(),
+                cpu / 10, cpu / games, to.heapBytes / 1048576.0, Math.max(0, live - baseline) / games / 1024);
+    }
+
+    /**
+     * Commands of the bots and games played, for the whole run and for the current interval.
+     */
+    static final class Stats {
+
+        private final Window total = new Window();
+        private volatile Window window = new Window();
+        private final Set<String> finished = ConcurrentHashMap.newKeySet();
+        private final LongAdder abandoned = new LongAdder();
+        private final Map<String, LongAdder> cards = new ConcurrentHashMap<>();
+
+        /**
+         * @param nanos    time from the command to the events answering it
+         * @param rejected true if the server answered with an error
+         */
+        void command(long nanos, boolean rejected) {
+            total.record(nanos, rejected);
+            window.record(nanos, rejected);
+        }
+
+        void timeout() {
+            total.timeouts.increment();
+            window.timeouts.increment();
+        }
+
+        void gameFinished(String lobby) {
+            finished.add(lobby);
+        }
+
+        void gameAbandoned() {
+            abandoned.increment();
+        }
+
+        void cardDrawn(String type) {
+            cards.computeIfAbsent(type, _ -> new LongAdder()).increment();
+        }
+
+        /**
+         * @return the interval just ended, a new one is started
+         */
+        private Window swap() {
+            Window ended = window;
+            window = new Window();
+            return ended;
+        }
+
+    }
+
+    /**
+     * Commands answered in a period of time, with a histogram of their latencies.
+     */
+    private static final class Window {
+
+        private final LongAdder commands = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final AtomicLongArray histogram = new AtomicLongArray(MAX_MICROS / BUCKET_MICROS + 1);
+
+        void record(long nanos, boolean rejected) {
+            commands.increment();
+            if (rejected) errors.increment();
+            histogram.incrementAndGet((int) Math.min(histogram.length() - 1, nanos / 1000 / BUCKET_MICROS));
+        }
+
+        /**
+         * @return the latency under which the given fraction of the commands has been answered, in milliseconds
+         */
+        double percentile(double p) {
+            long total = commands.sum();
+            long seen = 0;
+            for (int i = 0; i < histogram.length() && total > 0; i++) {
+                seen += histogram.get(i);
+                if (seen >= Math.ceil(total * p))
+                    return (i + 1) * BUCKET_MICROS / 1000.0;
+            }
+            return 0;
+        }
+
+    }
+
+    /**
+     * State of the server at a point in time.
+     *
+     * @param time       {@link System#nanoTime()} of the sample
+     * @param cpuNanos   CPU time used by the server process
+     * @param games      games in progress
+     * @param heapBytes  used heap
+     * @param liveBytes  used heap after the last collection, 0 before the first one
+     */
+    private record Sample(long time, long cpuNanos, int games, long heapBytes, long liveBytes) {
+
+        static Sample take(Process server, int metricsPort) throws IOException {
+            long cpu = server.toHandle().info().totalCpuDuration().map(Duration::toNanos).orElse(0L);
+            Map<String, Long> gauges = metrics(metricsPort);
+            return new Sample(System.nanoTime(), cpu, gauges.getOrDefault("active_games", 0L).intValue(),
+                    gauges.getOrDefault("heap_used_bytes", 0L), gauges.getOrDefault("heap_live_bytes", 0L));
+        }
+
+        /**
+         * @return the gauges of the server, the lines of the metrics made of a name and a value
+         */
+        static Map<String, Long> metrics(int port) throws IOException {
+            Map<String, Long> gauges = new HashMap<>();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    URI.create("http://" + HOST + ":" + port + "/metrics").toURL().openStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] parts = line.split(" ");
+                    if (parts.length == 2 && parts[1].matches("-?\\d+"))
+                        gauges.put(parts[0], Long.parseLong(parts[1]));
+                }
+            }
+            return gauges;
+        }
+
+    }
+
+}
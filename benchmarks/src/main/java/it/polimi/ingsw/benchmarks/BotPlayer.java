@@ -0,0 +1,511 @@
+package it.polimi.ingsw.benchmarks;
+
+import it.polimi.ingsw.client.controller.ClientGameController;
+import it.polimi.ingsw.client.model.ClientGameModel;
+import it.polimi.ingsw.client.model.cards.*;
+import it.polimi.ingsw.client.model.cards.utils.ClientCountablePenaltyZone;
+import it.polimi.ingsw.client.model.components.*;
+import it.polimi.ingsw.client.model.player.ClientShip;
+import it.polimi.ingsw.common.model.enums.AlienType;
+import it.polimi.ingsw.common.model.enums.ColorType;
+import it.polimi.ingsw.common.model.enums.PlayerState;
+import it.polimi.ingsw.common.model.events.Event;
+import it.polimi.ingsw.common.model.PlacementHints;
+import it.polimi.ingsw.network.Client;
+import it.polimi.ingsw.network.UserState;
+import it.polimi.ingsw.network.messages.MessageType;
+import it.polimi.ingsw.network.rmi.RMIClient;
+import it.polimi.ingsw.network.socket.client.ClientSocket;
+import it.polimi.ingsw.view.UserInterface;
+
+import java.util.*;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scripted player of the {@link BotLoadGenerator}: a {@link ClientSocket} or an {@link RMIClient} without a view,
+ * driven by a thread that reads the client model and sends the next command of the player.
+ * <p>
+ * The bots of a group play a game after the other in the lobbies created by the first one. In the building phase a bot picks
+ * random components and inserts them where the {@link ClientShip#getPlacementHints placement hints} allow, so its ship is legal,
+ * then it gets ready. In flight it answers every state of every card: it activates its double cannons and engines while it
+ * has batteries, loads the rewards that fit, pays the penalties with the goods, batteries and crew asked by the card and chooses
+ * the planets and the yes/no questions randomly. A command rejected by the server is retried with the safe choice (e.g. no
+ * batteries), a bot that is still rejected leaves the game.
+ * <p>
+ * A command is completed by the first batch of events, or error, that changes what the bot sees of its own player:
+ * the time from the command to that batch is its latency.
+ */
+final class BotPlayer implements Runnable, UserInterface {
+
+    /**
+     * Time after which a command without an answer is counted as timed out
+     */
+    private static final long REPLY_TIMEOUT = TimeUnit.SECONDS.toNanos(10);
+
+    /**
+     * Time between two checks of the client model without events, in milliseconds
+     */
+    private static final int POLL_INTERVAL = 100;
+
+    /**
+     * Time before joining again a lobby that isn't open yet, in milliseconds
+     */
+    private static final int RETRY_DELAY = 100;
+
+    /**
+     * Commands rejected in a row in the same situation before leaving the game
+     */
+    private static final int MAX_REJECTED = 3;
+
+    /**
+     * Components picked in the building phase, for each component to insert
+     */
+    private static final int PICKS_PER_TILE = 4;
+
+    /**
+     * Cell of the starting cabin, which is never removed
+     */
+    private static final int STARTING_ROW = 2, STARTING_COL = 3;
+
+    /**
+     * What the bot sees of its own player, a command is completed when it changes
+     *
+     * @param state  state of the client
+     * @param player state of the player in the game, null outside a game
+     * @param hand   id of the component in hand, 0 if there's none
+     * @param tiles  components of the ship
+     * @param cards  cards drawn
+     * @param card   identity of the current card, which is replaced at every update
+     */
+    private record View(UserState state, PlayerState player, int hand, int tiles, int cards, int card) {}
+
+    /**
+     * Command to send
+     */
+    private record Command(MessageType type, Object... args) {}
+
+    private final BotLoadGenerator.Stats stats;
+    private final String username;
+    private final String group;
+    private final boolean creator;
+    private final int players;
+    private final boolean learner;
+    private final int tiles;
+    private final int thinkTime;
+    private final boolean socket;
+    private final String host;
+
+    /**
+     * Released by the client at the end of each batch of events, at each change of its state and at each error
+     */
+    private final Semaphore signals = new Semaphore(0);
+
+    private volatile boolean rejected;
+    private volatile boolean stopped;
+    private volatile Client client;
+
+    /**
+     * Number of the game of the group the bot is playing or joining
+     */
+    private int round;
+
+    /**
+     * Command waiting for its answer, null if there's none
+     */
+    private Command pending;
+    private long sentAt;
+    private View sentView;
+    private boolean measured;
+
+    /**
+     * Commands rejected in a row since the view last changed
+     */
+    private int rejections;
+    private View lastView;
+    private int picks;
+
+    BotPlayer(BotLoadGenerator.Stats stats, String username, String group, boolean creator, int players, boolean learner,
+              int tiles, int thinkTime, boolean socket, String host) {
+        this.stats = stats;
+        this.username = username;
+        this.group = group;
+        this.creator = creator;
+        this.players = players;
+        this.learner = learner;
+        this.tiles = tiles;
+        this.thinkTime = thinkTime;
+        this.socket = socket;
+        this.host = host;
+    }
+
+    /**
+     * @return true if the bot is playing a game
+     */
+    boolean isInGame() {
+        Client client = this.client;
+        return client != null && client.getState() == UserState.IN_GAME;
+    }
+
+    /**
+     * Stops the bot, which closes its connection.
+     */
+    void stop() {
+        stopped = true;
+        signals.release();
+    }
+
+    @Override
+    public void run() {
+        client = socket ? new ClientSocket(this, host) {
+            @Override
+            public void setState(UserState state) {
+                super.setState(state);
+                signals.release();
+            }
+
+            @Override
+            public void setLastSequence(long lastSequence) {
+                super.setLastSequence(lastSequence);
+                signals.release();
+            }
+
+            @Override
+            public void receiveError(String message) {
+                BotPlayer.this.displayError(message);
+            }
+        } : new RMIClient(this, host) {
+            @Override
+            public void setState(UserState state) {
+                super.setState(state);
+                signals.release();
+            }
+
+            @Override
+            public void setLastSequence(long lastSequence) {
+                super.setLastSequence(lastSequence);
+                signals.release();
+            }
+
+            @Override
+            public void receiveError(String message) {
+                BotPlayer.this.displayError(message);
+            }
+        };
+
+        try {
+            while (!stopped) {
+                boolean signalled = signals.tryAcquire(POLL_INTERVAL, TimeUnit.MILLISECONDS);
+                signals.drainPermits();
+                if (stopped) break;
+
+                try {
+                    if (pending != null && !answered(signalled)) continue;
+
+                    View view = view();
+                    if (!view.equals(lastView)) rejections = 0;
+                    lastView = view;
+
+                    if (decide() == null) continue;
+                    if (thinkTime > 0) Thread.sleep(ThreadLocalRandom.current().nextInt(2 * thinkTime + 1));
+                    Command command = decide(); // The game may have gone on while thinking
+                    if (command != null) send(command);
+                } catch (RuntimeException e) {
+                    // The model has changed while it was read, look at it again at the next signal
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            client.closeConnection();
+        }
+    }
+
+    /**
+     * Checks if the pending command has been answered, recording its latency.
+     *
+     * @param signalled true if the client has received something since the last check
+     * @return true if the bot can send another command
+     */
+    private boolean answered(boolean signalled) throws InterruptedException {
+        long elapsed = System.nanoTime() - sentAt;
+        boolean failed = rejected;
+        if (!failed && !(signalled && !view().equals(sentView))) {
+            if (elapsed < REPLY_TIMEOUT) return false;
+            stats.timeout();
+            failed = true;
+        }
+        else if (measured)
+            stats.command(elapsed, failed);
+
+        if (failed) {
+            rejections++;
+            if (!measured) Thread.sleep(RETRY_DELAY); // The lobby may not be open yet
+        }
+        else if (pending.type() == MessageType.DRAW_CARD)
+            drawn();
+
+        rejected = false;
+        pending = null;
+        return true;
+    }
+
+    private void send(Command command) {
+        switch (command.type()) {
+            case CREATE_LOBBY, JOIN_LOBBY -> picks = 0;
+            case PICK_COMPONENT -> picks++;
+            case LEAVE_GAME -> {
+                if (game() != null && game().getModel().getPlayerState(username) == PlayerState.END) stats.gameFinished(lobby());
+                else stats.gameAbandoned();
+                round++;
+            }
+            default -> {}
+        }
+
+        pending = command;
+        sentView = view();
+        measured = client.getState() == UserState.IN_GAME;
+        rejected = false;
+        sentAt = System.nanoTime();
+        client.send(command.type(), command.args());
+    }
+
+    private View view() {
+        ClientGameController game = game();
+        if (game == null) return new View(client.getState(), null, 0, 0, 0, 0);
+
+        ClientGameModel model = game.getModel();
+        ClientShip ship = model.getBoard().getPlayerEntityByUsername(username).getShip();
+        List<ClientCard> cards = model.getBoard().getCardPile();
+        return new View(client.getState(), model.getPlayerState(username), ship.getComponentInHand().map(ClientComponent::getId).orElse(0),
+                tiles(ship).size(), cards.size(), cards.isEmpty() ? 0 : System.identityHashCode(cards.getLast()));
+    }
+
+    private ClientGameController game() {
+        return client.getState() == UserState.IN_GAME && client.getLobby() != null ? client.getLobby().getGame() : null;
+    }
+
+    private String lobby() {
+        return group + "-" + round;
+    }
+
+    private Command decide() {
+        return switch (client.getState()) {
+            case USERNAME -> new Command(MessageType.SET_USERNAME, username);
+            case LOBBY_SELECTION -> creator ? new Command(MessageType.CREATE_LOBBY, lobby(), players, learner) : new Command(MessageType.JOIN_LOBBY, lobby());
+            case IN_LOBBY -> null;
+            case IN_GAME -> play();
+        };
+    }
+
+    private Command play() {
+        ClientGameController game = game();
+        if (game == null) return null; // Match started, the model is being created
+        ClientGameModel model = game.getModel();
+        PlayerState state = model.getPlayerState(username);
+        if (state == null) return null;
+
+        if (state == PlayerState.END || (rejections >= MAX_REJECTED && state != PlayerState.BUILD))
+            return new Command(MessageType.LEAVE_GAME);
+
+        ClientShip ship = model.getBoard().getPlayerEntityByUsername(username).getShip();
+        List<ClientCard> cards = model.getBoard().getCardPile();
+        ClientCard card = cards.isEmpty() ? null : cards.getLast();
+        boolean safe = rejections > 0;
+
+        return switch (state) {
+            case BUILD -> build(model, ship);
+            case LOOK_CARD_PILE -> new Command(MessageType.SET_READY);
+            case CHECK -> new Command(MessageType.CHECK_SHIP, removable(ship));
+            case WAIT_ALIEN -> new Command(MessageType.CHOOSE_ALIEN, new HashMap<Integer, AlienType>());
+            case WAIT_SHIP_PART -> new Command(MessageType.CHOOSE_SHIP_PART, safe ? 0 : largestPart(ship));
+            case DRAW_CARD -> new Command(MessageType.DRAW_CARD);
+            case WAIT_CANNONS -> safe || card instanceof ClientMeteorSwarmCard
+                    ? new Command(MessageType.ACTIVATE_CANNONS, new ArrayList<Integer>(), new ArrayList<Integer>())
+                    : activate(MessageType.ACTIVATE_CANNONS, ship, ClientCannonComponent.class);
+            case WAIT_ENGINES -> safe
+                    ? new Command(MessageType.ACTIVATE_ENGINES, new ArrayList<Integer>(), new ArrayList<Integer>())
+                    : activate(MessageType.ACTIVATE_ENGINES, ship, ClientEngineComponent.class);
+            case WAIT_SHIELD -> new Command(MessageType.ACTIVATE_SHIELD, safe ? null : battery(ship));
+            case WAIT_GOODS -> new Command(MessageType.UPDATE_GOODS, load(ship, safe || card == null ? List.of() : card.getReward(username)), new ArrayList<Integer>());
+            case WAIT_REMOVE_GOODS -> removeGoods(ship, penalty(card));
+            case WAIT_REMOVE_CREW -> new Command(MessageType.REMOVE_CREW, removeCrew(ship, penalty(card)));
+            case WAIT_ROLL_DICES -> new Command(MessageType.ROLL_DICES);
+            case WAIT_BOOLEAN -> new Command(MessageType.GET_BOOLEAN, !safe && ThreadLocalRandom.current().nextBoolean());
+            case WAIT_INDEX -> new Command(MessageType.GET_INDEX, safe || !(card instanceof ClientPlanetCard planets) ? null
+                    : ThreadLocalRandom.current().nextInt(planets.getPlanets().size()));
+            case WAIT, DONE, END -> null;
+        };
+    }
+
+    /**
+     * Inserts the component in hand where it fits best, or picks a random one, until the ship has the given components.
+     */
+    private Command build(ClientGameModel model, ClientShip ship) {
+        int placed = tiles(ship).size() - 1;
+        Optional<ClientComponent> hand = ship.getComponentInHand();
+        if (hand.isPresent()) {
+            List<PlacementHints.Placement> placements = placed < tiles ? ship.getPlacementHints(hand.get()) : List.of();
+            if (placements.isEmpty()) return new Command(MessageType.RELEASE_COMPONENT, hand.get().getId());
+
+            PlacementHints.Placement placement = placements.getFirst();
+            return new Command(MessageType.INSERT_COMPONENT, hand.get().getId(), placement.row(), placement.col(), placement.rotations());
+        }
+
+        List<ClientComponent> pool = new ArrayList<>(model.getBoard().getCommonComponents());
+        if (placed >= tiles || picks >= tiles * PICKS_PER_TILE || pool.isEmpty() || rejections >= MAX_REJECTED)
+            return new Command(MessageType.SET_READY);
+
+        return new Command(MessageType.PICK_COMPONENT, pool.get(ThreadLocalRandom.current().nextInt(pool.size())).getId());
+    }
+
+    /**
+     * Records the type of the card drawn.
+     */
+    private void drawn() {
+        ClientGameController game = game();
+        if (game == null) return;
+        List<ClientCard> cards = game.getModel().getBoard().getCardPile();
+        if (!cards.isEmpty())
+            stats.cardDrawn(cards.getLast().getClass().getSimpleName().replace("Client", "").replace("Card", ""));
+    }
+
+    private static List<ClientComponent> tiles(ClientShip ship) {
+        List<ClientComponent> tiles = new ArrayList<>();
+        for (Optional<ClientComponent>[] row : ship.getDashboard())
+            for (Optional<ClientComponent> cell : row)
+                cell.ifPresent(tiles::add);
+        return tiles;
+    }
+
+    private static <T extends ClientComponent> List<T> tiles(ClientShip ship, Class<T> type) {
+        return tiles(ship).stream().filter(type::isInstance).map(type::cast).toList();
+    }
+
+    /**
+     * @return every component but the starting cabin, removing them always fixes the ship
+     */
+    private static ArrayList<Integer> removable(ClientShip ship) {
+        ArrayList<Integer> ids = new ArrayList<>();
+        for (ClientComponent tile : tiles(ship))
+            if (tile.getY() != STARTING_ROW || tile.getX() != STARTING_COL) ids.add(tile.getId());
+        return ids;
+    }
+
+    private static int largestPart(ClientShip ship) {
+        List<List<ClientComponent>> parts = ship.getBrokenParts();
+        int largest = 0;
+        for (int i = 1; i < parts.size(); i++)
+            if (parts.get(i).size() > parts.get(largest).size()) largest = i;
+        return largest;
+    }
+
+    /**
+     * @return a command activating the double cannons or engines, one for each battery left
+     */
+    private static Command activate(MessageType type, ClientShip ship, Class<? extends ClientComponent> kind) {
+        ArrayList<Integer> batteries = batteries(ship, Integer.MAX_VALUE);
+        ArrayList<Integer> doubles = new ArrayList<>();
+        for (ClientComponent tile : tiles(ship, kind)) {
+            boolean isDouble = tile instanceof ClientCannonComponent cannon ? cannon.isDouble() : ((ClientEngineComponent) tile).isDouble();
+            if (isDouble && doubles.size() < batteries.size()) doubles.add(tile.getId());
+        }
+        return new Command(type, new ArrayList<>(batteries.subList(0, doubles.size())), doubles);
+    }
+
+    private static Integer battery(ClientShip ship) {
+        List<Integer> batteries = batteries(ship, 1);
+        return batteries.isEmpty() ? null : batteries.getFirst();
+    }
+
+    /**
+     * @return the batteries to use, a battery component is repeated for each battery used
+     */
+    private static ArrayList<Integer> batteries(ClientShip ship, int max) {
+        ArrayList<Integer> ids = new ArrayList<>();
+        for (ClientBatteryComponent battery : tiles(ship, ClientBatteryComponent.class))
+            for (int i = 0; i < battery.getBatteries() && ids.size() < max; i++)
+                ids.add(battery.getId());
+        return ids;
+    }
+
+    private static Map<Integer, List<ColorType>> goods(ClientShip ship) {
+        Map<Integer, List<ColorType>> goods = new HashMap<>();
+        for (ClientSpecialCargoHoldsComponent hold : tiles(ship, ClientSpecialCargoHoldsComponent.class))
+            goods.put(hold.getId(), new ArrayList<>(hold.getGoods()));
+        return goods;
+    }
+
+    /**
+     * @return the goods of the ship with the rewards that fit, the most valuable first
+     */
+    private static Map<Integer, List<ColorType>> load(ClientShip ship, List<ColorType> rewards) {
+        Map<Integer, List<ColorType>> goods = goods(ship);
+        List<ColorType> sorted = new ArrayList<>(rewards);
+        Collections.sort(sorted);
+        for (ColorType reward : sorted)
+            for (ClientSpecialCargoHoldsComponent hold : tiles(ship, ClientSpecialCargoHoldsComponent.class)) {
+                List<ColorType> content = goods.get(hold.getId());
+                if (content.size() < hold.getNumber() && (reward != ColorType.RED || !(hold instanceof ClientCargoHoldsComponent))) {
+                    content.add(reward);
+                    break;
+                }
+            }
+        return goods;
+    }
+
+    /**
+     * @return a command removing the most valuable goods, then batteries when the goods aren't enough
+     */
+    private static Command removeGoods(ClientShip ship, int penalty) {
+        Map<Integer, List<ColorType>> goods = goods(ship);
+        for (ColorType color : ColorType.values())
+            for (List<ColorType> content : goods.values())
+                while (penalty > 0 && content.remove(color))
+                    penalty--;
+        return new Command(MessageType.UPDATE_GOODS, goods, batteries(ship, penalty));
+    }
+
+    /**
+     * @return the cabins to remove the crew from, a cabin is repeated for each crew member
+     */
+    private static ArrayList<Integer> removeCrew(ClientShip ship, int penalty) {
+        ArrayList<Integer> ids = new ArrayList<>();
+        for (ClientCabinComponent cabin : tiles(ship, ClientCabinComponent.class))
+            for (int i = 0; i < (cabin.getAlien() != null ? 1 : cabin.getHumans()) && ids.size() < penalty; i++)
+                ids.add(cabin.getId());
+        return ids;
+    }
+
+    /**
+     * @return goods or crew members asked by the card
+     */
+    private static int penalty(ClientCard card) {
+        return switch (card) {
+            case ClientAbandonedShipCard abandonedShip -> abandonedShip.getCrew();
+            case ClientSlaversCard slavers -> slavers.getCrew();
+            case ClientSmugglersCard smugglers -> smugglers.getPenalty();
+            case ClientCombatZoneCard combatZone when combatZone.getWarLines().get(combatZone.getWarLineIndex()).getPenalty()
+                    instanceof ClientCountablePenaltyZone zone -> zone.getPenaltyNumber();
+            case null, default -> 1;
+        };
+    }
+
+    @Override
+    public void displayError(String message) {
+        rejected = true;
+        signals.release();
+    }
+
+    @Override
+    public void start(int networkType, String ip) {
+        // The bot is started by the load generator
+    }
+
+    @Override
+    public void onEvent(List<Event> events) {
+        // The bot reads the client model, it isn't subscribed to the events
+    }
+
+}
@@ -0,0 +1,70 @@
+package it.polimi.ingsw.benchmarks;
+
+import it.polimi.ingsw.Constants;
+import it.polimi.ingsw.common.model.enums.PlayerState;
+import it.polimi.ingsw.common.model.events.Event;
+import it.polimi.ingsw.common.model.events.game.PlayersStateUpdatedEvent;
+import it.polimi.ingsw.model.events.CardRevealedEvent;
+import it.polimi.ingsw.model.game.BoardAdvancedMode;
+import it.polimi.ingsw.network.EncodedEvent;
+import it.polimi.ingsw.network.socket.codec.WireFormat;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of preparing the frames of a broadcast for every socket recipient of a lobby:
+ * the previous fan-out built and encoded a message for each recipient, {@link EncodedEvent} encodes it once
+ * and hands a view of the shared frame to each recipient.
+ * Events are a card reveal (JSON payload) and a players state update (map of enums).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BroadcastBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int lobbySize;
+
+    @Param({"JAVA", "BINARY"})
+    public WireFormat format;
+
+    @Param({"card", "states"})
+    public String event;
+
+    private Event toSend;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> players = List.of("alice", "bob", "carol", "dave");
+        if (event.equals("card"))
+            toSend = new CardRevealedEvent(new BoardAdvancedMode(players, 1).getCardPile().getFirst());
+        else {
+            Map<String, PlayerState> states = new HashMap<>();
+            players.forEach(player -> states.put(player, PlayerState.WAIT_CANNONS));
+            toSend = new PlayersStateUpdatedEvent(states);
+        }
+    }
+
+    @Benchmark
+    public void encodePerRecipient(Blackhole blackhole) throws IOException {
+        for (int i = 0; i < lobbySize; i++)
+            blackhole.consume(format.encodeFrame(Constants.createMessage(toSend.eventType(), toSend.getArgs())));
+    }
+
+    @Benchmark
+    public void encodeOnce(Blackhole blackhole) throws IOException {
+        EncodedEvent encoded = new EncodedEvent(toSend);
+        for (int i = 0; i < lobbySize; i++)
+            blackhole.consume(encoded.getFrame(format));
+    }
+
+}
@@ -0,0 +1,80 @@
+package it.polimi.ingsw.benchmarks;
+
+import it.polimi.ingsw.controller.GameController;
+import it.polimi.ingsw.model.components.Component;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Throughput of the tile moves of the building phase with every player of a 4-player game building at once.
+ * Each benchmark thread is a player picking and releasing the tiles of its own slice of the common pool:
+ * the moves of different players don't share a lock, so the score should scale with the number of threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BuildingPhaseBenchmark {
+
+    private static final List<String> PLAYERS = List.of("alice", "bob", "carol", "dave");
+
+    private final AtomicInteger threads = new AtomicInteger();
+    private GameController controller;
+    private List<Integer> pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        controller = new GameController(PLAYERS, false);
+        controller.startMatch();
+        pool = controller.getModel().getBoard().getCommonComponents().stream().map(Component::getId).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        controller.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Player {
+
+        private String username;
+        private List<Integer> tiles;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void setUp(BuildingPhaseBenchmark benchmark) {
+            int id = benchmark.threads.getAndIncrement() % PLAYERS.size();
+            int slice = benchmark.pool.size() / PLAYERS.size();
+            username = PLAYERS.get(id);
+            tiles = benchmark.pool.subList(id * slice, (id + 1) * slice);
+        }
+
+        int nextTile() {
+            int tile = tiles.get(next);
+            next = (next + 1) % tiles.size();
+            return tile;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object pickAndReleaseAlone(Player player) {
+        int tile = player.nextTile();
+        controller.pickComponent(player.username, tile);
+        return controller.releaseComponent(player.username, tile);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object pickAndReleaseTogether(Player player) {
+        int tile = player.nextTile();
+        controller.pickComponent(player.username, tile);
+        return controller.releaseComponent(player.username, tile);
+    }
+
+}
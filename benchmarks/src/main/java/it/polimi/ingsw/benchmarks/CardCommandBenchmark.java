@@ -0,0 +1,112 @@
+package it.polimi.ingsw.benchmarks;
+
+import it.polimi.ingsw.common.model.enums.ColorType;
+import it.polimi.ingsw.common.model.enums.PlayerState;
+import it.polimi.ingsw.model.ModelFacade;
+import it.polimi.ingsw.model.cards.Card;
+import it.polimi.ingsw.model.cards.commands.CannonCommand;
+import it.polimi.ingsw.model.cards.commands.EngineCommand;
+import it.polimi.ingsw.model.cards.commands.GoodCommand;
+import it.polimi.ingsw.model.components.BatteryComponent;
+import it.polimi.ingsw.model.components.SpecialCargoHoldsComponent;
+import it.polimi.ingsw.model.game.Board;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the commands sent by the players while a card is active, on the ship of the first player of scenario 1:
+ * validation of the components, power or goods computed on the ship, and the update of the ship.
+ * <ul>
+ *     <li>{@code cannons}: {@link CannonCommand} with the single cannons only</li>
+ *     <li>{@code engines}: {@link EngineCommand} with the single engines only</li>
+ *     <li>{@code goods}: {@link GoodCommand} filling every cargo hold with blue goods, unloading the previous ones</li>
+ * </ul>
+ * A command is created for each request, as done by the model. The card is a stub accepting every command,
+ * so only the command is measured. No double cannon or engine is activated, as the batteries it uses
+ * would run out during the benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardCommandBenchmark {
+
+    private static final String PLAYER = Scenarios.PLAYERS.getFirst();
+
+    private ModelFacade model;
+    private Board board;
+    private Card card;
+    private Map<SpecialCargoHoldsComponent, List<ColorType>> disposition;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        model = Scenarios.flying(1);
+        board = model.getBoard();
+        card = new AcceptingCard();
+
+        disposition = new HashMap<>();
+        for (SpecialCargoHoldsComponent hold : board.getPlayerEntityByUsername(PLAYER).getShip().getComponentByType(SpecialCargoHoldsComponent.class))
+            disposition.put(hold, Collections.nCopies(hold.getNumber(), ColorType.BLUE));
+    }
+
+    @Benchmark
+    public boolean cannons() {
+        return new CannonCommand(model, board, PLAYER, List.of(), List.of()).execute(card);
+    }
+
+    @Benchmark
+    public boolean engines() {
+        return new EngineCommand(model, board, PLAYER, List.of(), List.of()).execute(card);
+    }
+
+    @Benchmark
+    public boolean goods() {
+        return new GoodCommand(model, board, PLAYER, disposition, List.of()).execute(card);
+    }
+
+    /**
+     * Card accepting every command without changing the game.
+     */
+    private static class AcceptingCard extends Card {
+
+        AcceptingCard() {
+            super(0, 2, false);
+        }
+
+        @Override
+        public boolean startCard(ModelFacade model, Board board) {
+            return false;
+        }
+
+        @Override
+        public void doSpecificCheck(PlayerState commandType, Map<ColorType, Integer> rewards, Map<ColorType, Integer> deltaGood, List<BatteryComponent> batteries, String username, Board board) {
+        }
+
+        @Override
+        public void doSpecificCheck(PlayerState commandType, int number, Map<ColorType, Integer> deltaGood, List<BatteryComponent> batteries, String username, Board board) {
+        }
+
+        @Override
+        public boolean doCommandEffects(PlayerState commandType, Integer value, ModelFacade model, Board board, String username) {
+            return false;
+        }
+
+        @Override
+        public boolean doCommandEffects(PlayerState commandType, Double value, ModelFacade model, Board board, String username) {
+            return false;
+        }
+
+        @Override
+        public boolean doCommandEffects(PlayerState commandType, ModelFacade model, Board board, String username) {
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+package it.polimi.ingsw.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import it.polimi.ingsw.model.cards.Card;
+import it.polimi.ingsw.model.factory.CardFactory;
+import it.polimi.ingsw.model.game.BoardAdvancedMode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the versioned JSON cache of {@link CardFactory} with running Jackson at each serialization.
+ * <ul>
+ *     <li>*Card: one card, as sent by every CardUpdatedEvent</li>
+ *     <li>*CardPile: the 12 cards of an advanced match, as sent by Board.toDto at the end of the flight</li>
+ * </ul>
+ * The cards never change during the benchmark, so the cached variants measure the hit path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardSerializationBenchmark {
+
+    private final ObjectMapper mapper = new ObjectMapper().registerModule(new Jdk8Module()); // Same configuration of CardFactory
+
+    private JavaType listType;
+
+    private List<Card> cardPile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        cardPile = List.copyOf(new BoardAdvancedMode(List.of("alice", "bob", "carol", "dave"), 1).getCardPile());
+        listType = mapper.getTypeFactory().constructCollectionType(List.class, Card.class);
+        if (!CardFactory.serializeCardList(cardPile).equals(jacksonCardPile()))
+            throw new IllegalStateException("Cached JSON differs from Jackson");
+    }
+
+    @Benchmark
+    public String jacksonCard() throws JsonProcessingException {
+        return mapper.writeValueAsString(cardPile.getFirst());
+    }
+
+    @Benchmark
+    public String cachedCard() {
+        return CardFactory.serializeCard(cardPile.getFirst());
+    }
+
+    @Benchmark
+    public String jacksonCardPile() throws JsonProcessingException {
+        return mapper.writerFor(listType).writeValueAsString(cardPile);
+    }
+
+    @Benchmark
+    public String cachedCardPile() {
+        return CardFactory.serializeCardList(cardPile);
+    }
+
+}
@@ -0,0 +1,75 @@
+package it.polimi.ingsw.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import it.polimi.ingsw.model.factory.Catalog;
+import it.polimi.ingsw.model.game.BoardAdvancedMode;
+import it.polimi.ingsw.model.game.BoardLearnerMode;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of creating the tiles and the cards of a match with the parse-once {@link Catalog}.
+ * <ul>
+ *     <li>coldCatalog: building the catalog in a new JVM, paid once at server start-up (single shot, one per fork,
+ *     don't override its warmup from the command line)</li>
+ *     <li>newBoard*: creating the board of a match, which clones the prototypes</li>
+ *     <li>parseFactoryJson: reading factory.json with a new ObjectMapper, done twice per match before the catalog
+ *     (by ComponentFactory and CardFactory) on top of building the instances from the JSON tree</li>
+ * </ul>
+ * Run with {@code -prof gc} to compare the garbage of each operation (gc.alloc.rate.norm).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatalogBenchmark {
+
+    private static final List<String> PLAYERS = List.of("alice", "bob", "carol", "dave");
+
+    /**
+     * Builds the catalog before the measurements of a match creation
+     */
+    @State(Scope.Benchmark)
+    public static class Warm {
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Catalog.getInstance();
+        }
+
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(5)
+    public Catalog coldCatalog() {
+        return Catalog.getInstance(); // No state is used, so this is the first call of the fork
+    }
+
+    @Benchmark
+    public BoardAdvancedMode newBoardAdvancedMode(Warm warm) {
+        return new BoardAdvancedMode(PLAYERS, 1);
+    }
+
+    @Benchmark
+    public BoardLearnerMode newBoardLearnerMode(Warm warm) {
+        return new BoardLearnerMode(PLAYERS, 1);
+    }
+
+    @Benchmark
+    public void parseFactoryJson(Blackhole blackhole) throws IOException {
+        try (InputStream configStream = Catalog.class.getResourceAsStream("/factory.json")) {
+            blackhole.consume(new ObjectMapper().readTree(configStream));
+        }
+    }
+
+}
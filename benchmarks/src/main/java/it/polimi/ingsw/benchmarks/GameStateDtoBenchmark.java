@@ -0,0 +1,37 @@
+package it.polimi.ingsw.benchmarks;
+
+import it.polimi.ingsw.common.dto.GameStateDTOFactory;
+import it.polimi.ingsw.common.dto.ModelDTO;
+import it.polimi.ingsw.model.ModelFacade;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link GameStateDTOFactory#createFromModel}, the whole state of a game sent to a player who rejoins it,
+ * for the games of the {@link Scenarios} at the start of the flight.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameStateDtoBenchmark {
+
+    @Param({"1", "2"})
+    public int scenario;
+
+    private ModelFacade model;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        model = Scenarios.flying(scenario);
+    }
+
+    @Benchmark
+    public ModelDTO createFromModel() {
+        return GameStateDTOFactory.createFromModel(model);
+    }
+
+}
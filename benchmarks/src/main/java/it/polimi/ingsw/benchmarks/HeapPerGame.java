@@ -0,0 +1,52 @@
+package it.polimi.ingsw.benchmarks;
+
+import it.polimi.ingsw.controller.GameController;
+import it.polimi.ingsw.model.factory.Catalog;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the retained heap of a game: starts many 4-player games in the building phase, keeps them alive
+ * and divides the growth of the used heap (after a full GC) by the number of games.
+ * The catalog is built before the first measurement, so the shared tiles and prototypes are not counted.
+ * <p>
+ * Usage: {@code java -cp benchmarks.jar it.polimi.ingsw.benchmarks.HeapPerGame [games] [learner]}, default 2000 false.
+ */
+public class HeapPerGame {
+
+    private static final List<String> PLAYERS = List.of("alice", "bob", "carol", "dave");
+
+    public static void main(String[] args) throws InterruptedException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        boolean learner = args.length > 1 && Boolean.parseBoolean(args[1]);
+
+        Catalog.getInstance();
+        new GameController(PLAYERS, learner).close(); // Loads the classes used by a game
+
+        long before = usedHeap();
+        List<GameController> controllers = new ArrayList<>(games);
+        for (int i = 0; i < games; i++) {
+            GameController controller = new GameController(PLAYERS, learner);
+            controller.startMatch();
+            controllers.add(controller);
+        }
+        long after = usedHeap();
+
+        System.out.printf("%d %s games: %.1f KB per game%n", games, learner ? "learner" : "advanced",
+                (after - before) / (double) games / 1024);
+        controllers.forEach(GameController::close);
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+}
@@ -0,0 +1,123 @@
+package it.polimi.ingsw.benchmarks;
+
+import it.polimi.ingsw.controller.GameController;
+import it.polimi.ingsw.controller.journal.GameJournal;
+import it.polimi.ingsw.controller.journal.JournalStore;
+import it.polimi.ingsw.model.components.Component;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Cost of the game journals.
+ * <ul>
+ *     <li>{@code pickAndRelease}: two building commands, with and without a journal, each one waiting for its records to be forced</li>
+ *     <li>{@code recover1000Games}: reading, compacting and replaying the journals of 1,000 games of {@value #COMMANDS} commands each</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JournalBenchmark {
+
+    private static final List<String> PLAYERS = List.of("alice", "bob", "carol", "dave");
+    private static final int GAMES = 1000;
+    private static final int COMMANDS = 100;
+
+    @Param({"false", "true"})
+    public boolean journaled;
+
+    private Path directory;
+    private JournalStore store;
+    private GameController controller;
+    private List<Integer> pool;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        controller = new GameController(PLAYERS, false);
+        if (journaled) {
+            directory = Files.createTempDirectory("journal-benchmark");
+            store = new JournalStore(directory);
+            controller.attachJournal(store.create("benchmark", PLAYERS.size(), false, PLAYERS, controller.getSeed()));
+        }
+        controller.startMatch();
+        pool = controller.getModel().getBoard().getCommonComponents().stream().map(Component::getId).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        controller.close();
+        if (journaled) {
+            store.shutdown();
+            deleteDirectory(directory);
+        }
+    }
+
+    @Benchmark
+    public Object pickAndRelease() {
+        int tile = pool.get(next);
+        next = (next + 1) % pool.size();
+        controller.pickComponent("alice", tile);
+        return controller.releaseComponent("alice", tile);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Journals {
+
+        private Path directory;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("journal-recovery");
+            JournalStore store = new JournalStore(directory);
+            for (int game = 0; game < GAMES; game++) {
+                GameController controller = new GameController(PLAYERS, false, game);
+                controller.attachJournal(store.create("game" + game, PLAYERS.size(), false, PLAYERS, controller.getSeed()));
+                controller.startMatch();
+                List<Integer> pool = controller.getModel().getBoard().getCommonComponents().stream().map(Component::getId).toList();
+                for (int command = 0; command < COMMANDS / 2; command++) {
+                    String username = PLAYERS.get(command % PLAYERS.size());
+                    int tile = pool.get(command);
+                    controller.pickComponent(username, tile);
+                    controller.releaseComponent(username, tile);
+                }
+            }
+            store.shutdown();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            deleteDirectory(directory);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int recover1000Games(Journals journals) {
+        JournalStore store = new JournalStore(journals.directory);
+        int players = 0;
+        for (GameJournal journal : store.recover())
+            players += journal.replay(_ -> {}).players().size();
+        store.shutdown();
+        return players;
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList())
+                Files.deleteIfExists(file);
+        }
+    }
+
+}
@@ -0,0 +1,260 @@
+package it.polimi.ingsw.benchmarks;
+
+import it.polimi.ingsw.Constants;
+import it.polimi.ingsw.network.RequestDispatcher;
+import it.polimi.ingsw.network.messages.Message;
+import it.polimi.ingsw.network.messages.MessageType;
+import it.polimi.ingsw.network.socket.Heartbeat;
+import it.polimi.ingsw.network.socket.codec.MessageStream;
+import it.polimi.ingsw.network.socket.codec.WireFormat;
+import it.polimi.ingsw.network.socket.server.SocketServer;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load test of the socket server with simulated players, comparing platform and virtual request threads.
+ * For each mode a server JVM is forked (with -D{@value RequestDispatcher#PROPERTY}=mode): for each step
+ * it runs the given number of players in the same JVM, grouped in learner games of 4, that pick and release random components
+ * with a think time between two requests. A step is sustained when every player reached its game and
+ * the 99th percentile of the round trips stays below the limit.
+ * <p>
+ * Usage: {@code java -cp benchmarks.jar it.polimi.ingsw.benchmarks.LoadTest [players...]}, default 200 1000 4000.
+ * Properties: loadtest.duration (seconds of each step, 15), loadtest.think (average ms between requests, 100),
+ * loadtest.p99 (latency limit in ms, 100), wire.format (format used by the players).
+ */
+public class LoadTest {
+
+    private static final int DURATION = Integer.getInteger("loadtest.duration", 15);
+    private static final int THINK_TIME = Integer.getInteger("loadtest.think", 100);
+    private static final int P99_LIMIT = Integer.getInteger("loadtest.p99", 100);
+    private static final int PLAYERS_PER_GAME = 4;
+    private static final int MAX_COMPONENT_ID = 140;
+    private static final int REPLY_TIMEOUT = 5000;
+
+    /**
+     * Width of a latency bucket, in microseconds
+     */
+    private static final int BUCKET_MICROS = 100;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--child")) {
+            runSteps(args);
+            return;
+        }
+
+        List<String> steps = args.length > 0 ? List.of(args) : List.of("200", "1000", "4000");
+        for (RequestDispatcher.Mode mode : RequestDispatcher.Mode.values()) {
+            System.out.println("== " + mode.name().toLowerCase() + " request threads ==");
+
+            List<String> command = new ArrayList<>(List.of(
+                    System.getProperty("java.home") + File.separator + "bin" + File.separator + "java",
+                    "-D" + RequestDispatcher.PROPERTY + "=" + mode.name().toLowerCase(),
+                    "-D" + WireFormat.PROPERTY + "=" + WireFormat.fromProperty().name().toLowerCase(),
+                    "-Dloadtest.duration=" + DURATION, "-Dloadtest.think=" + THINK_TIME, "-Dloadtest.p99=" + P99_LIMIT));
+            command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments().stream().filter(arg -> arg.startsWith("-X") || arg.equals("--enable-preview")).toList());
+            command.addAll(List.of("-cp", System.getProperty("java.class.path"), LoadTest.class.getName(), "--child"));
+            command.addAll(steps);
+
+            Process child = new ProcessBuilder(command).inheritIO().start();
+            child.waitFor();
+        }
+    }
+
+    /**
+     * Runs the server and the players of every step in this JVM, the server log is discarded.
+     */
+    private static void runSteps(String[] args) throws Exception {
+        PrintStream report = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+
+        int port;
+        try (ServerSocket probe = new ServerSocket(0)) {
+            port = probe.getLocalPort();
+        }
+        SocketServer.getInstance(port);
+        report.printf("%8s %9s %10s %9s %9s %9s %9s %8s%n", "players", "in game", "req/s", "p50 ms", "p99 ms", "max ms", "timeouts", "threads");
+
+        for (int step = 1; step < args.length; step++) {
+            Step result = new Step(Integer.parseInt(args[step]));
+            result.run(port, "s" + step);
+            report.println(result);
+        }
+
+        System.exit(0);
+    }
+
+    /**
+     * One load level: starts the players, measures them for {@link #DURATION} seconds and disconnects them.
+     */
+    private static class Step {
+
+        private final int players;
+        private final AtomicInteger inGame = new AtomicInteger();
+        private final AtomicLongArray histogram = new AtomicLongArray(REPLY_TIMEOUT * 1000 / BUCKET_MICROS + 1);
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private volatile boolean measuring;
+        private volatile boolean stopped;
+        private int threads;
+
+        Step(int players) {
+            this.players = players;
+        }
+
+        void run(int port, String prefix) throws InterruptedException {
+            List<Thread> bots = new ArrayList<>();
+            for (int i = 0; i < players; i++) {
+                Bot bot = new Bot(port, prefix + "-" + i, prefix + "-game-" + i / PLAYERS_PER_GAME, i % PLAYERS_PER_GAME == 0);
+                bots.add(Thread.ofVirtual().start(bot));
+            }
+
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (inGame.get() < players - players % PLAYERS_PER_GAME && System.currentTimeMillis() < deadline)
+                Thread.sleep(100);
+
+            measuring = true;
+            Thread.sleep(TimeUnit.SECONDS.toMillis(DURATION));
+            measuring = false;
+            threads = ManagementFactory.getThreadMXBean().getThreadCount();
+
+            stopped = true;
+            for (Thread bot : bots)
+                bot.join();
+            Thread.sleep(Constants.SERVER_CHECK_INTERVAL); // Let the server remove the players
+        }
+
+        void record(long nanos) {
+            if (!measuring) return;
+            requests.increment();
+            histogram.incrementAndGet((int) Math.min(histogram.length() - 1, nanos / 1000 / BUCKET_MICROS));
+        }
+
+        double percentile(double p) {
+            long total = 0;
+            for (int i = 0; i < histogram.length(); i++)
+                total += histogram.get(i);
+            long seen = 0;
+            for (int i = 0; i < histogram.length(); i++) {
+                seen += histogram.get(i);
+                if (total > 0 && seen >= Math.ceil(total * p))
+                    return (i + 1) * BUCKET_MICROS / 1000.0;
+            }
+            return 0;
+        }
+
+        @Override
+        public String toString() {
+            double p99 = percentile(0.99);
+            boolean sustained = inGame.get() >= players - players % PLAYERS_PER_GAME && p99 <= P99_LIMIT && timeouts.sum() == 0;
+            return String.format("%8d %9d %10.0f %9.1f %9.1f %9.1f %9d %8d  %s", players, inGame.get(), requests.sum() / (double) DURATION,
+                    percentile(0.5), p99, percentile(1), timeouts.sum(), threads, sustained ? "sustained" : "NOT sustained");
+        }
+
+        /**
+         * A simulated player: joins its game and keeps picking and releasing components until the step ends.
+         */
+        private class Bot implements Runnable {
+
+            private final int port;
+            private final String username;
+            private final String game;
+            private final boolean creator;
+            private MessageStream stream;
+            private long lastHeartbeat;
+
+            Bot(int port, String username, String game, boolean creator) {
+                this.port = port;
+                this.username = username;
+                this.game = game;
+                this.creator = creator;
+            }
+
+            @Override
+            public void run() {
+                try (Socket socket = new Socket("localhost", port)) {
+                    socket.setSoTimeout(REPLY_TIMEOUT);
+                    socket.setTcpNoDelay(true);
+                    stream = MessageStream.connect(socket, WireFormat.fromProperty());
+
+                    send(MessageType.SET_USERNAME, username);
+                    awaitReply(MessageType.USERNAME_OK_EVENT, username);
+                    joinGame();
+                    inGame.incrementAndGet();
+
+                    while (!stopped) {
+                        Thread.sleep(ThreadLocalRandom.current().nextInt(2 * THINK_TIME + 1));
+                        int id = ThreadLocalRandom.current().nextInt(1, MAX_COMPONENT_ID + 1);
+
+                        long start = System.nanoTime();
+                        send(MessageType.PICK_COMPONENT, id);
+                        boolean picked = awaitReply(MessageType.COMPONENT_PICKED_EVENT, username);
+                        record(System.nanoTime() - start);
+
+                        if (picked) {
+                            start = System.nanoTime();
+                            send(MessageType.RELEASE_COMPONENT, id);
+                            awaitReply(MessageType.COMPONENT_RELEASED_EVENT, username);
+                            record(System.nanoTime() - start);
+                        }
+                    }
+                } catch (SocketTimeoutException e) {
+                    timeouts.increment();
+                } catch (IOException | ClassNotFoundException | InterruptedException e) {
+                    // Player gives up, it's not counted in game
+                }
+            }
+
+            private void joinGame() throws IOException, ClassNotFoundException, InterruptedException {
+                if (creator) {
+                    send(MessageType.CREATE_LOBBY, game, PLAYERS_PER_GAME, true);
+                    if (!awaitReply(MessageType.CREATED_LOBBY_EVENT, game)) throw new IOException("Lobby not created");
+                } else {
+                    do {
+                        Thread.sleep(20); // The creator may not have opened the lobby yet
+                        send(MessageType.JOIN_LOBBY, game);
+                    } while (!awaitReply(MessageType.CREATED_LOBBY_EVENT, game));
+                }
+            }
+
+            private void send(MessageType type, Object... args) throws IOException {
+                stream.writeObject(Constants.createMessage(type, args));
+            }
+
+            /**
+             * Reads until the answer to the last request arrives, skipping the events of the other players.
+             *
+             * @param expected type of the answer
+             * @param subject  first argument of the answer, the player or the lobby
+             * @return true if the expected event arrived, false if an error arrived
+             */
+            private boolean awaitReply(MessageType expected, String subject) throws IOException, ClassNotFoundException {
+                while (true) {
+                    if (System.currentTimeMillis() - lastHeartbeat > Constants.HEARTBEAT_INTERVAL) {
+                        stream.writeObject(new Heartbeat());
+                        lastHeartbeat = System.currentTimeMillis();
+                    }
+
+                    if (!(stream.readObject() instanceof Message message)) continue;
+                    if (message.getMessageType() == MessageType.ERROR) return false;
+                    if (message.getMessageType() == expected && subject.equals(message.getArgs()[0]))
+                        return true;
+                }
+            }
+
+        }
+
+    }
+
+}
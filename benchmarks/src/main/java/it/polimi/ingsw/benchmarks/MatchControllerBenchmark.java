@@ -0,0 +1,84 @@
+package it.polimi.ingsw.benchmarks;
+
+import it.polimi.ingsw.controller.MatchController;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Join throughput of the {@link MatchController} while the server is holding many waiting users.
+ * The setup fills {@link #LOBBIES} lobbies with {@link #WAITING_PER_LOBBY} players each (10k waiting users),
+ * then every benchmark thread repeatedly joins a lobby and leaves it, so that lobbies never fill up.
+ * Each thread works on its own slice of lobbies: with per-lobby locking the score should scale with the number of threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatchControllerBenchmark {
+
+    private static final int LOBBIES = 5000;
+    private static final int WAITING_PER_LOBBY = 2;
+    private static final int MAX_PLAYERS = 4;
+
+    /**
+     * Trials share the same controller instance, every trial uses its own lobby names
+     */
+    private static final AtomicInteger trials = new AtomicInteger();
+
+    private final AtomicInteger threads = new AtomicInteger();
+    private MatchController controller;
+    private String prefix;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        controller = MatchController.getInstance();
+        prefix = "trial" + trials.incrementAndGet() + "-";
+        for (int i = 0; i < LOBBIES; i++) {
+            controller.createNewGame(prefix + "waiting-" + i + "-0", MAX_PLAYERS, prefix + "lobby-" + i, false);
+            for (int j = 1; j < WAITING_PER_LOBBY; j++)
+                controller.joinGame(prefix + "waiting-" + i + "-" + j, prefix + "lobby-" + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (int i = 0; i < LOBBIES; i++)
+            for (int j = 0; j < WAITING_PER_LOBBY; j++)
+                controller.leaveGame(prefix + "waiting-" + i + "-" + j);
+    }
+
+    @State(Scope.Thread)
+    public static class Joiner {
+
+        private String username;
+        private int next;
+        private int first;
+        private int slice;
+
+        @Setup(Level.Trial)
+        public void setUp(MatchControllerBenchmark benchmark, org.openjdk.jmh.infra.BenchmarkParams params) {
+            int id = benchmark.threads.getAndIncrement();
+            slice = Math.max(1, LOBBIES / params.getThreads());
+            first = (id * slice) % LOBBIES;
+            username = benchmark.prefix + "joiner-" + id;
+        }
+
+        String nextLobby(String prefix) {
+            String lobby = prefix + "lobby-" + (first + next);
+            next = (next + 1) % slice;
+            return lobby;
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object joinAndLeave(Joiner joiner) {
+        controller.joinGame(joiner.username, joiner.nextLobby(prefix));
+        return controller.leaveGame(joiner.username);
+    }
+
+}
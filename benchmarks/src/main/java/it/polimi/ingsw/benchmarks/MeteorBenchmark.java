@@ -0,0 +1,61 @@
+package it.polimi.ingsw.benchmarks;
+
+import it.polimi.ingsw.common.model.enums.DirectionType;
+import it.polimi.ingsw.common.model.events.EventContext;
+import it.polimi.ingsw.model.cards.utils.Meteor;
+import it.polimi.ingsw.model.player.PlayerData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a swarm of meteors on the ships of the {@link Scenarios}: a small and a big meteor from every direction
+ * on every line, i.e. the resolution of {@link Meteor#hit} with its line scans, shots blocked by the connectors
+ * or the cannons and destroyed components.
+ * The hits destroy the ships, so every measurement is a single shot on ships built again by the setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 50)
+@Measurement(iterations = 100)
+@Fork(1)
+public class MeteorBenchmark {
+
+    private static final List<Meteor> SWARM = new ArrayList<>();
+
+    static {
+        for (DirectionType direction : DirectionType.values()) {
+            SWARM.add(new Meteor(false, direction));
+            SWARM.add(new Meteor(true, direction));
+        }
+    }
+
+    @Param({"1", "2"})
+    public int scenario;
+
+    private List<PlayerData> players;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        players = Scenarios.flying(scenario).getBoard().getPlayersByPos();
+        EventContext.clear();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        EventContext.clear(); // Events of the destroyed components
+    }
+
+    @Benchmark
+    public void swarm(Blackhole blackhole) {
+        for (PlayerData player : players)
+            for (Meteor meteor : SWARM)
+                for (int line = 4; line <= 10; line++)
+                    blackhole.consume(meteor.hit(player, line));
+    }
+
+}
@@ -0,0 +1,127 @@
+package it.polimi.ingsw.benchmarks;
+
+import it.polimi.ingsw.Constants;
+import it.polimi.ingsw.common.model.PlacementHints;
+import it.polimi.ingsw.common.model.ShipBitboard;
+import it.polimi.ingsw.common.model.enums.ConnectorType;
+import it.polimi.ingsw.controller.GameController;
+import it.polimi.ingsw.model.components.Component;
+import it.polimi.ingsw.model.player.PlayerData;
+import it.polimi.ingsw.model.player.Ship;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a placement hint query, i.e. all the legal (row, col, rotation) slots of a tile, as done on every mouse hover.
+ * Ships are the ones built by the test scenarios of {@link GameController#startTest(int)}, the tiles are the ones left in the pool.
+ * <ul>
+ *   <li>{@code shipHints}: the hints read from the dashboard index of the server {@link Ship}</li>
+ *   <li>{@code freshHints}: hints filled from the dashboard at each query, as done by the client</li>
+ *   <li>{@code cellByCell}: every cell and rotation checked with {@link Component#areConnectorsCompatible}, as a client would do without the hints</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlacementHintsBenchmark {
+
+    private static final int[][] NEIGHBOURS = {{-1, 0}, {0, 1}, {1, 0}, {0, -1}}; // North, East, South, West
+
+    @Param({"1", "2"})
+    public int scenario;
+
+    private List<Ship> ships;
+    private List<Component> tiles;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        GameController game = new GameController(List.of("alice", "bob", "carol", "dave"), scenario == 2);
+        game.startMatch();
+        game.startTest(scenario);
+        ships = game.getModel().getBoard().getStartingDeck().stream().map(PlayerData::getShip).toList();
+        tiles = game.getModel().getBoard().getCommonComponents();
+        game.close();
+    }
+
+    private Component nextTile() {
+        Component tile = tiles.get(next);
+        next = (next + 1) % tiles.size();
+        return tile;
+    }
+
+    @Benchmark
+    public int shipHints() {
+        Component tile = nextTile();
+        int found = 0;
+        for (Ship ship : ships)
+            found += ship.getPlacementHints(tile).size();
+        return found;
+    }
+
+    @Benchmark
+    public int freshHints() {
+        Component tile = nextTile();
+        int found = 0;
+        for (Ship ship : ships) {
+            ShipBitboard board = new ShipBitboard();
+            for (int row = 0; row < Constants.SHIP_ROWS; row++)
+                for (int col = 0; col < Constants.SHIP_COLUMNS; col++) {
+                    if (ship.validPositions(row, col))
+                        board.setUnavailable(row, col);
+                    else if (ship.getDashboard(row, col).isPresent())
+                        board.setCell(row, col, ship.getDashboard(row, col).get().getConnectors(), null);
+                }
+            found += new PlacementHints(board).find(tile.getConnectors(), null, false).size();
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int cellByCell() {
+        Component tile = nextTile();
+        int found = 0;
+        for (Ship ship : ships)
+            found += cellByCellHints(ship, tile).size();
+        return found;
+    }
+
+    // Without the hints
+
+    private static List<int[]> cellByCellHints(Ship ship, Component tile) {
+        List<int[]> placements = new ArrayList<>();
+        for (int row = 0; row < Constants.SHIP_ROWS; row++)
+            for (int col = 0; col < Constants.SHIP_COLUMNS; col++) {
+                if (ship.validPositions(row, col) || ship.getDashboard(row, col).isPresent()) continue;
+                for (int rotations = 0; rotations < 4; rotations++) {
+                    ConnectorType[] connectors = rotate(tile.getConnectors(), rotations);
+                    boolean compatible = true;
+                    boolean linked = false;
+                    for (int side = 0; side < 4; side++) {
+                        Optional<Component> neighbour = ship.getDashboard(row + NEIGHBOURS[side][0], col + NEIGHBOURS[side][1]);
+                        if (neighbour.isEmpty()) continue;
+                        ConnectorType other = neighbour.get().getConnectors()[(side + 2) % 4];
+                        compatible &= Component.areConnectorsCompatible(connectors[side], other);
+                        linked |= Component.areConnectorsLinked(connectors[side], other);
+                    }
+                    if (compatible && linked) placements.add(new int[]{row, col, rotations});
+                }
+            }
+        return placements;
+    }
+
+    private static ConnectorType[] rotate(ConnectorType[] connectors, int rotations) {
+        ConnectorType[] rotated = new ConnectorType[4];
+        for (int side = 0; side < 4; side++)
+            rotated[side] = connectors[Math.floorMod(side - rotations, 4)];
+        return rotated;
+    }
+
+}
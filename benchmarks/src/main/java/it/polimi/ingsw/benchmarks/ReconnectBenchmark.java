@@ -0,0 +1,252 @@
+package it.polimi.ingsw.benchmarks;
+
+import it.polimi.ingsw.Constants;
+import it.polimi.ingsw.network.messages.Message;
+import it.polimi.ingsw.network.messages.MessageType;
+import it.polimi.ingsw.network.socket.codec.MessageStream;
+import it.polimi.ingsw.network.socket.codec.WireFormat;
+import it.polimi.ingsw.network.socket.server.SocketServer;
+
+import java.io.*;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a reconnection in the middle of the flight of a 4-player game, with a socket server in this JVM.
+ * The players start the "test-1" scenario, end the building phase and reveal the first card,
+ * then a player drops the connection while the others go on, and reconnects:
+ * <ul>
+ *     <li>full: with {@link MessageType#SET_USERNAME}, getting the whole state of the game</li>
+ *     <li>delta: with {@link MessageType#RESUME_SESSION} and the sequence of the last batch it received,
+ *     getting only the events it has missed</li>
+ * </ul>
+ * The bytes are the ones received until the end of the rejoin, the time goes from the request to the end of the rejoin.
+ * <p>
+ * Usage: {@code java -cp benchmarks.jar it.polimi.ingsw.benchmarks.ReconnectBenchmark [rounds]}, default 50.
+ * Property: wire.format (format used by the players).
+ */
+public class ReconnectBenchmark {
+
+    private static final int PLAYERS = 4;
+    private static final int REPLY_TIMEOUT = 5000;
+
+    public static void main(String[] args) throws Exception {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+
+        PrintStream report = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+
+        int port;
+        try (ServerSocket probe = new ServerSocket(0)) {
+            port = probe.getLocalPort();
+        }
+        SocketServer.getInstance(port);
+
+        report.printf("%d rounds, %s wire format%n", rounds, WireFormat.fromProperty().name().toLowerCase());
+        report.printf("%6s %12s %12s %12s%n", "mode", "bytes", "avg ms", "max ms");
+        for (boolean delta : new boolean[]{false, true}) {
+            long bytes = 0, totalNanos = 0, maxNanos = 0;
+            for (int round = 0; round < rounds; round++) {
+                long[] result = reconnect(port, (delta ? "d" : "f") + round, delta);
+                bytes += result[0];
+                totalNanos += result[1];
+                maxNanos = Math.max(maxNanos, result[1]);
+            }
+            report.printf("%6s %12d %12.3f %12.3f%n", delta ? "delta" : "full", bytes / rounds,
+                    totalNanos / 1e6 / rounds, maxNanos / 1e6);
+        }
+
+        System.exit(0);
+    }
+
+    /**
+     * Plays a game until the first card, then reconnects its last player.
+     *
+     * @return the bytes received by the reconnecting player and the nanoseconds it took
+     */
+    private static long[] reconnect(int port, String prefix, boolean delta) throws Exception {
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < PLAYERS; i++)
+            players.add(new Player(port, prefix + "-" + i));
+
+        players.getFirst().request(MessageType.CREATE_LOBBY, "test-1", PLAYERS, false);
+        for (Player player : players.subList(1, PLAYERS))
+            player.request(MessageType.JOIN_LOBBY, "test-1");
+        settle(players);
+        for (Player player : players) {
+            player.request(MessageType.SET_READY);
+            settle(players);
+        }
+        for (Player player : players) {
+            player.request(MessageType.CHOOSE_ALIEN, Map.of());
+            settle(players);
+        }
+        players.getFirst().request(MessageType.DRAW_CARD);
+        settle(players);
+
+        Player leaving = players.getLast();
+        long before = leaving.lastSequence;
+        leaving.close();
+        players = players.subList(0, PLAYERS - 1);
+        while (players.getFirst().lastSequence == before) // Its departure
+            Thread.sleep(1);
+        for (Player player : players) {
+            player.request(MessageType.ROLL_DICES);
+            settle(players);
+        }
+
+        Player back = new Player(port, null);
+        long start = System.nanoTime();
+        if (delta)
+            back.send(MessageType.RESUME_SESSION, leaving.username, leaving.lastSequence);
+        else
+            back.send(MessageType.SET_USERNAME, leaving.username);
+        back.awaitRejoin();
+        long nanos = System.nanoTime() - start;
+        long bytes = back.received.count;
+
+        back.close();
+        for (Player player : players)
+            player.close();
+        while (back.reader.isAlive() || players.stream().anyMatch(player -> player.reader.isAlive()))
+            Thread.sleep(1);
+        Thread.sleep(50); // Let the server delete the lobby
+        return new long[]{bytes, nanos};
+    }
+
+    /**
+     * Waits until every player has received the last batch, then drops the messages received meanwhile.
+     */
+    private static void settle(List<Player> players) throws InterruptedException {
+        long last = players.stream().mapToLong(player -> player.lastSequence).max().orElseThrow();
+        for (Player player : players) {
+            while (player.lastSequence < last)
+                Thread.sleep(1);
+            player.batches.clear();
+        }
+    }
+
+    /**
+     * A player connected with a socket, whose messages are read by a background thread.
+     */
+    private static class Player {
+
+        private final Socket socket;
+        private final CountingInputStream received;
+        private final MessageStream stream;
+        private final BlockingQueue<Message> batches = new LinkedBlockingQueue<>();
+        private final Thread reader;
+        private final String username;
+        private volatile long lastSequence;
+        private volatile boolean rejoined;
+
+        Player(int port, String username) throws IOException, InterruptedException {
+            CountingInputStream[] counter = new CountingInputStream[1];
+            socket = new Socket("localhost", port) {
+                @Override
+                public InputStream getInputStream() throws IOException {
+                    if (counter[0] == null)
+                        counter[0] = new CountingInputStream(super.getInputStream());
+                    return counter[0];
+                }
+            };
+            socket.setTcpNoDelay(true);
+            stream = MessageStream.connect(socket, WireFormat.fromProperty());
+            received = counter[0];
+            reader = Thread.ofVirtual().start(this::read);
+
+            this.username = username;
+            if (username != null) {
+                send(MessageType.SET_USERNAME, username);
+                awaitReply();
+            }
+        }
+
+        void send(MessageType type, Object... args) throws IOException {
+            stream.writeObject(Constants.createMessage(type, args));
+        }
+
+        /**
+         * Sends a request of the player and waits for its answer.
+         */
+        void request(MessageType type, Object... args) throws IOException, InterruptedException {
+            send(type, args);
+            awaitReply();
+        }
+
+        /**
+         * Waits for the end of a batch, or for a message sent outside a batch
+         */
+        private void awaitReply() throws InterruptedException, IOException {
+            if (batches.poll(REPLY_TIMEOUT, TimeUnit.MILLISECONDS) == null)
+                throw new IOException("No answer from the server");
+        }
+
+        void awaitRejoin() throws InterruptedException, IOException {
+            while (!rejoined)
+                awaitReply();
+        }
+
+        private void read() {
+            try {
+                boolean inBatch = false;
+                while (true) {
+                    if (!(stream.readObject() instanceof Message message)) continue;
+                    switch (message.getMessageType()) {
+                        case BATCH_START -> inBatch = true;
+                        case BATCH_END -> {
+                            inBatch = false;
+                            if (message.getArgs().length > 0)
+                                lastSequence = (Long) message.getArgs()[0];
+                            batches.add(message);
+                        }
+                        case CREATED_LOBBY_EVENT -> { // Sent by the rejoin, after the missed events
+                            rejoined = true;
+                            if (!inBatch) batches.add(message);
+                        }
+                        default -> {
+                            if (!inBatch) batches.add(message);
+                        }
+                    }
+                }
+            } catch (IOException | ClassNotFoundException e) {
+                // Connection closed
+            }
+        }
+
+        void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+
+        private volatile long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = super.read();
+            if (read >= 0) count++;
+            return read;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) count += read;
+            return read;
+        }
+    }
+
+}
@@ -0,0 +1,95 @@
+package it.polimi.ingsw.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH reports in JSON format, e.g. the ones of two releases, benchmark by benchmark.
+ * A change is reported as a regression or an improvement only when it exceeds both the sum of the errors of the two scores
+ * and {@value #MIN_CHANGE}% of the old score. The direction is given by the mode: lower is better for times, higher for throughputs.
+ * <p>
+ * The reports are produced with {@code java -jar benchmarks.jar -rf json -rff <report>.json [benchmarks]}.
+ * Usage: {@code java -cp benchmarks.jar it.polimi.ingsw.benchmarks.ReportDiff <old report> <new report>}.
+ */
+public class ReportDiff {
+
+    /**
+     * Minimum change reported, in percent, below it the difference is considered noise
+     */
+    private static final double MIN_CHANGE = 5;
+
+    /**
+     * Score of a benchmark in a report.
+     *
+     * @param mode  JMH mode, "thrpt" for throughputs
+     * @param score score of the benchmark
+     * @param error error of the score at 99.9%, 0 if it isn't available
+     * @param unit  unit of the score
+     */
+    private record Score(String mode, double score, double error, String unit) {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: ReportDiff <old report> <new report>");
+            System.exit(1);
+        }
+
+        Map<String, Score> before = read(new File(args[0]));
+        Map<String, Score> after = read(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-70s %10s %22s %22s %9s%n", "benchmark", "unit", "old", "new", "change");
+        for (Map.Entry<String, Score> entry : after.entrySet()) {
+            Score now = entry.getValue();
+            Score then = before.get(entry.getKey());
+            if (then == null || !then.unit().equals(now.unit())) {
+                System.out.printf("%-70s %10s %22s %22s %9s%n", entry.getKey(), now.unit(), "-", format(now), "new");
+                continue;
+            }
+
+            double change = then.score() == 0 ? 0 : (now.score() - then.score()) / then.score() * 100;
+            String verdict = "";
+            if (Math.abs(now.score() - then.score()) > then.error() + now.error() && Math.abs(change) >= MIN_CHANGE) {
+                boolean better = now.mode().equals("thrpt") == now.score() > then.score();
+                verdict = better ? "  improvement" : "  REGRESSION";
+                if (!better) regressions++;
+            }
+            System.out.printf("%-70s %10s %22s %22s %+8.1f%%%s%n", entry.getKey(), now.unit(), format(then), format(now), change, verdict);
+        }
+        for (String removed : before.keySet())
+            if (!after.containsKey(removed))
+                System.out.printf("%-70s %10s %22s %22s %9s%n", removed, before.get(removed).unit(), format(before.get(removed)), "-", "removed");
+
+        System.out.println(regressions + " regressions");
+    }
+
+    /**
+     * @return the scores of a report, by benchmark name and parameters
+     */
+    private static Map<String, Score> read(File report) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(report)) {
+            StringBuilder name = new StringBuilder(run.get("benchmark").asText().replace("it.polimi.ingsw.benchmarks.", ""));
+            JsonNode params = run.get("params");
+            if (params != null)
+                for (Map.Entry<String, JsonNode> param : params.properties())
+                    name.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+
+            JsonNode metric = run.get("primaryMetric");
+            double error = metric.get("scoreError").asDouble(0);
+            scores.put(name.toString(), new Score(run.get("mode").asText(), metric.get("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error, metric.get("scoreUnit").asText()));
+        }
+        return scores;
+    }
+
+    private static String format(Score score) {
+        return String.format("%.3f +- %.3f", score.score(), score.error());
+    }
+
+}
@@ -0,0 +1,40 @@
+package it.polimi.ingsw.benchmarks;
+
+import it.polimi.ingsw.controller.GameController;
+import it.polimi.ingsw.model.ModelFacade;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Games built by the test scenarios of {@link GameController#startTest(int)} (1 in advanced mode, 2 in learner mode),
+ * with realistic ships made of components of factory.json.
+ */
+final class Scenarios {
+
+    static final List<String> PLAYERS = List.of("alice", "bob", "carol", "dave");
+
+    private Scenarios() {}
+
+    /**
+     * Builds the ships of a scenario and ends the building phase: the players with a valid ship are flying,
+     * the first one has to draw the first card.
+     * The controller is closed, so no hourglass runs during the benchmark: only its model is returned.
+     *
+     * @param scenario number of the scenario
+     * @return the model of the game
+     */
+    static ModelFacade flying(int scenario) {
+        GameController game = new GameController(PLAYERS, scenario == 2);
+        game.startMatch();
+        game.startTest(scenario);
+        for (String username : PLAYERS)
+            game.setReady(username);
+        if (scenario != 2)
+            for (String username : PLAYERS)
+                game.chooseAlien(username, Map.of());
+        game.close();
+        return game.getModel();
+    }
+
+}
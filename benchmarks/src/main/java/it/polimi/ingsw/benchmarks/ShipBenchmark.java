@@ -0,0 +1,233 @@
+package it.polimi.ingsw.benchmarks;
+
+import it.polimi.ingsw.common.model.enums.ConnectorType;
+import it.polimi.ingsw.common.model.enums.DirectionType;
+import it.polimi.ingsw.controller.GameController;
+import it.polimi.ingsw.model.components.CannonComponent;
+import it.polimi.ingsw.model.components.Component;
+import it.polimi.ingsw.model.player.PlayerData;
+import it.polimi.ingsw.model.player.Ship;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares the bitboard index of {@link Ship} with the previous implementation based on the Optional grid
+ * (recursive DFS for connectivity, lambda with AtomicInteger for exposed connectors, list scans for shots),
+ * and the cached fire power with the grid scan done at each command.
+ * Ships are the ones built by the test scenarios of {@link GameController#startTest(int)} (1 in advanced mode, 2 in learner mode),
+ * made of components of factory.json.
+ * The setup checks that both implementations give the same results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShipBenchmark {
+
+    @Param({"1", "2"})
+    public int scenario;
+
+    private List<Ship> ships;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        GameController game = new GameController(List.of("alice", "bob", "carol", "dave"), scenario == 2);
+        game.startMatch();
+        game.startTest(scenario);
+        ships = game.getModel().getBoard().getStartingDeck().stream().map(PlayerData::getShip).toList();
+        game.close();
+
+        for (Ship ship : ships) {
+            if (legacyShipParts(ship).size() != ship.calcShipParts().size() || legacyExposedConnectors(ship) != ship.countExposedConnectors())
+                throw new IllegalStateException("Bitboard index differs from the dashboard");
+            if (legacySingleCannonsPower(ship) != ship.getSingleCannonsPower() || legacyDoubleCannonsPower(ship) != ship.getDoubleCannonsPower(ship.getBatteries()))
+                throw new IllegalStateException("Cached fire power differs from the dashboard");
+            for (DirectionType direction : DirectionType.values())
+                for (int line = 4; line <= 10; line++)
+                    if (!legacyComponentsFromThisDirection(ship.getDashboard(), direction, line).equals(ship.getComponentsFromThisDirection(direction, line)))
+                        throw new IllegalStateException("Bitboard line scan differs from the dashboard");
+        }
+    }
+
+    @Benchmark
+    public void legacyCheckConnectivity(Blackhole blackhole) {
+        for (Ship ship : ships)
+            blackhole.consume(legacyShipParts(ship).size() == 1);
+    }
+
+    @Benchmark
+    public void bitboardCheckConnectivity(Blackhole blackhole) {
+        for (Ship ship : ships)
+            blackhole.consume(ship.countShipParts() == 1);
+    }
+
+    @Benchmark
+    public void legacyShipParts(Blackhole blackhole) {
+        for (Ship ship : ships)
+            blackhole.consume(legacyShipParts(ship));
+    }
+
+    @Benchmark
+    public void bitboardShipParts(Blackhole blackhole) {
+        for (Ship ship : ships)
+            blackhole.consume(ship.calcShipParts());
+    }
+
+    @Benchmark
+    public void legacyExposedConnectors(Blackhole blackhole) {
+        for (Ship ship : ships)
+            blackhole.consume(legacyExposedConnectors(ship));
+    }
+
+    @Benchmark
+    public void bitboardExposedConnectors(Blackhole blackhole) {
+        for (Ship ship : ships)
+            blackhole.consume(ship.countExposedConnectors());
+    }
+
+    @Benchmark
+    public void legacyFirstHit(Blackhole blackhole) {
+        for (Ship ship : ships)
+            for (DirectionType direction : DirectionType.values())
+                for (int line = 4; line <= 10; line++)
+                    blackhole.consume(legacyComponentsFromThisDirection(ship.getDashboard(), direction, line).stream().findFirst());
+    }
+
+    @Benchmark
+    public void bitboardFirstHit(Blackhole blackhole) {
+        for (Ship ship : ships)
+            for (DirectionType direction : DirectionType.values())
+                for (int line = 4; line <= 10; line++)
+                    blackhole.consume(ship.getFirstComponentFromThisDirection(direction, line));
+    }
+
+    @Benchmark
+    public void legacyFirePower(Blackhole blackhole) {
+        for (Ship ship : ships)
+            blackhole.consume(legacySingleCannonsPower(ship) + legacyDoubleCannonsPower(ship));
+    }
+
+    @Benchmark
+    public void cachedFirePower(Blackhole blackhole) {
+        for (Ship ship : ships)
+            blackhole.consume(ship.getSingleCannonsPower() + ship.getDoubleCannonsPower(ship.getBatteries()));
+    }
+
+    // Previous implementation
+
+    private static double legacySingleCannonsPower(Ship ship) {
+        return legacyComponentByType(ship, CannonComponent.class).stream()
+                .filter(cannon -> !cannon.getIsDouble())
+                .mapToDouble(CannonComponent::calcPower)
+                .sum();
+    }
+
+    private static double legacyDoubleCannonsPower(Ship ship) {
+        return legacyComponentByType(ship, CannonComponent.class).stream()
+                .filter(CannonComponent::getIsDouble)
+                .mapToDouble(CannonComponent::calcPower)
+                .boxed()
+                .sorted(Comparator.reverseOrder())
+                .limit(ship.getBatteries())
+                .mapToDouble(Double::doubleValue)
+                .sum();
+    }
+
+    private static <T extends Component> List<T> legacyComponentByType(Ship ship, Class<T> componentType) {
+        List<T> list = new ArrayList<>();
+        for (Optional<Component>[] row : ship.getDashboard())
+            for (Optional<Component> component : row)
+                if (component.isPresent() && componentType.isInstance(component.get()))
+                    list.add(componentType.cast(component.get()));
+        return list;
+    }
+
+    private static List<List<Component>> legacyShipParts(Ship ship) {
+        Optional<Component>[][] dashboard = ship.getDashboard();
+        boolean[][] visited = new boolean[dashboard.length][dashboard[0].length];
+        List<List<Component>> groups = new ArrayList<>();
+        for (int i = 0; i < dashboard.length; i++)
+            for (int j = 0; j < dashboard[0].length; j++)
+                if (ship.getDashboard(i, j).isPresent() && !visited[i][j]) {
+                    List<Component> group = new ArrayList<>();
+                    dfs(dashboard, i, j, visited, group, null);
+                    groups.add(group);
+                }
+        return groups;
+    }
+
+    private static void dfs(Optional<Component>[][] dashboard, int i, int j, boolean[][] visited, List<Component> group, Component other) {
+        if (i < 0 || i >= dashboard.length || j < 0 || j >= dashboard[0].length) return;
+        if (visited[i][j] || dashboard[i][j].isEmpty()) return;
+
+        if (other != null) {
+            Component current = dashboard[i][j].get();
+            if (current.getX() < other.getX() && !Component.areConnectorsLinked(current.getConnectors()[1], other.getConnectors()[3]) ||
+                    current.getX() > other.getX() && !Component.areConnectorsLinked(current.getConnectors()[3], other.getConnectors()[1]) ||
+                    current.getY() < other.getY() && !Component.areConnectorsLinked(current.getConnectors()[2], other.getConnectors()[0]) ||
+                    current.getY() > other.getY() && !Component.areConnectorsLinked(current.getConnectors()[0], other.getConnectors()[2]))
+                return;
+        }
+
+        visited[i][j] = true;
+        dashboard[i][j].ifPresent(group::add);
+        dfs(dashboard, i - 1, j, visited, group, dashboard[i][j].orElse(null));
+        dfs(dashboard, i + 1, j, visited, group, dashboard[i][j].orElse(null));
+        dfs(dashboard, i, j - 1, visited, group, dashboard[i][j].orElse(null));
+        dfs(dashboard, i, j + 1, visited, group, dashboard[i][j].orElse(null));
+    }
+
+    private static int legacyExposedConnectors(Ship ship) {
+        AtomicInteger exposedConnectors = new AtomicInteger();
+        for (Optional<Component>[] row : ship.getDashboard())
+            for (Optional<Component> componentOpt : row)
+                componentOpt.ifPresent(component -> {
+                    if (component.getConnectors()[0] != ConnectorType.EMPTY && ship.getDashboard(component.getY() - 1, component.getX()).isEmpty())
+                        exposedConnectors.getAndIncrement();
+                    if (component.getConnectors()[1] != ConnectorType.EMPTY && ship.getDashboard(component.getY(), component.getX() + 1).isEmpty())
+                        exposedConnectors.getAndIncrement();
+                    if (component.getConnectors()[2] != ConnectorType.EMPTY && ship.getDashboard(component.getY() + 1, component.getX()).isEmpty())
+                        exposedConnectors.getAndIncrement();
+                    if (component.getConnectors()[3] != ConnectorType.EMPTY && ship.getDashboard(component.getY(), component.getX() - 1).isEmpty())
+                        exposedConnectors.getAndIncrement();
+                });
+        return exposedConnectors.get();
+    }
+
+    private static List<Component> legacyComponentsFromThisDirection(Optional<Component>[][] dashboard, DirectionType direction, int line) {
+        List<Component> components = new ArrayList<>();
+        switch (direction) {
+            case NORTH -> {
+                if (line < 4 || line > 10) return components;
+                for (Optional<Component>[] row : dashboard)
+                    row[line - 4].ifPresent(components::add);
+            }
+            case EAST -> {
+                if (line < 5 || line > 9) return components;
+                for (int col = dashboard[line - 5].length - 1; col >= 0; col--)
+                    dashboard[line - 5][col].ifPresent(components::add);
+            }
+            case SOUTH -> {
+                if (line < 4 || line > 10) return components;
+                for (int row = dashboard.length - 1; row >= 0; row--)
+                    dashboard[row][line - 4].ifPresent(components::add);
+            }
+            case WEST -> {
+                if (line < 5 || line > 9) return components;
+                for (int col = 0; col < dashboard[line - 5].length; col++)
+                    dashboard[line - 5][col].ifPresent(components::add);
+            }
+        }
+        return components;
+    }
+
+}
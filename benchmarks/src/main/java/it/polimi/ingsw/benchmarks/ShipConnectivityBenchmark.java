@@ -0,0 +1,148 @@
+package it.polimi.ingsw.benchmarks;
+
+import it.polimi.ingsw.common.model.events.EventContext;
+import it.polimi.ingsw.model.components.Component;
+import it.polimi.ingsw.model.factory.ComponentFactory;
+import it.polimi.ingsw.model.player.PlayerData;
+import it.polimi.ingsw.model.player.Ship;
+import it.polimi.ingsw.model.player.ShipAdvancedMode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+/**
+ * Connectivity of a ship checked after every mutation of randomized build sequences:
+ * components of factory.json are inserted, rotated and removed in random cells of an advanced mode ship,
+ * and the number of parts is read after each step.
+ * The incremental union-find of the dashboard index is compared with the DFS over the Optional grid done before it.
+ * The setup checks that both give the same number of parts at every step.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShipConnectivityBenchmark {
+
+    private static final int STEPS = 200;
+
+    @Param({"1", "2", "3"})
+    public long seed;
+
+    private List<Component> components;
+
+    /**
+     * Cell and random choice of each step: an empty cell gets the next component,
+     * an occupied one is emptied or rotated
+     */
+    private int[][] steps;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(seed);
+        components = new ArrayList<>(new ComponentFactory().getComponents());
+        Collections.shuffle(components, random);
+        components.forEach(Component::showComponent);
+
+        Ship ship = new ShipAdvancedMode();
+        List<int[]> valid = new ArrayList<>();
+        for (int row = 0; row < 5; row++)
+            for (int col = 0; col < 7; col++)
+                if (!ship.validPositions(row, col)) valid.add(new int[]{row, col});
+
+        steps = new int[STEPS][];
+        for (int i = 0; i < STEPS; i++) {
+            int[] cell = valid.get(random.nextInt(valid.size()));
+            steps[i] = new int[]{cell[0], cell[1], random.nextInt(4)};
+        }
+
+        replay(built -> {
+            if (built.countShipParts() != legacyCountParts(built))
+                throw new IllegalStateException("Union-find differs from the DFS");
+            return built.countShipParts();
+        });
+    }
+
+    @Benchmark
+    public List<Integer> incrementalParts() {
+        return replay(Ship::countShipParts);
+    }
+
+    @Benchmark
+    public List<Integer> dfsParts() {
+        return replay(ShipConnectivityBenchmark::legacyCountParts);
+    }
+
+    /**
+     * Builds a new ship running the steps.
+     *
+     * @param countParts reads the number of parts of the ship
+     * @return number of parts after each step
+     */
+    private List<Integer> replay(ToIntFunction<Ship> countParts) {
+        PlayerData player = new PlayerData("alice");
+        Ship ship = new ShipAdvancedMode();
+        player.setShip(ship);
+
+        List<Integer> parts = new ArrayList<>(STEPS);
+        int next = 0;
+        for (int[] step : steps) {
+            Optional<Component> placed = ship.getDashboard(step[0], step[1]);
+            if (placed.isEmpty() && next < components.size()) {
+                Component component = components.get(next++);
+                ship.setHandComponent(component);
+                component.insertComponent(player, step[0], step[1], step[2], false);
+            } else if (placed.isPresent() && step[2] < 2)
+                ship.setDashboard(step[0], step[1], Optional.empty());
+            else if (placed.isPresent())
+                placed.get().rotateComponent(player, step[2]);
+
+            parts.add(countParts.applyAsInt(ship));
+        }
+        EventContext.clear();
+        return parts;
+    }
+
+    // Previous implementation
+
+    private static int legacyCountParts(Ship ship) {
+        Optional<Component>[][] dashboard = ship.getDashboard();
+        boolean[][] visited = new boolean[dashboard.length][dashboard[0].length];
+        int parts = 0;
+        for (int i = 0; i < dashboard.length; i++)
+            for (int j = 0; j < dashboard[0].length; j++)
+                if (dashboard[i][j].isPresent() && !visited[i][j]) {
+                    dfs(dashboard, i, j, visited, null);
+                    parts++;
+                }
+        return parts;
+    }
+
+    private static void dfs(Optional<Component>[][] dashboard, int i, int j, boolean[][] visited, Component other) {
+        if (i < 0 || i >= dashboard.length || j < 0 || j >= dashboard[0].length) return;
+        if (visited[i][j] || dashboard[i][j].isEmpty()) return;
+
+        if (other != null) {
+            Component current = dashboard[i][j].get();
+            if (current.getX() < other.getX() && !Component.areConnectorsLinked(current.getConnectors()[1], other.getConnectors()[3]) ||
+                    current.getX() > other.getX() && !Component.areConnectorsLinked(current.getConnectors()[3], other.getConnectors()[1]) ||
+                    current.getY() < other.getY() && !Component.areConnectorsLinked(current.getConnectors()[2], other.getConnectors()[0]) ||
+                    current.getY() > other.getY() && !Component.areConnectorsLinked(current.getConnectors()[0], other.getConnectors()[2]))
+                return;
+        }
+
+        visited[i][j] = true;
+        dfs(dashboard, i - 1, j, visited, dashboard[i][j].get());
+        dfs(dashboard, i + 1, j, visited, dashboard[i][j].get());
+        dfs(dashboard, i, j - 1, visited, dashboard[i][j].get());
+        dfs(dashboard, i, j + 1, visited, dashboard[i][j].get());
+    }
+
+}
@@ -0,0 +1,56 @@
+package it.polimi.ingsw.benchmarks;
+
+import it.polimi.ingsw.model.player.PlayerData;
+import it.polimi.ingsw.model.player.Ship;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the checks run on the ships at the end of the building phase and after every destroyed component,
+ * on the ships of the {@link Scenarios}.
+ * <ul>
+ *     <li>{@code checkShip}: {@link Ship#checkShip()}, connectivity and validation of every component</li>
+ *     <li>{@code calcShipParts}: {@link Ship#calcShipParts()}, the groups the player chooses from after a break</li>
+ *     <li>{@code countExposedConnectors}: {@link Ship#countExposedConnectors()}, used by the open space and the ranking</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShipValidationBenchmark {
+
+    @Param({"1", "2"})
+    public int scenario;
+
+    private List<Ship> ships;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ships = Scenarios.flying(scenario).getBoard().getPlayersByPos().stream().map(PlayerData::getShip).toList();
+    }
+
+    @Benchmark
+    public void checkShip(Blackhole blackhole) {
+        for (Ship ship : ships)
+            blackhole.consume(ship.checkShip());
+    }
+
+    @Benchmark
+    public void calcShipParts(Blackhole blackhole) {
+        for (Ship ship : ships)
+            blackhole.consume(ship.calcShipParts());
+    }
+
+    @Benchmark
+    public void countExposedConnectors(Blackhole blackhole) {
+        for (Ship ship : ships)
+            blackhole.consume(ship.countExposedConnectors());
+    }
+
+}
@@ -0,0 +1,113 @@
+package it.polimi.ingsw.benchmarks;
+
+import it.polimi.ingsw.Constants;
+import it.polimi.ingsw.common.dto.GameStateDTOFactory;
+import it.polimi.ingsw.common.model.enums.PlayerState;
+import it.polimi.ingsw.controller.GameController;
+import it.polimi.ingsw.model.factory.CardFactory;
+import it.polimi.ingsw.model.factory.CardFactoryAdvancedMode;
+import it.polimi.ingsw.network.messages.Message;
+import it.polimi.ingsw.network.messages.MessageType;
+import it.polimi.ingsw.network.socket.codec.BinaryCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the binary codec with Java serialization on typical server events.
+ * Encode/decode latency is measured by the benchmarks, bytes per event are printed by the trial setup:
+ * for Java serialization it's the marginal size on a long-lived stream, where class descriptors were already sent.
+ * Java latencies include the creation of the object streams, which also happens when they are reset.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"COMPONENT_INSERTED_EVENT", "PLAYERS_STATE_UPDATED_EVENT", "PLAYERS_POSITION_UPDATED_EVENT", "CARD_REVEALED_EVENT", "SYNC_ALL_EVENT"})
+    public String event;
+
+    private Message message;
+    private byte[] javaBytes;
+    private byte[] binaryBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, ClassNotFoundException {
+        List<String> players = List.of("alice", "bob", "carol", "dave");
+        message = switch (event) {
+            case "COMPONENT_INSERTED_EVENT" -> Constants.createMessage(MessageType.COMPONENT_INSERTED_EVENT, "alice", 42, 2, 3);
+            case "PLAYERS_STATE_UPDATED_EVENT" -> Constants.createMessage(MessageType.PLAYERS_STATE_UPDATED_EVENT,
+                    Map.of("alice", PlayerState.BUILD, "bob", PlayerState.BUILD, "carol", PlayerState.WAIT, "dave", PlayerState.BUILD));
+            case "PLAYERS_POSITION_UPDATED_EVENT" -> Constants.createMessage(MessageType.PLAYERS_POSITION_UPDATED_EVENT,
+                    List.of(), List.of(new SimpleEntry<>("alice", 12), new SimpleEntry<>("bob", 9), new SimpleEntry<>("carol", 7), new SimpleEntry<>("dave", 4)));
+            case "CARD_REVEALED_EVENT" -> Constants.createMessage(MessageType.CARD_REVEALED_EVENT,
+                    CardFactory.serializeCard(new CardFactoryAdvancedMode(new SplittableRandom(1)).getCards().getFirst()));
+            case "SYNC_ALL_EVENT" -> {
+                GameController game = new GameController(players, false);
+                game.startMatch();
+                String payload = GameStateDTOFactory.serializeDTO(game.toDTO());
+                game.close();
+                yield Constants.createMessage(MessageType.SYNC_ALL_EVENT, payload);
+            }
+            default -> throw new IllegalArgumentException(event);
+        };
+
+        javaBytes = javaEncode(message);
+        binaryBytes = BinaryCodec.encode(message);
+
+        // Marginal size of the event on a stream that has already sent its classes
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        ObjectOutputStream stream = new ObjectOutputStream(buffer);
+        stream.writeObject(javaDecode(javaBytes));
+        stream.flush();
+        int before = buffer.size();
+        stream.writeObject(javaDecode(javaBytes));
+        stream.flush();
+
+        System.out.printf("%n[%s] java: %d bytes (%d on a fresh stream), binary: %d bytes (+4 length prefix)%n",
+                event, buffer.size() - before, javaBytes.length, binaryBytes.length);
+    }
+
+    @Benchmark
+    public byte[] javaEncode() throws IOException {
+        return javaEncode(message);
+    }
+
+    @Benchmark
+    public Object javaDecode() throws IOException, ClassNotFoundException {
+        return javaDecode(javaBytes);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() throws IOException {
+        return BinaryCodec.encode(message);
+    }
+
+    @Benchmark
+    public Object binaryDecode() throws IOException {
+        return BinaryCodec.decode(binaryBytes);
+    }
+
+    private static byte[] javaEncode(Message message) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (ObjectOutputStream stream = new ObjectOutputStream(buffer)) {
+            stream.writeObject(message);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static Object javaDecode(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return stream.readObject();
+        }
+    }
+
+}
@@ -23,6 +23,11 @@ public abstract class Constants {
     public static final int SERVER_CHECK_INTERVAL = 4500;
     public static final int DISCOVERY_TIMEOUT = 3000;
 
+    public static final int SOCKET_IO_THREADS = 2;
+    public static final int DISPATCH_THREADS = Runtime.getRuntime().availableProcessors();
+    public static final int OUTBOUND_HIGH_WATERMARK = 256 * 1024;
+    public static final int OUTBOUND_LIMIT = 4 * 1024 * 1024;
+
     public static final String DISCOVERY_MESSAGE = "GALAXY_TRUCKER_SERVER_DISCOVERY";
     public static final String DISCOVERY_RESPONSE = "GALAXY_TRUCKER_SERVER_FOUND";
 
@@ -1,7 +1,13 @@
 package it.polimi.ingsw;
 
+import it.polimi.ingsw.controller.journal.JournalStore;
+import it.polimi.ingsw.model.factory.Catalog;
+import it.polimi.ingsw.network.RequestDispatcher;
+import it.polimi.ingsw.network.ServerBasis;
 import it.polimi.ingsw.network.discovery.DiscoveryServer;
 import it.polimi.ingsw.network.exceptions.ServerException;
+import it.polimi.ingsw.network.metrics.MetricsEndpoint;
+import it.polimi.ingsw.network.metrics.ServerMetrics;
 import it.polimi.ingsw.network.rmi.RMIServer;
 import it.polimi.ingsw.network.socket.server.SocketServer;
 import it.polimi.ingsw.view.GUI.App;
@@ -19,7 +25,7 @@ import java.net.SocketException;
  * <li><strong>Client mode:</strong> Provides options to run either a Text User Interface (TUI)
  *     or Graphical User Interface (GUI) client</li>
  * <li><strong>Server mode:</strong> Starts all server components including Socket server,
- *     RMI server, and Discovery server</li>
+ *     RMI server, and Discovery server, and exposes the metrics through JMX and, if enabled, a local HTTP endpoint</li>
  * </ul>
  */
 public class Main {
@@ -49,10 +55,16 @@ public class Main {
         } else if (args[0].equals("server")) {
 
             System.out.println("Starting server...");
+            System.out.println("[ALL] Requests run on " + RequestDispatcher.getInstance().getMode().name().toLowerCase() + " threads");
+            Catalog.getInstance(); // Parses factory.json once, before the first match
+            if (JournalStore.getInstance().isEnabled()) // Before accepting connections, so the players can rejoin
+                System.out.println("[ALL] Recovered " + ServerBasis.recoverGames() + " games from the journals");
             try {
                 SocketServer.getInstance(Constants.DEFAULT_SOCKET_PORT);
                 RMIServer.getInstance(Constants.DEFAULT_RMI_PORT);
                 DiscoveryServer.getInstance();
+                ServerMetrics.getInstance().registerMBeans();
+                MetricsEndpoint.getInstance();
 
                 try {
                     String address = Constants.getIPv4Address();
@@ -66,6 +78,9 @@ public class Main {
                         SocketServer.getInstance().stop();
                         RMIServer.getInstance().stop();
                         DiscoveryServer.getInstance().stop();
+                        MetricsEndpoint.getInstance().stop();
+                        RequestDispatcher.getInstance().shutdown();
+                        JournalStore.getInstance().shutdown();
                     } catch (ServerException e) {
                         // Ignore it
                     }
@@ -14,6 +14,8 @@ import java.util.concurrent.CopyOnWriteArrayList;
  * <p>
  * The class maintains a list of subscribed observers and manages events
  * through batching or immediate publication.
+ * The state is guarded by the bus, as several clients may share it in the same JVM (e.g. the bots of a load test),
+ * while the observers are notified outside of the lock with a copy of the events.
  */
 public class ClientEventBus {
 
@@ -24,7 +26,7 @@ public class ClientEventBus {
     private final List<ClientEventObserver> observers = new CopyOnWriteArrayList<>();
     private static ClientEventBus instance;
 
-    public static ClientEventBus getInstance() {
+    public synchronized static ClientEventBus getInstance() {
         if (instance == null) {
             instance = new ClientEventBus();
         }
@@ -35,37 +37,56 @@ public class ClientEventBus {
         observers.add(observer);
     }
 
-    public void startBatch() {
+    public synchronized void startBatch() {
         events.clear();
         inBatch = true;
         hasPendingChanges = false;
     }
 
     public void endBatch() {
-        inBatch = false;
+        List<Event> pending = null;
+        synchronized (this) {
+            inBatch = false;
 
-        if (hasPendingChanges) {
-            publishAll();
-            hasPendingChanges = false;
+            if (hasPendingChanges) {
+                pending = drain();
+                hasPendingChanges = false;
+            }
         }
+        if (pending != null) notifyObservers(pending);
     }
 
     public void publish(Event event) {
-        events.add(event);
-
-        if (inBatch)
-            hasPendingChanges = true;
-        else {
-            for (ClientEventObserver observer : observers)
-                observer.onEvent(events);
-            events.clear();
+        List<Event> pending;
+        synchronized (this) {
+            events.add(event);
+
+            if (inBatch) {
+                hasPendingChanges = true;
+                return;
+            }
+            pending = drain();
         }
+        notifyObservers(pending);
     }
 
     public void publishAll() {
-        for (ClientEventObserver observer : observers)
-            observer.onEvent(events);
+        List<Event> pending;
+        synchronized (this) {
+            pending = drain();
+        }
+        notifyObservers(pending);
+    }
+
+    private List<Event> drain() {
+        List<Event> pending = new ArrayList<>(events);
         events.clear();
+        return pending;
+    }
+
+    private void notifyObservers(List<Event> pending) {
+        for (ClientEventObserver observer : observers)
+            observer.onEvent(pending);
     }
 
 }
\ No newline at end of file
@@ -18,6 +18,10 @@ public class ClientAbandonedShipCard extends ClientCard {
 
     public ClientAbandonedShipCard() {}
 
+    public int getCrew() {
+        return crew;
+    }
+
     @SuppressWarnings("Duplicates")
     @Override
     public String toString() {
@@ -21,6 +21,14 @@ public class ClientCombatZoneCard extends ClientCard {
 
     public ClientCombatZoneCard() {}
 
+    public List<ClientWarLine> getWarLines() {
+        return warLines;
+    }
+
+    public int getWarLineIndex() {
+        return warLineIndex;
+    }
+
     @SuppressWarnings("Duplicates")
     @Override
     public String toString() {
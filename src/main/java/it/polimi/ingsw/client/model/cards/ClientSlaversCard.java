@@ -17,6 +17,10 @@ public class ClientSlaversCard extends ClientEnemiesCard {
 
     public ClientSlaversCard() {}
 
+    public int getCrew() {
+        return crew;
+    }
+
     @SuppressWarnings("Duplicates")
     @Override
     public String toString() {
@@ -19,6 +19,10 @@ public class ClientSmugglersCard extends ClientEnemiesCard {
 
     public ClientSmugglersCard() {}
 
+    public int getPenalty() {
+        return penalty;
+    }
+
     @Override
     public List<ColorType> getReward(String username) {
         List<ColorType> rewardsList = new ArrayList<>();
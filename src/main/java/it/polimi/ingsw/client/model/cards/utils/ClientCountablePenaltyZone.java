@@ -9,6 +9,10 @@ public class ClientCountablePenaltyZone extends ClientPenaltyCombatZone {
 
     public ClientCountablePenaltyZone() {}
 
+    public int getPenaltyNumber() {
+        return penaltyNumber;
+    }
+
     @Override
     public String toString() {
         return penaltyNumber + " " + penaltyType.toString();
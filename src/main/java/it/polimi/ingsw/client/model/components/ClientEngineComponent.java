@@ -29,6 +29,10 @@ public final class ClientEngineComponent extends ClientComponent {
         return isDouble;
     }
 
+    public DirectionType getDirection() {
+        return direction;
+    }
+
     @Override
     public void rotateComponent() {
         super.rotateComponent();
@@ -60,7 +60,8 @@ public class ClientLobby {
     }
 
     public void addPlayer(String username) {
-        players.add(username);
+        if (!players.contains(username)) // Already known if the client has missed his departure
+            players.add(username);
 
         if (this.state == LobbyState.IN_GAME)
             this.game.playerRejoined(username);
@@ -68,6 +69,11 @@ public class ClientLobby {
         ClientEventBus.getInstance().publish(new JoinedLobbyEvent(username));
     }
 
+    public void setPlayers(List<String> players) {
+        this.players.clear();
+        this.players.addAll(players);
+    }
+
     public void removePlayer(String username) {
         players.remove(username);
 
@@ -1,7 +1,12 @@
 package it.polimi.ingsw.client.model.player;
 
 import it.polimi.ingsw.Constants;
+import it.polimi.ingsw.client.model.components.ClientCannonComponent;
 import it.polimi.ingsw.client.model.components.ClientComponent;
+import it.polimi.ingsw.client.model.components.ClientEngineComponent;
+import it.polimi.ingsw.common.model.PlacementHints;
+import it.polimi.ingsw.common.model.ShipBitboard;
+import it.polimi.ingsw.common.model.enums.DirectionType;
 import it.polimi.ingsw.common.model.enums.PlayerState;
 import it.polimi.ingsw.view.TUI.Chroma;
 
@@ -86,6 +91,33 @@ public sealed abstract class ClientShip permits
         return brokenParts;
     }
 
+    /**
+     * Finds the legal placements of a tile on this ship, with the same rules of the server.
+     *
+     * @param tile the tile to place, e.g. the one in hand
+     * @return the legal placements, the ones leaving fewer exposed connectors first
+     */
+    public List<PlacementHints.Placement> getPlacementHints(ClientComponent tile) {
+        ShipBitboard board = new ShipBitboard();
+        for (int row = 0; row < Constants.SHIP_ROWS; row++)
+            for (int col = 0; col < Constants.SHIP_COLUMNS; col++) {
+                if (!validPositions(row, col))
+                    board.setUnavailable(row, col);
+                else if (dashboard[row][col].isPresent())
+                    board.setCell(row, col, dashboard[row][col].get().getConnectors(), directionOf(dashboard[row][col].get()));
+            }
+
+        return new PlacementHints(board).find(tile.getConnectors(), directionOf(tile), tile instanceof ClientEngineComponent);
+    }
+
+    private static DirectionType directionOf(ClientComponent component) {
+        return switch (component) {
+            case ClientCannonComponent cannon -> cannon.getDirection();
+            case ClientEngineComponent engine -> engine.getDirection();
+            default -> null;
+        };
+    }
+
     @SuppressWarnings("Duplicates")
     public void printShip(StringBuilder output) {
         output.append("    ");
@@ -0,0 +1,133 @@
+package it.polimi.ingsw.common.model;
+
+import it.polimi.ingsw.common.model.enums.ConnectorType;
+import it.polimi.ingsw.common.model.enums.DirectionType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Finds every legal placement of a tile on a ship dashboard, shared by the server and the client.
+ * A placement is legal when the cell is free and inside the ship, every connector facing a neighbour is compatible with it,
+ * at least one connector is linked, the cell isn't in front of a cannon or an engine and, for a cannon or an engine,
+ * the cell it faces is free (an engine must also face south).
+ * <p>
+ * The hints read the {@link ShipBitboard} of the dashboard, so each rotation of the tile is checked on all the cells at once.
+ * The tables derived from the bitboard are rebuilt at the first query after a change. An instance is not thread-safe.
+ */
+public final class PlacementHints {
+
+    private static final int COLUMNS = ShipBitboard.COLUMNS;
+    private static final int SIDES = ShipBitboard.SIDES;
+    private static final ConnectorType[] TYPES = ConnectorType.values();
+
+    /**
+     * A legal placement
+     *
+     * @param row               row of the cell
+     * @param col               column of the cell
+     * @param rotations         clockwise quarter turns to apply to the tile, from 0 to 3
+     * @param exposedConnectors exposed connectors of the ship after the placement, the lower the better
+     */
+    public record Placement(int row, int col, int rotations, int exposedConnectors) {}
+
+    private final ShipBitboard board;
+
+    /**
+     * Tables derived from the bitboard, valid for its version
+     */
+    private int version;
+    private final long[][] compatibleNeighbours;
+    private final long[][] linkedNeighbours;
+    private long faced;
+    private int exposedConnectors;
+
+    /**
+     * @param board bitboard of the dashboard, read at every query
+     */
+    public PlacementHints(ShipBitboard board) {
+        this.board = board;
+        this.compatibleNeighbours = new long[SIDES][TYPES.length];
+        this.linkedNeighbours = new long[SIDES][TYPES.length];
+        this.version = board.getVersion() - 1;
+    }
+
+    /**
+     * Finds the legal placements of a tile in any rotation.
+     *
+     * @param connectors connectors (North, East, South, West) of the tile in its current orientation
+     * @param direction  direction of the tile in its current orientation if it's a cannon or an engine, null otherwise
+     * @param engine     true if the tile is an engine, which must face south
+     * @return the legal placements, the ones leaving fewer exposed connectors first
+     */
+    public List<Placement> find(ConnectorType[] connectors, DirectionType direction, boolean engine) {
+        if (version != board.getVersion()) rebuild();
+
+        List<Placement> placements = new ArrayList<>();
+        long occupied = board.getOccupied();
+        long free = ShipBitboard.ALL_CELLS & ~occupied & ~board.getUnavailable() & ~faced;
+        for (int rotations = 0; rotations < SIDES; rotations++) {
+            long legal = free;
+            long linked = 0;
+            for (int side = 0; side < SIDES; side++) {
+                int type = connectors[Math.floorMod(side - rotations, SIDES)].ordinal(); // Connector on this side after the rotation
+                legal &= compatibleNeighbours[side][type];
+                linked |= linkedNeighbours[side][type];
+            }
+            legal &= linked;
+
+            if (direction != null) {
+                int faces = (direction.ordinal() + rotations) % SIDES;
+                if (engine && faces != DirectionType.SOUTH.ordinal()) continue;
+                legal &= ~ShipBitboard.neighbours(occupied, faces);
+            }
+
+            for (long cells = legal; cells != 0; cells &= cells - 1) {
+                int cell = Long.numberOfTrailingZeros(cells);
+                placements.add(new Placement(cell / COLUMNS, cell % COLUMNS, rotations, exposedAfter(cell, connectors, rotations)));
+            }
+        }
+
+        placements.sort(Comparator.comparingInt(Placement::exposedConnectors));
+        return placements;
+    }
+
+    /**
+     * @return exposed connectors of the ship after placing the tile in a cell: the ones of the tile facing a free cell
+     * are added, the ones of the neighbours facing the cell are covered
+     */
+    private int exposedAfter(int cell, ConnectorType[] connectors, int rotations) {
+        long bit = 1L << cell;
+        int exposed = exposedConnectors;
+        for (int side = 0; side < SIDES; side++) {
+            int opposite = (side + 2) % SIDES;
+            if ((ShipBitboard.neighbours(board.getOccupied(), side) & bit) == 0) {
+                if (connectors[Math.floorMod(side - rotations, SIDES)] != ConnectorType.EMPTY) exposed++;
+            } else if ((ShipBitboard.neighbours(board.nonEmpty(opposite), side) & bit) != 0)
+                exposed--;
+        }
+        return exposed;
+    }
+
+    private void rebuild() {
+        for (int side = 0; side < SIDES; side++) {
+            long free = ~ShipBitboard.neighbours(board.getOccupied(), side);
+            for (ConnectorType type : TYPES) {
+                compatibleNeighbours[side][type.ordinal()] = free | board.compatibleNeighbours(side, type);
+                linkedNeighbours[side][type.ordinal()] = board.linkedNeighbours(side, type);
+            }
+        }
+
+        faced = 0;
+        for (long cells = board.getOccupied(); cells != 0; cells &= cells - 1) {
+            int cell = Long.numberOfTrailingZeros(cells);
+            if (board.getFacing(cell) >= 0)
+                faced |= ShipBitboard.neighbours(1L << cell, (board.getFacing(cell) + 2) % SIDES); // Cell whose neighbour on the opposite side is this one
+        }
+
+        exposedConnectors = board.countExposedConnectors();
+        version = board.getVersion();
+    }
+
+}
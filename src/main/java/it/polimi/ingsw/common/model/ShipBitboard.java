@@ -0,0 +1,228 @@
+package it.polimi.ingsw.common.model;
+
+import it.polimi.ingsw.Constants;
+import it.polimi.ingsw.common.model.enums.ConnectorType;
+import it.polimi.ingsw.common.model.enums.DirectionType;
+
+import java.util.Arrays;
+
+/**
+ * Bitboard of a ship dashboard, shared by the server dashboard index and the placement hints of the server and the client.
+ * Each cell is a bit of a long, at index {@code row * SHIP_COLUMNS + col}: the bitboard stores the occupied cells,
+ * the cells outside the ship, the cells with a connector of each type on each side and the direction faced by
+ * the cannons and the engines. Neighbours, links and exposed connectors are computed with shifts and masks.
+ * An instance is not thread-safe.
+ */
+public final class ShipBitboard {
+
+    public static final int COLUMNS = Constants.SHIP_COLUMNS;
+    public static final int CELLS = Constants.SHIP_ROWS * Constants.SHIP_COLUMNS;
+
+    /**
+     * Sides, in the order of the connectors and of {@link DirectionType}
+     */
+    public static final int NORTH = 0;
+    public static final int EAST = 1;
+    public static final int SOUTH = 2;
+    public static final int WEST = 3;
+    public static final int SIDES = 4;
+
+    public static final long ALL_CELLS = (1L << CELLS) - 1;
+    public static final long FIRST_COLUMN;
+    public static final long LAST_COLUMN;
+
+    private static final ConnectorType[] TYPES = ConnectorType.values();
+
+    /**
+     * Connector types compatible with each type, as a bitmask of ordinals
+     */
+    private static final int[] COMPATIBLE = new int[TYPES.length];
+
+    /**
+     * Connector types linked to each type, as a bitmask of ordinals
+     */
+    private static final int[] LINKED = new int[TYPES.length];
+
+    static {
+        long first = 0;
+        for (int row = 0; row < Constants.SHIP_ROWS; row++)
+            first |= 1L << (row * COLUMNS);
+        FIRST_COLUMN = first;
+        LAST_COLUMN = first << (COLUMNS - 1);
+
+        for (ConnectorType a : TYPES)
+            for (ConnectorType b : TYPES) {
+                boolean compatible = a == b || a == ConnectorType.UNIVERSAL && b != ConnectorType.EMPTY || b == ConnectorType.UNIVERSAL && a != ConnectorType.EMPTY;
+                if (compatible) COMPATIBLE[a.ordinal()] |= 1 << b.ordinal();
+                if (compatible && a != ConnectorType.EMPTY && b != ConnectorType.EMPTY) LINKED[a.ordinal()] |= 1 << b.ordinal();
+            }
+    }
+
+    private long occupied;
+
+    /**
+     * Cells outside the ship
+     */
+    private long unavailable;
+
+    /**
+     * Cells with a connector of each type on each side, indexed by side and type ordinal
+     */
+    private final long[][] connectors;
+
+    /**
+     * Direction faced by the cannon or the engine in each cell, -1 if there's none
+     */
+    private final byte[] facing;
+
+    /**
+     * Incremented at every change, lets the readers cache what they derive from the cells
+     */
+    private int version;
+
+    public ShipBitboard() {
+        this.connectors = new long[SIDES][TYPES.length];
+        this.facing = new byte[CELLS];
+        Arrays.fill(facing, (byte) -1);
+    }
+
+    /**
+     * Marks a cell as outside the ship.
+     *
+     * @param row row of the cell
+     * @param col column of the cell
+     */
+    public void setUnavailable(int row, int col) {
+        unavailable |= 1L << cell(row, col);
+        version++;
+    }
+
+    /**
+     * Updates a cell of the dashboard.
+     *
+     * @param row        row of the cell
+     * @param col        column of the cell
+     * @param connectors connectors (North, East, South, West) of the component in the cell, null if it's empty
+     * @param direction  direction of the cannon or the engine in the cell, null if there's none
+     */
+    public void setCell(int row, int col, ConnectorType[] connectors, DirectionType direction) {
+        int cell = cell(row, col);
+        long bit = 1L << cell;
+        occupied &= ~bit;
+        for (long[] side : this.connectors)
+            for (int type = 0; type < side.length; type++)
+                side[type] &= ~bit;
+        facing[cell] = -1;
+        version++;
+        if (connectors == null) return;
+
+        occupied |= bit;
+        for (int side = 0; side < SIDES; side++)
+            this.connectors[side][connectors[side].ordinal()] |= bit;
+        if (direction != null)
+            facing[cell] = (byte) direction.ordinal();
+    }
+
+    public long getOccupied() {
+        return occupied;
+    }
+
+    public long getUnavailable() {
+        return unavailable;
+    }
+
+    /**
+     * @return cells with a connector of the given type on the given side
+     */
+    public long getConnectors(int side, ConnectorType type) {
+        return connectors[side][type.ordinal()];
+    }
+
+    /**
+     * @return direction ordinal faced by the cannon or the engine in a cell, -1 if there's none
+     */
+    public int getFacing(int cell) {
+        return facing[cell];
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * @return cells with a non-empty connector on the given side
+     */
+    public long nonEmpty(int side) {
+        return connectors[side][ConnectorType.SINGLE.ordinal()] | connectors[side][ConnectorType.DOUBLE.ordinal()] | connectors[side][ConnectorType.UNIVERSAL.ordinal()];
+    }
+
+    /**
+     * @return cells whose neighbour on the given side has a connector, facing this cell, compatible with a connector of the given type
+     */
+    public long compatibleNeighbours(int side, ConnectorType type) {
+        return neighbours(facingConnectors(side, COMPATIBLE[type.ordinal()]), side);
+    }
+
+    /**
+     * @return cells whose neighbour on the given side has a connector, facing this cell, linked to a connector of the given type
+     */
+    public long linkedNeighbours(int side, ConnectorType type) {
+        return neighbours(facingConnectors(side, LINKED[type.ordinal()]), side);
+    }
+
+    /**
+     * @return cells whose connector on the given side is linked to the facing connector of their neighbour
+     */
+    public long linked(int side) {
+        long linked = 0;
+        for (ConnectorType type : TYPES)
+            linked |= connectors[side][type.ordinal()] & linkedNeighbours(side, type);
+        return linked;
+    }
+
+    /**
+     * @return number of non-empty connectors facing an empty cell or the border of the dashboard
+     */
+    public int countExposedConnectors() {
+        int exposed = 0;
+        for (int side = 0; side < SIDES; side++)
+            exposed += Long.bitCount(nonEmpty(side) & ~neighbours(occupied, side));
+        return exposed;
+    }
+
+    /**
+     * @return cells on the opposite side with a connector of one of the given types (bitmask of ordinals)
+     */
+    private long facingConnectors(int side, int types) {
+        int opposite = (side + 2) % SIDES;
+        long cells = 0;
+        for (int type = 0; type < TYPES.length; type++)
+            if ((types & (1 << type)) != 0) cells |= connectors[opposite][type];
+        return cells;
+    }
+
+    /**
+     * @return cells whose neighbour on the given side is one of the given cells
+     */
+    public static long neighbours(long cells, int side) {
+        return switch (side) {
+            case NORTH -> (cells << COLUMNS) & ALL_CELLS;
+            case EAST -> (cells >>> 1) & ~LAST_COLUMN;
+            case SOUTH -> cells >>> COLUMNS;
+            default -> (cells << 1) & ~FIRST_COLUMN & ALL_CELLS;
+        };
+    }
+
+    public static int cell(int row, int col) {
+        return row * COLUMNS + col;
+    }
+
+    public static int row(int cell) {
+        return cell / COLUMNS;
+    }
+
+    public static int col(int cell) {
+        return cell % COLUMNS;
+    }
+
+}
@@ -5,8 +5,14 @@ import it.polimi.ingsw.network.messages.MessageType;
 /**
  * Event signaling the end of a batch of related events.
  * Marks the conclusion of a group of events that should be processed together.
+ *
+ * @param sequence sequence of the batch in the event log of its game, 0 if the batch isn't of a game
  */
-public record BatchEndedEvent() implements Event {
+public record BatchEndedEvent(long sequence) implements Event {
+
+    public BatchEndedEvent() {
+        this(0);
+    }
 
     @Override
     public MessageType eventType() { return MessageType.BATCH_END; }
@@ -16,7 +22,7 @@ public record BatchEndedEvent() implements Event {
 
     @Override
     public Object[] getArgs() {
-        return new Object[]{};
+        return sequence == 0 ? new Object[]{} : new Object[]{sequence};
     }
 
 }
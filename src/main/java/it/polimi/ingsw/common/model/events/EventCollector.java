@@ -4,35 +4,71 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * Collector responsible for gathering and managing system events.
  * Provides functionality for aggregating and distributing events
  * to their respective recipients.
+ * <p>
+ * Unique events and snapshots are coalesced by key (last writer wins): snapshots are only materialized
+ * when the batch is collected, so a state changed many times by a command is copied and sent once.
  */
 public class EventCollector {
 
     private final List<Event> regularEvents = new ArrayList<>();
-    private final Map<String, Event> uniqueEvents = new HashMap<>();
+    private final Map<String, Supplier<? extends Event>> uniqueEvents = new HashMap<>();
+
+    /** Number of unique events replaced by a later one for each key, created at the first replacement */
+    private Map<String, Integer> coalesced;
+
+    /** Events emitted in the current batch */
+    private int emitted;
 
     public void addRegularEvent(Event event) {
+        emitted++;
         regularEvents.add(event);
     }
 
     public void addUniqueEvent(UniqueEvent event) {
-        uniqueEvents.put(event.getUniqueKey(), event);
+        addSnapshot(event.getUniqueKey(), () -> event);
+    }
+
+    /**
+     * Adds a snapshot of a state, replacing the previous one with the same key.
+     *
+     * @param key      unique key of the event, the same of {@link UniqueEvent#getUniqueKey()}
+     * @param snapshot creates the event from the state at the end of the batch, called once
+     */
+    public void addSnapshot(String key, Supplier<? extends UniqueEvent> snapshot) {
+        emitted++;
+        if (uniqueEvents.put(key, snapshot) != null) {
+            if (coalesced == null) coalesced = new HashMap<>();
+            coalesced.merge(key, 1, Integer::sum);
+        }
     }
 
     public List<Event> getEvents() {
-        List<Event> allEvents = new ArrayList<>();
+        List<Event> allEvents = new ArrayList<>(regularEvents.size() + uniqueEvents.size());
         allEvents.addAll(regularEvents);
-        allEvents.addAll(uniqueEvents.values());
+
+        long bytesSaved = 0;
+        for (Map.Entry<String, Supplier<? extends Event>> entry : uniqueEvents.entrySet()) {
+            Event event = entry.getValue().get();
+            allEvents.add(event);
+            if (coalesced != null && coalesced.containsKey(entry.getKey()))
+                bytesSaved += (long) coalesced.get(entry.getKey()) * EventContext.getFrameSize(event.eventType());
+        }
+
+        EventContext.recordBatch(emitted, emitted - allEvents.size(), bytesSaved);
         return allEvents;
     }
 
     public void clear() {
         regularEvents.clear();
         uniqueEvents.clear();
+        coalesced = null;
+        emitted = 0;
     }
 
 }
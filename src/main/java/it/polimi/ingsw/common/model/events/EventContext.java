@@ -1,6 +1,11 @@
 package it.polimi.ingsw.common.model.events;
 
+import it.polimi.ingsw.network.messages.MessageType;
+
 import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 
 /**
  * Class providing context for event processing.
@@ -11,10 +16,62 @@ public class EventContext {
 
     private static final ThreadLocal<EventCollector> collector = ThreadLocal.withInitial(EventCollector::new);
 
+    /** Collected batches with at least one event, i.e. commands that changed something */
+    private static final LongAdder batches = new LongAdder();
+
+    /** Events emitted in the collected batches */
+    private static final LongAdder emittedEvents = new LongAdder();
+
+    /** Events dropped because a later one with the same key replaced them */
+    private static final LongAdder coalescedEvents = new LongAdder();
+
+    /** Estimated bytes not sent to each recipient thanks to the coalesced events */
+    private static final LongAdder bytesSaved = new LongAdder();
+
+    /** Bytes of the last frame encoded for each event type, by ordinal, 0 until one is encoded */
+    private static final AtomicIntegerArray frameSizes = new AtomicIntegerArray(MessageType.values().length);
+
+    /**
+     * Counters of the event coalescing.
+     *
+     * @param batches         collected batches with at least one event
+     * @param emittedEvents   events emitted in the batches
+     * @param coalescedEvents events replaced by a later one with the same key
+     * @param bytesSaved      estimated bytes saved for each recipient, each coalesced event counted as the last frame of its type
+     */
+    public record CoalescingStats(long batches, long emittedEvents, long coalescedEvents, long bytesSaved) {
+
+        /**
+         * @return average number of events saved by a command
+         */
+        public double coalescedPerBatch() {
+            return batches == 0 ? 0 : (double) coalescedEvents / batches;
+        }
+
+        /**
+         * @return average number of bytes saved by a command for each recipient
+         */
+        public double bytesSavedPerBatch() {
+            return batches == 0 ? 0 : (double) bytesSaved / batches;
+        }
+
+    }
+
     public static void emit(Event event) {
         event.emitTo(collector.get());
     }
 
+    /**
+     * Emits a snapshot of a state that is materialized when the events are collected.
+     * Only the last snapshot of a type emitted in the batch is created and sent.
+     *
+     * @param type     type of the event, its name is the unique key
+     * @param snapshot creates the event from the current state
+     */
+    public static void emitSnapshot(MessageType type, Supplier<? extends UniqueEvent> snapshot) {
+        collector.get().addSnapshot(type.toString(), snapshot);
+    }
+
     public static List<Event> getAndClear() {
         List<Event> events = collector.get().getEvents();
         collector.get().clear();
@@ -25,4 +82,44 @@ public class EventContext {
         collector.get().clear();
     }
 
-}
\ No newline at end of file
+    /**
+     * @return the counters of the event coalescing since the server start
+     */
+    public static CoalescingStats getCoalescingStats() {
+        return new CoalescingStats(batches.sum(), emittedEvents.sum(), coalescedEvents.sum(), bytesSaved.sum());
+    }
+
+    /**
+     * Records the size of a frame encoded for an event, used to estimate the bytes saved by the later coalesced events
+     * of its type without encoding them.
+     *
+     * @param type  type of the event
+     * @param bytes bytes of its frame
+     */
+    public static void recordFrameSize(MessageType type, int bytes) {
+        frameSizes.set(type.ordinal(), bytes);
+    }
+
+    /**
+     * @return bytes of the last frame encoded for an event type, 0 if none has been encoded yet
+     */
+    static int getFrameSize(MessageType type) {
+        return frameSizes.get(type.ordinal());
+    }
+
+    /**
+     * Records the counters of a collected batch.
+     *
+     * @param emitted   events emitted in the batch
+     * @param coalesced events replaced by a later one
+     * @param bytes     estimated bytes saved for each recipient
+     */
+    static void recordBatch(int emitted, int coalesced, long bytes) {
+        if (emitted == 0) return;
+        batches.increment();
+        emittedEvents.add(emitted);
+        coalescedEvents.add(coalesced);
+        bytesSaved.add(bytes);
+    }
+
+}
@@ -5,7 +5,6 @@ import it.polimi.ingsw.common.model.events.UniqueEvent;
 import it.polimi.ingsw.network.messages.MessageType;
 
 import java.util.AbstractMap.SimpleEntry;
-import java.util.ArrayList;
 import java.util.List;
 
 public record PlayersPositionUpdatedEvent(List<String> starting, List<SimpleEntry<String, Integer>> players) implements UniqueEvent {
@@ -16,12 +15,12 @@ public record PlayersPositionUpdatedEvent(List<String> starting, List<SimpleEntr
     @Override
     public EventVisibility getVisibility() { return EventVisibility.ALL_PLAYERS; }
 
+    /**
+     * The lists are sent as they are: the event is a snapshot created by the board, never modified
+     */
     @Override
     public Object[] getArgs() {
-        List<SimpleEntry<String, Integer>> playersCopy = players.stream()
-            .map(SimpleEntry::new)
-            .toList();
-        return new Object[]{ new ArrayList<>(starting), playersCopy };
+        return new Object[]{ starting, players };
     }
 
 }
\ No newline at end of file
@@ -5,7 +5,6 @@ import it.polimi.ingsw.common.model.events.EventVisibility;
 import it.polimi.ingsw.common.model.events.UniqueEvent;
 import it.polimi.ingsw.network.messages.MessageType;
 
-import java.util.HashMap;
 import java.util.Map;
 
 public record PlayersStateUpdatedEvent(Map<String, PlayerState> states) implements UniqueEvent {
@@ -16,9 +15,12 @@ public record PlayersStateUpdatedEvent(Map<String, PlayerState> states) implemen
     @Override
     public EventVisibility getVisibility() { return EventVisibility.ALL_PLAYERS; }
 
+    /**
+     * The map is sent as it is: the event is a snapshot created by the model, never modified
+     */
     @Override
     public Object[] getArgs() {
-        return new Object[]{ new HashMap<>(states) };
+        return new Object[]{ states };
     }
 
 }
@@ -0,0 +1,245 @@
+package it.polimi.ingsw.controller;
+
+import it.polimi.ingsw.common.model.events.Event;
+import it.polimi.ingsw.common.model.events.EventContext;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Mailbox of a single game: commands are queued and processed in order, one at a time, so the model
+ * has a single writer and needs no lock.
+ * There's no dedicated thread: a caller finding the mailbox idle processes it on its own thread until its command
+ * has completed, then hands the commands queued behind it off to a virtual thread, so its latency only depends
+ * on the commands queued before it. The others wait for the result of their command.
+ * The fire-and-forget commands are always processed by a virtual thread, so e.g. the hourglass scheduler never
+ * runs a game. Every command runs with an empty {@link EventContext}, the context of the thread processing
+ * the mailbox is restored afterwards.
+ * <p>
+ * Every command holds the exclusive lock of the actor, so the commands running outside the mailbox
+ * (e.g. the moves of the building phase) can share the model with each other but not with a command.
+ */
+public class GameActor implements Executor {
+
+    private final Queue<Command<?>> mailbox;
+
+    /**
+     * Lock held while running a command
+     */
+    private final Lock exclusive;
+
+    /**
+     * True while a thread is processing the mailbox
+     */
+    private final AtomicBoolean running;
+
+    /**
+     * Thread processing the mailbox, null if idle
+     */
+    private volatile Thread owner;
+
+    private final AtomicInteger queueDepth;
+    private final AtomicInteger maxQueueDepth;
+    private final LongAdder processedCommands;
+    private final LongAdder totalWaitNanos;
+    private final LongAdder totalLatencyNanos;
+    private final AtomicLong maxLatencyNanos;
+
+    /**
+     * A queued command
+     *
+     * @param action     the command, its result is given to the caller
+     * @param enqueuedAt {@link System#nanoTime()} of the request
+     * @param result     result of the command, null for fire-and-forget commands
+     */
+    private record Command<T>(Supplier<T> action, long enqueuedAt, CompletableFuture<T> result) {}
+
+    public GameActor() {
+        this(new ReentrantLock());
+    }
+
+    /**
+     * @param exclusive lock held while running a command, it must be reentrant
+     */
+    public GameActor(Lock exclusive) {
+        this.mailbox = new ConcurrentLinkedQueue<>();
+        this.exclusive = exclusive;
+        this.running = new AtomicBoolean(false);
+
+        this.queueDepth = new AtomicInteger();
+        this.maxQueueDepth = new AtomicInteger();
+        this.processedCommands = new LongAdder();
+        this.totalWaitNanos = new LongAdder();
+        this.totalLatencyNanos = new LongAdder();
+        this.maxLatencyNanos = new AtomicLong();
+    }
+
+    /**
+     * Runs a command in order with the others and waits for its result.
+     * A command sent while processing the mailbox, e.g. by another command, is run immediately.
+     *
+     * @param action the command
+     * @return the result of the command
+     * @throws RuntimeException the exception thrown by the command
+     */
+    public <T> T call(Supplier<T> action) {
+        if (owner == Thread.currentThread())
+            return isolated(action);
+
+        Command<T> command = new Command<>(action, System.nanoTime(), new CompletableFuture<>());
+        enqueue(command);
+
+        try {
+            return command.result().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw e;
+        }
+    }
+
+    /**
+     * Queues a command without waiting for it, used by the threads outside the network layer (e.g. the hourglass).
+     * The command is run by a virtual thread if the mailbox is idle, otherwise by the thread processing it.
+     *
+     * @param action the command
+     */
+    @Override
+    public void execute(Runnable action) {
+        enqueue(new Command<>(() -> {
+            action.run();
+            return null;
+        }, System.nanoTime(), null));
+    }
+
+    /**
+     * @return number of commands waiting in the mailbox
+     */
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * @return highest number of commands waiting in the mailbox at the same time
+     */
+    public int getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    /**
+     * @return number of commands processed so far
+     */
+    public long getProcessedCommands() {
+        return processedCommands.sum();
+    }
+
+    /**
+     * @return average time spent by a command in the mailbox before running, in nanoseconds
+     */
+    public long getAverageWaitNanos() {
+        long processed = processedCommands.sum();
+        return processed == 0 ? 0 : totalWaitNanos.sum() / processed;
+    }
+
+    /**
+     * @return average time from the request of a command to its completion, in nanoseconds
+     */
+    public long getAverageLatencyNanos() {
+        long processed = processedCommands.sum();
+        return processed == 0 ? 0 : totalLatencyNanos.sum() / processed;
+    }
+
+    /**
+     * @return longest time from the request of a command to its completion, in nanoseconds
+     */
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos.get();
+    }
+
+    private void enqueue(Command<?> command) {
+        mailbox.add(command);
+        maxQueueDepth.accumulateAndGet(queueDepth.incrementAndGet(), Math::max);
+
+        if (command.result() != null)
+            drain(command.result());
+        handOff();
+    }
+
+    /**
+     * Processes the mailbox on the current thread, if idle, until the given command has completed
+     *
+     * @param until result of the command, null to process the mailbox until it's empty
+     */
+    private void drain(CompletableFuture<?> until) {
+        while ((until == null || !until.isDone()) && !mailbox.isEmpty() && running.compareAndSet(false, true)) { // Commands added while the last owner was leaving
+            owner = Thread.currentThread();
+            try {
+                processMailbox(until);
+            } finally {
+                owner = null;
+                running.set(false);
+            }
+        }
+    }
+
+    /**
+     * Processes the commands left in the mailbox on a virtual thread, if nobody is processing it
+     */
+    private void handOff() {
+        if (!mailbox.isEmpty() && !running.get())
+            Thread.ofVirtual().name("game-actor").start(() -> drain(null));
+    }
+
+    private void processMailbox(CompletableFuture<?> until) {
+        Command<?> command;
+        while ((until == null || !until.isDone()) && (command = mailbox.poll()) != null) {
+            queueDepth.decrementAndGet();
+            long start = System.nanoTime();
+            process(command);
+
+            long end = System.nanoTime();
+            processedCommands.increment();
+            totalWaitNanos.add(start - command.enqueuedAt());
+            totalLatencyNanos.add(end - command.enqueuedAt());
+            maxLatencyNanos.accumulateAndGet(end - command.enqueuedAt(), Math::max);
+        }
+    }
+
+    private <T> void process(Command<T> command) {
+        exclusive.lock();
+        try {
+            T value = isolated(command.action());
+            if (command.result() != null) command.result().complete(value);
+        } catch (RuntimeException | Error e) {
+            if (command.result() != null) command.result().completeExceptionally(e);
+            else e.printStackTrace();
+        } finally {
+            exclusive.unlock();
+        }
+    }
+
+    /**
+     * Runs an action with an empty event context, restoring the current one afterwards
+     */
+    static <T> T isolated(Supplier<T> action) {
+        List<Event> saved = EventContext.getAndClear();
+        try {
+            return action.get();
+        } finally {
+            EventContext.clear();
+            saved.forEach(EventContext::emit);
+        }
+    }
+
+}
@@ -2,7 +2,10 @@ package it.polimi.ingsw.controller;
 
 import it.polimi.ingsw.common.dto.ModelDTO;
 import it.polimi.ingsw.common.dto.GameStateDTOFactory;
+import it.polimi.ingsw.common.model.PlacementHints;
 import it.polimi.ingsw.common.model.events.game.ErrorEvent;
+import it.polimi.ingsw.controller.journal.GameCommand;
+import it.polimi.ingsw.controller.journal.GameJournal;
 import it.polimi.ingsw.model.ModelFacade;
 import it.polimi.ingsw.model.ModelFacadeAdvancedMode;
 import it.polimi.ingsw.model.ModelFacadeLearnerMode;
@@ -10,17 +13,31 @@ import it.polimi.ingsw.common.model.events.EventContext;
 import it.polimi.ingsw.common.model.events.Event;
 import it.polimi.ingsw.common.model.enums.AlienType;
 import it.polimi.ingsw.common.model.enums.ColorType;
+import it.polimi.ingsw.common.model.enums.PlayerState;
 import it.polimi.ingsw.model.player.PlayerData;
+import it.polimi.ingsw.network.metrics.ServerMetrics;
+import it.polimi.ingsw.network.metrics.jfr.CommandJfrEvent;
 
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * The GameController class serves as the main controller for the game,
  * coordinating interactions between the view and model layers.
  * It creates a game instance via {@link ModelFacade} and provides
- * synchronized methods for all game operations.
+ * methods for all game operations. Operations are commands processed one at a time
+ * by the {@link GameActor} of the game, together with the hourglass expirations;
+ * each command produces its own batch of events. The moves of the tiles in the building phase
+ * run in parallel for different players, outside the mailbox.
+ * When the game has a {@link GameJournal}, every operation is recorded before it runs and its events are returned
+ * once it's on the disk.
  *
  * <p>This controller implements the MVC pattern by:
  * <ul>
@@ -45,6 +62,26 @@ public class GameController {
      */
     private final ModelFacade model;
 
+    /**
+     * Mailbox running the operations on the game one at a time
+     */
+    private final GameActor actor;
+
+    /**
+     * Shared by the moves of the building phase, exclusive for the commands of the mailbox
+     */
+    private final ReentrantReadWriteLock phaseLock;
+
+    /**
+     * Lock of each player, so the ship of a player is modified by one move at a time
+     */
+    private final Map<String, Lock> playerLocks;
+
+    /**
+     * Journal recording the operations on the game, null if the game isn't journaled
+     */
+    private volatile GameJournal journal;
+
     /**
      * Constructs a new GameController with the specified players and game mode.
      *
@@ -55,7 +92,23 @@ public class GameController {
      * @throws IllegalArgumentException if usernames is null or empty
      */
     public GameController(List<String> usernames, boolean learnerMode) {
-        model = learnerMode ? new ModelFacadeLearnerMode(usernames) : new ModelFacadeAdvancedMode(usernames);
+        this(usernames, learnerMode, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Constructs a new GameController whose dice rolls and shuffles are generated from a seed,
+     * e.g. to replay a game.
+     *
+     * @param usernames   a list of player usernames participating in the game
+     * @param learnerMode true to create a learner mode game, false to create an advanced mode game
+     * @param seed        the seed of the random generator of the game
+     */
+    public GameController(List<String> usernames, boolean learnerMode, long seed) {
+        model = learnerMode ? new ModelFacadeLearnerMode(usernames, seed) : new ModelFacadeAdvancedMode(usernames, seed);
+        phaseLock = new ReentrantReadWriteLock();
+        playerLocks = usernames.stream().collect(Collectors.toUnmodifiableMap(u -> u, _ -> new ReentrantLock()));
+        actor = new GameActor(phaseLock.writeLock());
+        model.setTimerExecutor(actor);
     }
 
     /**
@@ -64,8 +117,11 @@ public class GameController {
      *
      * @throws RuntimeException if the match cannot be started due to invalid state
      */
-    public synchronized void startMatch() {
-        model.startMatch();
+    public void startMatch() {
+        actor.call(() -> {
+            model.startMatch();
+            return EventContext.getAndClear();
+        }).forEach(EventContext::emit);
     }
 
     /**
@@ -76,16 +132,8 @@ public class GameController {
      * @return a list of events generated by this action, including any error events
      * @throws IllegalArgumentException if username is null or componentId is invalid
      */
-    public synchronized List<Event> pickComponent(String username, int componentId) {
-        EventContext.clear();
-
-        try {
-            model.pickComponent(username, componentId);
-        } catch (RuntimeException e) {
-            EventContext.emit(new ErrorEvent(e.getMessage()));
-        }
-
-        return EventContext.getAndClear();
+    public List<Event> pickComponent(String username, int componentId) {
+        return executeBuilding(GameCommand.PICK_COMPONENT, username, () -> model.pickComponent(username, componentId), componentId);
     }
 
     /**
@@ -96,16 +144,8 @@ public class GameController {
      * @return a list of events generated by this action, including any error events
      * @throws IllegalArgumentException if username is null or componentId is invalid
      */
-    public synchronized List<Event> releaseComponent(String username, int componentId) {
-        EventContext.clear();
-
-        try {
-            model.releaseComponent(username, componentId);
-        } catch (RuntimeException e) {
-            EventContext.emit(new ErrorEvent(e.getMessage()));
-        }
-
-        return EventContext.getAndClear();
+    public List<Event> releaseComponent(String username, int componentId) {
+        return executeBuilding(GameCommand.RELEASE_COMPONENT, username, () -> model.releaseComponent(username, componentId), componentId);
     }
 
     /**
@@ -116,16 +156,8 @@ public class GameController {
      * @return a list of events generated by this action, including any error events
      * @throws IllegalArgumentException if username is null or componentId is invalid
      */
-    public synchronized List<Event> reserveComponent(String username, int componentId) {
-        EventContext.clear();
-
-        try {
-            model.reserveComponent(username, componentId);
-        } catch (RuntimeException e) {
-            EventContext.emit(new ErrorEvent(e.getMessage()));
-        }
-
-        return EventContext.getAndClear();
+    public List<Event> reserveComponent(String username, int componentId) {
+        return executeBuilding(GameCommand.RESERVE_COMPONENT, username, () -> model.reserveComponent(username, componentId), componentId);
     }
 
     /**
@@ -140,16 +172,8 @@ public class GameController {
      * @return a list of events generated by this action, including any error events
      * @throws IllegalArgumentException if parameters are invalid
      */
-    public synchronized List<Event> insertComponent(String username, int componentId, int row, int col, int rotations, boolean weld) {
-        EventContext.clear();
-
-        try {
-            model.insertComponent(username, componentId, row, col, rotations, weld);
-        } catch (RuntimeException e) {
-            EventContext.emit(new ErrorEvent(e.getMessage()));
-        }
-
-        return EventContext.getAndClear();
+    public List<Event> insertComponent(String username, int componentId, int row, int col, int rotations, boolean weld) {
+        return executeBuilding(GameCommand.INSERT_COMPONENT, username, () -> model.insertComponent(username, componentId, row, col, rotations, weld), componentId, row, col, rotations, weld);
     }
 
     /**
@@ -163,16 +187,8 @@ public class GameController {
      * @return a list of events generated by this action, including any error events
      * @throws IllegalArgumentException if parameters are invalid
      */
-    public synchronized List<Event> moveComponent(String username, int componentId, int row, int col, int rotations) {
-        EventContext.clear();
-
-        try {
-            model.moveComponent(username, componentId, row, col, rotations);
-        } catch (RuntimeException e) {
-            EventContext.emit(new ErrorEvent(e.getMessage()));
-        }
-
-        return EventContext.getAndClear();
+    public List<Event> moveComponent(String username, int componentId, int row, int col, int rotations) {
+        return executeBuilding(GameCommand.MOVE_COMPONENT, username, () -> model.moveComponent(username, componentId, row, col, rotations), componentId, row, col, rotations);
     }
 
     /**
@@ -184,15 +200,18 @@ public class GameController {
      * @return a list of events generated by this action, including any error events
      * @throws IllegalArgumentException if parameters are invalid
      */
-    public synchronized List<Event> rotateComponent(String username, int componentId, int num) {
-        EventContext.clear();
+    public List<Event> rotateComponent(String username, int componentId, int num) {
+        return executeBuilding(GameCommand.ROTATE_COMPONENT, username, () -> model.rotateComponent(username, componentId, num), componentId, num);
+    }
 
-        try {
-            model.rotateComponent(username, componentId, num);
-        } catch (RuntimeException e) {
-            EventContext.emit(new ErrorEvent(e.getMessage()));
-        }
-        return EventContext.getAndClear();
+    /**
+     * Finds the legal placements of the component in the hand of a player.
+     *
+     * @param username the username of the player
+     * @return the legal placements, the ones leaving fewer exposed connectors first
+     */
+    public List<PlacementHints.Placement> getPlacementHints(String username) {
+        return actor.call(() -> model.getPlacementHints(username));
     }
 
     /**
@@ -203,15 +222,8 @@ public class GameController {
      * @return a list of events generated by this action, including any error events
      * @throws IllegalArgumentException if parameters are invalid
      */
-    public synchronized List<Event> lookCardPile(String username, int deckIndex) {
-        EventContext.clear();
-
-        try {
-            model.lookCardPile(username, deckIndex);
-        } catch (RuntimeException e) {
-            EventContext.emit(new ErrorEvent(e.getMessage()));
-        }
-        return EventContext.getAndClear();
+    public List<Event> lookCardPile(String username, int deckIndex) {
+        return execute(GameCommand.LOOK_CARD_PILE, username, () -> model.lookCardPile(username, deckIndex), deckIndex);
     }
 
     /**
@@ -221,16 +233,8 @@ public class GameController {
      * @return a list of events generated by this action, including any error events
      * @throws IllegalArgumentException if username is null
      */
-    public synchronized List<Event> releaseCardPile(String username) {
-        EventContext.clear();
-
-        try {
-            model.releaseCardPile(username);
-        } catch (RuntimeException e) {
-            EventContext.emit(new ErrorEvent(e.getMessage()));
-        }
-
-        return EventContext.getAndClear();
+    public List<Event> releaseCardPile(String username) {
+        return execute(GameCommand.RELEASE_CARD_PILE, username, () -> model.releaseCardPile(username));
     }
 
     /**
@@ -241,16 +245,8 @@ public class GameController {
      * @return a list of events generated by this action, including any error events
      * @throws IllegalArgumentException if parameters are invalid
      */
-    public synchronized List<Event> moveHourglass(String username, Consumer<List<Event>> callback) {
-        EventContext.clear();
-
-        try {
-            model.moveHourglass(username, callback);
-        } catch (RuntimeException e) {
-            EventContext.emit(new ErrorEvent(e.getMessage()));
-        }
-
-        return EventContext.getAndClear();
+    public List<Event> moveHourglass(String username, Consumer<List<Event>> callback) {
+        return execute(GameCommand.MOVE_HOURGLASS, username, () -> model.moveHourglass(username, callback));
     }
 
     /**
@@ -260,16 +256,8 @@ public class GameController {
      * @return a list of events generated by this action, including any error events
      * @throws IllegalArgumentException if username is null
      */
-    public synchronized List<Event> setReady(String username) {
-        EventContext.clear();
-
-        try {
-            model.setReady(username);
-        } catch (RuntimeException e) {
-            EventContext.emit(new ErrorEvent(e.getMessage()));
-        }
-
-        return EventContext.getAndClear();
+    public List<Event> setReady(String username) {
+        return execute(GameCommand.SET_READY, username, () -> model.setReady(username));
     }
 
     /**
@@ -280,16 +268,8 @@ public class GameController {
      * @return a list of events generated by this action, including any error events
      * @throws IllegalArgumentException if parameters are invalid
      */
-    public synchronized List<Event> checkShip(String username, List<Integer> toRemove) {
-        EventContext.clear();
-
-        try {
-            model.checkShip(username, toRemove);
-        } catch (RuntimeException e) {
-            EventContext.emit(new ErrorEvent(e.getMessage()));
-        }
-
-        return EventContext.getAndClear();
+    public List<Event> checkShip(String username, List<Integer> toRemove) {
+        return execute(GameCommand.CHECK_SHIP, username, () -> model.checkShip(username, toRemove), toRemove);
     }
 
     /**
@@ -300,16 +280,8 @@ public class GameController {
      * @return a list of events generated by this action, including any error events
      * @throws IllegalArgumentException if parameters are invalid
      */
-    public synchronized List<Event> chooseAlien(String username, Map<Integer, AlienType> aliensIds) {
-        EventContext.clear();
-
-        try {
-            model.chooseAlien(username, aliensIds);
-        } catch (RuntimeException e) {
-            EventContext.emit(new ErrorEvent(e.getMessage()));
-        }
-
-        return EventContext.getAndClear();
+    public List<Event> chooseAlien(String username, Map<Integer, AlienType> aliensIds) {
+        return execute(GameCommand.CHOOSE_ALIEN, username, () -> model.chooseAlien(username, aliensIds), aliensIds);
     }
 
     /**
@@ -320,16 +292,8 @@ public class GameController {
      * @return a list of events generated by this action, including any error events
      * @throws IllegalArgumentException if parameters are invalid
      */
-    public synchronized List<Event> chooseShipPart(String username, int partIndex) {
-        EventContext.clear();
-
-        try {
-            model.chooseShipPart(username, partIndex);
-        } catch (RuntimeException e) {
-            EventContext.emit(new ErrorEvent(e.getMessage()));
-        }
-
-        return EventContext.getAndClear();
+    public List<Event> chooseShipPart(String username, int partIndex) {
+        return execute(GameCommand.CHOOSE_SHIP_PART, username, () -> model.chooseShipPart(username, partIndex), partIndex);
     }
 
     /**
@@ -339,16 +303,8 @@ public class GameController {
      * @return a list of events generated by this action, including any error events
      * @throws IllegalArgumentException if username is null
      */
-    public synchronized List<Event> drawCard(String username) {
-        EventContext.clear();
-
-        try {
-            model.drawCard(username);
-        } catch (RuntimeException e) {
-            EventContext.emit(new ErrorEvent(e.getMessage()));
-        }
-
-        return EventContext.getAndClear();
+    public List<Event> drawCard(String username) {
+        return execute(GameCommand.DRAW_CARD, username, () -> model.drawCard(username));
     }
 
     /**
@@ -360,16 +316,8 @@ public class GameController {
      * @return a list of events generated by this action, including any error events
      * @throws IllegalArgumentException if parameters are invalid
      */
-    public synchronized List<Event> activateCannons(String username, List<Integer> batteriesIds, List<Integer> cannonComponentsIds) {
-        EventContext.clear();
-
-        try {
-            model.activateCannons(username, batteriesIds, cannonComponentsIds);
-        } catch (RuntimeException e) {
-            EventContext.emit(new ErrorEvent(e.getMessage()));
-        }
-
-        return EventContext.getAndClear();
+    public List<Event> activateCannons(String username, List<Integer> batteriesIds, List<Integer> cannonComponentsIds) {
+        return execute(GameCommand.ACTIVATE_CANNONS, username, () -> model.activateCannons(username, batteriesIds, cannonComponentsIds), batteriesIds, cannonComponentsIds);
     }
 
     /**
@@ -381,16 +329,8 @@ public class GameController {
      * @return a list of events generated by this action, including any error events
      * @throws IllegalArgumentException if parameters are invalid
      */
-    public synchronized List<Event> activateEngines(String username, List<Integer> batteriesIds, List<Integer> engineComponentsIds) {
-        EventContext.clear();
-
-        try {
-            model.activateEngines(username, batteriesIds, engineComponentsIds);
-        } catch (RuntimeException e) {
-            EventContext.emit(new ErrorEvent(e.getMessage()));
-        }
-
-        return EventContext.getAndClear();
+    public List<Event> activateEngines(String username, List<Integer> batteriesIds, List<Integer> engineComponentsIds) {
+        return execute(GameCommand.ACTIVATE_ENGINES, username, () -> model.activateEngines(username, batteriesIds, engineComponentsIds), batteriesIds, engineComponentsIds);
     }
 
     /**
@@ -401,16 +341,8 @@ public class GameController {
      * @return a list of events generated by this action, including any error events
      * @throws IllegalArgumentException if parameters are invalid
      */
-    public synchronized List<Event> activateShield(String username, Integer batteryId) {
-        EventContext.clear();
-
-        try {
-            model.activateShield(username, batteryId);
-        } catch (RuntimeException e) {
-            EventContext.emit(new ErrorEvent(e.getMessage()));
-        }
-
-        return EventContext.getAndClear();
+    public List<Event> activateShield(String username, Integer batteryId) {
+        return execute(GameCommand.ACTIVATE_SHIELD, username, () -> model.activateShield(username, batteryId), batteryId);
     }
 
     /**
@@ -422,16 +354,8 @@ public class GameController {
      * @return a list of events generated by this action, including any error events
      * @throws IllegalArgumentException if parameters are invalid
      */
-    public synchronized List<Event> updateGoods(String username, Map<Integer, List<ColorType>> cargoHoldsIds, List<Integer> batteriesIds) {
-        EventContext.clear();
-
-        try {
-            model.updateGoods(username, cargoHoldsIds, batteriesIds);
-        } catch (RuntimeException e) {
-            EventContext.emit(new ErrorEvent(e.getMessage()));
-        }
-
-        return EventContext.getAndClear();
+    public List<Event> updateGoods(String username, Map<Integer, List<ColorType>> cargoHoldsIds, List<Integer> batteriesIds) {
+        return execute(GameCommand.UPDATE_GOODS, username, () -> model.updateGoods(username, cargoHoldsIds, batteriesIds), cargoHoldsIds, batteriesIds);
     }
 
     /**
@@ -442,16 +366,8 @@ public class GameController {
      * @return a list of events generated by this action, including any error events
      * @throws IllegalArgumentException if parameters are invalid
      */
-    public synchronized List<Event> removeCrew(String username, List<Integer> cabinsIds) {
-        EventContext.clear();
-
-        try {
-            model.removeCrew(username, cabinsIds);
-        } catch (RuntimeException e) {
-            EventContext.emit(new ErrorEvent(e.getMessage()));
-        }
-
-        return EventContext.getAndClear();
+    public List<Event> removeCrew(String username, List<Integer> cabinsIds) {
+        return execute(GameCommand.REMOVE_CREW, username, () -> model.removeCrew(username, cabinsIds), cabinsIds);
     }
 
     /**
@@ -461,16 +377,8 @@ public class GameController {
      * @return a list of events generated by this action, including any error events
      * @throws IllegalArgumentException if username is null
      */
-    public synchronized List<Event> rollDices(String username) {
-        EventContext.clear();
-
-        try {
-            model.rollDices(username);
-        } catch (RuntimeException e) {
-            EventContext.emit(new ErrorEvent(e.getMessage()));
-        }
-
-        return EventContext.getAndClear();
+    public List<Event> rollDices(String username) {
+        return execute(GameCommand.ROLL_DICES, username, () -> model.rollDices(username));
     }
 
     /**
@@ -481,16 +389,8 @@ public class GameController {
      * @return a list of events generated by this action, including any error events
      * @throws IllegalArgumentException if username is null
      */
-    public synchronized List<Event> getBoolean(String username, boolean value) {
-        EventContext.clear();
-
-        try {
-            model.getBoolean(username, value);
-        } catch (RuntimeException e) {
-            EventContext.emit(new ErrorEvent(e.getMessage()));
-        }
-
-        return EventContext.getAndClear();
+    public List<Event> getBoolean(String username, boolean value) {
+        return execute(GameCommand.GET_BOOLEAN, username, () -> model.getBoolean(username, value), value);
     }
 
     /**
@@ -501,16 +401,8 @@ public class GameController {
      * @return a list of events generated by this action, including any error events
      * @throws IllegalArgumentException if parameters are invalid
      */
-    public synchronized List<Event> getIndex(String username, Integer value) {
-        EventContext.clear();
-
-        try {
-            model.getIndex(username, value);
-        } catch (RuntimeException e) {
-            EventContext.emit(new ErrorEvent(e.getMessage()));
-        }
-
-        return EventContext.getAndClear();
+    public List<Event> getIndex(String username, Integer value) {
+        return execute(GameCommand.GET_INDEX, username, () -> model.getIndex(username, value), value);
     }
 
     /**
@@ -520,16 +412,8 @@ public class GameController {
      * @return a list of events generated by this action, including any error events
      * @throws IllegalArgumentException if username is null
      */
-    public synchronized List<Event> endFlight(String username) {
-        EventContext.clear();
-
-        try {
-            model.endFlight(username);
-        } catch (RuntimeException e) {
-            EventContext.emit(new ErrorEvent(e.getMessage()));
-        }
-
-        return EventContext.getAndClear();
+    public List<Event> endFlight(String username) {
+        return execute(GameCommand.END_FLIGHT, username, () -> model.endFlight(username));
     }
 
     /**
@@ -539,12 +423,8 @@ public class GameController {
      * @param username the username of the player leaving the game
      * @throws IllegalArgumentException if username is null
      */
-    public synchronized void leaveGame(String username) {
-        try {
-            model.leaveGame(username);
-        } catch (RuntimeException e) {
-            EventContext.emit(new ErrorEvent(e.getMessage()));
-        }
+    public void leaveGame(String username) {
+        execute(GameCommand.LEAVE_GAME, username, () -> model.leaveGame(username)).forEach(EventContext::emit);
     }
 
     /**
@@ -554,12 +434,44 @@ public class GameController {
      * @param username the username of the player rejoining the game
      * @throws IllegalArgumentException if username is null
      */
-    public synchronized void rejoinGame(String username) {
-        try {
-            model.rejoinGame(username);
-        } catch (RuntimeException e) {
-            EventContext.emit(new ErrorEvent(e.getMessage()));
-        }
+    public void rejoinGame(String username) {
+        execute(GameCommand.REJOIN_GAME, username, () -> model.rejoinGame(username)).forEach(EventContext::emit);
+    }
+
+    /**
+     * Ends the running hourglass period now, as its expiration does, e.g. when the game is replayed.
+     */
+    public void expireHourglass() {
+        actor.call(() -> {
+            model.expireHourglass();
+            return null;
+        });
+    }
+
+    /**
+     * Records the operations on the game in a journal from now on, including the hourglass expirations,
+     * so that the game can be rebuilt after a restart of the server.
+     *
+     * @param journal the journal of the game
+     */
+    public void attachJournal(GameJournal journal) {
+        actor.call(() -> {
+            this.journal = journal;
+            model.setHourglassListener(() -> journal.append(GameCommand.EXPIRE_HOURGLASS, null));
+            return null;
+        });
+    }
+
+    /**
+     * Disposes the game, e.g. stopping the hourglass, when its lobby is deleted.
+     * Its journal is deleted too.
+     */
+    public void close() {
+        actor.call(() -> {
+            model.close();
+            return null;
+        });
+        if (journal != null) journal.delete();
     }
 
     /**
@@ -568,8 +480,31 @@ public class GameController {
      *
      * @return a ModelDTO representing the current game state
      */
-    public synchronized ModelDTO toDTO() {
-        return GameStateDTOFactory.createFromModel(model);
+    public ModelDTO toDTO() {
+        return actor.call(() -> GameStateDTOFactory.createFromModel(model));
+    }
+
+    /**
+     * Sets the id of the game, used to tag its metrics and recordings.
+     *
+     * @param gameID id of the lobby of the game
+     */
+    public void setGameID(String gameID) {
+        model.setGameID(gameID);
+    }
+
+    /**
+     * @return seed of the random generator of the game, to replay it
+     */
+    public long getSeed() {
+        return model.getBoard().getSeed();
+    }
+
+    /**
+     * @return mailbox of the game, exposing its queue depth and command latency
+     */
+    public GameActor getActor() {
+        return actor;
     }
 
     // TEST only
@@ -578,6 +513,18 @@ public class GameController {
     }
 
     public List<Event> startTest(int testNumber) {
+        long start = System.nanoTime();
+        GameJournal journal = this.journal;
+        List<Event> events = actor.call(() -> {
+            if (journal != null) journal.append(GameCommand.START_TEST, null, testNumber);
+            return runTest(testNumber);
+        });
+        commit();
+        ServerMetrics.getInstance().recordCommand(GameCommand.START_TEST, System.nanoTime() - start, events);
+        return events;
+    }
+
+    private List<Event> runTest(int testNumber) {
         EventContext.clear();
         List<String> usernames = model.getBoard().getStartingDeck().stream().map(PlayerData::getUsername).toList();
         switch (testNumber) {
@@ -1103,4 +1050,111 @@ public class GameController {
         return EventContext.getAndClear();
     }
 
+    /**
+     * Runs a move of a tile in the building phase. While the player is building, the move runs on the
+     * current thread, in parallel with the moves of the other players: the tiles are taken atomically
+     * from the component pool and each ship is only modified by its owner.
+     * In any other state (e.g. looking at a card pile) the move is a command of the mailbox.
+     *
+     * @param command  the move, as recorded in the journal
+     * @param username the player moving the tile
+     * @param action   the move to perform on the model
+     * @param args     arguments of the move, as recorded in the journal
+     * @return a list of events generated by the action, an error event if it has thrown an exception
+     */
+    private List<Event> executeBuilding(GameCommand command, String username, Runnable action, Object... args) {
+        long start = System.nanoTime();
+        CommandJfrEvent recording = new CommandJfrEvent();
+        recording.start();
+        Lock shared = phaseLock.readLock();
+        Lock player = playerLocks.get(username);
+        List<Event> events = null;
+        shared.lock();
+        try {
+            if (player != null && model.getPlayerState(username) == PlayerState.BUILD) {
+                player.lock();
+                try {
+                    recording.running(model, username);
+                    events = GameActor.isolated(() -> collectEvents(recorded(command, username, action, args)));
+                } finally {
+                    player.unlock();
+                }
+            }
+        } finally {
+            shared.unlock();
+        }
+        if (events == null)
+            events = actor.call(() -> {
+                recording.running(model, username);
+                return collectEvents(recorded(command, username, action, args));
+            });
+
+        commit();
+        ServerMetrics.getInstance().recordCommand(command, System.nanoTime() - start, events);
+        recording.complete(command, username, events);
+        return events;
+    }
+
+    /**
+     * Runs an action of a player in the mailbox of the game.
+     *
+     * @param command  the action, as recorded in the journal
+     * @param username the player performing the action
+     * @param action   the action to perform on the model
+     * @param args     arguments of the action, as recorded in the journal
+     * @return a list of events generated by the action, an error event if it has thrown an exception
+     */
+    private List<Event> execute(GameCommand command, String username, Runnable action, Object... args) {
+        long start = System.nanoTime();
+        CommandJfrEvent recording = new CommandJfrEvent();
+        recording.start();
+        List<Event> events = actor.call(() -> {
+            recording.running(model, username);
+            return collectEvents(recorded(command, username, action, args));
+        });
+        commit();
+        ServerMetrics.getInstance().recordCommand(command, System.nanoTime() - start, events);
+        recording.complete(command, username, events);
+        return events;
+    }
+
+    /**
+     * @return the action, recording it in the journal before running it if the game has one
+     */
+    private Runnable recorded(GameCommand command, String username, Runnable action, Object[] args) {
+        GameJournal journal = this.journal;
+        if (journal == null) return action;
+        return () -> journal.record(command, username, args, action);
+    }
+
+    /**
+     * Waits until the commands recorded so far are on the disk, if the game has a journal.
+     * The events of a command are only sent once it can be replayed, or once the journal has given up:
+     * the command has already changed the game, so its events are sent anyway.
+     */
+    private void commit() {
+        GameJournal journal = this.journal;
+        if (journal == null) return;
+        try {
+            journal.commit();
+        } catch (UncheckedIOException e) {
+            System.err.println("[ALL] " + e.getMessage() + ", the last commands may not be replayed after a restart");
+        }
+    }
+
+    /**
+     * Runs an action, converting its exception to an error event.
+     *
+     * @param action the action to perform on the model
+     * @return the events generated by the action
+     */
+    private static List<Event> collectEvents(Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            EventContext.emit(new ErrorEvent(e.getMessage()));
+        }
+        return EventContext.getAndClear();
+    }
+
 }
\ No newline at end of file
@@ -3,18 +3,24 @@ package it.polimi.ingsw.controller;
 import it.polimi.ingsw.common.model.events.game.ErrorEvent;
 import it.polimi.ingsw.controller.exceptions.LobbyNotFoundException;
 import it.polimi.ingsw.controller.exceptions.PlayerAlreadyInException;
+import it.polimi.ingsw.controller.journal.GameJournal;
+import it.polimi.ingsw.controller.journal.JournalStore;
 import it.polimi.ingsw.common.model.events.EventContext;
 import it.polimi.ingsw.common.model.events.Event;
 import it.polimi.ingsw.model.game.Lobby;
 import it.polimi.ingsw.common.model.enums.LobbyState;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 
 /**
  * MainController Class <br>
  * Is the Controller of the controllers, it manages all the available {@link Lobby}
  * and relative games that are running {@link GameController}<br>
- * Allowing players to create, join, reconnect, leave and delete games
+ * Allowing players to create, join, reconnect, leave and delete games <br>
+ * Every operation only locks the lobby it affects, so that unrelated lobbies never contend.
+ * A player is bound to a lobby through an atomic claim in the player index before entering it.
  */
 public class MatchController {
 
@@ -29,13 +35,31 @@ public class MatchController {
      */
     private final Map<String, Lobby> lobbies;
 
+    /**
+     * Index of the lobby each player is currently in, keyed by username
+     */
+    private final Map<String, Lobby> playerLobbies;
+
+    /**
+     * Index of the open lobbies used to place players in random games
+     */
+    private final Matchmaker matchmaker;
+
+    /**
+     * Lobby of each player of a game recovered from its journal, until the player rejoins it
+     */
+    private final Map<String, Lobby> recoveredPlayers;
+
 
     /**
      * Init an empty List of GameController
      * For implementing AF: "multiple games"
      */
     private MatchController() {
-        lobbies = new HashMap<>();
+        lobbies = new ConcurrentHashMap<>();
+        playerLobbies = new ConcurrentHashMap<>();
+        recoveredPlayers = new ConcurrentHashMap<>();
+        matchmaker = new Matchmaker((username, lobby) -> enterLobby(username, lobby, LobbyState.WAITING, false));
     }
 
     /**
@@ -58,15 +82,25 @@ public class MatchController {
      * @param maxPlayers max number of allowed players
      * @param name       lobby's name
      */
-    public synchronized List<Event> createNewGame(String username, int maxPlayers, String name, boolean learnerMode) {
+    public List<Event> createNewGame(String username, int maxPlayers, String name, boolean learnerMode) {
         EventContext.clear();
 
         try {
             if (checkIfIsAnotherLobby(username)) throw new PlayerAlreadyInException("Player is already in another lobby");
             if (lobbies.containsKey(name)) throw new IllegalArgumentException("Lobby name already exists, choose another one");
             Lobby lobby = new Lobby(name, maxPlayers, learnerMode);
-            lobbies.put(name, lobby);
-            lobby.addPlayer(username); // Join in the newly created lobby
+            lobby.getLock().lock(); // Nobody can enter the lobby before its creator
+            try {
+                if (lobbies.putIfAbsent(name, lobby) != null) throw new IllegalArgumentException("Lobby name already exists, choose another one");
+                try {
+                    enterLobby(username, lobby, LobbyState.WAITING, false); // Join in the newly created lobby
+                } catch (RuntimeException e) {
+                    lobbies.remove(name, lobby);
+                    throw e;
+                }
+            } finally {
+                lobby.getLock().unlock();
+            }
         } catch (RuntimeException e) {
             e.printStackTrace();
             EventContext.emit(new ErrorEvent(e.getMessage()));
@@ -81,16 +115,15 @@ public class MatchController {
      * @param username player's username
      * @param gameID   game to join
      */
-    public synchronized List<Event> joinGame(String username, String gameID) {
+    public List<Event> joinGame(String username, String gameID) {
         EventContext.clear();
 
         try {
             if (checkIfIsAnotherLobby(username)) throw new PlayerAlreadyInException("Player is already in another lobby");
-            Optional<Lobby> lobbyOptional = Optional.ofNullable(lobbies.get(gameID));
-            Lobby lobby = lobbyOptional
-                    .filter(l -> l.getState() == LobbyState.WAITING)
+            Lobby lobby = Optional.ofNullable(lobbies.get(gameID))
                     .orElseThrow(() -> new LobbyNotFoundException("Specified lobby not found or cannot be joined"));
-            lobby.addPlayer(username);
+            if (!enterLobby(username, lobby, LobbyState.WAITING, false))
+                throw new LobbyNotFoundException("Specified lobby not found or cannot be joined");
         } catch (RuntimeException e) {
             e.printStackTrace();
             EventContext.emit(new ErrorEvent(e.getMessage()));
@@ -100,27 +133,22 @@ public class MatchController {
     }
 
     /**
-     * Makes you join a random not started match yet
+     * Makes you join a not started match yet, the {@link Matchmaker} picks the one closest to start
      *
      * @param username player's username
      */
-    public synchronized List<Event> joinRandomGame(String username, boolean learnerMode) {
+    public List<Event> joinRandomGame(String username, boolean learnerMode) {
         EventContext.clear();
 
         try {
             if (checkIfIsAnotherLobby(username)) throw new PlayerAlreadyInException("Player is already in another lobby");
-            List<Lobby> availableLobbies = this.lobbies.values().stream()
-                    .filter(l -> l.getState() == LobbyState.WAITING && l.isLearnerMode() == learnerMode)
-                    .toList();
-            if (availableLobbies.isEmpty()) throw new LobbyNotFoundException("No lobbies available");
-            Lobby lobby = availableLobbies.get(new Random().nextInt(availableLobbies.size()));
-            lobby.addPlayer(username);
         } catch (RuntimeException e) {
             e.printStackTrace();
             EventContext.emit(new ErrorEvent(e.getMessage()));
+            return EventContext.getAndClear();
         }
 
-        return EventContext.getAndClear();
+        return matchmaker.join(username, learnerMode);
     }
 
     /**
@@ -128,19 +156,27 @@ public class MatchController {
      *
      * @param username player's username
      */
-    public synchronized List<Event> leaveGame(String username) {
+    public List<Event> leaveGame(String username) {
         EventContext.clear();
 
         try {
-            Optional<Map.Entry<String, Lobby>> lobbyEntry = lobbies.entrySet().stream()
-                    .filter(e -> e.getValue().hasPlayer(username))
-                    .findFirst();
-            if (lobbyEntry.isEmpty()) throw new LobbyNotFoundException("Lobby not found");
-
-            Lobby lobby = lobbyEntry.get().getValue();
-            lobby.removePlayer(username);
-            if (lobby.toDelete())
-                lobbies.remove(lobby.getGameID());
+            Lobby lobby = playerLobbies.get(username);
+            if (lobby == null) throw new LobbyNotFoundException("Lobby not found");
+
+            lobby.getLock().lock();
+            try {
+                lobby.removePlayer(username);
+                playerLobbies.remove(username, lobby);
+                if (lobby.toDelete()) {
+                    lobbies.remove(lobby.getGameID(), lobby);
+                    matchmaker.remove(lobby);
+                    lobby.close();
+                }
+                else
+                    matchmaker.update(lobby);
+            } finally {
+                lobby.getLock().unlock();
+            }
         } catch (RuntimeException e) {
             e.printStackTrace();
             EventContext.emit(new ErrorEvent(e.getMessage()));
@@ -155,18 +191,16 @@ public class MatchController {
      * @param username player's username
      * @param gameID   id of lobby/game
      */
-    public synchronized List<Event> rejoinGame(String username, String gameID) {
+    public List<Event> rejoinGame(String username, String gameID) {
         EventContext.clear();
 
         try {
             if (checkIfIsAnotherLobby(username)) throw new PlayerAlreadyInException("Player is already in another lobby");
 
-            Optional<Lobby> lobbyOptional = Optional.ofNullable(lobbies.get(gameID));
-            Lobby lobby = lobbyOptional
-                    .filter(l -> l.getState() == LobbyState.IN_GAME)
+            Lobby lobby = Optional.ofNullable(lobbies.get(gameID))
                     .orElseThrow(() -> new LobbyNotFoundException("Specified lobby not found or cannot be joined"));
-
-            lobby.rejoinPlayer(username);
+            if (!enterLobby(username, lobby, LobbyState.IN_GAME, true))
+                throw new LobbyNotFoundException("Specified lobby not found or cannot be joined");
         } catch (RuntimeException e) { // Don't rejoin and return empty list
             e.printStackTrace();
             EventContext.clear();
@@ -176,12 +210,96 @@ public class MatchController {
         return EventContext.getAndClear();
     }
 
-    public synchronized Lobby getLobby(String username) {
-        return lobbies.values().stream().filter(lobby -> lobby.hasPlayer(username)).findFirst().orElse(null);
+    /**
+     * Rebuilds the lobbies of the games left in the journals, e.g. by a server that has stopped while they were running.
+     * Called at start-up, before any player can connect. The players of a recovered game aren't in its lobby until they rejoin it.
+     *
+     * @param hourglassCallback sends the events of an hourglass expiration to the players of a lobby,
+     *                          the lobby is null while its game is being replayed
+     * @return the number of recovered games
+     */
+    public int recoverGames(BiConsumer<Lobby, List<Event>> hourglassCallback) {
+        int recovered = 0;
+        for (GameJournal journal : JournalStore.getInstance().recover()) {
+            String gameID = journal.getGameID();
+            try {
+                GameJournal.ReplayedGame replayed = journal.replay(events -> hourglassCallback.accept(lobbies.get(gameID), events));
+                Lobby lobby = new Lobby(gameID, journal.getMaxPlayers(), journal.isLearnerMode(), replayed.players(), replayed.game());
+                lobbies.put(gameID, lobby);
+                for (String username : replayed.absentPlayers())
+                    recoveredPlayers.put(username, lobby);
+                recovered++;
+            } catch (RuntimeException e) {
+                System.err.println("[ALL] Unable to recover game " + gameID + ": " + e.getMessage());
+            }
+        }
+        return recovered;
+    }
+
+    /**
+     * Removes a player from the recovered games, e.g. when he connects again.
+     *
+     * @param username player's username
+     * @return the lobby of the recovered game the player was in, null if there's none
+     */
+    public Lobby popRecoveredLobby(String username) {
+        return recoveredPlayers.remove(username);
+    }
+
+    public Matchmaker getMatchmaker() {
+        return matchmaker;
+    }
+
+    /**
+     * @return read-only view of the lobbies, both waiting and in game
+     */
+    public Collection<Lobby> getLobbies() {
+        return Collections.unmodifiableCollection(lobbies.values());
+    }
+
+    public Lobby getLobby(String username) {
+        return playerLobbies.get(username);
     }
 
     private boolean checkIfIsAnotherLobby(String username) {
-        return lobbies.entrySet().stream().anyMatch(e -> e.getValue().hasPlayer(username));
+        return playerLobbies.containsKey(username);
+    }
+
+    /**
+     * Binds a player to a lobby and makes him enter it, holding only that lobby's lock.
+     * The binding is released if the lobby is no longer available or the operation fails.
+     *
+     * @param username      player's username
+     * @param lobby         lobby to enter
+     * @param requiredState state the lobby must be in
+     * @param rejoin        true if the player is reconnecting to a running game
+     * @return true if the player entered the lobby, false if the lobby has been deleted or its state changed
+     * @throws PlayerAlreadyInException if the player is already bound to another lobby
+     */
+    private boolean enterLobby(String username, Lobby lobby, LobbyState requiredState, boolean rejoin) {
+        if (playerLobbies.putIfAbsent(username, lobby) != null) throw new PlayerAlreadyInException("Player is already in another lobby");
+
+        try {
+            lobby.getLock().lock();
+            try {
+                if (lobbies.get(lobby.getGameID()) != lobby || lobby.getState() != requiredState) {
+                    playerLobbies.remove(username, lobby);
+                    return false;
+                }
+
+                if (rejoin)
+                    lobby.rejoinPlayer(username);
+                else
+                    lobby.addPlayer(username);
+                matchmaker.update(lobby);
+                return true;
+            } finally {
+                lobby.getLock().unlock();
+            }
+        } catch (RuntimeException e) {
+            playerLobbies.remove(username, lobby);
+            throw e;
+        }
     }
 
 }
@@ -0,0 +1,275 @@
+package it.polimi.ingsw.controller;
+
+import it.polimi.ingsw.common.model.events.Event;
+import it.polimi.ingsw.common.model.events.EventContext;
+import it.polimi.ingsw.common.model.events.game.ErrorEvent;
+import it.polimi.ingsw.controller.exceptions.LobbyNotFoundException;
+import it.polimi.ingsw.model.game.Lobby;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiPredicate;
+
+/**
+ * Matchmaking subsystem used by {@link MatchController#joinRandomGame(String, boolean)}.
+ * It keeps an index of the open lobbies grouped by mode and number of free slots, so that a player
+ * is placed in constant time, preferring the lobbies that are closest to start.
+ * Requests are queued and placed in batches by a single thread at a time.
+ */
+public class Matchmaker {
+
+    /**
+     * Highest number of free slots of an open lobby (a lobby of 4 players with only its creator)
+     */
+    private static final int MAX_FREE_SLOTS = 3;
+
+    /**
+     * Max number of requests placed by a thread before giving way to the others
+     */
+    private static final int MAX_BATCH_SIZE = 64;
+
+    /**
+     * Open lobbies, one bucket for each (mode, free slots) pair, in insertion order
+     */
+    private final List<SequencedSet<Lobby>> buckets;
+
+    /**
+     * Bucket currently holding each indexed lobby
+     */
+    private final Map<Lobby, SequencedSet<Lobby>> positions;
+
+    /**
+     * Makes a player enter the given lobby, returns false if the lobby cannot be joined anymore
+     */
+    private final BiPredicate<String, Lobby> enterLobby;
+
+    /**
+     * Lock guarding {@link #buckets} and {@link #positions}
+     */
+    private final ReentrantLock indexLock;
+
+    private final Queue<Request> pending;
+    private final ReentrantLock batchLock;
+
+    private final LongAdder placedRequests;
+    private final LongAdder batches;
+    private final LongAdder totalWaitNanos;
+    private final AtomicLong maxWaitNanos;
+
+    /**
+     * A join request waiting to be placed
+     *
+     * @param username    player's username
+     * @param learnerMode mode of the lobby to join
+     * @param enqueuedAt  {@link System#nanoTime()} of the request
+     * @param result      events generated by the placement
+     */
+    private record Request(String username, boolean learnerMode, long enqueuedAt, CompletableFuture<List<Event>> result) {}
+
+    Matchmaker(BiPredicate<String, Lobby> enterLobby) {
+        this.buckets = new ArrayList<>();
+        for (int i = 0; i < 2 * (MAX_FREE_SLOTS + 1); i++)
+            buckets.add(new LinkedHashSet<>());
+        this.positions = new HashMap<>();
+        this.indexLock = new ReentrantLock();
+        this.enterLobby = enterLobby;
+
+        this.pending = new ConcurrentLinkedQueue<>();
+        this.batchLock = new ReentrantLock();
+
+        this.placedRequests = new LongAdder();
+        this.batches = new LongAdder();
+        this.totalWaitNanos = new LongAdder();
+        this.maxWaitNanos = new AtomicLong();
+    }
+
+    /**
+     * Places a player in an open lobby of the given mode.
+     * The request is queued: whoever holds the batch lock places all the queued requests,
+     * so the caller may find its request already placed by another thread.
+     *
+     * @param username    player's username
+     * @param learnerMode mode of the lobby to join
+     * @return events generated by the placement
+     */
+    public List<Event> join(String username, boolean learnerMode) {
+        Request request = new Request(username, learnerMode, System.nanoTime(), new CompletableFuture<>());
+        pending.add(request);
+
+        while (!request.result().isDone()) {
+            batchLock.lock();
+            try {
+                placePending();
+            } finally {
+                batchLock.unlock();
+            }
+        }
+
+        return request.result().join();
+    }
+
+    /**
+     * Updates the position of a lobby in the index after its players or state changed.
+     * Must be called while holding the lobby's lock.
+     *
+     * @param lobby lobby to update
+     */
+    public void update(Lobby lobby) {
+        indexLock.lock();
+        try {
+            SequencedSet<Lobby> current = positions.remove(lobby);
+            if (current != null)
+                current.remove(lobby);
+
+            int freeSlots = Math.min(lobby.getFreeSlots(), MAX_FREE_SLOTS);
+            if (freeSlots > 0) {
+                SequencedSet<Lobby> bucket = buckets.get(bucketIndex(lobby.isLearnerMode(), freeSlots));
+                bucket.addLast(lobby);
+                positions.put(lobby, bucket);
+            }
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Removes a deleted lobby from the index.
+     * Must be called while holding the lobby's lock.
+     *
+     * @param lobby lobby to remove
+     */
+    public void remove(Lobby lobby) {
+        indexLock.lock();
+        try {
+            SequencedSet<Lobby> current = positions.remove(lobby);
+            if (current != null)
+                current.remove(lobby);
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * @return number of lobbies currently open to random joins
+     */
+    public int getOpenLobbies() {
+        indexLock.lock();
+        try {
+            return positions.size();
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * @return number of join requests waiting to be placed
+     */
+    public int getQueuedRequests() {
+        return pending.size();
+    }
+
+    /**
+     * @return number of join requests placed (or rejected) so far
+     */
+    public long getPlacedRequests() {
+        return placedRequests.sum();
+    }
+
+    /**
+     * @return number of batches used to place the requests
+     */
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    /**
+     * @return average time spent by a request in the queue, in nanoseconds
+     */
+    public long getAverageWaitNanos() {
+        long placed = placedRequests.sum();
+        return placed == 0 ? 0 : totalWaitNanos.sum() / placed;
+    }
+
+    /**
+     * @return longest time spent by a request in the queue, in nanoseconds
+     */
+    public long getMaxWaitNanos() {
+        return maxWaitNanos.get();
+    }
+
+    private void placePending() {
+        Request request;
+        int placed = 0;
+        while (placed < MAX_BATCH_SIZE && (request = pending.poll()) != null) {
+            place(request);
+            placed++;
+        }
+        if (placed > 0)
+            batches.increment();
+    }
+
+    private void place(Request request) {
+        EventContext.clear();
+
+        try {
+            boolean joined = false;
+            Lobby lobby;
+            while (!joined && (lobby = nextLobby(request.learnerMode())) != null) {
+                joined = enterLobby.test(request.username(), lobby);
+                if (!joined) discard(lobby); // Deleted or started, it would be picked again
+            }
+            if (!joined) throw new LobbyNotFoundException("No lobbies available");
+        } catch (LobbyNotFoundException e) {
+            EventContext.emit(new ErrorEvent(e.getMessage()));
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            EventContext.emit(new ErrorEvent(e.getMessage()));
+        }
+
+        long wait = System.nanoTime() - request.enqueuedAt();
+        placedRequests.increment();
+        totalWaitNanos.add(wait);
+        maxWaitNanos.accumulateAndGet(wait, Math::max);
+
+        request.result().complete(EventContext.getAndClear());
+    }
+
+    /**
+     * Removes from the index a lobby that can't be joined anymore, holding its lock as {@link #remove(Lobby)} requires.
+     */
+    private void discard(Lobby lobby) {
+        lobby.getLock().lock();
+        try {
+            remove(lobby);
+        } finally {
+            lobby.getLock().unlock();
+        }
+    }
+
+    /**
+     * @param learnerMode mode of the lobby
+     * @return the oldest open lobby with the fewest free slots, or null if there's none
+     */
+    private Lobby nextLobby(boolean learnerMode) {
+        indexLock.lock();
+        try {
+            for (int freeSlots = 1; freeSlots <= MAX_FREE_SLOTS; freeSlots++) {
+                SequencedSet<Lobby> bucket = buckets.get(bucketIndex(learnerMode, freeSlots));
+                if (!bucket.isEmpty())
+                    return bucket.getFirst();
+            }
+            return null;
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    private static int bucketIndex(boolean learnerMode, int freeSlots) {
+        return (learnerMode ? MAX_FREE_SLOTS + 1 : 0) + freeSlots;
+    }
+
+}
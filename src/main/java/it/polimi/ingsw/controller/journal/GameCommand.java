@@ -0,0 +1,272 @@
+package it.polimi.ingsw.controller.journal;
+
+import it.polimi.ingsw.common.model.enums.AlienType;
+import it.polimi.ingsw.common.model.enums.ColorType;
+import it.polimi.ingsw.common.model.events.Event;
+import it.polimi.ingsw.controller.GameController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Enumeration of the operations on a game recorded in its {@link GameJournal}.
+ * Each constant implements the Command pattern by replaying the operation on a game
+ * with the username and the arguments it was recorded with.
+ */
+@SuppressWarnings("unchecked")
+public enum GameCommand {
+
+    /**
+     * Test scenario, set up when the lobby is named after it
+     */
+    START_TEST {
+        @Override
+        void replay(Replay replay, String username, List<Object> args) {
+            replay.game().startTest((Integer) args.getFirst());
+        }
+    },
+
+    PICK_COMPONENT(true) {
+        @Override
+        void replay(Replay replay, String username, List<Object> args) {
+            replay.game().pickComponent(username, (Integer) args.getFirst());
+        }
+    },
+
+    RELEASE_COMPONENT(true) {
+        @Override
+        void replay(Replay replay, String username, List<Object> args) {
+            replay.game().releaseComponent(username, (Integer) args.getFirst());
+        }
+    },
+
+    RESERVE_COMPONENT {
+        @Override
+        void replay(Replay replay, String username, List<Object> args) {
+            replay.game().reserveComponent(username, (Integer) args.getFirst());
+        }
+    },
+
+    INSERT_COMPONENT {
+        @Override
+        void replay(Replay replay, String username, List<Object> args) {
+            replay.game().insertComponent(username, (Integer) args.get(0), (Integer) args.get(1), (Integer) args.get(2), (Integer) args.get(3), (Boolean) args.get(4));
+        }
+    },
+
+    MOVE_COMPONENT {
+        @Override
+        void replay(Replay replay, String username, List<Object> args) {
+            replay.game().moveComponent(username, (Integer) args.get(0), (Integer) args.get(1), (Integer) args.get(2), (Integer) args.get(3));
+        }
+    },
+
+    ROTATE_COMPONENT {
+        @Override
+        void replay(Replay replay, String username, List<Object> args) {
+            replay.game().rotateComponent(username, (Integer) args.get(0), (Integer) args.get(1));
+        }
+    },
+
+    LOOK_CARD_PILE {
+        @Override
+        void replay(Replay replay, String username, List<Object> args) {
+            replay.game().lookCardPile(username, (Integer) args.getFirst());
+        }
+    },
+
+    RELEASE_CARD_PILE {
+        @Override
+        void replay(Replay replay, String username, List<Object> args) {
+            replay.game().releaseCardPile(username);
+        }
+    },
+
+    MOVE_HOURGLASS {
+        @Override
+        void replay(Replay replay, String username, List<Object> args) {
+            replay.game().moveHourglass(username, replay.hourglassCallback());
+        }
+    },
+
+    /**
+     * End of an hourglass period, recorded when its expiration is processed
+     */
+    EXPIRE_HOURGLASS {
+        @Override
+        void replay(Replay replay, String username, List<Object> args) {
+            replay.game().expireHourglass();
+        }
+    },
+
+    SET_READY {
+        @Override
+        void replay(Replay replay, String username, List<Object> args) {
+            replay.game().setReady(username);
+        }
+    },
+
+    CHECK_SHIP {
+        @Override
+        void replay(Replay replay, String username, List<Object> args) {
+            replay.game().checkShip(username, (List<Integer>) args.getFirst());
+        }
+    },
+
+    CHOOSE_ALIEN {
+        @Override
+        void replay(Replay replay, String username, List<Object> args) {
+            replay.game().chooseAlien(username, (Map<Integer, AlienType>) args.getFirst());
+        }
+    },
+
+    CHOOSE_SHIP_PART {
+        @Override
+        void replay(Replay replay, String username, List<Object> args) {
+            replay.game().chooseShipPart(username, (Integer) args.getFirst());
+        }
+    },
+
+    DRAW_CARD {
+        @Override
+        void replay(Replay replay, String username, List<Object> args) {
+            replay.game().drawCard(username);
+        }
+    },
+
+    ACTIVATE_CANNONS {
+        @Override
+        void replay(Replay replay, String username, List<Object> args) {
+            replay.game().activateCannons(username, (List<Integer>) args.get(0), (List<Integer>) args.get(1));
+        }
+    },
+
+    ACTIVATE_ENGINES {
+        @Override
+        void replay(Replay replay, String username, List<Object> args) {
+            replay.game().activateEngines(username, (List<Integer>) args.get(0), (List<Integer>) args.get(1));
+        }
+    },
+
+    ACTIVATE_SHIELD {
+        @Override
+        void replay(Replay replay, String username, List<Object> args) {
+            replay.game().activateShield(username, (Integer) args.getFirst());
+        }
+    },
+
+    UPDATE_GOODS {
+        @Override
+        void replay(Replay replay, String username, List<Object> args) {
+            replay.game().updateGoods(username, (Map<Integer, List<ColorType>>) args.get(0), (List<Integer>) args.get(1));
+        }
+    },
+
+    REMOVE_CREW {
+        @Override
+        void replay(Replay replay, String username, List<Object> args) {
+            replay.game().removeCrew(username, (List<Integer>) args.getFirst());
+        }
+    },
+
+    ROLL_DICES {
+        @Override
+        void replay(Replay replay, String username, List<Object> args) {
+            replay.game().rollDices(username);
+        }
+    },
+
+    GET_BOOLEAN {
+        @Override
+        void replay(Replay replay, String username, List<Object> args) {
+            replay.game().getBoolean(username, (Boolean) args.getFirst());
+        }
+    },
+
+    GET_INDEX {
+        @Override
+        void replay(Replay replay, String username, List<Object> args) {
+            replay.game().getIndex(username, (Integer) args.getFirst());
+        }
+    },
+
+    END_FLIGHT {
+        @Override
+        void replay(Replay replay, String username, List<Object> args) {
+            replay.game().endFlight(username);
+        }
+    },
+
+    /**
+     * Player leaving the game, then removed from the players of the lobby as done by the lobby
+     */
+    LEAVE_GAME {
+        @Override
+        void replay(Replay replay, String username, List<Object> args) {
+            replay.game().leaveGame(username);
+            replay.players().remove(username);
+        }
+    },
+
+    /**
+     * Player added back to the players of the lobby, then rejoining the game as done by the lobby
+     */
+    REJOIN_GAME {
+        @Override
+        void replay(Replay replay, String username, List<Object> args) {
+            replay.players().add(username);
+            replay.game().rejoinGame(username);
+        }
+    },
+
+    /**
+     * Game recovered after a restart of the server: the players aren't connected until they rejoin
+     */
+    RECOVER {
+        @Override
+        void replay(Replay replay, String username, List<Object> args) {
+            replay.players().clear();
+        }
+    };
+
+    /**
+     * True if the command can give a tile back to the common pool
+     */
+    private final boolean releasesTiles;
+
+    GameCommand() {
+        this(false);
+    }
+
+    GameCommand(boolean releasesTiles) {
+        this.releasesTiles = releasesTiles;
+    }
+
+    /**
+     * @return true if the command can give a tile back to the common pool, so another player may pick it
+     * right after: such a command is recorded and run as a whole, see {@link GameJournal#record}
+     */
+    public boolean releasesTiles() {
+        return releasesTiles;
+    }
+
+    /**
+     * Game being replayed
+     *
+     * @param game              the game, without journal while it's replayed
+     * @param players           players of the lobby, shared with the game as for a running lobby
+     * @param hourglassCallback consumer of the events of the hourglass periods started during the replay
+     */
+    record Replay(GameController game, List<String> players, Consumer<List<Event>> hourglassCallback) {}
+
+    /**
+     * Replays the command on a game
+     *
+     * @param replay   the game being replayed
+     * @param username player who sent the command, null for the commands of the game itself
+     * @param args     arguments of the command
+     */
+    abstract void replay(Replay replay, String username, List<Object> args);
+
+}
@@ -0,0 +1,533 @@
+package it.polimi.ingsw.controller.journal;
+
+import it.polimi.ingsw.common.model.events.Event;
+import it.polimi.ingsw.common.model.events.EventContext;
+import it.polimi.ingsw.controller.GameController;
+import it.polimi.ingsw.network.socket.codec.BinaryCodec;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of a game: the seed and the players of the game, followed by every operation on it in the order
+ * it was run, so the game can be rebuilt by replaying it after a restart of the server.
+ * <p>
+ * The journal is written in memory-mapped segment files of its {@link JournalStore}. Each record is its length,
+ * the CRC-32C of its payload and the payload; a zero length marks the end of a segment, a torn record ends the replay.
+ * Every segment starts with a snapshot, the compact form of the whole journal: the header of the game and the commands
+ * recorded so far, without framing. When a segment is full the snapshot is written to a new segment and the old one
+ * is deleted, so a game has a single file and its replay reads it sequentially.
+ * <p>
+ * Appending only copies the record to the mapped file; the records are forced to the disk in batches by the store
+ * (group commit) and {@link #commit()} waits for the records appended so far.
+ */
+public final class GameJournal {
+
+    private static final byte SNAPSHOT = 0;
+    private static final byte COMMAND = 1;
+
+    /**
+     * Length and CRC-32C of the payload
+     */
+    private static final int RECORD_HEADER = 8;
+
+    private static final GameCommand[] COMMANDS = GameCommand.values();
+
+    /**
+     * A recorded command
+     *
+     * @param command  the command
+     * @param username player who sent the command, null for the commands of the game itself
+     * @param args     arguments of the command
+     */
+    record Entry(GameCommand command, String username, List<Object> args) {}
+
+    /**
+     * A game rebuilt from its journal
+     *
+     * @param game          the game, recording in the journal again
+     * @param players       players of the lobby shared with the game, empty until they rejoin
+     * @param absentPlayers players who were in the lobby when the server stopped
+     */
+    public record ReplayedGame(GameController game, List<String> players, List<String> absentPlayers) {}
+
+    private final JournalStore store;
+
+    /**
+     * Prefix of the segment files of the journal
+     */
+    private final String key;
+
+    private final String gameID;
+    private final int maxPlayers;
+    private final boolean learnerMode;
+    private final List<String> players;
+    private final long seed;
+
+    private final ReentrantLock lock;
+
+    /**
+     * Number of the current segment
+     */
+    private int segment;
+
+    private MappedByteBuffer buffer;
+
+    /**
+     * Offset of the next record in the current segment
+     */
+    private int position;
+
+    /**
+     * Bytes appended since the journal was opened, the position of a record in the journal
+     */
+    private long appended;
+
+    /**
+     * Bytes of the journal forced to the disk
+     */
+    private volatile long forced;
+
+    private boolean closed;
+
+    /**
+     * Commands read from the segment files, until the game is replayed
+     */
+    private List<Entry> recovered;
+
+    private GameJournal(JournalStore store, String key, String gameID, int maxPlayers, boolean learnerMode, List<String> players, long seed) {
+        this.store = store;
+        this.key = key;
+        this.gameID = gameID;
+        this.maxPlayers = maxPlayers;
+        this.learnerMode = learnerMode;
+        this.players = List.copyOf(players);
+        this.seed = seed;
+        this.lock = new ReentrantLock();
+        this.segment = -1;
+        this.recovered = List.of();
+    }
+
+    /**
+     * Creates the journal of a new game, writing its first segment.
+     *
+     * @param store       store of the segment files
+     * @param key         prefix of the segment files
+     * @param gameID      name of the lobby
+     * @param maxPlayers  max number of players of the lobby
+     * @param learnerMode true if the game is in learner mode
+     * @param players     players of the game, in order
+     * @param seed        seed of the random generator of the game
+     * @return the journal
+     * @throws UncheckedIOException if the segment can't be written
+     */
+    static GameJournal create(JournalStore store, String key, String gameID, int maxPlayers, boolean learnerMode, List<String> players, long seed) {
+        GameJournal journal = new GameJournal(store, key, gameID, maxPlayers, learnerMode, players, seed);
+        journal.lock.lock();
+        try {
+            journal.writeSnapshot(List.of());
+        } finally {
+            journal.lock.unlock();
+        }
+        return journal;
+    }
+
+    /**
+     * Reads the journal of a game from its segment files, starting from the last one with a valid snapshot.
+     * The journal is compacted in a new segment and the old files are deleted.
+     *
+     * @param store    store of the segment files
+     * @param key      prefix of the segment files
+     * @param segments segment files of the journal
+     * @return the journal, ready to be replayed, or null if no segment is valid
+     * @throws IOException if a segment can't be read or written
+     */
+    static GameJournal recover(JournalStore store, String key, List<Path> segments) throws IOException {
+        List<Path> sorted = new ArrayList<>(segments);
+        sorted.sort(Comparator.comparingInt(GameJournal::segmentNumber).reversed());
+
+        for (Path path : sorted) {
+            ByteBuffer content;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                content = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+
+            byte[] snapshot = readRecord(content, 0);
+            if (snapshot == null || snapshot[0] != SNAPSHOT) continue; // Torn while compacting, the previous segment is still there
+
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(snapshot, 1, snapshot.length - 1));
+            String gameID = in.readUTF();
+            int maxPlayers = in.readUnsignedByte();
+            boolean learnerMode = in.readBoolean();
+            List<String> players = new ArrayList<>();
+            for (int i = in.readUnsignedByte(); i > 0; i--)
+                players.add(in.readUTF());
+            long seed = in.readLong();
+
+            List<byte[]> commands = new ArrayList<>();
+            for (int i = in.readInt(); i > 0; i--)
+                commands.add(in.readNBytes(in.readInt()));
+            readCommands(content, RECORD_HEADER + snapshot.length, commands);
+
+            GameJournal journal = new GameJournal(store, key, gameID, maxPlayers, learnerMode, players, seed);
+            journal.segment = segmentNumber(sorted.getFirst()); // The next segment is after the torn ones
+            journal.recovered = new ArrayList<>(commands.size());
+            for (byte[] command : commands)
+                journal.recovered.add(decode(command));
+
+            journal.lock.lock();
+            try {
+                journal.writeSnapshot(commands);
+            } finally {
+                journal.lock.unlock();
+            }
+            for (Path old : segments)
+                Files.deleteIfExists(old);
+            return journal;
+        }
+        return null;
+    }
+
+    /**
+     * @return name of the lobby of the game
+     */
+    public String getGameID() {
+        return gameID;
+    }
+
+    /**
+     * @return max number of players of the lobby
+     */
+    public int getMaxPlayers() {
+        return maxPlayers;
+    }
+
+    /**
+     * @return true if the game is in learner mode
+     */
+    public boolean isLearnerMode() {
+        return learnerMode;
+    }
+
+    /**
+     * @return players of the game when it started, in order
+     */
+    public List<String> getPlayers() {
+        return players;
+    }
+
+    /**
+     * @return seed of the random generator of the game
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return number of commands read from the files and not replayed yet
+     */
+    public int getRecoveredCommands() {
+        return recovered.size();
+    }
+
+    /**
+     * Appends a command to the journal. Nothing is written once the journal has been deleted.
+     *
+     * @param command  the command
+     * @param username player who sent the command, null for the commands of the game itself
+     * @param args     arguments of the command
+     * @throws UncheckedIOException if the command can't be written
+     */
+    public void append(GameCommand command, String username, Object... args) {
+        byte[] payload = encode(command, username, args);
+        lock.lock();
+        try {
+            if (closed) return;
+            if (position + RECORD_HEADER + payload.length > buffer.capacity()) {
+                List<byte[]> commands = readCommands();
+                commands.add(payload);
+                writeSnapshot(commands);
+            } else
+                writeRecord(payload);
+        } finally {
+            lock.unlock();
+        }
+        store.markDirty(this);
+    }
+
+    /**
+     * Appends a command to the journal and runs it.
+     * A command releasing tiles runs while holding the journal, so it can't be recorded after the pick
+     * of the tile it has released by another player: picks and releases of different players are recorded
+     * in the order they changed the common pool. The other moves of the building phase only change the ship
+     * of their player, so they can be recorded in any order with the ones of the other players.
+     *
+     * @param command  the command
+     * @param username player who sent the command
+     * @param args     arguments of the command
+     * @param action   the command to run on the game
+     */
+    public void record(GameCommand command, String username, Object[] args, Runnable action) {
+        if (!command.releasesTiles()) {
+            append(command, username, args);
+            action.run();
+            return;
+        }
+
+        lock.lock();
+        try {
+            append(command, username, args);
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until the records appended so far are forced to the disk.
+     *
+     * @throws UncheckedIOException if the records aren't forced in time, e.g. because the disk keeps failing
+     */
+    public void commit() {
+        long target;
+        lock.lock();
+        try {
+            target = appended;
+        } finally {
+            lock.unlock();
+        }
+        store.awaitForced(this, target);
+    }
+
+    /**
+     * Rebuilds the game replaying the recovered commands, then records in the journal again.
+     * The players who were in the lobby are removed from it without leaving the game, as nobody is connected
+     * after a restart: they are added back when they rejoin.
+     * The hourglass period running when the server stopped restarts from its full duration.
+     *
+     * @param hourglassCallback consumer of the events of the hourglass periods started by the replayed commands
+     * @return the replayed game
+     */
+    public ReplayedGame replay(Consumer<List<Event>> hourglassCallback) {
+        List<String> lobbyPlayers = new CopyOnWriteArrayList<>(players);
+        GameController game = new GameController(lobbyPlayers, learnerMode, seed);
+        game.setGameID(gameID);
+        game.startMatch();
+
+        GameCommand.Replay replay = new GameCommand.Replay(game, lobbyPlayers, hourglassCallback);
+        for (Entry entry : recovered)
+            entry.command().replay(replay, entry.username(), entry.args());
+        recovered = List.of();
+        EventContext.clear();
+
+        List<String> absentPlayers = List.copyOf(lobbyPlayers);
+        GameCommand.RECOVER.replay(replay, null, List.of());
+        game.attachJournal(this);
+        append(GameCommand.RECOVER, null);
+        return new ReplayedGame(game, lobbyPlayers, absentPlayers);
+    }
+
+    /**
+     * Deletes the journal when its game is disposed.
+     */
+    public void delete() {
+        lock.lock();
+        try {
+            closed = true;
+            forced = Long.MAX_VALUE;
+            Files.deleteIfExists(segmentPath(segment));
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return bytes of the journal forced to the disk
+     */
+    long getForced() {
+        return forced;
+    }
+
+    /**
+     * Forces the records appended so far to the disk, called by the store
+     */
+    void force() {
+        MappedByteBuffer target;
+        long upTo;
+        lock.lock();
+        try {
+            if (closed) return;
+            target = buffer;
+            upTo = appended;
+        } finally {
+            lock.unlock();
+        }
+
+        target.force();
+        lock.lock();
+        try {
+            forced = Math.max(forced, upTo);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Segments, called holding the lock
+
+    private void writeRecord(byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        buffer.put(position + RECORD_HEADER, payload);
+        buffer.putInt(position + 4, (int) crc.getValue());
+        buffer.putInt(position, payload.length); // Written last, a torn record has a wrong CRC or no length
+        position += RECORD_HEADER + payload.length;
+        appended += RECORD_HEADER + payload.length;
+    }
+
+    /**
+     * Writes a snapshot with the given commands to a new segment, then deletes the current one.
+     */
+    private void writeSnapshot(List<byte[]> commands) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(SNAPSHOT);
+            out.writeUTF(gameID);
+            out.writeByte(maxPlayers);
+            out.writeBoolean(learnerMode);
+            out.writeByte(players.size());
+            for (String player : players)
+                out.writeUTF(player);
+            out.writeLong(seed);
+            out.writeInt(commands.size());
+            for (byte[] command : commands) {
+                out.writeInt(command.length);
+                out.write(command);
+            }
+            byte[] snapshot = bytes.toByteArray();
+
+            Path old = segment < 0 ? null : segmentPath(segment);
+            segment++;
+            int size = Math.max(store.getSegmentSize(), 2 * (RECORD_HEADER + snapshot.length)); // Room for the next commands
+            try (FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            }
+            position = 0;
+            writeRecord(snapshot);
+            buffer.force();
+            forced = appended;
+
+            if (old != null) Files.deleteIfExists(old);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the commands of the current segment: the ones of its snapshot and the ones appended after it
+     */
+    private List<byte[]> readCommands() {
+        ByteBuffer content = buffer.duplicate();
+        byte[] snapshot = readRecord(content, 0);
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(snapshot));
+            in.skipNBytes(1);
+            in.readUTF();
+            in.skipNBytes(2);
+            for (int i = in.readUnsignedByte(); i > 0; i--)
+                in.readUTF();
+            in.readLong();
+
+            List<byte[]> commands = new ArrayList<>();
+            for (int i = in.readInt(); i > 0; i--)
+                commands.add(in.readNBytes(in.readInt()));
+            readCommands(content, RECORD_HEADER + snapshot.length, commands);
+            return commands;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path segmentPath(int number) {
+        return store.getDirectory().resolve(key + "." + number + JournalStore.EXTENSION);
+    }
+
+    // Records
+
+    private static byte[] encode(GameCommand command, String username, Object[] args) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(COMMAND);
+            out.writeByte(command.ordinal());
+            BinaryCodec.writeValue(out, username);
+            out.writeByte(args.length);
+            for (Object arg : args)
+                BinaryCodec.writeValue(out, arg);
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Entry decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        if (in.readByte() != COMMAND) throw new StreamCorruptedException("Not a command");
+        int ordinal = in.readUnsignedByte();
+        if (ordinal >= COMMANDS.length) throw new StreamCorruptedException("Unknown command: " + ordinal);
+
+        String username = (String) BinaryCodec.readValue(in);
+        Object[] args = new Object[in.readUnsignedByte()];
+        for (int i = 0; i < args.length; i++)
+            args[i] = BinaryCodec.readValue(in);
+        return new Entry(COMMANDS[ordinal], username, Arrays.asList(args));
+    }
+
+    /**
+     * Reads the command records of a segment until its end or a torn record
+     */
+    private static void readCommands(ByteBuffer content, int offset, List<byte[]> commands) {
+        byte[] payload;
+        while ((payload = readRecord(content, offset)) != null && payload[0] == COMMAND) {
+            commands.add(payload);
+            offset += RECORD_HEADER + payload.length;
+        }
+    }
+
+    /**
+     * @return the payload of the record at an offset, null at the end of the segment or if the record is torn
+     */
+    private static byte[] readRecord(ByteBuffer content, int offset) {
+        if (offset + RECORD_HEADER > content.limit()) return null;
+        int length = content.getInt(offset);
+        if (length <= 0 || length > content.limit() - offset - RECORD_HEADER) return null;
+
+        byte[] payload = new byte[length];
+        content.get(offset + RECORD_HEADER, payload);
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue() == content.getInt(offset + 4) ? payload : null;
+    }
+
+    private static int segmentNumber(Path path) {
+        String name = path.getFileName().toString();
+        String number = name.substring(name.indexOf('.') + 1, name.length() - JournalStore.EXTENSION.length());
+        return Integer.parseInt(number);
+    }
+
+}
@@ -0,0 +1,278 @@
+package it.polimi.ingsw.controller.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Directory holding the {@link GameJournal} of every running game, chosen at start-up through the {@value #PROPERTY}
+ * system property: without it the games aren't journaled.
+ * <p>
+ * A single flusher thread forces the journals to the disk (group commit): it runs as soon as a command waits
+ * for its records, and at least every {@value #FLUSH_INTERVAL_MILLIS} ms for the records nobody waits for
+ * (e.g. the hourglass expirations). The commands appended while the journals are being forced are committed together
+ * by the next round. A journal that can't be forced is retried by the following rounds, after the interval,
+ * while the commands waiting for it give up after {@value #COMMIT_TIMEOUT_MILLIS} ms.
+ */
+public class JournalStore {
+
+    /**
+     * System property with the directory of the journals
+     */
+    public static final String PROPERTY = "server.journal";
+
+    /**
+     * Extension of the segment files
+     */
+    static final String EXTENSION = ".journal";
+
+    private static final int SEGMENT_SIZE = 64 * 1024;
+    private static final long FLUSH_INTERVAL_MILLIS = 50;
+    private static final long COMMIT_TIMEOUT_MILLIS = 5000;
+
+    /**
+     * Singleton Pattern, instance of the class
+     */
+    private static JournalStore instance = null;
+
+    /**
+     * Directory of the segment files, null if the games aren't journaled
+     */
+    private final Path directory;
+    private final int segmentSize;
+
+    /**
+     * Journals with records not forced to the disk yet
+     */
+    private final Set<GameJournal> dirty;
+
+    private final ReentrantLock lock;
+    private final Condition requested;
+    private final Condition flushed;
+    private int waiting;
+    private volatile boolean running;
+    private final Thread flusher;
+
+    /**
+     * @param directory directory of the segment files, created if missing, or null to disable the journals
+     * @throws UncheckedIOException if the directory can't be created
+     */
+    public JournalStore(Path directory) {
+        this(directory, SEGMENT_SIZE);
+    }
+
+    /**
+     * @param directory   directory of the segment files, created if missing, or null to disable the journals
+     * @param segmentSize size of a new segment file, in bytes
+     * @throws UncheckedIOException if the directory can't be created
+     */
+    public JournalStore(Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.dirty = ConcurrentHashMap.newKeySet();
+        this.lock = new ReentrantLock();
+        this.requested = lock.newCondition();
+        this.flushed = lock.newCondition();
+
+        if (directory == null) {
+            this.flusher = null;
+            return;
+        }
+
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.running = true;
+        this.flusher = new Thread(this::flushLoop, "journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Singleton Pattern
+     *
+     * @return the only one instance of the JournalStore class
+     */
+    public synchronized static JournalStore getInstance() {
+        if (instance == null) {
+            String directory = System.getProperty(PROPERTY);
+            instance = new JournalStore(directory == null || directory.isBlank() ? null : Path.of(directory));
+        }
+        return instance;
+    }
+
+    /**
+     * @return true if the games are journaled
+     */
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Creates the journal of a new game.
+     *
+     * @param gameID      name of the lobby
+     * @param maxPlayers  max number of players of the lobby
+     * @param learnerMode true if the game is in learner mode
+     * @param players     players of the game, in order
+     * @param seed        seed of the random generator of the game
+     * @return the journal of the game
+     * @throws IllegalStateException if the games aren't journaled
+     * @throws UncheckedIOException  if the journal can't be written
+     */
+    public GameJournal create(String gameID, int maxPlayers, boolean learnerMode, List<String> players, long seed) {
+        if (!isEnabled()) throw new IllegalStateException("Journals are disabled");
+        return GameJournal.create(this, "game-" + UUID.randomUUID(), gameID, maxPlayers, learnerMode, players, seed);
+    }
+
+    /**
+     * Reads the journals left in the directory, e.g. by a server that has stopped while games were running.
+     * The unreadable ones are reported and skipped.
+     *
+     * @return the journals, ready to be replayed
+     */
+    public List<GameJournal> recover() {
+        if (!isEnabled()) return List.of();
+
+        Map<String, List<Path>> segments;
+        try (Stream<Path> files = Files.list(directory)) {
+            segments = files
+                    .filter(path -> path.getFileName().toString().endsWith(EXTENSION))
+                    .collect(Collectors.groupingBy(path -> {
+                        String name = path.getFileName().toString();
+                        return name.substring(0, name.indexOf('.'));
+                    }));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        List<GameJournal> journals = new ArrayList<>();
+        for (Map.Entry<String, List<Path>> entry : segments.entrySet()) {
+            try {
+                GameJournal journal = GameJournal.recover(this, entry.getKey(), entry.getValue());
+                if (journal != null) journals.add(journal);
+                else System.err.println("[ALL] No valid segment in journal " + entry.getKey());
+            } catch (IOException | RuntimeException e) {
+                System.err.println("[ALL] Unable to read journal " + entry.getKey() + ": " + e.getMessage());
+            }
+        }
+        return journals;
+    }
+
+    /**
+     * Stops the flusher after forcing every journal to the disk.
+     */
+    public void shutdown() {
+        if (!running) return;
+        running = false;
+        flusher.interrupt();
+        try {
+            flusher.join();
+        } catch (InterruptedException _) {
+            Thread.currentThread().interrupt();
+        }
+        flushDirty();
+    }
+
+    Path getDirectory() {
+        return directory;
+    }
+
+    int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * Schedules a journal to be forced by the next round of the flusher
+     */
+    void markDirty(GameJournal journal) {
+        dirty.add(journal);
+    }
+
+    /**
+     * Waits until a journal is forced to the disk up to a position.
+     *
+     * @throws UncheckedIOException if the journal isn't forced within {@value #COMMIT_TIMEOUT_MILLIS} ms
+     */
+    void awaitForced(GameJournal journal, long position) {
+        if (journal.getForced() >= position) return;
+
+        lock.lock();
+        try {
+            waiting++;
+            requested.signal();
+            long remaining = TimeUnit.MILLISECONDS.toNanos(COMMIT_TIMEOUT_MILLIS);
+            while (running && journal.getForced() < position) {
+                if (remaining <= 0)
+                    throw new UncheckedIOException(new IOException("Journal of game " + journal.getGameID() + " not forced to the disk"));
+                remaining = flushed.awaitNanos(remaining);
+            }
+        } catch (InterruptedException _) {
+            Thread.currentThread().interrupt();
+        } finally {
+            waiting--;
+            lock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        boolean failed = false;
+        while (running) {
+            lock.lock();
+            try {
+                if (waiting == 0 || dirty.isEmpty() || failed) // A failed journal is retried after the interval
+                    requested.await(FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException _) {
+                break;
+            } finally {
+                lock.unlock();
+            }
+
+            failed = !flushDirty();
+
+            lock.lock();
+            try {
+                flushed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        lock.lock();
+        try {
+            flushed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return false if a journal can't be forced, it's marked again for the next round
+     */
+    private boolean flushDirty() {
+        List<GameJournal> failed = new ArrayList<>();
+        for (Iterator<GameJournal> iterator = dirty.iterator(); iterator.hasNext(); ) {
+            GameJournal journal = iterator.next();
+            iterator.remove(); // Before forcing, so the records appended meanwhile mark it again
+            try {
+                journal.force();
+            } catch (RuntimeException e) {
+                System.err.println("[ALL] Unable to force journal of game " + journal.getGameID() + ": " + e.getMessage());
+                failed.add(journal);
+            }
+        }
+        dirty.addAll(failed);
+        return failed.isEmpty();
+    }
+
+}
@@ -1,5 +1,6 @@
 package it.polimi.ingsw.model;
 
+import it.polimi.ingsw.common.model.PlacementHints;
 import it.polimi.ingsw.common.model.events.EventContext;
 import it.polimi.ingsw.common.model.events.Event;
 import it.polimi.ingsw.common.model.events.game.*;
@@ -18,8 +19,11 @@ import it.polimi.ingsw.common.model.enums.AlienType;
 import it.polimi.ingsw.common.model.enums.ColorType;
 import it.polimi.ingsw.model.player.PlayerData;
 import it.polimi.ingsw.model.player.Ship;
+import it.polimi.ingsw.network.messages.MessageType;
+import it.polimi.ingsw.network.metrics.jfr.CardJfrEvent;
 
 import java.util.*;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
@@ -44,6 +48,15 @@ public abstract class ModelFacade {
     /** Map tracking the current state of each player */
     protected final Map<String, PlayerState> playersState;
 
+    /** Executor running the hourglass expirations, in order with the other operations on the game */
+    private Executor timerExecutor;
+
+    /** Called after each hourglass period has ended, e.g. to record it in the journal of the game */
+    private Runnable hourglassListener;
+
+    /** Id of the game, only used to tag its recordings, null if it's not set */
+    private String gameID;
+
     /**
      * Constructs a new ModelFacade with the specified list of player usernames.
      * Initializes the player state tracking map.
@@ -55,6 +68,41 @@ public abstract class ModelFacade {
     public ModelFacade(List<String> usernames) {
         this.usernames = usernames;
         this.playersState = new HashMap<>();
+        this.timerExecutor = Runnable::run;
+        this.hourglassListener = () -> {};
+    }
+
+    /**
+     * @return executor running the hourglass expirations, by default they run on the hourglass thread
+     */
+    public Executor getTimerExecutor() {
+        return timerExecutor;
+    }
+
+    /**
+     * Sets the executor running the hourglass expirations, e.g. the mailbox of the game.
+     *
+     * @param timerExecutor executor running the hourglass expirations
+     */
+    public void setTimerExecutor(Executor timerExecutor) {
+        this.timerExecutor = timerExecutor;
+    }
+
+    public String getGameID() {
+        return gameID;
+    }
+
+    public void setGameID(String gameID) {
+        this.gameID = gameID;
+    }
+
+    /**
+     * Sets the action called after each hourglass period has ended.
+     *
+     * @param hourglassListener action called after each expiration
+     */
+    public void setHourglassListener(Runnable hourglassListener) {
+        this.hourglassListener = hourglassListener;
     }
 
     /**
@@ -85,7 +133,7 @@ public abstract class ModelFacade {
      */
     public void setPlayerState(String username, PlayerState newState) {
         this.playersState.put(username, newState);
-        EventContext.emit(new PlayersStateUpdatedEvent(playersState));
+        EventContext.emitSnapshot(MessageType.PLAYERS_STATE_UPDATED_EVENT, () -> new PlayersStateUpdatedEvent(new HashMap<>(playersState)));
     }
 
     /**
@@ -153,6 +201,7 @@ public abstract class ModelFacade {
         checkBuildingState(username);
 
         component.reserveComponent(player);
+        board.getComponentPool().markReserved(component, player);
     }
 
     /**
@@ -176,6 +225,7 @@ public abstract class ModelFacade {
         checkBuildingState(username);
 
         component.insertComponent(player, row, col, rotations, weld);
+        board.getComponentPool().markPlaced(component, player);
     }
 
     /**
@@ -219,6 +269,17 @@ public abstract class ModelFacade {
         component.rotateComponent(player, num);
     }
 
+    /**
+     * Finds the legal placements of the component in the hand of a player, e.g. to suggest them while building.
+     *
+     * @param username the username of the player
+     * @return the legal placements, the ones leaving fewer exposed connectors first, empty if the hand is empty
+     */
+    public List<PlacementHints.Placement> getPlacementHints(String username) {
+        Ship ship = board.getPlayerEntityByUsername(username).getShip();
+        return ship.getHandComponent().map(ship::getPlacementHints).orElse(List.of());
+    }
+
     /**
      * Allows a player to look at a specific card pile. The player must have
      * at least one component placed on their ship to perform this action.
@@ -236,11 +297,7 @@ public abstract class ModelFacade {
 
         PlayerData player = board.getPlayerEntityByUsername(username);
         Ship ship = player.getShip();
-        boolean valid = false;
-        for (Optional<Component>[] row : ship.getDashboard())
-            for (Optional<Component> component : row)
-                if (component.isPresent() && (component.get().getX() != 3 || component.get().getY() != 2))
-                    valid = true;
+        boolean valid = ship.countComponents() > (ship.getDashboard(2, 3).isPresent() ? 1 : 0); // A component besides the starting cabin
 
         if (!valid)
             throw new IllegalArgumentException("You have to insert at least one component to see a card pile");
@@ -288,6 +345,15 @@ public abstract class ModelFacade {
         EventContext.emit(new HourglassMovedEvent());
     }
 
+    /**
+     * Ends the running hourglass period, run by the {@link #getTimerExecutor() timer executor} when it expires.
+     * The events of the last period are given to the callback of the move that started it.
+     */
+    public void expireHourglass() {
+        if (board.expireHourglass(this))
+            hourglassListener.run();
+    }
+
     /**
      * Marks a player as ready to proceed to the next phase. If the player is
      * looking at a card pile, they will be automatically moved out of that state.
@@ -459,7 +525,10 @@ public abstract class ModelFacade {
             Card card = board.getCardPile().get(board.getCardPilePos());
             EventContext.emit(new CardRevealedEvent(card));
 
+            CardJfrEvent recording = new CardJfrEvent();
+            recording.begin();
             boolean finished = card.startCard(this, this.board);
+            recording.complete("start", card, this, username, finished);
             EventContext.emit(new CardUpdatedEvent(card));
             if (finished)
                 board.pickNewCard(this);
@@ -767,6 +836,13 @@ public abstract class ModelFacade {
         board.calcRanking();
     }
 
+    /**
+     * Disposes the game, releasing every resource held by the board.
+     */
+    public void close() {
+        board.close();
+    }
+
     /**
      * Validates that a player is in the correct state for building actions.
      * If the player is looking at a card pile, they are automatically moved
@@ -20,12 +20,13 @@ public class ModelFacadeAdvancedMode extends ModelFacade {
      * Initializes the advanced mode board with enhanced gameplay mechanics.
      *
      * @param usernames the list of player usernames participating in the advanced mode game
+     * @param seed      the seed of the random generator of the game
      * @throws NullPointerException if usernames is null
      * @throws IllegalArgumentException if usernames is empty or contains invalid usernames
      */
-    public ModelFacadeAdvancedMode(List<String> usernames) {
+    public ModelFacadeAdvancedMode(List<String> usernames, long seed) {
         super(usernames);
-        this.board = new BoardAdvancedMode(usernames);
+        this.board = new BoardAdvancedMode(usernames, seed);
     }
 
     /**
@@ -16,12 +16,13 @@ public class ModelFacadeLearnerMode extends ModelFacade {
      * Initializes the learner mode board with simplified gameplay mechanics.
      *
      * @param usernames the list of player usernames participating in the learner mode game
+     * @param seed      the seed of the random generator of the game
      * @throws NullPointerException if usernames is null
      * @throws IllegalArgumentException if usernames is empty or contains invalid usernames
      */
-    public ModelFacadeLearnerMode(List<String> usernames) {
+    public ModelFacadeLearnerMode(List<String> usernames, long seed) {
         super(usernames);
-        this.board = new BoardLearnerMode(usernames);
+        this.board = new BoardLearnerMode(usernames, seed);
     }
 
     /**
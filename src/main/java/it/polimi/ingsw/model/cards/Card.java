@@ -5,6 +5,7 @@
  */
 package it.polimi.ingsw.model.cards;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
@@ -78,6 +79,26 @@ abstract public class Card {
     @JsonProperty
     private final boolean isLearner;
 
+    /**
+     * Number of changes of the state of this card sent to the clients
+     */
+    @JsonIgnore
+    private volatile int version;
+
+    /**
+     * Last JSON of this card, reused while the version doesn't change, null until the card is serialized
+     */
+    @JsonIgnore
+    private volatile Serialization serialization;
+
+    /**
+     * JSON of a card at a given version
+     *
+     * @param version the version of the card when it was serialized
+     * @param json    the JSON of the card
+     */
+    public record Serialization(int version, String json) {}
+
     /**
      * Constructs a new Card with the specified basic properties.
      * These properties are shared by all card types.
@@ -119,6 +140,41 @@ abstract public class Card {
         return isLearner;
     }
 
+    /**
+     * Retrieves the mutation version of this card.
+     * Two serializations of the card with the same version produce the same JSON.
+     *
+     * @return the mutation version of this card
+     */
+    @JsonIgnore
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Marks the state of this card sent to the clients as changed.
+     * Subclasses must call it after changing any serialized field, also of nested objects.
+     */
+    protected void markUpdated() {
+        version++;
+    }
+
+    /**
+     * @return the last JSON of this card, with the version it was serialized at, null if it has never been serialized
+     */
+    @JsonIgnore
+    public Serialization getSerialization() {
+        return serialization;
+    }
+
+    /**
+     * @param serialization the JSON of this card, with the version it was serialized at
+     */
+    @JsonIgnore
+    public void setSerialization(Serialization serialization) {
+        this.serialization = serialization;
+    }
+
     /**
      * Initiates the card's execution and sets up initial player states.
      * <p>
@@ -90,6 +90,7 @@ public class CombatZoneCard extends Card {
             return true;
         else {
             this.warLineIndex = 0;
+            markUpdated();
             this.playerIndex = 0;
             this.players = new ArrayList<>(board.getPlayersByPos());
 
@@ -120,6 +121,7 @@ public class CombatZoneCard extends Card {
             PlayerData player = players.get(playerIndex);
 
             PlayerState newState = warLines.get(warLineIndex).getCriteriaType().countCriteria(player, worst);
+            markUpdated(); // The criteria may have changed the worst player
             model.setPlayerState(player.getUsername(), newState);
             if (newState != PlayerState.DONE)
                 return false;
@@ -133,6 +135,7 @@ public class CombatZoneCard extends Card {
 
         if (hasDone && worst.getKey().isPresent()) { // Apply malus
             PlayerState newState = warLines.get(warLineIndex).getPenalty().resolve(model, board, worst.getKey().get());
+            markUpdated();
             model.setPlayerState(worst.getKey().get(), newState);
 
             // Update players because flight days could be changed (due to penalty)
@@ -144,6 +147,7 @@ public class CombatZoneCard extends Card {
 
         if (hasDone && worst.getKey().isEmpty()) { // Malus already applied, go to the next line
             warLineIndex++;
+            markUpdated();
             if (warLineIndex >= warLines.size())
                 return true;
             else {
@@ -179,12 +183,14 @@ public class CombatZoneCard extends Card {
             if (worst.getKey().isEmpty() || worst.getValue() > value) { // Update worst
                 worst.setKey(Optional.of(username));
                 worst.setValue(value.doubleValue());
+                markUpdated();
             }
 
             playerIndex++;
             return autoCheckPlayers(model, board);
         } else if (commandType == PlayerState.WAIT_ROLL_DICES) {
             warLines.get(warLineIndex).getPenalty().doCommandEffects(commandType, value, model, board, username);
+            markUpdated();
 
             if (model.getPlayerState(username) == PlayerState.DONE) // If nested doCommandEffect has put state to DONE
                 worst.setKey(Optional.empty());
@@ -212,6 +218,7 @@ public class CombatZoneCard extends Card {
     public boolean doCommandEffects(PlayerState commandType, Boolean value, ModelFacade model, Board board, String username) {
         if (commandType == PlayerState.WAIT_SHIELD) {
             warLines.get(warLineIndex).getPenalty().doCommandEffects(commandType, value, model, board, username);
+            markUpdated();
 
             if (model.getPlayerState(username) == PlayerState.DONE) // If nested doCommandEffect has put state to DONE
                 worst.setKey(Optional.empty());
@@ -243,6 +250,7 @@ public class CombatZoneCard extends Card {
             if (worst.getKey().isEmpty() || worst.getValue() > value) { // Update worst
                 worst.setKey(Optional.of(username));
                 worst.setValue(value);
+                markUpdated();
             }
 
             playerIndex++;
@@ -269,11 +277,13 @@ public class CombatZoneCard extends Card {
     public boolean doCommandEffects(PlayerState commandType, ModelFacade model, Board board, String username) {
         if (commandType == PlayerState.WAIT_REMOVE_CREW || commandType == PlayerState.WAIT_REMOVE_GOODS) {
             worst.setKey(Optional.empty());
+            markUpdated();
             model.setPlayerState(username, PlayerState.DONE);
 
             return autoCheckPlayers(model, board);
         } else if (commandType == PlayerState.WAIT_SHIP_PART) {
             warLines.get(warLineIndex).getPenalty().doCommandEffects(commandType, model, board, username);
+            markUpdated();
             return autoCheckPlayers(model, board);
         }
         throw new RuntimeException("Command type not valid");
@@ -344,8 +354,10 @@ public class CombatZoneCard extends Card {
                 state == PlayerState.WAIT_REMOVE_CREW || state == PlayerState.WAIT_REMOVE_GOODS ||
                         state == PlayerState.WAIT_ROLL_DICES || state == PlayerState.WAIT_SHIP_PART ||
                         state == PlayerState.WAIT_SHIELD
-        )
+        ) {
             worst.setKey(Optional.empty());
+            markUpdated();
+        }
 
         PlayerData player = board.getPlayerEntityByUsername(username);
         int indexOfLeftPlayer = players.indexOf(player);
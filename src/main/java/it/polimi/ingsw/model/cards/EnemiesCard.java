@@ -3,12 +3,10 @@ package it.polimi.ingsw.model.cards;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import it.polimi.ingsw.common.model.enums.PlayerState;
 import it.polimi.ingsw.model.ModelFacade;
-import it.polimi.ingsw.model.components.CannonComponent;
 import it.polimi.ingsw.model.game.Board;
 import it.polimi.ingsw.model.player.PlayerData;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -85,6 +83,7 @@ public abstract class EnemiesCard extends Card {
     @Override
     public boolean startCard(ModelFacade model, Board board) {
         this.enemiesDefeated = false;
+        markUpdated();
         this.playerIndex = 0;
         this.players = new ArrayList<>(board.getPlayersByPos());
 
@@ -115,26 +114,18 @@ public abstract class EnemiesCard extends Card {
         for (; playerIndex < players.size(); playerIndex++) {
             PlayerData player = players.get(playerIndex);
 
-            double freeCannonsPower = player.getShip().getComponentByType(CannonComponent.class).stream()
-                    .filter(cannon -> !cannon.getIsDouble())
-                    .mapToDouble(CannonComponent::calcPower).sum();
+            double freeCannonsPower = player.getShip().getSingleCannonsPower();
             if (freeCannonsPower > 0 && player.getShip().getCannonAlien())
                 freeCannonsPower += 2;
 
-            double doubleCannonsPower = player.getShip().getComponentByType(CannonComponent.class).stream()
-                    .filter(CannonComponent::getIsDouble)
-                    .mapToDouble(CannonComponent::calcPower)
-                    .boxed()
-                    .sorted(Comparator.reverseOrder())
-                    .limit(player.getShip().getBatteries())
-                    .mapToDouble(Double::doubleValue)
-                    .sum();
+            double doubleCannonsPower = player.getShip().getDoubleCannonsPower(player.getShip().getBatteries());
 
             if (enemiesDefeated)
                 model.setPlayerState(player.getUsername(), PlayerState.DONE);
             else if (freeCannonsPower > enemyFirePower) { // User wins automatically
                 model.setPlayerState(player.getUsername(), PlayerState.WAIT_BOOLEAN);
                 enemiesDefeated = true;
+                markUpdated();
                 return false;
             } else if (freeCannonsPower == enemyFirePower && doubleCannonsPower == 0)
                 model.setPlayerState(player.getUsername(), PlayerState.DONE);
@@ -205,6 +196,7 @@ public abstract class EnemiesCard extends Card {
             if (value > enemyFirePower && !enemiesDefeated) { // Ask if user wants to redeem rewards
                 model.setPlayerState(username, PlayerState.WAIT_BOOLEAN);
                 enemiesDefeated = true;
+                markUpdated();
             } else if (value >= enemyFirePower) { // Tie or slavers already defeated
                 model.setPlayerState(username, PlayerState.DONE);
                 playerIndex++;
@@ -76,6 +76,7 @@ public class MeteorSwarmCard extends Card {
     @Override
     public boolean startCard(ModelFacade model, Board board) {
         this.meteorIndex = 0;
+        markUpdated();
 
         for (PlayerData player : board.getPlayersByPos())
             model.setPlayerState(player.getUsername(), PlayerState.WAIT);
@@ -105,6 +106,7 @@ public class MeteorSwarmCard extends Card {
 
         if (hasDone) {
             meteorIndex++;
+            markUpdated();
             if (meteorIndex >= meteors.size())
                 return true;
             else {
@@ -143,8 +145,8 @@ public class MeteorSwarmCard extends Card {
 
             List<Component> targets = meteors.get(meteorIndex).getTargets(player.getShip(), coords.getLast());
             if (meteors.get(meteorIndex).getDirectionFrom() != DirectionType.NORTH) {
-                targets.addAll(meteors.get(meteorIndex).getDirectionFrom().getComponentsFromThisDirection(player.getShip().getDashboard(), coords.getLast() - 1));
-                targets.addAll(meteors.get(meteorIndex).getDirectionFrom().getComponentsFromThisDirection(player.getShip().getDashboard(), coords.getLast() + 1));
+                targets.addAll(player.getShip().getComponentsFromThisDirection(meteors.get(meteorIndex).getDirectionFrom(), coords.getLast() - 1));
+                targets.addAll(player.getShip().getComponentsFromThisDirection(meteors.get(meteorIndex).getDirectionFrom(), coords.getLast() + 1));
             }
 
             if (chosenCannon.getDirection() != meteors.get(meteorIndex).getDirectionFrom() || !targets.contains(chosenCannon))
@@ -173,6 +175,7 @@ public class MeteorSwarmCard extends Card {
     public boolean doCommandEffects(PlayerState commandType, Integer value, ModelFacade model, Board board, String username) {
         if (commandType == PlayerState.WAIT_ROLL_DICES) {
             this.coords.add(value);
+            markUpdated();
             for (PlayerData player : board.getPlayersByPos()) {
                 PlayerState newState = meteors.get(meteorIndex).hit(player, coords.getLast());
                 model.setPlayerState(player.getUsername(), newState);
@@ -2,7 +2,6 @@ package it.polimi.ingsw.model.cards;
 
 import it.polimi.ingsw.common.model.enums.PlayerState;
 import it.polimi.ingsw.model.ModelFacade;
-import it.polimi.ingsw.model.components.EngineComponent;
 import it.polimi.ingsw.model.game.Board;
 import it.polimi.ingsw.model.player.PlayerData;
 
@@ -92,21 +91,11 @@ public class OpenSpaceCard extends Card {
         for (; playerIndex < players.size(); playerIndex++) {
             PlayerData player = players.get(playerIndex);
 
-            int singleEnginesPower = player.getShip().getComponentByType(EngineComponent.class).stream()
-                    .filter(engine -> !engine.getIsDouble())
-                    .mapToInt(EngineComponent::calcPower)
-                    .sum();
+            int singleEnginesPower = player.getShip().getSingleEnginesPower();
             if (singleEnginesPower > 0 && player.getShip().getEngineAlien())
                 singleEnginesPower += 2;
 
-            int doubleEnginesPower = player.getShip().getComponentByType(EngineComponent.class).stream()
-                    .filter(EngineComponent::getIsDouble)
-                    .mapToInt(EngineComponent::calcPower)
-                    .boxed()
-                    .sorted(Comparator.reverseOrder())
-                    .limit(player.getShip().getBatteries())
-                    .mapToInt(Integer::intValue)
-                    .sum();
+            int doubleEnginesPower = player.getShip().getDoubleEnginesPower(player.getShip().getBatteries());
 
             if (doubleEnginesPower != 0) {
                 model.setPlayerState(player.getUsername(), PlayerState.WAIT_ENGINES);
@@ -95,6 +95,7 @@ public class PiratesCard extends EnemiesCard {
     @Override
     public boolean startCard(ModelFacade model, Board board) {
         this.cannonIndex = 0;
+        markUpdated();
         return super.startCard(model, board);
     }
 
@@ -147,6 +148,7 @@ public class PiratesCard extends EnemiesCard {
     @Override
     public boolean defeatedMalus(ModelFacade model, PlayerData player) {
         defeatedPlayers.add(player.getUsername());
+        markUpdated();
         model.setPlayerState(player.getUsername(), PlayerState.DONE);
         return false;
     }
@@ -173,12 +175,14 @@ public class PiratesCard extends EnemiesCard {
     public boolean doCommandEffects(PlayerState commandType, Integer value, ModelFacade model, Board board, String username) {
         if (commandType == PlayerState.WAIT_ROLL_DICES) {
             this.coords.add(value);
+            markUpdated();
             for (String defeatedPlayerUsername : defeatedPlayers) {
                 PlayerData defeatedPlayer = board.getPlayerEntityByUsername(defeatedPlayerUsername);
                 PlayerState newState = cannonFires.get(cannonIndex).hit(defeatedPlayer, coords.getLast());
                 model.setPlayerState(defeatedPlayerUsername, newState);
             }
             cannonIndex++;
+            markUpdated();
             return autoCheckPlayers(model, board);
         }
         throw new RuntimeException("Command type not valid");
@@ -206,11 +210,13 @@ public class PiratesCard extends EnemiesCard {
             if (value > enemyFirePower && !enemiesDefeated) { // Ask if user wants to redeem rewards
                 model.setPlayerState(username, PlayerState.WAIT_BOOLEAN);
                 enemiesDefeated = true;
+                markUpdated();
                 return false;
             } else if (value >= enemyFirePower) // Tie or pirates already defeated
                 model.setPlayerState(username, PlayerState.DONE);
             else { // Player is defeated
                 defeatedPlayers.add(username);
+                markUpdated();
                 model.setPlayerState(username, PlayerState.DONE);
             }
             playerIndex++;
@@ -301,6 +307,7 @@ public class PiratesCard extends EnemiesCard {
     @Override
     public boolean doLeftGameEffects(PlayerState state, ModelFacade model, Board board, String username) {
         defeatedPlayers.remove(username);
+        markUpdated();
         if (state == PlayerState.WAIT_ROLL_DICES) {
             if (!defeatedPlayers.isEmpty())
                 model.setPlayerState(defeatedPlayers.getFirst(), PlayerState.WAIT_ROLL_DICES);
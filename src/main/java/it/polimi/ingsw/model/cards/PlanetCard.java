@@ -175,6 +175,7 @@ public class PlanetCard extends Card {
                 throw new IllegalArgumentException("Planet not valid or already occupied");
             else { // Land
                 landedPlayers.put(username, planets.get(value));
+                markUpdated();
                 model.setPlayerState(username, PlayerState.WAIT);
             }
             playerIndex++;
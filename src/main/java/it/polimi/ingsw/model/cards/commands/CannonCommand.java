@@ -90,10 +90,7 @@ public class CannonCommand implements Command {
         checkInput(ship);
         card.doSpecificCheck(PlayerState.WAIT_CANNONS, cannons, username, board);
 
-        double singleCannonPower = ship.getComponentByType(CannonComponent.class).stream()
-                .filter(cannon -> !cannon.getIsDouble())
-                .mapToDouble(CannonComponent::calcPower)
-                .sum();
+        double singleCannonPower = ship.getSingleCannonsPower();
         double doubleCannonPower = cannons.stream().mapToDouble(CannonComponent::calcPower).sum();
         double userCannonPower = singleCannonPower + doubleCannonPower;
         if (userCannonPower > 0 && ship.getCannonAlien())
@@ -89,9 +89,7 @@ public class EngineCommand implements Command {
         Ship ship = board.getPlayerEntityByUsername(username).getShip();
         checkInput(ship);
 
-        int singleEnginePower = ship.getComponentByType(EngineComponent.class).stream()
-                .filter(engine -> !engine.getIsDouble())
-                .toList().size();
+        int singleEnginePower = ship.getSingleEnginesPower();
         int doubleEnginePower = engines.stream().mapToInt(EngineComponent::calcPower).sum();
         int userEnginePower = singleEnginePower + doubleEnginePower;
         if (userEnginePower > 0 && ship.getEngineAlien())
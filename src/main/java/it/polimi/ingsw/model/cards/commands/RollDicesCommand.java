@@ -39,7 +39,7 @@ public class RollDicesCommand implements Command {
     /**
      * Constructs a new RollDicesCommand and immediately performs the dice roll.
      * The dice roll is simulated by generating two random numbers between 1 and 6
-     * (inclusive) and summing them to produce a value between 2 and 12.
+     * (inclusive) with the random generator of the game and summing them to produce a value between 2 and 12.
      *
      * @param model    the model facade providing access to game state
      * @param board    the game board containing all game entities
@@ -49,7 +49,7 @@ public class RollDicesCommand implements Command {
         this.model = model;
         this.username = username;
         this.board = board;
-        this.value = ((int) (Math.random() * 6) + 1) + ((int) (Math.random() * 6) + 1);
+        this.value = board.getRandom().nextInt(1, 7) + board.getRandom().nextInt(1, 7);
     }
 
     /**
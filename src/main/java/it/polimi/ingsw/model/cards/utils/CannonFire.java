@@ -7,7 +7,6 @@ import it.polimi.ingsw.model.player.PlayerData;
 import it.polimi.ingsw.model.player.Ship;
 import it.polimi.ingsw.common.model.enums.DirectionType;
 
-import java.util.List;
 import java.util.Optional;
 
 /**
@@ -42,14 +41,13 @@ public class CannonFire {
         if (coord > 10 || coord < 4) return PlayerState.DONE; // Miss
         Ship ship = player.getShip();
 
-        List<Component> targets = directionFrom.getComponentsFromThisDirection(ship.getDashboard(), coord); // Find hit component
-        if (targets.isEmpty()) return PlayerState.DONE; // Miss
-        Component target = targets.getFirst();
+        Optional<Component> target = ship.getFirstComponentFromThisDirection(directionFrom, coord); // Find hit component
+        if (target.isEmpty()) return PlayerState.DONE; // Miss
 
         if (!isBig && ship.getProtectedSides().contains(directionFrom) && ship.getBatteries() > 0) // Ask user if he wants to use a battery
             return PlayerState.WAIT_SHIELD;
 
-        return target.destroyComponent(player); // Destroy component
+        return target.get().destroyComponent(player); // Destroy component
     }
 
     /**
@@ -61,7 +59,7 @@ public class CannonFire {
      *         or Optional.empty() if no component would be hit
      */
     public Optional<Component> getTarget(Ship ship, int coord) {
-        return directionFrom.getComponentsFromThisDirection(ship.getDashboard(), coord).stream().findFirst();
+        return ship.getFirstComponentFromThisDirection(directionFrom, coord);
     }
 
 }
\ No newline at end of file
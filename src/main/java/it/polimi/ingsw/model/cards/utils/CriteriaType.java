@@ -2,11 +2,8 @@ package it.polimi.ingsw.model.cards.utils;
 
 import it.polimi.ingsw.common.model.Pair;
 import it.polimi.ingsw.common.model.enums.PlayerState;
-import it.polimi.ingsw.model.components.CannonComponent;
-import it.polimi.ingsw.model.components.EngineComponent;
 import it.polimi.ingsw.model.player.PlayerData;
 
-import java.util.Comparator;
 import java.util.Optional;
 
 /**
@@ -59,20 +56,11 @@ public enum CriteriaType {
         @Override
         public PlayerState countCriteria(PlayerData player, Pair<Optional<String>, Double> worst) {
 
-            double freeCannonsPower = player.getShip().getComponentByType(CannonComponent.class).stream()
-                    .filter(cannon -> !cannon.getIsDouble())
-                    .mapToDouble(CannonComponent::calcPower).sum();
+            double freeCannonsPower = player.getShip().getSingleCannonsPower();
             if (freeCannonsPower > 0 && player.getShip().getCannonAlien())
                 freeCannonsPower += 2;
 
-            double doubleCannonsPower = player.getShip().getComponentByType(CannonComponent.class).stream()
-                    .filter(CannonComponent::getIsDouble)
-                    .mapToDouble(CannonComponent::calcPower)
-                    .boxed()
-                    .sorted(Comparator.reverseOrder())
-                    .limit(player.getShip().getBatteries())
-                    .mapToDouble(v -> v)
-                    .sum();
+            double doubleCannonsPower = player.getShip().getDoubleCannonsPower(player.getShip().getBatteries());
 
             if (freeCannonsPower >= worst.getValue() && worst.getKey().isPresent())
                 return PlayerState.DONE;
@@ -117,20 +105,11 @@ public enum CriteriaType {
         @Override
         public PlayerState countCriteria(PlayerData player, Pair<Optional<String>, Double> worst) {
 
-            double freeEnginesPower = player.getShip().getComponentByType(EngineComponent.class).stream()
-                    .filter(engine -> !engine.getIsDouble())
-                    .mapToDouble(EngineComponent::calcPower).sum();
+            double freeEnginesPower = player.getShip().getSingleEnginesPower();
             if (freeEnginesPower > 0 && player.getShip().getEngineAlien())
                 freeEnginesPower += 2;
 
-            double doubleEnginesPower = player.getShip().getComponentByType(EngineComponent.class).stream()
-                    .filter(EngineComponent::getIsDouble)
-                    .mapToDouble(EngineComponent::calcPower)
-                    .boxed()
-                    .sorted(Comparator.reverseOrder())
-                    .limit(player.getShip().getBatteries())
-                    .mapToDouble(Double::doubleValue)
-                    .sum();
+            double doubleEnginesPower = player.getShip().getDoubleEnginesPower(player.getShip().getBatteries());
 
             if (freeEnginesPower >= worst.getValue() && worst.getKey().isPresent())
                 return PlayerState.DONE;
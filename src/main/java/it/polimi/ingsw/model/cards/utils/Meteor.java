@@ -68,8 +68,8 @@ public class Meteor {
         else if (isBig) {
 
             if (directionFrom != DirectionType.NORTH) {
-                targets.addAll(directionFrom.getComponentsFromThisDirection(ship.getDashboard(), coord - 1));
-                targets.addAll(directionFrom.getComponentsFromThisDirection(ship.getDashboard(), coord + 1));
+                targets.addAll(ship.getComponentsFromThisDirection(directionFrom, coord - 1));
+                targets.addAll(ship.getComponentsFromThisDirection(directionFrom, coord + 1));
             }
 
             List<CannonComponent> cannonsOverLine = targets.stream()
@@ -97,7 +97,7 @@ public class Meteor {
      * @return List of components in the meteor's trajectory at the specified coordinates
      */
     public List<Component> getTargets(Ship ship, int coord) {
-        return directionFrom.getComponentsFromThisDirection(ship.getDashboard(), coord);
+        return ship.getComponentsFromThisDirection(directionFrom, coord);
     }
 
     /**
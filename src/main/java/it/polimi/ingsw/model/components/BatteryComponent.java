@@ -2,7 +2,6 @@ package it.polimi.ingsw.model.components;
 
 import it.polimi.ingsw.common.dto.BatteryComponentDTO;
 import it.polimi.ingsw.common.dto.ComponentDTO;
-import it.polimi.ingsw.common.model.enums.ConnectorType;
 import it.polimi.ingsw.common.model.events.game.BatteriesUpdatedEvent;
 import it.polimi.ingsw.common.model.events.EventContext;
 import it.polimi.ingsw.model.exceptions.BatteryComponentNotValidException;
@@ -35,12 +34,11 @@ public final class BatteryComponent extends Component {
      * Initializes the battery charge based on the component type:
      * triple batteries start with 3 charges, standard batteries start with 2 charges.
      *
-     * @param id         the unique identifier for this battery component
-     * @param connectors the array of connector types defining how this component connects to others
+     * @param tile       the immutable definition of this battery component (id, connectors)
      * @param isTriple   whether this is a triple battery component with enhanced capacity
      */
-    public BatteryComponent(int id, ConnectorType[] connectors, boolean isTriple) {
-        super(id, connectors);
+    public BatteryComponent(Tile tile, boolean isTriple) {
+        super(tile);
         this.isTriple = isTriple;
         this.batteries = isTriple ? 3 : 2;
     }
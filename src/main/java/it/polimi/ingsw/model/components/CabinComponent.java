@@ -2,7 +2,6 @@ package it.polimi.ingsw.model.components;
 
 import it.polimi.ingsw.common.dto.CabinComponentDTO;
 import it.polimi.ingsw.common.dto.ComponentDTO;
-import it.polimi.ingsw.common.model.enums.ConnectorType;
 import it.polimi.ingsw.common.model.events.game.CrewUpdatedEvent;
 import it.polimi.ingsw.common.model.events.EventContext;
 import it.polimi.ingsw.model.exceptions.CabinComponentNotValidException;
@@ -43,12 +42,11 @@ public final class CabinComponent extends Component {
      * Constructs a new CabinComponent with the specified properties.
      * Initializes the cabin with 2 human crew members and no alien occupant.
      *
-     * @param id         the unique identifier for this cabin component
-     * @param connectors the array of connector types defining how this component connects to others
+     * @param tile       the immutable definition of this cabin component (id, connectors)
      * @param isStarting whether this is a starting cabin that cannot house aliens
      */
-    public CabinComponent(int id, ConnectorType[] connectors, boolean isStarting) {
-        super(id, connectors);
+    public CabinComponent(Tile tile, boolean isStarting) {
+        super(tile);
         this.humans = 2;
         this.alien = null;
         this.isStarting = isStarting;
@@ -180,7 +178,7 @@ public final class CabinComponent extends Component {
             this.showComponent();
             this.x = col;
             this.y = row;
-            player.getShip().getDashboard()[row][col] = Optional.of(this);
+            player.getShip().setDashboard(row, col, Optional.of(this));
             this.weldComponent();
         } else
             super.insertComponent(player, row, col, rotations, weld);
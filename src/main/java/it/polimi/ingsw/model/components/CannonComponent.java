@@ -2,8 +2,6 @@ package it.polimi.ingsw.model.components;
 
 import it.polimi.ingsw.common.dto.CannonComponentDTO;
 import it.polimi.ingsw.common.dto.ComponentDTO;
-import it.polimi.ingsw.common.model.enums.ConnectorType;
-import it.polimi.ingsw.model.player.PlayerData;
 import it.polimi.ingsw.model.player.Ship;
 import it.polimi.ingsw.common.model.enums.DirectionType;
 
@@ -15,11 +13,6 @@ import it.polimi.ingsw.common.model.enums.DirectionType;
  */
 public final class CannonComponent extends Component {
 
-    /**
-     * The direction this cannon is oriented to fire toward
-     */
-    private DirectionType direction;
-
     /**
      * Whether this is a double cannon that provides enhanced firepower but requires battery power
      */
@@ -28,14 +21,11 @@ public final class CannonComponent extends Component {
     /**
      * Constructs a new CannonComponent with the specified properties.
      *
-     * @param id         the unique identifier for this cannon component
-     * @param connectors the array of connector types defining how this component connects to others
-     * @param direction  the direction this cannon is oriented to fire toward
-     * @param isDouble   whether this is a double cannon requiring battery power for enhanced firepower
+     * @param tile     the immutable definition of this cannon component (id, connectors, direction it fires toward)
+     * @param isDouble whether this is a double cannon requiring battery power for enhanced firepower
      */
-    public CannonComponent(int id, ConnectorType[] connectors, DirectionType direction, boolean isDouble) {
-        super(id, connectors);
-        this.direction = direction;
+    public CannonComponent(Tile tile, boolean isDouble) {
+        super(tile);
         this.isDouble = isDouble;
     }
 
@@ -45,7 +35,7 @@ public final class CannonComponent extends Component {
      * @return the DirectionType indicating where this cannon is aimed
      */
     public DirectionType getDirection() {
-        return direction;
+        return getTile().getDirections(getOrientation())[0];
     }
 
     /**
@@ -68,26 +58,10 @@ public final class CannonComponent extends Component {
      * @return the calculated firepower of this cannon (0.5 to 2.0 range)
      */
     public double calcPower() {
-        int factor = direction == DirectionType.NORTH ? 1 : 2;
+        int factor = getDirection() == DirectionType.NORTH ? 1 : 2;
         return (isDouble ? 2.0 : 1.0) / factor;
     }
 
-    /**
-     * Handles cannon rotation by updating both the component orientation and firing direction.
-     * <p>
-     * When a cannon is rotated, its firing direction must be updated to match the new
-     * orientation.
-     *
-     * @param player    the player performing the rotation
-     * @param rotations the number of 90-degree clockwise rotations to apply
-     */
-    @Override
-    public void rotateComponent(PlayerData player, int rotations) {
-        super.rotateComponent(player, rotations);
-        DirectionType[] directions = DirectionType.values(); // NORTH = 0, EAST = 1, SOUTH = 2, WEST = 3
-        this.direction = directions[((this.direction.ordinal() + rotations) % 4)];
-    }
-
     /**
      * Validates that this cannon can be placed at its current position with proper firing clearance.
      * <p>
@@ -100,6 +74,7 @@ public final class CannonComponent extends Component {
      */
     @Override
     public boolean checkComponent(Ship ship) {
+        DirectionType direction = getDirection();
         return super.checkComponent(ship) &&
                 (direction == DirectionType.NORTH && ship.getDashboard(y - 1, x).isEmpty()) ||
                 (direction == DirectionType.EAST && ship.getDashboard(y, x + 1).isEmpty()) ||
@@ -143,7 +118,7 @@ public final class CannonComponent extends Component {
      */
     @Override
     public ComponentDTO toDTO() {
-        return new CannonComponentDTO(getId(), getConnectors(), getX(), getY(), isInserted(), isShown(), getRotationsCounter(), direction, isDouble);
+        return new CannonComponentDTO(getId(), getConnectors(), getX(), getY(), isInserted(), isShown(), getRotationsCounter(), getDirection(), isDouble);
     }
 
 }
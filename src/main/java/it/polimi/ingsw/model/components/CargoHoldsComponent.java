@@ -2,7 +2,6 @@ package it.polimi.ingsw.model.components;
 
 import it.polimi.ingsw.common.dto.CargoHoldsComponentDTO;
 import it.polimi.ingsw.common.dto.ComponentDTO;
-import it.polimi.ingsw.common.model.enums.ConnectorType;
 import it.polimi.ingsw.model.exceptions.GoodNotValidException;
 import it.polimi.ingsw.common.model.enums.ColorType;
 import it.polimi.ingsw.model.player.Ship;
@@ -22,12 +21,11 @@ public final class CargoHoldsComponent extends SpecialCargoHoldsComponent {
      * Inherits the basic cargo storage functionality from SpecialCargoHoldsComponent
      * while enforcing restrictions on red goods storage.
      *
-     * @param id         the unique identifier for this cargo holds component
-     * @param connectors the array of connector types defining how this component connects to others
+     * @param tile       the immutable definition of this cargo holds component (id, connectors)
      * @param number     the storage capacity (number of goods that can be stored)
      */
-    public CargoHoldsComponent(int id, ConnectorType[] connectors, int number) {
-        super(id, connectors, number);
+    public CargoHoldsComponent(Tile tile, int number) {
+        super(tile, number);
     }
 
     /**
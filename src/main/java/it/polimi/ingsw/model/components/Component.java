@@ -41,14 +41,16 @@ public sealed class Component permits
         ShieldComponent, SpecialCargoHoldsComponent {
 
     /**
-     * The unique identifier for this component
+     * Immutable definition of this component, shared with the other games
      */
-    private final int id;
+    private final Tile tile;
 
     /**
-     * Array of connector types defining how this component connects to others (North, East, South, West)
+     * Number of clockwise quarter turns applied to the tile, used to read its connectors.
+     * Unlike {@link #rotationsCounter} it isn't reset when the component is released or reserved,
+     * as the connectors keep their rotation.
      */
-    private ConnectorType[] connectors;
+    private int orientation;
 
     /**
      * The x-coordinate (column) of this component on the ship dashboard
@@ -76,19 +78,35 @@ public sealed class Component permits
      * Constructs a new Component with the specified properties.
      * Initializes the component in a hidden,not welded state ready for game interaction.
      *
-     * @param id         the unique identifier for this component
-     * @param connectors the array of connector types (North, East, South, West) defining connection capabilities
+     * @param tile the immutable definition of the component (id, connectors)
      */
-    public Component(int id, ConnectorType[] connectors) {
-        this.id = id;
-        this.connectors = connectors;
+    public Component(Tile tile) {
+        this.tile = tile;
+        this.orientation = 0;
         this.inserted = false;
         this.shown = false;
         this.rotationsCounter = 0;
     }
 
+    /**
+     * @return the connectors (North, East, South, West) of the component as rotated, the array is shared and must not be modified
+     */
     public ConnectorType[] getConnectors() {
-        return connectors;
+        return tile.getConnectors(orientation);
+    }
+
+    /**
+     * @return the immutable definition of this component
+     */
+    public Tile getTile() {
+        return tile;
+    }
+
+    /**
+     * @return number of clockwise quarter turns applied to the tile, from 0 to 3
+     */
+    public int getOrientation() {
+        return orientation;
     }
 
     /**
@@ -120,21 +138,22 @@ public sealed class Component permits
      * @return list of components that are functionally linked to this component
      */
     public List<Component> getLinkedNeighbors(Ship ship) {
+        ConnectorType[] connectors = getConnectors();
         List<Component> neighbors = new ArrayList<>();
         ship.getDashboard(y - 1, x).ifPresent(n -> {
-            if (areConnectorsLinked(connectors[0], n.connectors[2]))
+            if (areConnectorsLinked(connectors[0], n.getConnectors()[2]))
                 neighbors.add(n);
         });
         ship.getDashboard(y + 1, x).ifPresent(n -> {
-            if (areConnectorsLinked(connectors[2], n.connectors[0]))
+            if (areConnectorsLinked(connectors[2], n.getConnectors()[0]))
                 neighbors.add(n);
         });
         ship.getDashboard(y, x - 1).ifPresent(n -> {
-            if (areConnectorsLinked(connectors[3], n.connectors[1]))
+            if (areConnectorsLinked(connectors[3], n.getConnectors()[1]))
                 neighbors.add(n);
         });
         ship.getDashboard(y, x + 1).ifPresent(n -> {
-            if (areConnectorsLinked(connectors[1], n.connectors[3]))
+            if (areConnectorsLinked(connectors[1], n.getConnectors()[3]))
                 neighbors.add(n);
         });
         return neighbors;
@@ -195,8 +214,8 @@ public sealed class Component permits
             throw new ComponentNotValidException("Component isn't in dashboard");
 
         ship.getDiscards().add(this);
-        ship.getDashboard()[y][x] = Optional.empty();
-        EventContext.emit(new ComponentDestroyedEvent(player.getUsername(), id));
+        ship.setDashboard(y, x, Optional.empty());
+        EventContext.emit(new ComponentDestroyedEvent(player.getUsername(), getId()));
     }
 
     /**
@@ -214,7 +233,7 @@ public sealed class Component permits
      * <p>
      * The picking process:
      * 1. Validates the component is available for picking
-     * 2. Removes it from the common components or validates it's not reserved
+     * 2. Takes it from the common pool, failing if another player has just taken it, or validates it's not reserved
      * 3. Releases any component already in the player's hand
      * 4. Places this component in the player's hand
      * 5. Emits appropriate events for game state updates
@@ -227,27 +246,24 @@ public sealed class Component permits
      */
     public void pickComponent(Board board, PlayerData player) {
         Ship ship = player.getShip();
-        shown = true;
 
         if (ship.getReserves().contains(this))
             throw new ComponentNotValidException("Reserves can't be picked");
-        else if (board.getCommonComponents().contains(this))
-            board.getCommonComponents().remove(this);
-        else
-            throw new ComponentNotValidException("This component is not in common components or in reserves");
+        board.getComponentPool().take(this, player);
+        shown = true;
 
         if (ship.getHandComponent().isPresent())
             ship.getHandComponent().get().releaseComponent(board, player);
 
         ship.setHandComponent(this);
-        EventContext.emit(new ComponentPickedEvent(player.getUsername(), id));
+        EventContext.emit(new ComponentPickedEvent(player.getUsername(), getId()));
     }
 
     /**
      * Returns this component to the common pool from the player's control.
      * <p>
      * The release process:
-     * 1. Validates the component can be released (not already released, not reserved, not welded)
+     * 1. Validates the component can be released (not already released, not reserved, not welded, owned by the player)
      * 2. Removes it from the player's hand or dashboard position
      * 3. Returns it to the common components pool
      * 4. Emits appropriate events for game state updates
@@ -260,21 +276,23 @@ public sealed class Component permits
      */
     public void releaseComponent(Board board, PlayerData player) {
         Ship ship = player.getShip();
-        if (board.getCommonComponents().contains(this) || !shown)
+        if (board.getComponentPool().isFree(this) || !shown)
             throw new ComponentNotValidException("This component is already released");
         if (ship.getReserves().contains(this))
             throw new ComponentNotValidException("You can't release reserves");
         if (inserted)
             throw new ComponentNotValidException("Component is already welded");
+        if (!board.getComponentPool().isOwnedBy(this, player))
+            throw new ComponentNotValidException("Component isn't yours");
 
         if (ship.getHandComponent().isPresent() && ship.getHandComponent().get().equals(this)) // Component to release is in hand
             ship.setHandComponent(null);
         else if (ship.getDashboard(y, x).isPresent() && ship.getDashboard(y, x).get().equals(this)) // Component to release is in dashboard
-            ship.getDashboard()[y][x] = Optional.empty();
+            ship.setDashboard(y, x, Optional.empty());
 
         rotationsCounter = 0;
-        board.getCommonComponents().add(this);
-        EventContext.emit(new ComponentReleasedEvent(player.getUsername(), id));
+        board.getComponentPool().release(this, player); // After resetting it, the tile can be picked as soon as it's released
+        EventContext.emit(new ComponentReleasedEvent(player.getUsername(), getId()));
     }
 
     /**
@@ -301,13 +319,13 @@ public sealed class Component permits
         } else if (ship.getDashboard(y, x).isPresent() && ship.getDashboard(y, x).get().equals(this)) { // Component to reserve is in dashboard
             if (inserted)
                 throw new ComponentNotValidException("Component is already welded");
-            ship.getDashboard()[y][x] = Optional.empty();
+            ship.setDashboard(y, x, Optional.empty());
         } else
             throw new ComponentNotValidException("Component to reserve isn't in hand or in dashboard");
 
         rotationsCounter = 0;
         ship.getReserves().add(this);
-        EventContext.emit(new ComponentReservedEvent(player.getUsername(), id));
+        EventContext.emit(new ComponentReservedEvent(player.getUsername(), getId()));
     }
 
     /**
@@ -348,7 +366,7 @@ public sealed class Component permits
 
         this.x = col;
         this.y = row;
-        ship.getDashboard()[row][col] = Optional.of(this);
+        ship.setDashboard(row, col, Optional.of(this));
 
         rotateComponent(player, rotations);
 
@@ -356,7 +374,7 @@ public sealed class Component permits
         if (weld)
             this.weldComponent();
 
-        EventContext.emit(new ComponentInsertedEvent(player.getUsername(), id, row, col));
+        EventContext.emit(new ComponentInsertedEvent(player.getUsername(), getId(), row, col));
     }
 
     /**
@@ -398,13 +416,13 @@ public sealed class Component permits
         else if (ship.validPositions(row, col) || ship.getDashboard(row, col).isPresent())
             throw new ComponentNotValidException("New position isn't valid or is already occupied"); // Check if new position is valid
 
-        ship.getDashboard()[y][x] = Optional.empty();
+        ship.setDashboard(y, x, Optional.empty());
         this.x = col;
         this.y = row;
-        ship.getDashboard()[row][col] = Optional.of(this);
+        ship.setDashboard(row, col, Optional.of(this));
 
         rotateComponent(player, rotations);
-        EventContext.emit(new ComponentMovedEvent(player.getUsername(), id, row, col));
+        EventContext.emit(new ComponentMovedEvent(player.getUsername(), getId(), row, col));
     }
 
     /**
@@ -412,7 +430,7 @@ public sealed class Component permits
      * <p>
      * The rotation process:
      * 1. Validates the component is accessible (in hand, dashboard, or reserves) and not welded
-     * 2. Rotates the connector array clockwise by the specified amount
+     * 2. Turns the tile clockwise by the specified amount, without allocating new connectors
      * 3. Emits rotation events for game state updates
      * <p>
      * Subclasses may override this to handle
@@ -431,18 +449,14 @@ public sealed class Component permits
         if (inserted)
             throw new ComponentNotValidException("Component is already welded");
 
-        for (int i = 0; i < (rotations % 4); i++) {
-            ConnectorType[] newConnectors = new ConnectorType[4];
-            newConnectors[0] = connectors[3];
-            newConnectors[1] = connectors[0];
-            newConnectors[2] = connectors[1];
-            newConnectors[3] = connectors[2];
-            connectors = newConnectors;
-        }
+        if (rotations % 4 > 0)
+            orientation = (orientation + rotations % 4) % 4; // Connectors of the new orientation are precomputed by the tile
 
         rotationsCounter = (rotationsCounter + rotations) % 4;
+        if (ship.getDashboard(y, x).isPresent() && ship.getDashboard(y, x).get().equals(this))
+            ship.refreshDashboard(y, x);
 
-        EventContext.emit(new ComponentRotatedEvent(id, rotations % 4));
+        EventContext.emit(new ComponentRotatedEvent(getId(), rotations % 4));
     }
 
     /**
@@ -461,14 +475,15 @@ public sealed class Component permits
      */
     @SuppressWarnings("BooleanMethodIsAlwaysInverted")
     public boolean checkComponent(Ship ship) {
+        ConnectorType[] connectors = getConnectors();
         if (getLinkedNeighbors(ship).isEmpty()) // Not isolated check
             return false;
 
         // Compatible connectors check
-        return (ship.getDashboard(y, x - 1).isEmpty() || Component.areConnectorsCompatible(ship.getDashboard(y, x - 1).get().connectors[1], connectors[3])) && // Left connector check
-                (ship.getDashboard(y - 1, x).isEmpty() || Component.areConnectorsCompatible(ship.getDashboard(y - 1, x).get().connectors[2], connectors[0])) && // Top connector check
-                (ship.getDashboard(y, x + 1).isEmpty() || Component.areConnectorsCompatible(ship.getDashboard(y, x + 1).get().connectors[3], connectors[1])) && // Right connector check
-                (ship.getDashboard(y + 1, x).isEmpty() || Component.areConnectorsCompatible(ship.getDashboard(y + 1, x).get().connectors[0], connectors[2])); // Bottom connector check
+        return (ship.getDashboard(y, x - 1).isEmpty() || Component.areConnectorsCompatible(ship.getDashboard(y, x - 1).get().getConnectors()[1], connectors[3])) && // Left connector check
+                (ship.getDashboard(y - 1, x).isEmpty() || Component.areConnectorsCompatible(ship.getDashboard(y - 1, x).get().getConnectors()[2], connectors[0])) && // Top connector check
+                (ship.getDashboard(y, x + 1).isEmpty() || Component.areConnectorsCompatible(ship.getDashboard(y, x + 1).get().getConnectors()[3], connectors[1])) && // Right connector check
+                (ship.getDashboard(y + 1, x).isEmpty() || Component.areConnectorsCompatible(ship.getDashboard(y + 1, x).get().getConnectors()[0], connectors[2])); // Bottom connector check
     }
 
     /**
@@ -485,8 +500,8 @@ public sealed class Component permits
      */
     public PlayerState destroyComponent(PlayerData player) {
         affectDestroy(player);
-        List<List<Component>> groups = player.getShip().calcShipParts();
-        if (groups.size() > 1) {
+        if (player.getShip().countShipParts() > 1) {
+            List<List<Component>> groups = player.getShip().calcShipParts();
             List<List<Integer>> newGroups = new ArrayList<>();
             for (List<Component> group : groups)
                 newGroups.add(group.stream().map(Component::getId).collect(Collectors.toList()));
@@ -508,7 +523,7 @@ public sealed class Component permits
 
 
     public int getId() {
-        return id;
+        return tile.getId();
     }
 
 
@@ -561,7 +576,7 @@ public sealed class Component permits
      * @return a ComponentDTO containing this component's current state
      */
     public ComponentDTO toDTO() {
-        return new ComponentDTO(id, connectors, x, y, inserted, shown, rotationsCounter);
+        return new ComponentDTO(getId(), getConnectors(), x, y, inserted, shown, rotationsCounter);
     }
 
 }
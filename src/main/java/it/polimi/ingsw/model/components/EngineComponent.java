@@ -2,8 +2,6 @@ package it.polimi.ingsw.model.components;
 
 import it.polimi.ingsw.common.dto.ComponentDTO;
 import it.polimi.ingsw.common.dto.EngineComponentDTO;
-import it.polimi.ingsw.common.model.enums.ConnectorType;
-import it.polimi.ingsw.model.player.PlayerData;
 import it.polimi.ingsw.model.player.Ship;
 import it.polimi.ingsw.common.model.enums.DirectionType;
 
@@ -14,11 +12,6 @@ import it.polimi.ingsw.common.model.enums.DirectionType;
  */
 public final class EngineComponent extends Component {
 
-    /**
-     * The direction this engine is oriented (affects rotation but not power calculation)
-     */
-    private DirectionType direction;
-
     /**
      * Whether this is a double engine that provides enhanced power but requires battery activation
      */
@@ -27,14 +20,11 @@ public final class EngineComponent extends Component {
     /**
      * Constructs a new EngineComponent with the specified properties.
      *
-     * @param id         the unique identifier for this engine component
-     * @param connectors the array of connector types defining how this component connects to others
-     * @param direction  the direction this engine is oriented (primarily for rotation tracking)
-     * @param isDouble   whether this is a double engine requiring battery power for enhanced propulsion
+     * @param tile     the immutable definition of this engine component (id, connectors, direction it's oriented)
+     * @param isDouble whether this is a double engine requiring battery power for enhanced propulsion
      */
-    public EngineComponent(int id, ConnectorType[] connectors, DirectionType direction, boolean isDouble) {
-        super(id, connectors);
-        this.direction = direction;
+    public EngineComponent(Tile tile, boolean isDouble) {
+        super(tile);
         this.isDouble = isDouble;
     }
 
@@ -48,28 +38,21 @@ public final class EngineComponent extends Component {
     }
 
     /**
-     * Calculates the propulsion power of this engine.
+     * Retrieves the direction this engine is oriented, which follows the rotations of the component.
      * <p>
-     * @return the propulsion power of this engine (1 for single, 2 for double)
+     * @return the DirectionType indicating where this engine is oriented
      */
-    public int calcPower() {
-        return isDouble ? 2 : 1;
+    public DirectionType getDirection() {
+        return getTile().getDirections(getOrientation())[0];
     }
 
     /**
-     * Handles engine rotation by updating both the component orientation and direction tracking.
+     * Calculates the propulsion power of this engine.
      * <p>
-     * When an engine is rotated, its direction property is updated to match the new
-     * orientation.
-     *
-     * @param player    the player performing the rotation
-     * @param rotations the number of 90-degree clockwise rotations to apply
+     * @return the propulsion power of this engine (1 for single, 2 for double)
      */
-    @Override
-    public void rotateComponent(PlayerData player, int rotations) {
-        super.rotateComponent(player, rotations);
-        DirectionType[] directions = DirectionType.values();
-        this.direction = directions[((this.direction.ordinal() + rotations) % 4)];
+    public int calcPower() {
+        return isDouble ? 2 : 1;
     }
 
     /**
@@ -85,7 +68,7 @@ public final class EngineComponent extends Component {
      */
     @Override
     public boolean checkComponent(Ship ship) {
-        return super.checkComponent(ship) && (direction == DirectionType.SOUTH && ship.getDashboard(y + 1, x).isEmpty());
+        return super.checkComponent(ship) && (getDirection() == DirectionType.SOUTH && ship.getDashboard(y + 1, x).isEmpty());
     }
 
     /**
@@ -124,7 +107,7 @@ public final class EngineComponent extends Component {
      */
     @Override
     public ComponentDTO toDTO() {
-        return new EngineComponentDTO(getId(), getConnectors(), getX(), getY(), isInserted(), isShown(), getRotationsCounter(), direction, isDouble);
+        return new EngineComponentDTO(getId(), getConnectors(), getX(), getY(), isInserted(), isShown(), getRotationsCounter(), getDirection(), isDouble);
     }
 
 }
@@ -2,7 +2,6 @@ package it.polimi.ingsw.model.components;
 
 import it.polimi.ingsw.common.dto.ComponentDTO;
 import it.polimi.ingsw.common.dto.OddComponentDTO;
-import it.polimi.ingsw.common.model.enums.ConnectorType;
 import it.polimi.ingsw.common.model.enums.AlienType;
 import it.polimi.ingsw.model.player.PlayerData;
 import it.polimi.ingsw.model.player.Ship;
@@ -23,12 +22,11 @@ public final class OddComponent extends Component {
      * Constructs a new OddComponent with the specified properties.
      * The odd component is specialized for supporting a specific type of alien crew member.
      *
-     * @param id the unique identifier for this odd component
-     * @param connectors the array of connector types defining how this component connects to others
+     * @param tile the immutable definition of this odd component (id, connectors)
      * @param type the type of alien this component supports (cannon or engine)
      */
-    public OddComponent(int id, ConnectorType[] connectors, AlienType type) {
-        super(id, connectors);
+    public OddComponent(Tile tile, AlienType type) {
+        super(tile);
         this.type = type;
     }
 
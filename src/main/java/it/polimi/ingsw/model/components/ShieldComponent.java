@@ -2,7 +2,6 @@ package it.polimi.ingsw.model.components;
 
 import it.polimi.ingsw.common.dto.ComponentDTO;
 import it.polimi.ingsw.common.dto.ShieldComponentDTO;
-import it.polimi.ingsw.common.model.enums.ConnectorType;
 import it.polimi.ingsw.model.player.PlayerData;
 import it.polimi.ingsw.common.model.enums.DirectionType;
 
@@ -13,20 +12,23 @@ import it.polimi.ingsw.common.model.enums.DirectionType;
  */
 public final class ShieldComponent extends Component {
 
-    /** Array of directions that this shield component protects (typically two adjacent directions) */
-    private final DirectionType[] directionsProtected;
-
     /**
      * Constructs a new ShieldComponent with the specified properties.
      * The shield provides protection for the specified directions when activated with battery power.
      *
-     * @param id the unique identifier for this shield component
-     * @param connectors the array of connector types defining how this component connects to others
-     * @param directionsProtected the array of directions this shield protects against threats
+     * @param tile the immutable definition of this shield component (id, connectors, the two directions it protects)
      */
-    public ShieldComponent(int id, ConnectorType[] connectors, DirectionType[] directionsProtected) {
-        super(id, connectors);
-        this.directionsProtected = directionsProtected;
+    public ShieldComponent(Tile tile) {
+        super(tile);
+    }
+
+    /**
+     * Retrieves the directions protected by this shield, which follow the rotations of the component.
+     *
+     * @return the two directions protected by this shield, the array is shared and must not be modified
+     */
+    public DirectionType[] getDirectionsProtected() {
+        return getTile().getDirections(getOrientation());
     }
 
     /**
@@ -46,7 +48,7 @@ public final class ShieldComponent extends Component {
     @Override
     public void insertComponent(PlayerData player, int row, int col, int rotations, boolean weld) {
         super.insertComponent(player, row, col, rotations, weld);
-        for (DirectionType direction : directionsProtected)
+        for (DirectionType direction : getDirectionsProtected())
             player.getShip().getProtectedSides().add(direction);
     }
 
@@ -64,15 +66,13 @@ public final class ShieldComponent extends Component {
      */
     @Override
     public void rotateComponent(PlayerData player, int rotations) {
+        DirectionType[] previous = getDirectionsProtected();
         super.rotateComponent(player, rotations);
 
-        player.getShip().getProtectedSides().remove(directionsProtected[0]);
-        player.getShip().getProtectedSides().remove(directionsProtected[1]);
-
-        DirectionType[] directions = DirectionType.values();
-        this.directionsProtected[0] = directions[((this.directionsProtected[0].ordinal() + rotations) % 4)];
-        this.directionsProtected[1] = directions[((this.directionsProtected[1].ordinal() + rotations) % 4)];
+        player.getShip().getProtectedSides().remove(previous[0]);
+        player.getShip().getProtectedSides().remove(previous[1]);
 
+        DirectionType[] directionsProtected = getDirectionsProtected();
         player.getShip().getProtectedSides().add(directionsProtected[0]);
         player.getShip().getProtectedSides().add(directionsProtected[1]);
     }
@@ -90,6 +90,7 @@ public final class ShieldComponent extends Component {
     @Override
     public void affectDestroy(PlayerData player) {
         super.affectDestroy(player);
+        DirectionType[] directionsProtected = getDirectionsProtected();
         player.getShip().getProtectedSides().remove(directionsProtected[0]);
         player.getShip().getProtectedSides().remove(directionsProtected[1]);
     }
@@ -130,7 +131,7 @@ public final class ShieldComponent extends Component {
      */
     @Override
     public ComponentDTO toDTO() {
-        return new ShieldComponentDTO(getId(), getConnectors(), getX(), getY(), isInserted(), isShown(), getRotationsCounter(), directionsProtected);
+        return new ShieldComponentDTO(getId(), getConnectors(), getX(), getY(), isInserted(), isShown(), getRotationsCounter(), getDirectionsProtected());
     }
 
 }
@@ -2,7 +2,6 @@ package it.polimi.ingsw.model.components;
 
 import it.polimi.ingsw.common.dto.ComponentDTO;
 import it.polimi.ingsw.common.dto.SpecialCargoHoldsComponentDTO;
-import it.polimi.ingsw.common.model.enums.ConnectorType;
 import it.polimi.ingsw.common.model.events.EventContext;
 import it.polimi.ingsw.common.model.events.game.GoodsUpdatedEvent;
 import it.polimi.ingsw.model.exceptions.GoodNotValidException;
@@ -41,12 +40,11 @@ public sealed class SpecialCargoHoldsComponent extends Component permits CargoHo
      * Constructs a new SpecialCargoHoldsComponent with the specified properties.
      * Initializes the cargo hold with the specified capacity and an empty goods storage.
      *
-     * @param id         the unique identifier for this cargo holds component
-     * @param connectors the array of connector types defining how this component connects to others
+     * @param tile       the immutable definition of this cargo holds component (id, connectors)
      * @param number     the maximum storage capacity (number of goods that can be stored)
      */
-    public SpecialCargoHoldsComponent(int id, ConnectorType[] connectors, int number) {
-        super(id, connectors);
+    public SpecialCargoHoldsComponent(Tile tile, int number) {
+        super(tile);
         this.number = number;
         this.goods = new ArrayList<>();
     }
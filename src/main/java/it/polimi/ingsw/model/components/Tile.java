@@ -0,0 +1,74 @@
+package it.polimi.ingsw.model.components;
+
+import it.polimi.ingsw.common.model.enums.ConnectorType;
+import it.polimi.ingsw.common.model.enums.DirectionType;
+
+/**
+ * Immutable definition of a tile, shared by the components with the same id of every game (flyweight).
+ * The connectors and the directions (of a cannon, an engine or the sides protected by a shield) are precomputed
+ * for the four orientations, so rotating a component only changes its orientation index.
+ * The returned arrays are shared and must not be modified.
+ */
+public final class Tile {
+
+    private static final DirectionType[] DIRECTIONS = DirectionType.values(); // NORTH = 0, EAST = 1, SOUTH = 2, WEST = 3
+
+    /**
+     * The unique identifier of the tile
+     */
+    private final int id;
+
+    /**
+     * Connectors (North, East, South, West) for each orientation, i.e. number of clockwise quarter turns
+     */
+    private final ConnectorType[][] connectors;
+
+    /**
+     * Directions for each orientation, empty if the tile has none
+     */
+    private final DirectionType[][] directions;
+
+    /**
+     * Constructs a new Tile.
+     *
+     * @param id         the unique identifier of the tile
+     * @param connectors the connectors (North, East, South, West) of the tile as printed
+     * @param directions the directions of the tile as printed, if any
+     */
+    public Tile(int id, ConnectorType[] connectors, DirectionType... directions) {
+        this.id = id;
+        this.connectors = new ConnectorType[4][];
+        this.directions = new DirectionType[4][];
+
+        for (int orientation = 0; orientation < 4; orientation++) {
+            this.connectors[orientation] = new ConnectorType[connectors.length];
+            for (int side = 0; side < connectors.length; side++) // A quarter turn moves the west connector to the north
+                this.connectors[orientation][side] = connectors[Math.floorMod(side - orientation, connectors.length)];
+
+            this.directions[orientation] = new DirectionType[directions.length];
+            for (int i = 0; i < directions.length; i++)
+                this.directions[orientation][i] = DIRECTIONS[(directions[i].ordinal() + orientation) % 4];
+        }
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @param orientation number of clockwise quarter turns, from 0 to 3
+     * @return the connectors (North, East, South, West) of the tile rotated
+     */
+    public ConnectorType[] getConnectors(int orientation) {
+        return connectors[orientation];
+    }
+
+    /**
+     * @param orientation number of clockwise quarter turns, from 0 to 3
+     * @return the directions of the tile rotated
+     */
+    public DirectionType[] getDirections(int orientation) {
+        return directions[orientation];
+    }
+
+}
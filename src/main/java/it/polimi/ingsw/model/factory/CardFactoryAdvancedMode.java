@@ -1,11 +1,9 @@
 package it.polimi.ingsw.model.factory;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import it.polimi.ingsw.model.cards.Card;
-
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.random.RandomGenerator;
 
 /**
  * Specialized card factory implementation for advanced game mode.
@@ -19,33 +17,30 @@ public class CardFactoryAdvancedMode extends CardFactory {
      * Constructs a new CardFactoryAdvancedMode and generates the advanced mode card deck.
      * <p>
      * The resulting deck provides 8 Level 2 encounters and 4 Level 1 encounters.
+     *
+     * @param random the random generator of the game, used to choose the cards
      */
-    public CardFactoryAdvancedMode() {
+    public CardFactoryAdvancedMode(RandomGenerator random) {
         super();
 
-        List<Card> level1Cards = new ArrayList<>();
-        List<Card> level2Cards = new ArrayList<>();
-
-        JsonNode deckJson = loadJsonConfig();
-        JsonNode cardsArray = deckJson.get("cards");
+        List<Catalog.CardPrototype> level1Cards = new ArrayList<>();
+        List<Catalog.CardPrototype> level2Cards = new ArrayList<>();
 
-        for (int i = 0; i < cardsArray.size(); i++) {
-            JsonNode cardJson = cardsArray.get(i);
-            Card card = createCard(cardJson);
-            if (card.getLevel() == 1)
+        for (Catalog.CardPrototype card : Catalog.getInstance().getCards()) {
+            if (card.level() == 1)
                 level1Cards.add(card);
-            else if (card.getLevel() == 2)
+            else if (card.level() == 2)
                 level2Cards.add(card);
         }
 
-        Collections.shuffle(level1Cards);
-        Collections.shuffle(level2Cards);
+        Collections.shuffle(level1Cards, random);
+        Collections.shuffle(level2Cards, random);
 
-        for (int i = 0; i < 12; i++) {
+        for (int i = 0; i < 12; i++) { // Only the chosen cards are instantiated
             if ((i + 1) % 3 == 0)
-                cardPile.add(level1Cards.get(i));
+                cardPile.add(level1Cards.get(i).newInstance());
             else
-                cardPile.add(level2Cards.get(i));
+                cardPile.add(level2Cards.get(i).newInstance());
         }
     }
 
@@ -1,7 +1,5 @@
 package it.polimi.ingsw.model.factory;
 
-import com.fasterxml.jackson.databind.JsonNode;
-
 /**
  * Specialized card factory implementation for learner game mode.
  * This factory creates a simplified card deck that contains only cards flagged as
@@ -18,14 +16,9 @@ public class CardFactoryLearnerMode extends CardFactory {
     public CardFactoryLearnerMode() {
         super();
 
-        JsonNode deckJson = loadJsonConfig();
-        JsonNode cardsArray = deckJson.get("cards");
-
-        for (int i = 0; i < cardsArray.size(); i++) {
-            JsonNode cardJson = cardsArray.get(i);
-            if (cardJson.get("isLearner").asBoolean())
-                cardPile.add(createCard(cardJson));
-        }
+        for (Catalog.CardPrototype card : Catalog.getInstance().getCards())
+            if (card.isLearner())
+                cardPile.add(card.newInstance());
     }
 
 }
\ No newline at end of file
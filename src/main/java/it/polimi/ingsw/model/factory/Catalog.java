@@ -0,0 +1,353 @@
+package it.polimi.ingsw.model.factory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import it.polimi.ingsw.common.model.enums.AlienType;
+import it.polimi.ingsw.common.model.enums.ColorType;
+import it.polimi.ingsw.common.model.enums.ConnectorType;
+import it.polimi.ingsw.common.model.enums.DirectionType;
+import it.polimi.ingsw.model.cards.*;
+import it.polimi.ingsw.model.cards.utils.*;
+import it.polimi.ingsw.model.components.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Process-wide catalog of the tiles and the cards defined in factory.json.
+ * The file is read and parsed only once, into immutable prototypes: each prototype keeps the parsed attributes
+ * and creates a new mutable instance for every game, without touching the JSON again.
+ * Immutable parts (the {@link Tile} of each component, cannon fires, meteors, planets, rewards) are shared by all the instances,
+ * the ones holding state during a game (e.g. the war lines of a combat zone) are created for each instance.
+ */
+public class Catalog {
+
+    /**
+     * Singleton Pattern, instance of the class
+     */
+    private static Catalog instance = null;
+
+    /**
+     * Prototypes of the components available during the building phase, in file order
+     */
+    private final List<ComponentPrototype> components;
+
+    /**
+     * Prototypes of the starting cabins, by color of the player
+     */
+    private final Map<ColorType, ComponentPrototype> startingCabins;
+
+    /**
+     * Prototypes of all the adventure cards, in file order
+     */
+    private final List<CardPrototype> cards;
+
+    /**
+     * Immutable definition of a tile
+     *
+     * @param id      id of the component
+     * @param factory creates a new instance of the component
+     */
+    public record ComponentPrototype(int id, Supplier<Component> factory) {
+
+        /**
+         * @return a new component, with its own state
+         */
+        public Component newInstance() {
+            return factory.get();
+        }
+
+    }
+
+    /**
+     * Immutable definition of an adventure card
+     *
+     * @param id        id of the card
+     * @param level     level of the card
+     * @param isLearner true if the card is used in learner mode
+     * @param factory   creates a new instance of the card
+     */
+    public record CardPrototype(int id, int level, boolean isLearner, Supplier<Card> factory) {
+
+        /**
+         * @return a new card, with its own state
+         */
+        public Card newInstance() {
+            return factory.get();
+        }
+
+    }
+
+    private Catalog() {
+        JsonNode json = loadJsonConfig();
+
+        List<ComponentPrototype> components = new ArrayList<>();
+        for (JsonNode componentJson : json.get("components"))
+            components.add(new ComponentPrototype(componentJson.get("id").asInt(), parseComponent(componentJson)));
+        this.components = Collections.unmodifiableList(components);
+
+        Map<ColorType, ComponentPrototype> startingCabins = new EnumMap<>(ColorType.class);
+        List<ColorType> colors = List.of(ColorType.values());
+        JsonNode startingCabinsArray = json.get("startingCabins");
+        for (int i = 0; i < startingCabinsArray.size(); i++) {
+            JsonNode componentJson = startingCabinsArray.get(i);
+            startingCabins.put(colors.get(i), new ComponentPrototype(componentJson.get("id").asInt(), parseComponent(componentJson)));
+        }
+        this.startingCabins = Collections.unmodifiableMap(startingCabins);
+
+        List<CardPrototype> cards = new ArrayList<>();
+        for (JsonNode cardJson : json.get("cards"))
+            cards.add(new CardPrototype(cardJson.get("id").asInt(), cardJson.get("level").asInt(), cardJson.get("isLearner").asBoolean(), parseCard(cardJson)));
+        this.cards = Collections.unmodifiableList(cards);
+    }
+
+    /**
+     * Singleton Pattern, the catalog is built at the first call (the server calls it at start-up)
+     *
+     * @return the only one instance of the Catalog class
+     */
+    public synchronized static Catalog getInstance() {
+        if (instance == null) {
+            instance = new Catalog();
+        }
+        return instance;
+    }
+
+    /**
+     * @return the prototypes of the components available during the building phase, in file order
+     */
+    public List<ComponentPrototype> getComponents() {
+        return components;
+    }
+
+    /**
+     * @return the prototypes of the starting cabins, by color of the player
+     */
+    public Map<ColorType, ComponentPrototype> getStartingCabins() {
+        return startingCabins;
+    }
+
+    /**
+     * @return the prototypes of all the adventure cards, in file order
+     */
+    public List<CardPrototype> getCards() {
+        return cards;
+    }
+
+    /**
+     * Loads and parses the JSON configuration file containing component and card definitions.
+     *
+     * @return the root JsonNode containing all configuration data
+     * @throws RuntimeException if the configuration file cannot be found or parsed
+     */
+    private JsonNode loadJsonConfig() {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        try (InputStream configStream = getClass().getResourceAsStream("/factory.json")) {
+
+            if (configStream == null) {
+                throw new RuntimeException("Config file 'factory.json' not found in resources");
+            }
+
+            return objectMapper.readTree(configStream);
+
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to parse config file", e);
+        }
+    }
+
+    /**
+     * Parses the definition of a component.
+     *
+     * @param componentJson the JsonNode containing the component's configuration data
+     * @return a factory of components of the appropriate type
+     * @throws IllegalArgumentException if the component type is unknown or configuration is invalid
+     */
+    @SuppressWarnings("Duplicates")
+    private static Supplier<Component> parseComponent(JsonNode componentJson) {
+        int id = componentJson.get("id").asInt();
+        String type = componentJson.get("type").asText();
+        JsonNode connectorsArray = componentJson.get("connectors");
+        ConnectorType[] connectors = new ConnectorType[connectorsArray.size()];
+        for (int i = 0; i < connectorsArray.size(); i++) {
+            connectors[i] = (ConnectorType.valueOf(connectorsArray.get(i).asText()));
+        }
+
+        List<DirectionType> directions = new ArrayList<>(); // Where a cannon or an engine points, sides protected by a shield
+        if (componentJson.has("direction"))
+            directions.add(DirectionType.valueOf(componentJson.get("direction").asText()));
+        if (componentJson.has("directionsProtected"))
+            for (JsonNode direction : componentJson.get("directionsProtected"))
+                directions.add(DirectionType.valueOf(direction.asText()));
+        Tile tile = new Tile(id, connectors, directions.toArray(DirectionType[]::new));
+
+        switch (type) {
+            case "BatteryComponent":
+                boolean isTriple = componentJson.get("isTriple").booleanValue();
+                return () -> new BatteryComponent(tile, isTriple);
+
+            case "CargoHoldsComponent":
+                int numberCargo = componentJson.get("number").asInt();
+                return () -> new CargoHoldsComponent(tile, numberCargo);
+
+            case "CabinComponent":
+                boolean isStartingCabin = componentJson.get("isStarting").booleanValue();
+                return () -> new CabinComponent(tile, isStartingCabin);
+
+            case "Component":
+                return () -> new Component(tile);
+
+            case "SpecialCargoHoldsComponent":
+                int numberSpecialCargo = componentJson.get("number").asInt();
+                return () -> new SpecialCargoHoldsComponent(tile, numberSpecialCargo);
+
+            case "EngineComponent":
+                boolean engineIsDouble = componentJson.get("isDouble").booleanValue();
+                return () -> new EngineComponent(tile, engineIsDouble);
+
+            case "CannonComponent":
+                boolean cannonIsDouble = componentJson.get("isDouble").booleanValue();
+                return () -> new CannonComponent(tile, cannonIsDouble);
+
+            case "ShieldComponent":
+                return () -> new ShieldComponent(tile);
+
+            case "OddComponent":
+                AlienType alienType = AlienType.valueOf(componentJson.get("typeAlien").asText());
+                return () -> new OddComponent(tile, alienType);
+
+            default:
+                throw new IllegalArgumentException("Unknown component type: " + type);
+        }
+    }
+
+    /**
+     * Parses the definition of a card.
+     *
+     * @param cardJson the JsonNode containing the card's configuration data
+     * @return a factory of cards of the appropriate type
+     * @throws IllegalArgumentException if the card type is unknown or configuration is invalid
+     */
+    @SuppressWarnings("Duplicates")
+    private static Supplier<Card> parseCard(JsonNode cardJson) {
+        String type = cardJson.get("type").asText();
+        int id = cardJson.get("id").asInt();
+        int level = cardJson.get("level").asInt();
+        boolean isLearner = cardJson.get("isLearner").asBoolean();
+
+        switch (type) {
+            case "SlaversCard":
+                int slaversCrew = cardJson.get("crew").asInt();
+                int slaversCredits = cardJson.get("credits").asInt();
+                int slaversDays = cardJson.get("days").asInt();
+                int slaverFirePower = cardJson.get("firePower").asInt();
+                return () -> new SlaversCard(id, level, isLearner, slaversCrew, slaversCredits, slaversDays, slaverFirePower);
+
+            case "SmugglersCard":
+                int smugFirePower = cardJson.get("firePower").asInt();
+                int smugLostGoods = cardJson.get("lostGoods").asInt();
+                Map<ColorType, Integer> rewards = parseGoods(cardJson.get("rewards"));
+                int smugDays = cardJson.get("days").asInt();
+                return () -> new SmugglersCard(id, level, isLearner, smugFirePower, smugLostGoods, rewards, smugDays);
+
+            case "PiratesCard":
+                int pirateFirePower = cardJson.get("piratesFirePower").asInt();
+                int pirateCredits = cardJson.get("credits").asInt();
+                int pirateDays = cardJson.get("days").asInt();
+                List<CannonFire> piratesCannonFires = parseCannonFires(cardJson.get("cannonFires"));
+                return () -> new PiratesCard(id, level, isLearner, pirateFirePower, pirateCredits, pirateDays, piratesCannonFires);
+
+            case "StardustCard":
+                return () -> new StardustCard(id, level, isLearner);
+
+            case "OpenSpaceCard":
+                return () -> new OpenSpaceCard(id, level, isLearner);
+
+            case "EpidemicCard":
+                return () -> new EpidemicCard(id, level, isLearner);
+
+            case "MeteorSwarmCard":
+                List<Meteor> meteors = parseMeteors(cardJson.get("meteors"));
+                return () -> new MeteorSwarmCard(id, level, isLearner, meteors);
+
+            case "StrayBigMeteorsCard":
+                List<Meteor> meteorsBig = parseMeteors(cardJson.get("cannonFires"));
+                return () -> new MeteorSwarmCard(id, level, isLearner, meteorsBig);
+
+            case "AbandonedShipCard":
+                int abandonedShipCrew = cardJson.get("crew").asInt();
+                int abandonedShipCredits = cardJson.get("credits").asInt();
+                int abandonedShipDays = cardJson.get("days").asInt();
+                return () -> new AbandonedShipCard(id, level, isLearner, abandonedShipCrew, abandonedShipCredits, abandonedShipDays);
+
+            case "AbandonedStationCard":
+                int crew = cardJson.get("crew").asInt();
+                int stationDays = cardJson.get("days").asInt();
+                Map<ColorType, Integer> goods = parseGoods(cardJson.get("goods"));
+                return () -> new AbandonedStationCard(id, level, isLearner, crew, stationDays, goods);
+
+            case "PlanetCard":
+                List<Planet> planets = new ArrayList<>();
+                for (JsonNode planetJson : cardJson.get("planets"))
+                    planets.add(new Planet(parseGoods(planetJson.get("rewards"))));
+                List<Planet> sharedPlanets = Collections.unmodifiableList(planets);
+                int days = cardJson.get("days").asInt();
+                return () -> new PlanetCard(id, level, isLearner, sharedPlanets, days);
+
+            case "CombactZoneCard":
+                List<Supplier<WarLine>> warLines = new ArrayList<>();
+                for (JsonNode combatJson : cardJson.get("warLines")) {
+                    CriteriaType criteria = CriteriaType.valueOf(combatJson.get("CriteriaType").asText());
+                    JsonNode penaltyJson = combatJson.get("PenaltyCombatZone");
+                    String penaltyType = penaltyJson.get("type").asText();
+                    if (penaltyType.equals("CountablePenaltyZone")) {
+                        int penaltyNumber = penaltyJson.get("penaltyNumber").asInt();
+                        MalusType malusType = MalusType.valueOf(penaltyJson.get("MalusType").asText());
+                        CountablePenaltyZone penalty = new CountablePenaltyZone(penaltyNumber, malusType);
+                        warLines.add(() -> new WarLine(criteria, penalty));
+                    } else if (penaltyType.equals("CannonFirePenaltyCombatZone")) {
+                        List<CannonFire> cannonFires = parseCannonFires(penaltyJson.get("cannonFires"));
+                        warLines.add(() -> new WarLine(criteria, new CannonFirePenaltyCombatZone(cannonFires))); // It keeps the state of the shots
+                    } else {
+                        throw new IllegalArgumentException("Unknown penalty type: " + penaltyType);
+                    }
+                }
+                return () -> new CombatZoneCard(id, level, isLearner, new ArrayList<>(warLines.stream().map(Supplier::get).toList()));
+
+            default:
+                throw new IllegalArgumentException("Unknown card type: " + type);
+        }
+    }
+
+    private static Map<ColorType, Integer> parseGoods(JsonNode goodsJson) {
+        Map<ColorType, Integer> goods = new HashMap<>();
+        for (Iterator<String> it = goodsJson.fieldNames(); it.hasNext(); ) {
+            String color = it.next();
+            goods.put(ColorType.valueOf(color.toUpperCase()), goodsJson.get(color).asInt());
+        }
+        return Collections.unmodifiableMap(goods);
+    }
+
+    private static List<CannonFire> parseCannonFires(JsonNode cannonFiresArray) {
+        List<CannonFire> cannonFires = new ArrayList<>();
+        for (JsonNode cannonFireJson : cannonFiresArray) {
+            boolean isBig = cannonFireJson.get("isBig").asBoolean();
+            DirectionType directionFrom = DirectionType.valueOf(cannonFireJson.get("directionFrom").asText());
+            cannonFires.add(new CannonFire(isBig, directionFrom));
+        }
+        return Collections.unmodifiableList(cannonFires);
+    }
+
+    private static List<Meteor> parseMeteors(JsonNode meteorsArray) {
+        List<Meteor> meteors = new ArrayList<>();
+        for (JsonNode meteorJson : meteorsArray) {
+            boolean isBig = meteorJson.get("isBig").asBoolean();
+            DirectionType directionFrom = DirectionType.valueOf(meteorJson.get("directionFrom").asText());
+            meteors.add(new Meteor(isBig, directionFrom));
+        }
+        return Collections.unmodifiableList(meteors);
+    }
+
+}
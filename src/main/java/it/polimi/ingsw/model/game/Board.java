@@ -12,7 +12,9 @@ import it.polimi.ingsw.common.model.events.EventContext;
 import it.polimi.ingsw.model.exceptions.PlayerNotFoundException;
 import it.polimi.ingsw.common.model.enums.ColorType;
 import it.polimi.ingsw.model.factory.CardFactory;
+import it.polimi.ingsw.network.metrics.jfr.PickCardJfrEvent;
 import it.polimi.ingsw.model.player.PlayerData;
+import it.polimi.ingsw.network.messages.MessageType;
 
 
 import java.util.*;
@@ -36,9 +38,19 @@ public abstract class Board {
     protected Map<Integer, Component> mapIdComponents;
 
     /**
-     * List of components currently available in the common pool for player acquisition
+     * Tiles of the building phase, tracking the ones available in the common pool for player acquisition
      */
-    protected List<Component> commonComponents;
+    protected ComponentPool componentPool;
+
+    /**
+     * Seed of the random generator, recorded to replay the game
+     */
+    private final long seed;
+
+    /**
+     * Random generator of the game (dice and shuffles), owned by this game only
+     */
+    protected final SplittableRandom random;
 
     /**
      * List of active players with their current positions on the flight path
@@ -65,7 +77,9 @@ public abstract class Board {
      * Initializes the card pile position to -1 indicating no cards have been drawn yet.
      * Subclasses are responsible for populating these collections with appropriate content.
      */
-    public Board() {
+    public Board(long seed) {
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
         this.startingDeck = new ArrayList<>();
         this.players = new ArrayList<>();
 
@@ -73,6 +87,28 @@ public abstract class Board {
         this.cardPilePos = -1;
     }
 
+    /**
+     * Retrieves the seed of the random generator of the game.
+     * <p>
+     * A game created with the same seed and receiving the same commands evolves in the same way.
+     *
+     * @return the seed of the game
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Retrieves the random generator of the game, used for dice rolls and shuffles.
+     * <p>
+     * The generator isn't thread-safe: it must be used by the commands of the game only.
+     *
+     * @return the random generator of the game
+     */
+    public SplittableRandom getRandom() {
+        return random;
+    }
+
     /**
      * Retrieves the list of active players with their current flight path positions.
      * <p>
@@ -135,10 +171,20 @@ public abstract class Board {
      * Retrieves the list of components currently available for player acquisition.
      * <p>
      *
-     * @return the list of components available in the common pool
+     * @return a new list of the components available in the common pool, in the order they were released
      */
     public List<Component> getCommonComponents() {
-        return commonComponents;
+        return componentPool.getFreeComponents();
+    }
+
+    /**
+     * Retrieves the tiles of the building phase, used to pick and release components.
+     * <p>
+     *
+     * @return the component pool of the game
+     */
+    public ComponentPool getComponentPool() {
+        return componentPool;
     }
 
     /**
@@ -168,6 +214,8 @@ public abstract class Board {
      * @param model the model facade for game state management and player state updates
      */
     public void pickNewCard(ModelFacade model) {
+        PickCardJfrEvent recording = new PickCardJfrEvent();
+        recording.begin();
         for (PlayerData player : getPlayersByPos())
             if (player.hasEndedInAdvance()) {
                 model.setPlayerState(player.getUsername(), PlayerState.WAIT);
@@ -175,13 +223,15 @@ public abstract class Board {
             }
 
         cardPilePos++;
-        if (cardPilePos == cardPile.size() || players.isEmpty()) // All cards are resolved or there are no more players
+        boolean ended = cardPilePos == cardPile.size() || players.isEmpty();
+        if (ended) // All cards are resolved or there are no more players
             model.endGame();
         else { // Change card
             for (PlayerData p : getPlayersByPos())
                 model.setPlayerState(p.getUsername(), PlayerState.WAIT);
             model.setPlayerState(getPlayersByPos().getFirst().getUsername(), PlayerState.DRAW_CARD);
         }
+        recording.complete(model, cardPilePos, ended);
     }
 
     /**
@@ -222,10 +272,24 @@ public abstract class Board {
         }
 
         players.sort(Map.Entry.comparingByValue(Comparator.reverseOrder()));
-        EventContext.emit(new PlayersPositionUpdatedEvent(
-                startingDeck.stream().map(PlayerData::getUsername).toList(),
-                players.stream().map(e -> new SimpleEntry<>(e.getKey().getUsername(), e.getValue())).toList())
-        );
+        EventContext.emitSnapshot(MessageType.PLAYERS_POSITION_UPDATED_EVENT, this::createPlayersPositionEvent);
+    }
+
+    /**
+     * Creates the snapshot of the positions sent to the clients, once for each batch of events.
+     *
+     * @return event with the players in the starting deck and the positions of the flying players
+     */
+    private PlayersPositionUpdatedEvent createPlayersPositionEvent() {
+        List<String> starting = new ArrayList<>(startingDeck.size());
+        for (PlayerData player : startingDeck)
+            starting.add(player.getUsername());
+
+        List<SimpleEntry<String, Integer>> positions = new ArrayList<>(players.size());
+        for (SimpleEntry<PlayerData, Integer> entry : players)
+            positions.add(new SimpleEntry<>(entry.getKey().getUsername(), entry.getValue()));
+
+        return new PlayersPositionUpdatedEvent(starting, positions);
     }
 
     /**
@@ -243,10 +307,7 @@ public abstract class Board {
                     startingDeck.add(player);
                 });
 
-        EventContext.emit(new PlayersPositionUpdatedEvent(
-                startingDeck.stream().map(PlayerData::getUsername).toList(),
-                players.stream().map(e -> new SimpleEntry<>(e.getKey().getUsername(), e.getValue())).toList())
-        );
+        EventContext.emitSnapshot(MessageType.PLAYERS_POSITION_UPDATED_EVENT, this::createPlayersPositionEvent);
     }
 
     /**
@@ -267,10 +328,7 @@ public abstract class Board {
         players.sort(Map.Entry.comparingByValue(Comparator.reverseOrder()));
         startingDeck.remove(player);
 
-        EventContext.emit(new PlayersPositionUpdatedEvent(
-                startingDeck.stream().map(PlayerData::getUsername).toList(),
-                players.stream().map(e -> new SimpleEntry<>(e.getKey().getUsername(), e.getValue())).toList())
-        );
+        EventContext.emitSnapshot(MessageType.PLAYERS_POSITION_UPDATED_EVENT, this::createPlayersPositionEvent);
     }
 
     /**
@@ -337,7 +395,7 @@ public abstract class Board {
 
         boardDTO.mapIdComponents = mapIdComponents.entrySet().stream()
                 .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().toDTO()));
-        boardDTO.commonComponents = commonComponents.stream()
+        boardDTO.commonComponents = componentPool.getFreeComponents().stream()
                 .map(Component::getId).toList();
         boardDTO.players = players.stream()
                 .map(GameStateDTOFactory::createPlayerPositionDTO).toList();
@@ -354,6 +412,14 @@ public abstract class Board {
         return boardDTO;
     }
 
+    /**
+     * Releases any resource held by the board (e.g. running timers).
+     * Called when the game is disposed. By default there is nothing to release.
+     */
+    public void close() {
+        // Do nothing by default
+    }
+
     /**
      * Retrieves the mapping of card pile names to their watch indices.
      *
@@ -387,6 +453,17 @@ public abstract class Board {
      */
     public abstract void moveHourglass(String username, ModelFacade model, Consumer<List<Event>> callback);
 
+    /**
+     * Ends the running hourglass period, if any.
+     * By default there is no hourglass.
+     *
+     * @param model the model facade for game state management
+     * @return true if a period was running
+     */
+    public boolean expireHourglass(ModelFacade model) {
+        return false;
+    }
+
     /**
      * Retrieves the board-specific starting position configuration.
      * <p>
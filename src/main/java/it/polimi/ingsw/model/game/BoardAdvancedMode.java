@@ -3,6 +3,7 @@ package it.polimi.ingsw.model.game;
 import it.polimi.ingsw.common.dto.BoardDTO;
 import it.polimi.ingsw.common.model.events.Event;
 import it.polimi.ingsw.model.ModelFacade;
+import it.polimi.ingsw.model.cards.Card;
 import it.polimi.ingsw.model.factory.CardFactory;
 import it.polimi.ingsw.model.factory.CardFactoryAdvancedMode;
 import it.polimi.ingsw.common.model.enums.ColorType;
@@ -11,9 +12,11 @@ import it.polimi.ingsw.model.game.objects.Time;
 import it.polimi.ingsw.model.player.PlayerData;
 import it.polimi.ingsw.model.player.Ship;
 import it.polimi.ingsw.model.player.ShipAdvancedMode;
+import it.polimi.ingsw.network.metrics.jfr.CardJfrEvent;
 
 import java.util.*;
 import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 /**
  * Advanced mode implementation of the game board that extends the base Board class.
@@ -39,15 +42,16 @@ public class BoardAdvancedMode extends Board {
      * specialized ships, and enhanced card factory.
      *
      * @param usernames the list of player usernames to initialize the game with
+     * @param seed      the seed of the random generator of the game
      * @throws IllegalArgumentException if usernames list is null or empty
      */
-    public BoardAdvancedMode(List<String> usernames) {
-        super();
+    public BoardAdvancedMode(List<String> usernames, long seed) {
+        super(seed);
         this.cardPilesWatchMap = new HashMap<>();
         this.timeManagement = new Time();
         ComponentFactory componentFactory = new ComponentFactory();
-        this.commonComponents = new ArrayList<>(componentFactory.getComponents());
         this.mapIdComponents = new HashMap<>(componentFactory.getComponentsMap());
+        this.componentPool = new ComponentPool(mapIdComponents, componentFactory.getComponents());
         List<ColorType> colors = Arrays.stream(ColorType.values()).toList();
         for (int i = 0; i < usernames.size(); i++) {
             PlayerData player = new PlayerData(usernames.get(i));
@@ -60,7 +64,7 @@ public class BoardAdvancedMode extends Board {
             this.startingDeck.add(player);
         }
 
-        CardFactory cardFactory = new CardFactoryAdvancedMode();
+        CardFactory cardFactory = new CardFactoryAdvancedMode(random);
         cardPile.addAll(cardFactory.getCards());
     }
 
@@ -86,14 +90,31 @@ public class BoardAdvancedMode extends Board {
         timeManagement.startTimer(model, callback);
     }
 
+    /**
+     * Ends the running hourglass period, setting every player ready if it was the last one.
+     *
+     * @param model the model facade for game state management
+     * @return true if a period was running
+     */
+    @Override
+    public boolean expireHourglass(ModelFacade model) {
+        return timeManagement.expireTimer(model);
+    }
+
     /**
      * Shuffles the card pile ensuring that the first card is a level 2 card.
+     * A random level 2 card is moved first and the others are shuffled after it,
+     * which gives the same distribution of shuffling until a level 2 card is on top.
      */
     @Override
     public void shuffleCards() {
-        do {
-            Collections.shuffle(cardPile);
-        } while (cardPile.getFirst().getLevel() != 2);
+        List<Integer> level2 = IntStream.range(0, cardPile.size())
+                .filter(i -> cardPile.get(i).getLevel() == 2)
+                .boxed().toList();
+
+        if (!level2.isEmpty())
+            Collections.swap(cardPile, 0, level2.get(random.nextInt(level2.size())));
+        Collections.shuffle(cardPile.subList(level2.isEmpty() ? 0 : 1, cardPile.size()), random);
     }
 
     /**
@@ -108,6 +129,14 @@ public class BoardAdvancedMode extends Board {
         });
     }
 
+    /**
+     * Stops the hourglass so that no expiration fires after the game has been disposed.
+     */
+    @Override
+    public void close() {
+        timeManagement.stopTimer();
+    }
+
     /**
      * Picks a new card from the card pile, handling the end-of-card effects
      * for the previous card if applicable. In advanced mode, this includes
@@ -117,8 +146,13 @@ public class BoardAdvancedMode extends Board {
      */
     @Override
     public void pickNewCard(ModelFacade model) {
-        if (cardPilePos >= 0)
-            cardPile.get(cardPilePos).endCard(this);
+        if (cardPilePos >= 0) {
+            Card card = cardPile.get(cardPilePos);
+            CardJfrEvent recording = new CardJfrEvent();
+            recording.begin();
+            card.endCard(this);
+            recording.complete("end", card, model, null, true);
+        }
         super.pickNewCard(model);
     }
 
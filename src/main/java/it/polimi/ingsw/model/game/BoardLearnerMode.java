@@ -22,14 +22,15 @@ public class BoardLearnerMode extends Board {
 
     /**
      * @param usernames the list of player usernames to initialize the game with
+     * @param seed      the seed of the random generator of the game
      * @throws IllegalArgumentException if usernames list is null or empty
      */
-    public BoardLearnerMode(List<String> usernames) {
-        super();
+    public BoardLearnerMode(List<String> usernames, long seed) {
+        super(seed);
 
         ComponentFactory componentFactory = new ComponentFactory();
-        this.commonComponents = new ArrayList<>(componentFactory.getComponents());
         this.mapIdComponents = new HashMap<>(componentFactory.getComponentsMap());
+        this.componentPool = new ComponentPool(mapIdComponents, componentFactory.getComponents());
 
         List<ColorType> colors = Arrays.stream(ColorType.values()).toList();
         for (int i = 0; i < usernames.size(); i++) {
@@ -54,7 +55,7 @@ public class BoardLearnerMode extends Board {
      */
     @Override
     public void shuffleCards() {
-        Collections.shuffle(cardPile);
+        Collections.shuffle(cardPile, random);
     }
 
     /**
@@ -0,0 +1,198 @@
+package it.polimi.ingsw.model.game;
+
+import it.polimi.ingsw.model.components.Component;
+import it.polimi.ingsw.model.exceptions.ComponentNotValidException;
+import it.polimi.ingsw.model.player.PlayerData;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Collectors;
+
+/**
+ * Tiles of the building phase, indexed by component id.
+ * Each tile has an atomic state: a tile is taken from the pool with a compare-and-set, so players picking
+ * different tiles don't contend and two players picking the same tile can't both get it.
+ * Only the owner of a tile can move it between its hand, reserves and dashboard or give it back to the pool.
+ * <p>
+ * The pool only tracks ownership: the ship of a player is still modified by the owner alone.
+ */
+public class ComponentPool {
+
+    /**
+     * State of a tile during the building phase
+     */
+    public enum TileState {
+        /** In the pool, never looked at */
+        COVERED,
+        /** In the pool, already shown */
+        FACE_UP,
+        /** In the hand of its owner */
+        IN_HAND,
+        /** In the reserves of its owner */
+        RESERVED,
+        /** On the dashboard of its owner, or a starting cabin */
+        PLACED
+    }
+
+    /**
+     * Immutable state of a tile, replaced atomically
+     *
+     * @param state state of the tile
+     * @param owner player holding the tile, null while it's in the pool or for starting cabins
+     * @param order position of the tile in the pool: tiles released later come after
+     */
+    private record Slot(TileState state, PlayerData owner, long order) {
+
+        boolean isFree() {
+            return state == TileState.COVERED || state == TileState.FACE_UP;
+        }
+
+    }
+
+    private final Component[] components;
+    private final AtomicReferenceArray<Slot> slots;
+
+    /**
+     * Next order of a released tile
+     */
+    private final AtomicLong sequence;
+
+    /**
+     * @param components every component of the game by id, the ones not in the pool are placed with no owner
+     * @param pool       components available at the start, in their order
+     */
+    public ComponentPool(Map<Integer, Component> components, List<Component> pool) {
+        int size = components.keySet().stream().mapToInt(Integer::intValue).max().orElse(-1) + 1;
+        this.components = new Component[size];
+        this.slots = new AtomicReferenceArray<>(size);
+
+        components.forEach((id, component) -> {
+            this.components[id] = component;
+            slots.set(id, new Slot(TileState.PLACED, null, -1));
+        });
+        for (int i = 0; i < pool.size(); i++)
+            slots.set(pool.get(i).getId(), new Slot(TileState.COVERED, null, i));
+
+        this.sequence = new AtomicLong(pool.size());
+    }
+
+    /**
+     * Gives a tile of the pool to a player.
+     *
+     * @param component tile to take
+     * @param player    player taking the tile in hand
+     * @throws ComponentNotValidException if the tile isn't in the pool, e.g. another player has just taken it
+     */
+    public void take(Component component, PlayerData player) {
+        int id = component.getId();
+        Slot slot;
+        do {
+            slot = slot(id);
+            if (slot == null || !slot.isFree())
+                throw new ComponentNotValidException("This component is not in common components or in reserves");
+        } while (!slots.compareAndSet(id, slot, new Slot(TileState.IN_HAND, player, slot.order())));
+    }
+
+    /**
+     * Puts a tile of a player back in the pool, face up and after the other tiles.
+     *
+     * @param component tile to release
+     * @param player    owner of the tile
+     * @throws ComponentNotValidException if the player doesn't own the tile or it's reserved
+     */
+    public void release(Component component, PlayerData player) {
+        transition(component, player, TileState.FACE_UP, sequence.getAndIncrement(), TileState.IN_HAND, TileState.PLACED);
+    }
+
+    /**
+     * Records that the owner has moved a tile to its reserves.
+     *
+     * @param component reserved tile
+     * @param player    owner of the tile
+     */
+    public void markReserved(Component component, PlayerData player) {
+        transition(component, player, TileState.RESERVED, -1, TileState.IN_HAND, TileState.PLACED);
+    }
+
+    /**
+     * Records that the owner has inserted a tile in its dashboard.
+     *
+     * @param component inserted tile
+     * @param player    owner of the tile
+     */
+    public void markPlaced(Component component, PlayerData player) {
+        transition(component, player, TileState.PLACED, -1, TileState.IN_HAND, TileState.RESERVED);
+    }
+
+    /**
+     * @param component tile to check
+     * @return true if the tile is in the pool
+     */
+    public boolean isFree(Component component) {
+        Slot slot = slot(component.getId());
+        return slot != null && slot.isFree();
+    }
+
+    /**
+     * @param component tile to check
+     * @param player    player to check
+     * @return true if the tile is in the hand, reserves or dashboard of the player
+     */
+    public boolean isOwnedBy(Component component, PlayerData player) {
+        Slot slot = slot(component.getId());
+        return slot != null && slot.owner() == player;
+    }
+
+    /**
+     * @param component tile to check
+     * @return state of the tile, {@link TileState#PLACED} for the components not in the pool
+     */
+    public TileState getState(Component component) {
+        Slot slot = slot(component.getId());
+        return slot == null ? TileState.PLACED : slot.state();
+    }
+
+    /**
+     * @return a new list of the tiles in the pool, the ones released later come after
+     */
+    public List<Component> getFreeComponents() {
+        record Entry(Component component, long order) {}
+
+        List<Entry> free = new ArrayList<>();
+        for (int id = 0; id < slots.length(); id++) {
+            Slot slot = slots.get(id);
+            if (slot != null && slot.isFree())
+                free.add(new Entry(components[id], slot.order()));
+        }
+
+        free.sort(Comparator.comparingLong(Entry::order));
+        return free.stream().map(Entry::component).collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * Moves a tile of a player to another state
+     *
+     * @param order new order of the tile, -1 to keep the current one
+     * @param from  states the tile can be moved from
+     */
+    private void transition(Component component, PlayerData player, TileState to, long order, TileState... from) {
+        int id = component.getId();
+        Slot slot;
+        do {
+            slot = slot(id);
+            if (slot == null || slot.owner() != player)
+                throw new ComponentNotValidException("Component isn't yours");
+            if (!List.of(from).contains(slot.state()))
+                throw new ComponentNotValidException("Component can't be moved from " + slot.state());
+        } while (!slots.compareAndSet(id, slot, new Slot(to, to == TileState.FACE_UP ? null : player, order == -1 ? slot.order() : order)));
+    }
+
+    private Slot slot(int id) {
+        return id >= 0 && id < slots.length() ? slots.get(id) : null;
+    }
+
+}
@@ -1,16 +1,20 @@
 package it.polimi.ingsw.model.game;
 
 import it.polimi.ingsw.common.model.enums.LobbyState;
-import it.polimi.ingsw.common.model.events.game.SyncAllEvent;
 import it.polimi.ingsw.controller.GameController;
 import it.polimi.ingsw.controller.exceptions.PlayerAlreadyInException;
+import it.polimi.ingsw.controller.journal.JournalStore;
 import it.polimi.ingsw.common.model.events.EventContext;
 import it.polimi.ingsw.common.model.events.lobby.SetLobbyEvent;
 import it.polimi.ingsw.common.model.events.lobby.JoinedLobbyEvent;
 import it.polimi.ingsw.common.model.events.lobby.LeftLobbyEvent;
+import it.polimi.ingsw.network.EventLog;
 
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Represents a game lobby that manages player connections and game initialization.
@@ -24,7 +28,12 @@ public class Lobby {
      * This field is null when the lobby is in WAITING state and gets initialized
      * when the game starts.
      */
-    private transient GameController game = null;
+    private transient volatile GameController game = null;
+
+    /**
+     * Last batches of events sent to the players of the game, null until the game starts
+     */
+    private transient volatile EventLog eventLog = null;
 
     /**
      * Unique identifier for this lobby, also serves as the game name.
@@ -34,7 +43,7 @@ public class Lobby {
     /**
      * Current state of the lobby (WAITING or IN_GAME).
      */
-    private LobbyState state;
+    private volatile LobbyState state;
 
     /**
      * Flag indicating whether this lobby uses learner mode gameplay.
@@ -49,9 +58,15 @@ public class Lobby {
 
     /**
      * List of usernames of players currently in the lobby.
+     * Modified while holding the lobby's lock, but read by notifying threads without it.
      */
     private final List<String> players;
 
+    /**
+     * Lock held by the {@link it.polimi.ingsw.controller.MatchController} while players join or leave the lobby.
+     */
+    private final transient ReentrantLock lock = new ReentrantLock();
+
     /**
      * @param name        the unique identifier and name for this lobby
      * @param maxPlayers  the maximum number of players allowed (must be between 2 and 4)
@@ -68,7 +83,35 @@ public class Lobby {
         this.learnerMode = learnerMode;
 
         this.maxPlayers = maxPlayers;
-        this.players = new ArrayList<>();
+        this.players = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Restores a lobby whose game is running, e.g. a game replayed from its journal after a restart of the server.
+     *
+     * @param name        the unique identifier and name for this lobby
+     * @param maxPlayers  the maximum number of players allowed (must be between 2 and 4)
+     * @param learnerMode true if the game is in learner mode
+     * @param players     players in the lobby, shared with the game
+     * @param game        the running game
+     * @throws IllegalArgumentException if maxPlayers is not between 2 and 4 (inclusive)
+     */
+    public Lobby(String name, int maxPlayers, boolean learnerMode, List<String> players, GameController game) {
+        if (maxPlayers < 2 || maxPlayers > 4)
+            throw new IllegalArgumentException("Max number of allowed players must be between 2 and 4");
+
+        this.state = LobbyState.IN_GAME;
+        this.id = name;
+        this.learnerMode = learnerMode;
+
+        this.maxPlayers = maxPlayers;
+        this.players = players;
+        this.game = game;
+        this.eventLog = new EventLog();
+    }
+
+    public ReentrantLock getLock() {
+        return lock;
     }
 
     public GameController getGame() {
@@ -79,6 +122,13 @@ public class Lobby {
         this.game = game;
     }
 
+    /**
+     * @return the log of the events sent to the players of the game, null if the game hasn't started
+     */
+    public EventLog getEventLog() {
+        return eventLog;
+    }
+
     public LobbyState getState() {
         return state;
     }
@@ -100,6 +150,15 @@ public class Lobby {
         return learnerMode;
     }
 
+    /**
+     * Returns the number of players that can still join the lobby.
+     *
+     * @return the free slots if the lobby is waiting for players, 0 otherwise
+     */
+    public int getFreeSlots() {
+        return state == LobbyState.WAITING ? maxPlayers - players.size() : 0;
+    }
+
     /**
      * Determines if this lobby should be deleted.
      * A lobby is marked for deletion when it has no players remaining.
@@ -155,8 +214,8 @@ public class Lobby {
     /**
      * Handles a player rejoining the lobby, typically after a disconnection.
      * This method allows players to reconnect to an active game or rejoin
-     * a waiting lobby. If a game is in progress, the player will be
-     * synchronized with the current game state.
+     * a waiting lobby. If a game is in progress, the player rejoins it:
+     * his client is then synchronized by the server, from the {@link EventLog} of the game or with its full state.
      *
      * @param username the username of the player rejoining
      * @throws PlayerAlreadyInException if the player is already in the lobby
@@ -169,21 +228,37 @@ public class Lobby {
         EventContext.emit(new JoinedLobbyEvent(username));
         EventContext.emit(new SetLobbyEvent(id, players, learnerMode, maxPlayers));
 
-        if (this.game != null) {
+        if (this.game != null)
             this.game.rejoinGame(username);
-            EventContext.emit(new SyncAllEvent(game.toDTO()));
-        }
+    }
+
+    /**
+     * Releases the resources of the running game, if any.
+     * Called when the lobby is deleted.
+     */
+    public void close() {
+        if (this.game != null)
+            this.game.close();
     }
 
     /**
      * Initializes and starts a new game when the lobby is full.
      * This method is called automatically when the maximum number of players
-     * is reached. It creates a new GameController, starts the match,
-     * and transitions the lobby state to IN_GAME.
+     * is reached. It creates a new GameController, records it in a journal if journals are enabled,
+     * starts the match and transitions the lobby state to IN_GAME.
      *
      */
     private void initGame() {
         this.game = new GameController(players, learnerMode);
+        this.game.setGameID(id);
+        if (JournalStore.getInstance().isEnabled()) {
+            try {
+                this.game.attachJournal(JournalStore.getInstance().create(id, maxPlayers, learnerMode, players, game.getSeed()));
+            } catch (UncheckedIOException e) {
+                e.printStackTrace(); // The game goes on without a journal
+            }
+        }
+        this.eventLog = new EventLog();
         this.game.startMatch();
         this.state = LobbyState.IN_GAME;
     }
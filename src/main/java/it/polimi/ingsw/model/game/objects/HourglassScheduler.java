@@ -0,0 +1,92 @@
+package it.polimi.ingsw.model.game.objects;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-wide scheduler shared by every {@link Time} instance.
+ * Instead of owning a dedicated timer thread per game, each hourglass registers
+ * a single one-shot task that fires when its deadline expires.
+ * A small pool of daemon threads is enough to serve thousands of concurrent hourglasses.
+ */
+public class HourglassScheduler {
+
+    /**
+     * Number of threads used to fire expired hourglasses
+     */
+    private static final int POOL_SIZE = 2;
+
+    /**
+     * Singleton Pattern, instance of the class
+     */
+    private static HourglassScheduler instance = null;
+
+    /**
+     * Executor running the expiration tasks
+     */
+    private final ScheduledThreadPoolExecutor executor;
+
+    /**
+     * Number of hourglasses currently waiting for their deadline
+     */
+    private final AtomicInteger liveTimers;
+
+    private HourglassScheduler() {
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ScheduledThreadPoolExecutor(POOL_SIZE, runnable -> {
+            Thread thread = new Thread(runnable, "hourglass-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.setRemoveOnCancelPolicy(true);
+        this.liveTimers = new AtomicInteger();
+    }
+
+    /**
+     * Singleton Pattern
+     *
+     * @return the only one instance of the HourglassScheduler class
+     */
+    public synchronized static HourglassScheduler getInstance() {
+        if (instance == null) {
+            instance = new HourglassScheduler();
+        }
+        return instance;
+    }
+
+    /**
+     * Schedules a task to be run once after the given delay.
+     * The task is counted as a live timer until it runs or it is cancelled through {@link #cancel(ScheduledFuture)}.
+     *
+     * @param task    the action to perform when the hourglass expires
+     * @param delayMs delay in milliseconds before the task runs
+     * @return the handle that can be used to cancel the task
+     */
+    public ScheduledFuture<?> schedule(Runnable task, long delayMs) {
+        liveTimers.incrementAndGet();
+        return executor.schedule(() -> {
+            liveTimers.decrementAndGet();
+            task.run();
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Cancels a previously scheduled task if it has not run yet.
+     *
+     * @param future the handle returned by {@link #schedule(Runnable, long)}
+     */
+    public void cancel(ScheduledFuture<?> future) {
+        if (future != null && future.cancel(false))
+            liveTimers.decrementAndGet();
+    }
+
+    /**
+     * @return the number of hourglasses that are currently running on the server
+     */
+    public int getLiveTimers() {
+        return liveTimers.get();
+    }
+
+}
@@ -7,21 +7,28 @@ import it.polimi.ingsw.model.player.PlayerData;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 /**
  * Game time management system implementing an hourglass-based timer mechanism.
  * This class manages the passage of time during gameplay, providing structured
  * time limits for player actions and automatic game progression when time expires.
+ * Remaining time is derived from a monotonic deadline, while expirations are fired
+ * by the server-wide {@link HourglassScheduler}.
  */
 public class Time {
 
     /**
-     * The current time remaining in the active timer period (in seconds)
+     * Duration of a single hourglass period (in seconds)
      */
-    private int timeLeft;
+    private static final int HOURGLASS_DURATION = 61;
+
+    /**
+     * Monotonic instant (as returned by {@link System#nanoTime()}) at which the current period expires
+     */
+    private volatile long deadline;
 
     /**
      * The current position of the hourglass
@@ -29,21 +36,40 @@ public class Time {
     private int hourglassPos;
 
     /**
-     * The timer instance used for periodic time updates and countdown management
+     * Handle of the last scheduled expiration task
+     */
+    private volatile ScheduledFuture<?> expiration;
+
+    /**
+     * True from the start of a period until its expiration has been processed
      */
-    private final Timer timer;
+    private boolean running;
+
+    /**
+     * Consumer of the events generated by the expiration of the running period
+     */
+    private Consumer<List<Event>> callback;
 
     public Time() {
-        this.timer = new Timer();
         this.hourglassPos = 3;
+        this.deadline = System.nanoTime();
+        this.expiration = null;
+        this.running = false;
     }
 
     public int getHourglassPos() {
         return hourglassPos;
     }
 
+    /**
+     * Computes the time remaining in the active period from its deadline.
+     *
+     * @return the seconds left before the hourglass expires, 0 if no period is running
+     */
     public int getTimeLeft() {
-        return timeLeft;
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) return 0;
+        return (int) Math.ceil(remaining / (double) TimeUnit.SECONDS.toNanos(1));
     }
 
     /**
@@ -51,45 +77,72 @@ public class Time {
      */
     private void rotateHourglass() {
         if (hourglassPos > 0) {
-            timeLeft = 61;
+            deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(HOURGLASS_DURATION);
             hourglassPos--;
         }
     }
 
     /**
      * Starts a new timer countdown period with automatic progression handling.
-     * 
+     * The expiration runs on the model's {@link ModelFacade#getTimerExecutor() timer executor}
+     * through {@link ModelFacade#expireHourglass()}.
+     * A period is running until its expiration has been processed, not only until its deadline,
+     * so the hourglass only depends on the order of the operations on the game (e.g. when the game is replayed).
+     *
      * @param model    the model facade providing access to game state and player management
      * @param callback the consumer function to handle collected events when time expires
-     * @throws RuntimeException if a timer is already active (timeLeft is not 0)
+     * @throws RuntimeException if a timer is already active
      */
     public void startTimer(ModelFacade model, Consumer<List<Event>> callback) {
-        if (timeLeft != 0) throw new RuntimeException("Time left is not 0");
+        if (running) throw new RuntimeException("Time left is not 0");
         rotateHourglass();
+        running = true;
+        this.callback = callback;
+
+        expiration = HourglassScheduler.getInstance().schedule(
+                () -> model.getTimerExecutor().execute(model::expireHourglass),
+                TimeUnit.SECONDS.toMillis(HOURGLASS_DURATION)
+        );
+    }
+
+    /**
+     * Ends the running period. If the hourglass has no more positions, every player still flying is set ready
+     * and the events are given to the callback of the period.
+     *
+     * @param model the model facade providing access to game state and player management
+     * @return true if a period was running
+     */
+    public boolean expireTimer(ModelFacade model) {
+        if (!running) return false;
+        running = false;
+        HourglassScheduler.getInstance().cancel(expiration); // Still pending if the period is ended by a replay
+        expiration = null;
+        deadline = Math.min(deadline, System.nanoTime());
+
+        if (hourglassPos == 0) {
+            EventContext.clear();
+
+            List<PlayerData> players = new ArrayList<>(model.getBoard().getStartingDeck())
+                    .stream()
+                    .filter(p -> !p.hasEndedInAdvance())
+                    .toList();
+
+            for (PlayerData player : players)
+                model.setReady(player.getUsername());
+
+            List<Event> events = EventContext.getAndClear();
+            callback.accept(events);
+        }
+        return true;
+    }
 
-        TimerTask currentTask = new TimerTask() {
-            public void run() {
-                if (timeLeft == 1) {
-                    this.cancel();
-                    if (hourglassPos == 0) {
-                        EventContext.clear();
-
-                        List<PlayerData> players = new ArrayList<>(model.getBoard().getStartingDeck())
-                                .stream()
-                                .filter(p -> !p.hasEndedInAdvance())
-                                .toList();
-
-                        for (PlayerData player : players)
-                            model.setReady(player.getUsername());
-
-                        List<Event> events = EventContext.getAndClear();
-                        callback.accept(events);
-                    }
-                }
-                timeLeft -= 1;
-            }
-        };
-        this.timer.scheduleAtFixedRate(currentTask, 1000, 1000);
+    /**
+     * Cancels the running period, if any. Called when the game is disposed.
+     */
+    public void stopTimer() {
+        HourglassScheduler.getInstance().cancel(expiration);
+        expiration = null;
+        running = false;
     }
 
 }
@@ -0,0 +1,225 @@
+package it.polimi.ingsw.model.player;
+
+import it.polimi.ingsw.common.model.ShipBitboard;
+import it.polimi.ingsw.common.model.enums.DirectionType;
+import it.polimi.ingsw.model.components.CannonComponent;
+import it.polimi.ingsw.model.components.Component;
+import it.polimi.ingsw.model.components.EngineComponent;
+
+/**
+ * Bitboard index of a ship dashboard, kept in sync by {@link Ship}.
+ * The cells are stored in a {@link ShipBitboard}, also read by the placement hints of the ship:
+ * connectivity, exposed connectors and line scans are computed with shifts and masks, without allocations.
+ * <p>
+ * The connected groups are kept by a union-find over the cells, updated at every change of a cell:
+ * a placed component is joined to its linked neighbours, a removed one only splits its own group,
+ * which is flood filled again. The number of groups is always up to date.
+ */
+final class DashboardIndex {
+
+    private static final int COLUMNS = ShipBitboard.COLUMNS;
+
+    private final ShipBitboard board;
+
+    /**
+     * Union-find of the occupied cells: parent of each cell, a root is the parent of itself
+     */
+    private final byte[] parent;
+
+    /**
+     * Cells of the group of each root, meaningful for the roots only
+     */
+    private final long[] members;
+
+    /**
+     * Number of connected groups of components
+     */
+    private int parts;
+
+    DashboardIndex() {
+        this.board = new ShipBitboard();
+        this.parent = new byte[ShipBitboard.CELLS];
+        this.members = new long[ShipBitboard.CELLS];
+    }
+
+    /**
+     * Updates a cell, reading the connectors of its component.
+     *
+     * @param row       row of the cell
+     * @param col       column of the cell
+     * @param component component in the cell, null if it's empty
+     */
+    void set(int row, int col, Component component) {
+        int cell = ShipBitboard.cell(row, col);
+        boolean wasOccupied = (board.getOccupied() & (1L << cell)) != 0;
+        board.setCell(row, col, null, null);
+        if (wasOccupied) split(cell); // Also when the connectors change: the cell is joined again with the new ones
+        if (component == null) return;
+
+        board.setCell(row, col, component.getConnectors(), directionOf(component));
+        join(cell);
+    }
+
+    /**
+     * Marks a cell as outside the ship.
+     */
+    void setUnavailable(int row, int col) {
+        board.setUnavailable(row, col);
+    }
+
+    ShipBitboard getBoard() {
+        return board;
+    }
+
+    long getOccupied() {
+        return board.getOccupied();
+    }
+
+    /**
+     * @return number of connected groups of components
+     */
+    int countParts() {
+        return parts;
+    }
+
+    /**
+     * Fills an array with the connected groups, in order of their first cell.
+     *
+     * @param parts array of at least {@link Long#bitCount(long) bitCount(occupied)} elements, receives the cells of each group
+     * @return number of groups
+     */
+    int fillParts(long[] parts) {
+        int count = 0;
+        long remaining = board.getOccupied();
+        while (remaining != 0) {
+            long part = members[find(Long.numberOfTrailingZeros(remaining))];
+            parts[count++] = part;
+            remaining &= ~part;
+        }
+        return count;
+    }
+
+    /**
+     * @return number of non-empty connectors facing an empty cell or the border of the dashboard
+     */
+    int countExposedConnectors() {
+        return board.countExposedConnectors();
+    }
+
+    /**
+     * Occupied cells of a line, e.g. to find the components hit by a shot.
+     *
+     * @param direction side the line is scanned from
+     * @param line      column (NORTH/SOUTH, 4 to 10) or row (EAST/WEST, 5 to 9) as numbered on the dice
+     * @return occupied cells of the line, 0 if the line is outside the dashboard
+     */
+    long lineFrom(DirectionType direction, int line) {
+        return switch (direction) {
+            case NORTH, SOUTH -> line < 4 || line > 10 ? 0 : board.getOccupied() & (ShipBitboard.FIRST_COLUMN << (line - 4));
+            case EAST, WEST -> line < 5 || line > 9 ? 0 : board.getOccupied() & (((1L << COLUMNS) - 1) << ((line - 5) * COLUMNS));
+        };
+    }
+
+    /**
+     * @param direction side the line is scanned from
+     * @param cells     cells of the line
+     * @return the cell closest to the side, -1 if there's none
+     */
+    static int first(DirectionType direction, long cells) {
+        if (cells == 0) return -1;
+        return switch (direction) {
+            case NORTH, WEST -> Long.numberOfTrailingZeros(cells);
+            case SOUTH, EAST -> 63 - Long.numberOfLeadingZeros(cells);
+        };
+    }
+
+    /**
+     * @return direction of a cannon or an engine, null for the other components
+     */
+    static DirectionType directionOf(Component component) {
+        return switch (component) {
+            case CannonComponent cannon -> cannon.getDirection();
+            case EngineComponent engine -> engine.getDirection();
+            default -> null;
+        };
+    }
+
+    /**
+     * Adds a new occupied cell as a group and merges it with the groups of its linked neighbours.
+     */
+    private void join(int cell) {
+        long bit = 1L << cell;
+        parent[cell] = (byte) cell;
+        members[cell] = bit;
+        parts++;
+
+        long linkedEast = board.linked(ShipBitboard.EAST);
+        long linkedSouth = board.linked(ShipBitboard.SOUTH);
+        if ((linkedEast & bit) != 0) union(cell, cell + 1);
+        if ((linkedEast & (bit >>> 1)) != 0) union(cell, cell - 1);
+        if ((linkedSouth & bit) != 0) union(cell, cell + COLUMNS);
+        if ((linkedSouth & (bit >>> COLUMNS)) != 0) union(cell, cell - COLUMNS);
+    }
+
+    /**
+     * Removes an emptied cell from its group, flood filling the rest of the group again since it may be split.
+     * The other groups are untouched, the links between their cells don't depend on the removed one.
+     */
+    private void split(int cell) {
+        long remaining = members[find(cell)] & ~(1L << cell);
+        parts--;
+
+        long linkedEast = board.linked(ShipBitboard.EAST);
+        long linkedSouth = board.linked(ShipBitboard.SOUTH);
+        while (remaining != 0) {
+            long part = part(Long.lowestOneBit(remaining), linkedEast, linkedSouth);
+            int root = Long.numberOfTrailingZeros(part);
+            for (long cells = part; cells != 0; cells &= cells - 1)
+                parent[Long.numberOfTrailingZeros(cells)] = (byte) root;
+            members[root] = part;
+            parts++;
+            remaining &= ~part;
+        }
+    }
+
+    private int find(int cell) {
+        while (parent[cell] != cell) {
+            parent[cell] = parent[parent[cell]]; // Path halving
+            cell = parent[cell];
+        }
+        return cell;
+    }
+
+    /**
+     * Merges the groups of two cells, the smaller one under the larger one.
+     */
+    private void union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) return;
+
+        if (Long.bitCount(members[rootA]) < Long.bitCount(members[rootB])) {
+            int swap = rootA;
+            rootA = rootB;
+            rootB = swap;
+        }
+        parent[rootB] = (byte) rootA;
+        members[rootA] |= members[rootB];
+        parts--;
+    }
+
+    /**
+     * Flood fill from a cell through the linked connectors.
+     */
+    private static long part(long seed, long linkedEast, long linkedSouth) {
+        long part = seed;
+        long previous;
+        do {
+            previous = part;
+            part |= ((part & linkedEast) << 1) | ((part >>> 1) & linkedEast)
+                    | ((part & linkedSouth) << COLUMNS) | ((part >>> COLUMNS) & linkedSouth);
+        } while (part != previous);
+        return part;
+    }
+
+}
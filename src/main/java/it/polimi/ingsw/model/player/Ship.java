@@ -1,13 +1,13 @@
 package it.polimi.ingsw.model.player;
 
 import it.polimi.ingsw.Constants;
+import it.polimi.ingsw.common.model.PlacementHints;
+import it.polimi.ingsw.common.model.ShipBitboard;
 import it.polimi.ingsw.model.components.*;
-import it.polimi.ingsw.common.model.enums.ConnectorType;
 import it.polimi.ingsw.common.model.enums.ColorType;
 import it.polimi.ingsw.common.model.enums.DirectionType;
 
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Abstract base class representing a player's ship in the game.
@@ -31,6 +31,38 @@ public sealed abstract class Ship permits
      */
     private final Optional<Component>[][] dashboard;
 
+    /**
+     * Bitboard index of the dashboard, updated by {@link #setDashboard(int, int, Optional)}
+     * and {@link #refreshDashboard(int, int)}.
+     */
+    private final DashboardIndex index;
+
+    /**
+     * Legal placements of a tile on the dashboard, read from the bitboard of the index.
+     */
+    private final PlacementHints placementHints;
+
+    /**
+     * Components on the dashboard grouped by the type asked to {@link #getComponentByType(Class)},
+     * cleared when the dashboard changes.
+     */
+    private final Map<Class<? extends Component>, List<? extends Component>> componentsByType;
+
+    /**
+     * Cannon and engine power of the components on the dashboard, null when the dashboard changed since the last computation.
+     */
+    private PowerAggregates power;
+
+    /**
+     * Cached power of the cannons and engines, alien bonuses are excluded since they can change without touching the dashboard.
+     *
+     * @param singleCannonsPower total power of the single cannons
+     * @param doubleCannonsPowers powers of the double cannons, highest first
+     * @param singleEnginesPower total power of the single engines
+     * @param doubleEnginesPowers powers of the double engines, highest first
+     */
+    private record PowerAggregates(double singleCannonsPower, double[] doubleCannonsPowers, int singleEnginesPower, int[] doubleEnginesPowers) {}
+
     /**
      * List of components that have been discarded during gameplay.
      * Discarded components are removed from active play but may be
@@ -92,6 +124,10 @@ public sealed abstract class Ship permits
     @SuppressWarnings("unchecked")
     public Ship() {
         this.dashboard = new Optional[Constants.SHIP_ROWS][Constants.SHIP_COLUMNS];
+        this.index = new DashboardIndex();
+        this.placementHints = new PlacementHints(index.getBoard());
+        this.componentsByType = new HashMap<>();
+        this.power = null;
         this.discards = new ArrayList<>();
         this.reserves = new ArrayList<>();
         this.handComponent = null;
@@ -106,12 +142,16 @@ public sealed abstract class Ship permits
             this.goods.put(c, 0);
 
         for (int row = 0; row < Constants.SHIP_ROWS; row++)
-            for (int col = 0; col < Constants.SHIP_COLUMNS; col++)
+            for (int col = 0; col < Constants.SHIP_COLUMNS; col++) {
                 this.dashboard[row][col] = Optional.empty();
+                if (validPositions(row, col)) // Positions outside the ship
+                    this.index.setUnavailable(row, col);
+            }
     }
 
     /**
      * Returns the complete dashboard as a 2D array of Optional Components.
+     * The array must be modified only through {@link #setDashboard(int, int, Optional)}.
      *
      * @return the 2D dashboard array where each cell contains an Optional Component
      */
@@ -133,6 +173,50 @@ public sealed abstract class Ship permits
         return dashboard[row][col];
     }
 
+    /**
+     * Places a component on the dashboard or empties a cell, keeping the dashboard index in sync.
+     *
+     * @param row       the row index (0-based)
+     * @param col       the column index (0-based)
+     * @param component the component to place, or Optional.empty() to empty the cell
+     */
+    public void setDashboard(int row, int col, Optional<Component> component) {
+        dashboard[row][col] = component;
+        index.set(row, col, component.orElse(null));
+        invalidateAggregates();
+    }
+
+    /**
+     * Updates the dashboard index after the connectors of a placed component changed, e.g. after a rotation.
+     *
+     * @param row the row index (0-based)
+     * @param col the column index (0-based)
+     */
+    public void refreshDashboard(int row, int col) {
+        index.set(row, col, dashboard[row][col].orElse(null));
+        invalidateAggregates();
+    }
+
+    /**
+     * Finds the legal placements of a tile on the dashboard.
+     * A placement is legal if the tile would pass {@link Component#checkComponent(Ship)} and wouldn't block a cannon or an engine.
+     *
+     * @param tile the tile to place, e.g. the one in hand
+     * @return the legal placements, the ones leaving fewer exposed connectors first
+     */
+    public List<PlacementHints.Placement> getPlacementHints(Component tile) {
+        return placementHints.find(tile.getConnectors(), DashboardIndex.directionOf(tile), tile instanceof EngineComponent);
+    }
+
+    /**
+     * Drops the typed lists and the power aggregates, they are rebuilt at the next read.
+     * Lists already returned are left untouched, so a caller can destroy components while iterating them.
+     */
+    private void invalidateAggregates() {
+        componentsByType.clear();
+        power = null;
+    }
+
     /**
      * Returns the list of discarded components.
      * Discarded components are no longer active on the ship but
@@ -184,22 +268,7 @@ public sealed abstract class Ship permits
      * @return the total number of exposed connectors on the ship
      */
     public int countExposedConnectors() {
-        AtomicInteger exposedConnectors = new AtomicInteger();
-        for (Optional<Component>[] row : dashboard) {
-            for (Optional<Component> componentOpt : row) {
-                componentOpt.ifPresent((Component component) -> {
-                    if (component.getConnectors()[0] != ConnectorType.EMPTY && getDashboard(component.getY() - 1, component.getX()).isEmpty())
-                        exposedConnectors.getAndIncrement();
-                    if (component.getConnectors()[1] != ConnectorType.EMPTY && getDashboard(component.getY(), component.getX() + 1).isEmpty())
-                        exposedConnectors.getAndIncrement();
-                    if (component.getConnectors()[2] != ConnectorType.EMPTY && getDashboard(component.getY() + 1, component.getX()).isEmpty())
-                        exposedConnectors.getAndIncrement();
-                    if (component.getConnectors()[3] != ConnectorType.EMPTY && getDashboard(component.getY(), component.getX() - 1).isEmpty())
-                        exposedConnectors.getAndIncrement();
-                });
-            }
-        }
-        return exposedConnectors.get();
+        return index.countExposedConnectors();
     }
 
     /**
@@ -294,128 +363,173 @@ public sealed abstract class Ship permits
     }
 
     /**
-     * Returns all components on the dashboard that match the specified type.
-     * This method uses pattern matching to efficiently filter components
-     * by their concrete type and safely cast them.
+     * Returns all components on the dashboard that match the specified type, ordered by position.
+     * The list is computed once and shared until the dashboard changes, so it must not be modified.
      *
      * @param <T>           the component type to search for
      * @param componentType the Class object representing the desired component type
-     * @return a list of components of the specified type found on the dashboard
+     * @return an unmodifiable list of components of the specified type found on the dashboard
      */
+    @SuppressWarnings("unchecked")
     public <T extends Component> List<T> getComponentByType(Class<T> componentType) {
-        List<T> list = new ArrayList<>();
-        for (Optional<Component>[] row : dashboard) {
-            for (Optional<Component> component : row) {
-                if (component.isPresent()) {
-                    Component comp = component.get();
-                    switch (comp) {
-                        case BatteryComponent bc when componentType.isAssignableFrom(BatteryComponent.class) ->
-                                list.add(componentType.cast(bc));
-                        case CabinComponent cc when componentType.isAssignableFrom(CabinComponent.class) ->
-                                list.add(componentType.cast(cc));
-                        case CannonComponent cnc when componentType.isAssignableFrom(CannonComponent.class) ->
-                                list.add(componentType.cast(cnc));
-                        case EngineComponent ec when componentType.isAssignableFrom(EngineComponent.class) ->
-                                list.add(componentType.cast(ec));
-                        case OddComponent oc when componentType.isAssignableFrom(OddComponent.class) ->
-                                list.add(componentType.cast(oc));
-                        case ShieldComponent sc when componentType.isAssignableFrom(ShieldComponent.class) ->
-                                list.add(componentType.cast(sc));
-                        case CargoHoldsComponent chc when componentType.isAssignableFrom(CargoHoldsComponent.class) ->
-                                list.add(componentType.cast(chc));
-                        case SpecialCargoHoldsComponent special when componentType.isAssignableFrom(SpecialCargoHoldsComponent.class) ->
-                                list.add(componentType.cast(special));
-                        case Component c when componentType.isAssignableFrom(Component.class) ->
-                                list.add(componentType.cast(c));
-                        default -> {
-                        }
-                    }
-                }
+        return (List<T>) componentsByType.computeIfAbsent(componentType, type -> {
+            List<Component> list = new ArrayList<>();
+            for (long cells = index.getOccupied(); cells != 0; cells &= cells - 1) {
+                int cell = Long.numberOfTrailingZeros(cells);
+                Component component = dashboard[ShipBitboard.row(cell)][ShipBitboard.col(cell)].orElseThrow();
+                if (type.isInstance(component))
+                    list.add(component);
             }
+            return Collections.unmodifiableList(list);
+        });
+    }
+
+    /**
+     * Returns the power of the single cannons, which are always active, without the alien bonus.
+     *
+     * @return the total power of the single cannons
+     */
+    public double getSingleCannonsPower() {
+        return getPower().singleCannonsPower();
+    }
+
+    /**
+     * Returns the highest power reachable activating some double cannons, without the alien bonus.
+     *
+     * @param activated the number of double cannons that can be activated, e.g. the available batteries
+     * @return the total power of the {@code activated} most powerful double cannons
+     */
+    public double getDoubleCannonsPower(int activated) {
+        double[] powers = getPower().doubleCannonsPowers();
+        double total = 0;
+        for (int i = 0; i < Math.min(activated, powers.length); i++)
+            total += powers[i];
+        return total;
+    }
+
+    /**
+     * Returns the power of the single engines, which are always active, without the alien bonus.
+     *
+     * @return the total power of the single engines
+     */
+    public int getSingleEnginesPower() {
+        return getPower().singleEnginesPower();
+    }
+
+    /**
+     * Returns the highest power reachable activating some double engines, without the alien bonus.
+     *
+     * @param activated the number of double engines that can be activated, e.g. the available batteries
+     * @return the total power of the {@code activated} most powerful double engines
+     */
+    public int getDoubleEnginesPower(int activated) {
+        int[] powers = getPower().doubleEnginesPowers();
+        int total = 0;
+        for (int i = 0; i < Math.min(activated, powers.length); i++)
+            total += powers[i];
+        return total;
+    }
+
+    private PowerAggregates getPower() {
+        if (power == null) {
+            List<CannonComponent> cannons = getComponentByType(CannonComponent.class);
+            List<EngineComponent> engines = getComponentByType(EngineComponent.class);
+
+            double singleCannonsPower = cannons.stream().filter(cannon -> !cannon.getIsDouble()).mapToDouble(CannonComponent::calcPower).sum();
+            double[] doubleCannonsPowers = cannons.stream().filter(CannonComponent::getIsDouble).mapToDouble(CannonComponent::calcPower).map(p -> -p).sorted().map(p -> -p).toArray();
+            int singleEnginesPower = engines.stream().filter(engine -> !engine.getIsDouble()).mapToInt(EngineComponent::calcPower).sum();
+            int[] doubleEnginesPowers = engines.stream().filter(EngineComponent::getIsDouble).mapToInt(EngineComponent::calcPower).map(p -> -p).sorted().map(p -> -p).toArray();
+            power = new PowerAggregates(singleCannonsPower, doubleCannonsPowers, singleEnginesPower, doubleEnginesPowers);
         }
-        return list;
+        return power;
     }
 
     /**
      * Validates the current ship construction.
-     * A ship is considered valid if all components pass their individual
+     * A ship is considered valid if it's made of a single part and all components pass their individual
      * validation checks, or if the ship has only one component (starting condition).
      *
      * @return true if the ship construction is valid, false otherwise
      */
     public boolean checkShip() {
-        boolean valid = true;
-        int components = 0;
+        if (countComponents() == 1) return true;
+        if (countShipParts() != 1) return false; // Kept up to date by the dashboard index, no need to check the components
 
         for (Optional<Component>[] row : dashboard)
             for (Optional<Component> component : row)
-                if (component.isPresent()) {
-                    components++;
-                    if (!component.get().checkComponent(this))
-                        valid = false;
-                }
-        return (valid && calcShipParts().size()==1) || components == 1;
+                if (component.isPresent() && !component.get().checkComponent(this))
+                    return false;
+        return true;
+    }
+
+    /**
+     * Counts the connected component groups on the ship, without building them.
+     * The count is kept up to date at every change of the dashboard, so it can be read after any mutation.
+     *
+     * @return the number of groups returned by {@link #calcShipParts()}
+     */
+    public int countShipParts() {
+        return index.countParts();
+    }
+
+    /**
+     * @return the number of components on the dashboard
+     */
+    public int countComponents() {
+        return Long.bitCount(index.getOccupied());
     }
 
     /**
      * Calculates and returns all connected component groups on the ship.
      * Components are considered connected if they are adjacent and have
      * compatible connectors linking them together.
+     * Groups are ordered by their first cell, components by their position.
      *
      * @return a list where each element is a list of connected components
      */
     public List<List<Component>> calcShipParts() {
-        boolean[][] visited = new boolean[dashboard.length][dashboard[0].length];
-        List<List<Component>> groups = new ArrayList<>();
-
-        // Find connected groups
-        for (int i = 0; i < dashboard.length; i++) {
-            for (int j = 0; j < dashboard[0].length; j++) {
-                if (this.getDashboard(i, j).isPresent() && !visited[i][j]) {
-                    List<Component> group = new ArrayList<>();
-                    dfs(i, j, visited, group, null);
-                    groups.add(group);
-                }
+        long[] parts = new long[Long.bitCount(index.getOccupied())];
+        int count = index.fillParts(parts);
+
+        List<List<Component>> groups = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<Component> group = new ArrayList<>(Long.bitCount(parts[i]));
+            for (long cells = parts[i]; cells != 0; cells &= cells - 1) {
+                int cell = Long.numberOfTrailingZeros(cells);
+                group.add(dashboard[ShipBitboard.row(cell)][ShipBitboard.col(cell)].orElseThrow());
             }
+            groups.add(group);
         }
         return groups;
     }
 
     /**
-     * Performs depth-first search to find connected components.
-     * This private method recursively explores adjacent components that are
-     * connected via compatible connectors.
+     * Returns the components on a line of the dashboard, ordered from the given side.
      *
-     * @param i                 the current row index
-     * @param j                 the current column index
-     * @param visited           2D array tracking which positions have been explored
-     * @param group             the current group being built
-     * @param otherComponentOpt the component that led to this position (for connector validation)
-     */
-    @SuppressWarnings({"OptionalGetWithoutIsPresent"})
-    private void dfs(int i, int j, boolean[][] visited, List<Component> group, Component otherComponentOpt) {
-        if (i < 0 || i >= dashboard.length || j < 0 || j >= dashboard[0].length) return;
-        if (visited[i][j] || dashboard[i][j].isEmpty()) return;
-
-        // Skip if connectors are not linked together
-        if (otherComponentOpt != null) {
-            if (
-                    dashboard[i][j].get().getX() < otherComponentOpt.getX() && !Component.areConnectorsLinked(dashboard[i][j].get().getConnectors()[1], otherComponentOpt.getConnectors()[3]) ||
-                            dashboard[i][j].get().getX() > otherComponentOpt.getX() && !Component.areConnectorsLinked(dashboard[i][j].get().getConnectors()[3], otherComponentOpt.getConnectors()[1]) ||
-                            dashboard[i][j].get().getY() < otherComponentOpt.getY() && !Component.areConnectorsLinked(dashboard[i][j].get().getConnectors()[2], otherComponentOpt.getConnectors()[0]) ||
-                            dashboard[i][j].get().getY() > otherComponentOpt.getY() && !Component.areConnectorsLinked(dashboard[i][j].get().getConnectors()[0], otherComponentOpt.getConnectors()[2])
-            )
-                return;
+     * @param direction the side the line is scanned from
+     * @param line      the column (NORTH/SOUTH, 4 to 10) or the row (EAST/WEST, 5 to 9) as numbered on the dice
+     * @return the components on the line, empty if the line is outside the dashboard
+     */
+    public List<Component> getComponentsFromThisDirection(DirectionType direction, int line) {
+        List<Component> components = new ArrayList<>();
+        long cells = index.lineFrom(direction, line);
+        for (int cell = DashboardIndex.first(direction, cells); cell >= 0; cell = DashboardIndex.first(direction, cells)) {
+            components.add(dashboard[ShipBitboard.row(cell)][ShipBitboard.col(cell)].orElseThrow());
+            cells &= ~(1L << cell);
         }
+        return components;
+    }
 
-        visited[i][j] = true;
-        dashboard[i][j].ifPresent(group::add);
-
-        // Check close components
-        dfs(i - 1, j, visited, group, dashboard[i][j].orElse(null));
-        dfs(i + 1, j, visited, group, dashboard[i][j].orElse(null));
-        dfs(i, j - 1, visited, group, dashboard[i][j].orElse(null));
-        dfs(i, j + 1, visited, group, dashboard[i][j].orElse(null));
+    /**
+     * Returns the first component met on a line of the dashboard from the given side.
+     *
+     * @param direction the side the line is scanned from
+     * @param line      the column (NORTH/SOUTH, 4 to 10) or the row (EAST/WEST, 5 to 9) as numbered on the dice
+     * @return the first component on the line, empty if there's none
+     */
+    public Optional<Component> getFirstComponentFromThisDirection(DirectionType direction, int line) {
+        int cell = DashboardIndex.first(direction, index.lineFrom(direction, line));
+        return cell < 0 ? Optional.empty() : dashboard[ShipBitboard.row(cell)][ShipBitboard.col(cell)];
     }
 
     /**
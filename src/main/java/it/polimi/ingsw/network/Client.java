@@ -1,14 +1,18 @@
 package it.polimi.ingsw.network;
 
+import it.polimi.ingsw.Constants;
 import it.polimi.ingsw.client.controller.ClientGameController;
 import it.polimi.ingsw.client.model.ClientEventBus;
 import it.polimi.ingsw.client.model.game.ClientLobby;
+import it.polimi.ingsw.common.model.events.game.ErrorEvent;
 import it.polimi.ingsw.common.model.events.lobby.SetLobbyEvent;
 import it.polimi.ingsw.common.model.events.lobby.LeftLobbyEvent;
 import it.polimi.ingsw.common.model.events.lobby.UsernameOkEvent;
 import it.polimi.ingsw.network.messages.MessageType;
 import it.polimi.ingsw.view.UserInterface;
 
+import java.util.List;
+
 /**
  * Abstract class representing a client in the game.
  * Manages the client's state, connection to the server, and user interface.
@@ -36,6 +40,16 @@ public abstract class Client {
      */
     protected UserInterface ui;
 
+    /**
+     * Sequence of the last batch of game events received, {@link EventLog#NONE} if none
+     */
+    protected volatile long lastSequence;
+
+    /**
+     * Attempts left to resume the session after a reconnection, 0 if the client isn't reconnecting
+     */
+    private volatile int resumeAttempts;
+
     /**
      * @param ui the user interface to be used by this client
      */
@@ -44,6 +58,7 @@ public abstract class Client {
         this.state = UserState.USERNAME;
         this.username = null;
         this.lobby = null;
+        this.lastSequence = EventLog.NONE;
     }
 
     public ClientGameController getGameController() {
@@ -59,6 +74,27 @@ public abstract class Client {
         ClientEventBus.getInstance().publish(lobby == null ? new LeftLobbyEvent(username, null) : new SetLobbyEvent(lobby.getGameID(), lobby.getPlayers(), lobby.isLearnerMode(), lobby.getMaxPlayers()));
     }
 
+    /**
+     * Sets the lobby sent by the server.
+     * If it's the lobby of the game the client already has, e.g. after resuming its session, the game is kept
+     * and only the players are updated: the server sends the missed events instead of the full state.
+     *
+     * @param name        name of the lobby
+     * @param players     players in the lobby
+     * @param learnerMode true if the lobby is in learner mode
+     * @param maxPlayers  max number of players of the lobby
+     */
+    public void updateLobby(String name, List<String> players, boolean learnerMode, int maxPlayers) {
+        if (lobby != null && lobby.getGame() != null && lobby.getGameID().equals(name)) {
+            lobby.setPlayers(players);
+            setState(UserState.IN_GAME);
+            return;
+        }
+
+        setState(UserState.IN_LOBBY);
+        setLobby(new ClientLobby(name, players, learnerMode, maxPlayers));
+    }
+
     public UserState getState() {
         return state;
     }
@@ -73,9 +109,69 @@ public abstract class Client {
 
     public void setUsername(String username) {
         this.username = username;
+        this.resumeAttempts = 0;
         ClientEventBus.getInstance().publish(new UsernameOkEvent(username));
     }
 
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public void setLastSequence(long lastSequence) {
+        this.lastSequence = lastSequence;
+    }
+
+    /**
+     * Handles an error sent by the server, publishing it to the user interface.
+     *
+     * @param message the error message
+     */
+    public void receiveError(String message) {
+        if (resumeAttempts > 0 && state == UserState.USERNAME) { // The server may not have dropped the previous connection yet
+            resumeAttempts--;
+            Thread.ofVirtual().start(() -> {
+                try {
+                    Thread.sleep(Constants.NETWORK_TIMEOUT);
+                    resumeSession(username);
+                } catch (InterruptedException _) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            return;
+        }
+        ClientEventBus.getInstance().publish(new ErrorEvent(message));
+    }
+
+    /**
+     * Sends the username of a new connection, asking for the events of the game missed since the last batch received,
+     * if the client still has the game.
+     *
+     * @param username the username of the previous session
+     */
+    public void resumeSession(String username) {
+        if (lobby != null && lobby.getGame() != null && lastSequence != EventLog.NONE)
+            send(MessageType.RESUME_SESSION, username, lastSequence);
+        else
+            send(MessageType.SET_USERNAME, username);
+    }
+
+    /**
+     * Resumes the session of the user on a new connection, after the previous one has been lost.
+     * The game and the sequence of the last batch received are kept, so the server sends only the events missed
+     * in the meantime, or the full state of the game if they aren't in its log anymore.
+     * A lobby still waiting for players is left: the server has removed the user from it.
+     */
+    protected void resumeAfterReconnect() {
+        if (username == null) return; // The user hasn't chosen a username yet
+
+        System.out.println("[CLIENT] Resuming the session of " + username);
+        if (lobby != null && lobby.getGame() == null)
+            setLobby(null);
+        setState(UserState.USERNAME);
+        resumeAttempts = Constants.MAX_RETRIES;
+        resumeSession(username);
+    }
+
     /**
      * Closes the client's connection.
      * Abstract method that subclasses must implement
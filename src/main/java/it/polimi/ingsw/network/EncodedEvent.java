@@ -0,0 +1,76 @@
+package it.polimi.ingsw.network;
+
+import it.polimi.ingsw.Constants;
+import it.polimi.ingsw.common.model.events.Event;
+import it.polimi.ingsw.common.model.events.EventContext;
+import it.polimi.ingsw.network.messages.MessageType;
+import it.polimi.ingsw.network.metrics.ServerMetrics;
+import it.polimi.ingsw.network.socket.codec.WireFormat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Event ready to be sent to many users, encoded at most once per transport.
+ * The arguments are computed on the first request and shared by all the RMI recipients,
+ * the frame of each {@link WireFormat} is encoded on the first request and shared by all the socket recipients.
+ * <p>
+ * An instance is meant to be used by the thread fanning out the event, it's not thread-safe:
+ * the arguments are computed before the event is queued to the RMI recipients.
+ */
+public final class EncodedEvent {
+
+    /** Event to send */
+    private final Event event;
+
+    /** Arguments of the event, null until requested */
+    private Object[] args;
+
+    /** Read-only frame of each format, indexed by ordinal, null until requested */
+    private final ByteBuffer[] frames;
+
+    /**
+     * @param event event to send
+     */
+    public EncodedEvent(Event event) {
+        this.event = event;
+        this.frames = new ByteBuffer[WireFormat.values().length];
+    }
+
+    public Event getEvent() {
+        return event;
+    }
+
+    public MessageType getEventType() {
+        return event.eventType();
+    }
+
+    /**
+     * @return arguments of the event, the same array for every call, must not be modified
+     */
+    public Object[] getArgs() {
+        if (args == null)
+            args = event.getArgs();
+        return args;
+    }
+
+    /**
+     * Returns the frame of the event in a format, encoding it on the first call.
+     *
+     * @param format format of the connection
+     * @return a read-only view of the shared frame, with its own position
+     * @throws IOException if the message cannot be encoded
+     */
+    public ByteBuffer getFrame(WireFormat format) throws IOException {
+        ByteBuffer frame = frames[format.ordinal()];
+        if (frame == null) {
+            long start = System.nanoTime();
+            frame = format.encodeFrame(Constants.createMessage(getEventType(), getArgs()));
+            frames[format.ordinal()] = frame;
+            EventContext.recordFrameSize(getEventType(), frame.limit());
+            ServerMetrics.getInstance().recordEncoding(getEventType(), frame.limit(), System.nanoTime() - start);
+        }
+        return frame.duplicate();
+    }
+
+}
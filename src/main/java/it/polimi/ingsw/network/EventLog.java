@@ -0,0 +1,129 @@
+package it.polimi.ingsw.network;
+
+import it.polimi.ingsw.common.model.events.Event;
+import it.polimi.ingsw.common.model.events.EventVisibility;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded ring of the last batches of events sent to the players of a game, numbered by a sequence.
+ * The sequence of each batch is sent to the clients with its end marker, so a client reconnecting
+ * after a short disconnection can tell the last batch it has received and get only the events it has missed.
+ * <p>
+ * The batches of a game are appended and queued to its players while holding the {@link #getLock() lock} of the log,
+ * so every player receives them in the order of their sequence; the writes and the remote calls happen outside of it.
+ * The sequence starts from a random number: a sequence received from another game, or from a previous run
+ * of the server, is not mistaken for one of this log.
+ */
+public class EventLog {
+
+    /**
+     * Max number of batches kept in the log
+     */
+    public static final int CAPACITY = 128;
+
+    /**
+     * Sequence reported by a client that has never received a batch
+     */
+    public static final long NONE = 0;
+
+    /**
+     * Batch of events sent by a single notification.
+     *
+     * @param sequence sequence of the batch
+     * @param sender   username of the player the events were notified by, the reference of their visibility
+     * @param events   the events, encoded once for the live recipients and the reconnecting ones
+     */
+    public record Batch(long sequence, String sender, List<EncodedEvent> events) {}
+
+    private final Batch[] batches;
+
+    /**
+     * Sequence before the first batch
+     */
+    private final long initial;
+
+    /**
+     * Sequence of the newest batch, or the initial sequence if no batch has been appended
+     */
+    private long last;
+
+    private final ReentrantLock lock;
+
+    public EventLog() {
+        this.batches = new Batch[CAPACITY];
+        this.initial = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE / 2);
+        this.last = initial;
+        this.lock = new ReentrantLock();
+    }
+
+    /**
+     * @return the lock held while appending the batches and queueing them to the players
+     */
+    public ReentrantLock getLock() {
+        return lock;
+    }
+
+    /**
+     * Appends a batch, replacing the oldest one if the log is full.
+     * Called while holding the lock.
+     *
+     * @param sender username of the player the events were notified by
+     * @param events the events, their arguments are computed now so later changes of the game don't alter them
+     * @return the sequence of the batch
+     */
+    public long append(String sender, List<EncodedEvent> events) {
+        for (EncodedEvent event : events)
+            event.getArgs();
+        last++;
+        batches[(int) (last % CAPACITY)] = new Batch(last, sender, events);
+        return last;
+    }
+
+    /**
+     * @return the sequence of the newest batch
+     */
+    public long getLastSequence() {
+        return last;
+    }
+
+    /**
+     * Returns the batches appended after a sequence.
+     * Called while holding the lock.
+     *
+     * @param sequence sequence of the last batch received by a client
+     * @return the batches after it, in order, or null if some of them have been replaced or the sequence isn't of this log
+     */
+    public List<Batch> since(long sequence) {
+        long oldest = Math.max(last - CAPACITY + 1, initial + 1);
+        if (sequence > last || sequence < oldest - 1)
+            return null;
+
+        List<Batch> missed = new ArrayList<>((int) (last - sequence));
+        for (long s = sequence + 1; s <= last; s++)
+            missed.add(batches[(int) (s % CAPACITY)]);
+        return missed;
+    }
+
+    /**
+     * Tells if a player had to receive an event of a batch, whether or not he was connected when it was sent.
+     *
+     * @param batch    the batch
+     * @param event    an event of the batch
+     * @param username username of the player
+     * @return true if the event is visible to the player
+     */
+    public static boolean isVisibleTo(Batch batch, Event event, String username) {
+        EventVisibility visibility = event.getVisibility();
+        return switch (visibility) {
+            case ALL_PLAYERS -> true;
+            case OTHER_PLAYERS -> !username.equals(batch.sender());
+            case PLAYER_ONLY -> username.equals(batch.sender());
+            case SPECIFIC_PLAYERS -> event.getTargetPlayers().contains(username);
+        };
+    }
+
+}
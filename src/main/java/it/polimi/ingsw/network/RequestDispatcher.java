@@ -0,0 +1,138 @@
+package it.polimi.ingsw.network;
+
+import it.polimi.ingsw.Constants;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-wide executor running the requests received from the clients.
+ * The threads are chosen at start-up through the {@value #PROPERTY} system property:
+ * <ul>
+ *     <li>platform (default): a fixed pool of {@link Constants#DISPATCH_THREADS} platform threads</li>
+ *     <li>virtual: a new virtual thread for each request, so a request waiting for a game lock doesn't hold a carrier thread</li>
+ * </ul>
+ * Requests of the same client are executed in order through {@link #newSerialExecutor()}.
+ */
+public class RequestDispatcher implements Executor {
+
+    /**
+     * System property used to choose the threads, either "platform" or "virtual"
+     */
+    public static final String PROPERTY = "server.threads";
+
+    public enum Mode {
+        PLATFORM, VIRTUAL
+    }
+
+    /**
+     * Singleton Pattern, instance of the class
+     */
+    private static RequestDispatcher instance = null;
+
+    private final Mode mode;
+    private final ExecutorService executor;
+
+    private RequestDispatcher(Mode mode) {
+        this.mode = mode;
+        if (mode == Mode.VIRTUAL)
+            this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("request-", 1).factory());
+        else {
+            AtomicInteger threadCounter = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(Constants.DISPATCH_THREADS, runnable -> {
+                Thread thread = new Thread(runnable, "request-" + threadCounter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Singleton Pattern
+     *
+     * @return the only one instance of the RequestDispatcher class
+     */
+    public synchronized static RequestDispatcher getInstance() {
+        if (instance == null) {
+            instance = new RequestDispatcher(modeFromProperty());
+        }
+        return instance;
+    }
+
+    /**
+     * @return the mode set through the {@value #PROPERTY} system property, PLATFORM if not set
+     */
+    public static Mode modeFromProperty() {
+        return "virtual".equalsIgnoreCase(System.getProperty(PROPERTY)) ? Mode.VIRTUAL : Mode.PLATFORM;
+    }
+
+    /**
+     * @return threads used to run the requests
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    @Override
+    public void execute(Runnable request) {
+        executor.execute(request);
+    }
+
+    /**
+     * @return an executor running its tasks one at a time, in submission order, on the dispatcher threads
+     */
+    public Executor newSerialExecutor() {
+        return new SerialExecutor();
+    }
+
+    /**
+     * Stops the dispatcher, queued requests are discarded.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs the tasks of a single client in order, without holding a thread while the queue is empty.
+     * A task throwing a {@link RuntimeException} doesn't stop the following ones.
+     */
+    private class SerialExecutor implements Executor {
+
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+        /**
+         * True while a dispatcher thread is executing the queue
+         */
+        private final AtomicBoolean running = new AtomicBoolean(false);
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+            if (running.compareAndSet(false, true))
+                executor.execute(this::drain);
+        }
+
+        private void drain() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    System.err.println("[REQUEST DISPATCHER] Request has thrown a RuntimeException: " + e.getMessage());
+                    e.printStackTrace();
+                }
+            }
+
+            running.set(false);
+            if (!tasks.isEmpty() && running.compareAndSet(false, true)) // Tasks added while leaving
+                executor.execute(this::drain);
+        }
+
+    }
+
+}
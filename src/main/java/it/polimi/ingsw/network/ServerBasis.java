@@ -1,6 +1,7 @@
 package it.polimi.ingsw.network;
 
 import it.polimi.ingsw.common.model.events.game.ErrorEvent;
+import it.polimi.ingsw.common.model.events.game.SyncAllEvent;
 import it.polimi.ingsw.controller.MatchController;
 import it.polimi.ingsw.common.model.events.Event;
 import it.polimi.ingsw.common.model.events.lobby.UsernameOkEvent;
@@ -32,6 +33,20 @@ public abstract class ServerBasis {
      * @throws IllegalStateException if the user is not in USERNAME state
      */
     public static void setUsername(User user, String username) {
+        resumeSession(user, username, EventLog.NONE);
+    }
+
+    /**
+     * Sets the username for a user reconnecting with the state of his previous session.
+     * If he rejoins his game he gets only the events sent since the last batch he has received,
+     * or the full state of the game if they aren't in its {@link EventLog} anymore.
+     *
+     * @param user         the user for whom to set the username
+     * @param username     the username to set
+     * @param lastSequence sequence of the last batch received by the client, {@link EventLog#NONE} if it has no state
+     * @throws IllegalStateException if the user is not in USERNAME state
+     */
+    public static void resumeSession(User user, String username, long lastSequence) {
         if (user.getState() != UserState.USERNAME) throw new IllegalStateException("User is not in state USERNAME");
         List<Event> events = new ArrayList<>();
 
@@ -45,14 +60,27 @@ public abstract class ServerBasis {
         }
 
         try {
-            // Check previous sessions
+            // Check previous sessions, including the games recovered after a restart of the server
             User oldUser = User.popInactiveUser(username);
-            if (oldUser != null && oldUser.getLobby() != null && oldUser.getLobby().getState() == LobbyState.IN_GAME) { // Rejoin
-                List<Event> rejoinEvents = MatchController.getInstance().rejoinGame(username, oldUser.getLobby().getGameID());
+            Lobby recovered = MatchController.getInstance().popRecoveredLobby(username);
+            Lobby oldLobby = oldUser != null ? oldUser.getLobby() : recovered;
+            if (oldLobby != null && oldLobby.getState() == LobbyState.IN_GAME) { // Rejoin
+                List<Event> rejoinEvents = List.of();
+                boolean resynced;
+                user.holdEvents(); // Until the missed events are sent
+                try {
+                    rejoinEvents = MatchController.getInstance().rejoinGame(username, oldLobby.getGameID());
+                    if (!rejoinEvents.isEmpty()) {
+                        user.setLobby(oldLobby);
+                        user.setState(UserState.IN_GAME);
+                    }
+                } finally {
+                    resynced = user.resync(lastSequence);
+                }
                 if (!rejoinEvents.isEmpty()) {
                     events.addAll(rejoinEvents);
-                    user.setLobby(oldUser.getLobby());
-                    user.setState(UserState.IN_GAME);
+                    if (!resynced)
+                        events.add(new SyncAllEvent(oldLobby.getGame().toDTO()));
                 }
             }
         } catch (RuntimeException e) {
@@ -62,6 +90,26 @@ public abstract class ServerBasis {
         user.notifyEvents(events);
     }
 
+    /**
+     * Rebuilds the games left in the journals when the server starts.
+     * The events of their hourglass expirations are sent to the players who have rejoined them.
+     *
+     * @return the number of recovered games
+     */
+    public static int recoverGames() {
+        return MatchController.getInstance().recoverGames((lobby, events) -> {
+            if (lobby == null || events.isEmpty()) return;
+            for (String username : lobby.getPlayers()) {
+                try {
+                    User.getUser(username).notifyEvents(events); // Visible to the players of its lobby
+                    return;
+                } catch (UserNotFoundException _) {
+                    // Not connected, try the next one
+                }
+            }
+        });
+    }
+
     /**
      * Creates a new lobby with the specified parameters.
      *
@@ -10,10 +10,20 @@ import it.polimi.ingsw.model.game.Lobby;
 import it.polimi.ingsw.common.model.enums.LobbyState;
 import it.polimi.ingsw.network.rmi.ClientCallbackInterface;
 import it.polimi.ingsw.network.exceptions.UserNotFoundException;
+import it.polimi.ingsw.network.metrics.ServerMetrics;
+import it.polimi.ingsw.network.metrics.jfr.FanOutJfrEvent;
 
 import java.rmi.RemoteException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Server-side user representation supporting both RMI and Socket connections.
@@ -21,11 +31,14 @@ import java.util.List;
  */
 public class User {
 
-    /** Thread-safe list of active users */
-    private final static List<User> activeUsers = new ArrayList<>();
+    /** Active users indexed by their unique connection code */
+    private final static Map<String, User> activeUsers = new ConcurrentHashMap<>();
 
-    /** Thread-safe list of inactive users with ongoing games */
-    private final static List<User> inactiveUsers = new ArrayList<>();
+    /** Active users indexed by username, only users that have already chosen one */
+    private final static Map<String, User> usersByUsername = new ConcurrentHashMap<>();
+
+    /** Inactive users with ongoing games indexed by username */
+    private final static Map<String, User> inactiveUsers = new ConcurrentHashMap<>();
 
     /** Last ping timestamp for connection monitoring */
     private long lastPing;
@@ -45,6 +58,18 @@ public class User {
     /** RMI callback interface for client communication */
     private final ClientCallbackInterface callback;
 
+    /** Executor running the requests of this user in order */
+    private final Executor requests;
+
+    /** True while the user rejoins his game: the events of the game are held back for {@link #resync(long)} */
+    private volatile boolean resuming;
+
+    /** Events waiting to be sent to the RMI client, in order */
+    private final Queue<EncodedEvent> outbound;
+
+    /** True while a thread is sending the outbound events */
+    private final AtomicBoolean sending;
+
     /**
      * @param connectionCode unique connection identifier
      * @param callback RMI callback interface for client communication, null for Socket
@@ -56,26 +81,34 @@ public class User {
         this.lobby = null;
 
         this.callback = callback;
+        this.requests = RequestDispatcher.getInstance().newSerialExecutor();
+        this.outbound = new ConcurrentLinkedQueue<>();
+        this.sending = new AtomicBoolean(false);
         lastPing = System.currentTimeMillis();
 
-        synchronized (activeUsers) {
-            activeUsers.add(this);
-        }
+        activeUsers.put(connectionCode, this);
     }
 
     /**
      * Notifies multiple events, wrapping in batch markers if needed.
+     * The events of a game are appended to its {@link EventLog} and always wrapped, the end marker carrying their sequence.
      *
      * @param events list of events to notify
      */
     public void notifyEvents(List<Event> events) {
-        if (events.size() == 1) notifyEvent(events.getFirst());
+        Lobby lobby = this.lobby;
+        EventLog log = lobby != null ? lobby.getEventLog() : null;
+        FanOutJfrEvent recording = new FanOutJfrEvent();
+        recording.start();
+        if (log != null) notifySequenced(lobby, log, events, recording);
+        else if (events.size() == 1) notifyEvent(events.getFirst());
         else {
             notifyEvent(new BatchStartedEvent());
             for (Event event : events)
                 notifyEvent(event);
             notifyEvent(new BatchEndedEvent());
         }
+        recording.complete(lobby, username, events.size());
     }
 
     /**
@@ -84,6 +117,43 @@ public class User {
      * @param event event to notify
      */
     public void notifyEvent(Event event) {
+        EncodedEvent encoded = new EncodedEvent(event); // Encoded once for all the players
+        for (String playerToNotify : getPlayersToNotify(lobby, event)) {
+            User userToNotify = User.getUser(playerToNotify);
+            userToNotify.sendEvent(encoded);
+        }
+    }
+
+    /**
+     * Appends a batch of events to the log of a game and sends it to the players, holding the lock of the log.
+     * Sending only queues the events of each player, so a slow client doesn't hold the lock.
+     *
+     * @param lobby     lobby of the game
+     * @param log       log of the game
+     * @param events    events to notify
+     * @param recording recording of the fan-out
+     */
+    private void notifySequenced(Lobby lobby, EventLog log, List<Event> events, FanOutJfrEvent recording) {
+        List<EncodedEvent> encoded = new ArrayList<>(events.size());
+        for (Event event : events)
+            encoded.add(new EncodedEvent(event));
+
+        log.getLock().lock();
+        try {
+            recording.locked();
+            long sequence = log.append(username, encoded);
+            recording.setSequence(sequence);
+            List<String> players = lobby.getPlayers();
+            sendToPlayers(players, new EncodedEvent(new BatchStartedEvent()));
+            for (EncodedEvent event : encoded)
+                sendToPlayers(getPlayersToNotify(lobby, event.getEvent()), event);
+            sendToPlayers(players, new EncodedEvent(new BatchEndedEvent(sequence)));
+        } finally {
+            log.getLock().unlock();
+        }
+    }
+
+    private List<String> getPlayersToNotify(Lobby lobby, Event event) {
         List<String> playersToNotify = new ArrayList<>();
         if ((event.getVisibility() == EventVisibility.ALL_PLAYERS || event.getVisibility() == EventVisibility.OTHER_PLAYERS) && lobby != null)
             playersToNotify.addAll(lobby.getPlayers());
@@ -94,10 +164,56 @@ public class User {
 
         if (event.getVisibility() == EventVisibility.OTHER_PLAYERS)
             playersToNotify.remove(username);
+        return playersToNotify;
+    }
 
-        for (String playerToNotify : playersToNotify) {
-            User userToNotify = User.getUser(playerToNotify);
-            userToNotify.sendEvent(event);
+    /**
+     * Sends a batch event to some players, except the ones resuming their session: they get it from the log.
+     */
+    private static void sendToPlayers(List<String> players, EncodedEvent event) {
+        for (String player : players) {
+            User userToNotify = User.getUser(player);
+            if (!userToNotify.resuming)
+                userToNotify.sendEvent(event);
+        }
+    }
+
+    /**
+     * Stops sending the events of the games to this user until {@link #resync(long)}, e.g. while he rejoins his game.
+     */
+    public void holdEvents() {
+        resuming = true;
+    }
+
+    /**
+     * Sends the events of the game this user has missed since a batch, as a single batch, and resumes sending him the events.
+     * The events are the ones visible to the user, whether or not he was connected when they were sent.
+     *
+     * @param sequence sequence of the last batch received by the user's client
+     * @return true if the events have been sent, false if they aren't all in the log anymore: the client needs the full state
+     */
+    public boolean resync(long sequence) {
+        EventLog log = lobby != null ? lobby.getEventLog() : null;
+        if (log == null) {
+            resuming = false;
+            return false;
+        }
+
+        log.getLock().lock();
+        try {
+            List<EventLog.Batch> missed = log.since(sequence);
+            if (missed == null) return false;
+
+            sendEvent(new BatchStartedEvent());
+            for (EventLog.Batch batch : missed)
+                for (EncodedEvent event : batch.events())
+                    if (EventLog.isVisibleTo(batch, event.getEvent(), username))
+                        sendEvent(event);
+            sendEvent(new BatchEndedEvent(log.getLastSequence()));
+            return true;
+        } finally {
+            resuming = false;
+            log.getLock().unlock();
         }
     }
 
@@ -107,12 +223,37 @@ public class User {
      * @param event event to send
      */
     public void sendEvent(Event event) {
-        try {
-            this.getCallback().notifyGameEvent(event.eventType(), event.getArgs());
-        } catch (RemoteException e) {
-            // Error while notifying an update to a client
-            // Just ignore it
-        }
+        sendEvent(new EncodedEvent(event));
+    }
+
+    /**
+     * Sends an event shared with other users to this user's client.
+     * RMI clients receive the argument array shared by all the recipients: the event is queued with its arguments,
+     * computed now, and the remote calls are made in order by a virtual thread, outside the locks of the caller.
+     *
+     * @param event event to send
+     */
+    public void sendEvent(EncodedEvent event) {
+        event.getArgs();
+        outbound.add(event);
+        if (sending.compareAndSet(false, true))
+            Thread.ofVirtual().name("rmi-events-" + getUsername()).start(this::flushEvents);
+    }
+
+    private void flushEvents() {
+        do {
+            EncodedEvent event;
+            while ((event = outbound.poll()) != null) {
+                try {
+                    this.getCallback().notifyGameEvent(event.getEventType(), event.getArgs());
+                    ServerMetrics.getInstance().recordEvent(event.getEventType(), 0);
+                } catch (RemoteException e) {
+                    // Error while notifying an update to a client
+                    // Just ignore it
+                }
+            }
+            sending.set(false);
+        } while (!outbound.isEmpty() && sending.compareAndSet(false, true)); // Events added while leaving
     }
 
     public GameController getGameController() {
@@ -123,15 +264,18 @@ public class User {
         return username != null ? username : "";
     }
 
+    public String getConnectionCode() {
+        return connectionCode;
+    }
+
     public void setUsername(String username) {
-        synchronized (activeUsers) {
-            boolean taken = activeUsers.stream().anyMatch(user -> user.getUsername() != null && user.getUsername().equals(username));
-            if (!taken) {
-                this.username = username;
-            }
-            else
-                throw new IllegalArgumentException("Username already taken");
-        }
+        User owner = usersByUsername.putIfAbsent(username, this);
+        if (owner != null && owner != this)
+            throw new IllegalArgumentException("Username already taken");
+
+        if (this.username != null && !this.username.equals(username))
+            usersByUsername.remove(this.username, this);
+        this.username = username;
     }
 
     public UserState getState() {
@@ -154,6 +298,13 @@ public class User {
         return callback;
     }
 
+    /**
+     * @return executor running the requests of this user in order, on the {@link RequestDispatcher} threads
+     */
+    public Executor getRequests() {
+        return requests;
+    }
+
     public long getLastPing() {
         return lastPing;
     }
@@ -175,14 +326,24 @@ public class User {
      * @throws UserNotFoundException if user not found
      */
     public static User getUser(String username) {
-        List<User> temp;
-        synchronized (activeUsers) {
-            temp = new ArrayList<>(activeUsers);
-        }
-        return temp.stream()
-                .filter(user -> user.getUsername().equals(username))
-                .findFirst()
-                .orElseThrow(UserNotFoundException::new);
+        User user = usersByUsername.get(username);
+        if (user == null)
+            throw new UserNotFoundException();
+        return user;
+    }
+
+    /**
+     * @return read-only view of the connected users
+     */
+    public static Collection<User> getActiveUsers() {
+        return Collections.unmodifiableCollection(activeUsers.values());
+    }
+
+    /**
+     * @return number of disconnected users whose game is still running
+     */
+    public static int getInactiveUserCount() {
+        return inactiveUsers.size();
     }
 
     /**
@@ -192,15 +353,7 @@ public class User {
      * @return inactive user or null if not found
      */
     public static User popInactiveUser(String username) {
-        synchronized (inactiveUsers) {
-            for (User user : inactiveUsers) {
-                if (user.getUsername().equals(username)) {
-                    inactiveUsers.remove(user);
-                    return user;
-                }
-            }
-        }
-        return null;
+        return inactiveUsers.remove(username);
     }
 
     /**
@@ -209,16 +362,12 @@ public class User {
      * @param user user to remove
      */
     public static void removeUser(User user) {
-        synchronized (activeUsers) {
-            if (!activeUsers.contains(user)) return;
-        }
+        if (activeUsers.get(user.connectionCode) != user) return;
 
         if (user.lobby != null) {
             List<Event> events = MatchController.getInstance().leaveGame(user.getUsername());
             if (user.lobby.getState() == LobbyState.IN_GAME) { // Player was gaming, add to inactive users
-                synchronized (inactiveUsers) {
-                    inactiveUsers.add(user);
-                }
+                inactiveUsers.put(user.getUsername(), user);
                 user.notifyEvents(events);
             }
             else if (user.lobby.getState() == LobbyState.WAITING && !events.isEmpty()) {
@@ -226,9 +375,9 @@ public class User {
             }
         }
 
-        synchronized (activeUsers) {
-            activeUsers.remove(user);
-        }
+        activeUsers.remove(user.connectionCode, user);
+        if (user.username != null)
+            usersByUsername.remove(user.username, user);
     }
 
 }
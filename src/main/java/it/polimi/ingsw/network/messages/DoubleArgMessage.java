@@ -22,6 +22,11 @@ public class DoubleArgMessage<T1, T2> extends Message {
         return arg2;
     }
 
+    @Override
+    public Object[] getArgs() {
+        return new Object[]{arg1, arg2};
+    }
+
     @Override
     public void execute(ClientHandler user) {
         getMessageType().execute(user, this);
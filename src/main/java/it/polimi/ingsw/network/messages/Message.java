@@ -25,6 +25,13 @@ public abstract class Message implements Serializable {
         return messageType;
     }
 
+    /**
+     * @return the arguments of this message, in order
+     */
+    public Object[] getArgs() {
+        return new Object[]{};
+    }
+
     /**
      * Executes server-side logic for this message.
      * Default implementation does nothing - should be overridden by subclasses.
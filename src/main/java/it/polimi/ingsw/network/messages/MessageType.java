@@ -10,7 +10,6 @@ import it.polimi.ingsw.common.dto.ModelDTO;
 import it.polimi.ingsw.common.model.enums.PlayerState;
 import it.polimi.ingsw.common.model.enums.AlienType;
 import it.polimi.ingsw.common.model.enums.ColorType;
-import it.polimi.ingsw.common.model.events.game.ErrorEvent;
 import it.polimi.ingsw.network.UserState;
 import it.polimi.ingsw.network.socket.client.ClientSocket;
 import it.polimi.ingsw.network.socket.server.ClientHandler;
@@ -35,7 +34,7 @@ public enum MessageType {
         @Override
         public void execute(ClientSocket client, Message message) {
             SingleArgMessage<String> castedMessage = (SingleArgMessage<String>) message;
-            ClientEventBus.getInstance().publish(new ErrorEvent(castedMessage.getArg1()));
+            client.receiveError(castedMessage.getArg1());
         }
     },
 
@@ -56,6 +55,8 @@ public enum MessageType {
         @Override
         public void execute(ClientSocket client, Message message) {
             ClientEventBus.getInstance().endBatch();
+            if (message instanceof SingleArgMessage<?> castedMessage) // Batch of a game
+                client.setLastSequence((Long) castedMessage.getArg1());
         }
     },
 
@@ -70,6 +71,17 @@ public enum MessageType {
         }
     },
 
+    /**
+     * Set username request of a client reconnecting with the state of its previous session
+     */
+    RESUME_SESSION {
+        @Override
+        public void execute(ClientHandler user, Message message) {
+            DoubleArgMessage<String, Long> castedMessage = (DoubleArgMessage<String, Long>) message;
+            SocketServer.resumeSession(user, castedMessage.getArg1(), castedMessage.getArg2());
+        }
+    },
+
     /**
      * Username set confirmation
      */
@@ -100,8 +112,7 @@ public enum MessageType {
         @Override
         public void execute(ClientSocket client, Message message) {
             QuadrupleArgMessage<String, List<String>, Boolean, Integer> castedMessage = (QuadrupleArgMessage<String, List<String>, Boolean, Integer>) message;
-            client.setState(UserState.IN_LOBBY);
-            client.setLobby(new ClientLobby(castedMessage.getArg1(), castedMessage.getArg2(), castedMessage.getArg3(), castedMessage.getArg4()));
+            client.updateLobby(castedMessage.getArg1(), castedMessage.getArg2(), castedMessage.getArg3(), castedMessage.getArg4());
         }
     },
 
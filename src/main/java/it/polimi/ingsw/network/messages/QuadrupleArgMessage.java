@@ -34,6 +34,11 @@ public class QuadrupleArgMessage<T1, T2, T3, T4> extends Message {
         return arg4;
     }
 
+    @Override
+    public Object[] getArgs() {
+        return new Object[]{arg1, arg2, arg3, arg4};
+    }
+
     @Override
     public void execute(ClientHandler user) {
         getMessageType().execute(user, this);
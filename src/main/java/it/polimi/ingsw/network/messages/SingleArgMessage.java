@@ -17,6 +17,11 @@ public class SingleArgMessage<T> extends Message {
         return arg1;
     }
 
+    @Override
+    public Object[] getArgs() {
+        return new Object[]{arg1};
+    }
+
     @Override
     public void execute(ClientHandler user) {
         getMessageType().execute(user, this);
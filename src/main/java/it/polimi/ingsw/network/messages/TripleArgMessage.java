@@ -28,6 +28,11 @@ public class TripleArgMessage<T1, T2, T3> extends Message {
         return arg3;
     }
 
+    @Override
+    public Object[] getArgs() {
+        return new Object[]{arg1, arg2, arg3};
+    }
+
     @Override
     public void execute(ClientHandler user) {
         getMessageType().execute(user, this);
@@ -0,0 +1,107 @@
+package it.polimi.ingsw.network.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations with fixed power-of-two buckets, in microseconds.
+ * Bucket 0 counts the durations below 1 µs, bucket {@code i} the ones in [2<sup>i-1</sup>, 2<sup>i</sup>) µs,
+ * the last bucket everything above. Recording only increments counters, so it never allocates nor blocks,
+ * the percentiles are computed when they're read and are the upper bound of their bucket.
+ */
+public final class Histogram {
+
+    /**
+     * Number of buckets, the last one starts at about 67 seconds
+     */
+    public static final int BUCKETS = 28;
+
+    private final LongAdder[] buckets;
+
+    /** Sum of the recorded durations, in nanoseconds */
+    private final LongAdder totalNanos;
+
+    private final LongAccumulator maxNanos;
+
+    public Histogram() {
+        this.buckets = new LongAdder[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++)
+            buckets[i] = new LongAdder();
+        this.totalNanos = new LongAdder();
+        this.maxNanos = new LongAccumulator(Math::max, 0);
+    }
+
+    /**
+     * @param nanos duration to record, in nanoseconds
+     */
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos) / 1000;
+        buckets[Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros))].increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    /**
+     * @return the number of recorded durations
+     */
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets)
+            count += bucket.sum();
+        return count;
+    }
+
+    /**
+     * @return the average of the recorded durations, in microseconds, 0 if there are none
+     */
+    public double getMeanMicros() {
+        long count = getCount();
+        return count == 0 ? 0 : totalNanos.sum() / 1000.0 / count;
+    }
+
+    /**
+     * @return the longest recorded duration, in microseconds
+     */
+    public long getMaxMicros() {
+        return maxNanos.get() / 1000;
+    }
+
+    /**
+     * @param quantile quantile to compute, between 0 and 1
+     * @return the upper bound of the bucket containing the quantile, in microseconds, 0 if there are no durations
+     */
+    public long getPercentileMicros(double quantile) {
+        long[] counts = getBucketCounts();
+        long count = 0;
+        for (long bucket : counts)
+            count += bucket;
+        if (count == 0) return 0;
+
+        long rank = (long) Math.ceil(quantile * count);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS - 1; i++) {
+            seen += counts[i];
+            if (seen >= rank) return getUpperBoundMicros(i);
+        }
+        return getMaxMicros();
+    }
+
+    /**
+     * @return a snapshot of the count of each bucket
+     */
+    public long[] getBucketCounts() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++)
+            counts[i] = buckets[i].sum();
+        return counts;
+    }
+
+    /**
+     * @param bucket index of a bucket, except the last one
+     * @return the exclusive upper bound of the bucket, in microseconds
+     */
+    public static long getUpperBoundMicros(int bucket) {
+        return 1L << bucket;
+    }
+
+}
@@ -0,0 +1,100 @@
+package it.polimi.ingsw.network.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Local HTTP endpoint serving the {@link ServerMetrics} as text on {@code /metrics}.
+ * It's enabled by setting the port in the {@value #PROPERTY} system property and only listens on the loopback address,
+ * the metrics are read by tools running on the same machine, e.g. {@code curl localhost:<port>/metrics}.
+ */
+public class MetricsEndpoint {
+
+    /**
+     * System property holding the port of the endpoint, the endpoint is disabled if not set
+     */
+    public static final String PROPERTY = "server.metrics.port";
+
+    /**
+     * Singleton Pattern, instance of the class
+     */
+    private static MetricsEndpoint instance = null;
+
+    /**
+     * HTTP server, null if the endpoint is disabled
+     */
+    private final HttpServer server;
+
+    private MetricsEndpoint(Integer port) {
+        HttpServer server = null;
+        if (port != null) {
+            try {
+                server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+                server.createContext("/metrics", MetricsEndpoint::handle);
+                server.start();
+                System.out.println("[METRICS] Endpoint started on port " + server.getAddress().getPort());
+            } catch (IOException e) {
+                System.err.println("[METRICS] Endpoint cannot be started: " + e.getMessage());
+                server = null;
+            }
+        }
+        this.server = server;
+    }
+
+    /**
+     * Singleton Pattern, starts the endpoint on the first call if the {@value #PROPERTY} property is set
+     *
+     * @return the only one instance of the MetricsEndpoint class
+     */
+    public synchronized static MetricsEndpoint getInstance() {
+        if (instance == null) {
+            instance = new MetricsEndpoint(Integer.getInteger(PROPERTY));
+        }
+        return instance;
+    }
+
+    /**
+     * @return true if the endpoint is listening
+     */
+    public boolean isEnabled() {
+        return server != null;
+    }
+
+    /**
+     * @return port of the endpoint, -1 if it's disabled
+     */
+    public int getPort() {
+        return server != null ? server.getAddress().getPort() : -1;
+    }
+
+    /**
+     * Stops the endpoint, if it's enabled.
+     */
+    public void stop() {
+        if (server != null)
+            server.stop(0);
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            byte[] body = ServerMetrics.getInstance().toText().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        }
+    }
+
+}
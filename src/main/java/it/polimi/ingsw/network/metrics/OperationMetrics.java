@@ -0,0 +1,114 @@
+package it.polimi.ingsw.network.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of an operation of the server, e.g. the requests of a {@link it.polimi.ingsw.network.messages.MessageType}
+ * or the commands of a {@link it.polimi.ingsw.controller.journal.GameCommand}.
+ * Each kind of operation only fills the counters that make sense for it, the others stay 0.
+ */
+public final class OperationMetrics implements OperationMetricsMBean {
+
+    private final String name;
+
+    private final LongAdder count;
+
+    /** Operations that ended with an error */
+    private final LongAdder errors;
+
+    /** Events produced by the operations */
+    private final LongAdder events;
+
+    /** Bytes sent or encoded by the operations */
+    private final LongAdder bytes;
+
+    private final Histogram latency;
+
+    /**
+     * @param name name of the operation
+     */
+    public OperationMetrics(String name) {
+        this.name = name;
+        this.count = new LongAdder();
+        this.errors = new LongAdder();
+        this.events = new LongAdder();
+        this.bytes = new LongAdder();
+        this.latency = new Histogram();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param nanos service time of the operation
+     */
+    public void recordTime(long nanos) {
+        count.increment();
+        latency.record(nanos);
+    }
+
+    /**
+     * @param nanos  service time of the operation
+     * @param events number of events it produced
+     * @param error  true if it ended with an error
+     */
+    public void recordTime(long nanos, int events, boolean error) {
+        recordTime(nanos);
+        this.events.add(events);
+        if (error) errors.increment();
+    }
+
+    /**
+     * @param bytes bytes of the operation, e.g. of a sent event
+     */
+    public void recordBytes(int bytes) {
+        count.increment();
+        this.bytes.add(bytes);
+    }
+
+    public Histogram getLatency() {
+        return latency;
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getEvents() {
+        return events.sum();
+    }
+
+    @Override
+    public long getBytes() {
+        return bytes.sum();
+    }
+
+    @Override
+    public double getMeanMicros() {
+        return latency.getMeanMicros();
+    }
+
+    @Override
+    public long getP50Micros() {
+        return latency.getPercentileMicros(0.5);
+    }
+
+    @Override
+    public long getP99Micros() {
+        return latency.getPercentileMicros(0.99);
+    }
+
+    @Override
+    public long getMaxMicros() {
+        return latency.getMaxMicros();
+    }
+
+}
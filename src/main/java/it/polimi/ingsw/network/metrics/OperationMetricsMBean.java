@@ -0,0 +1,24 @@
+package it.polimi.ingsw.network.metrics;
+
+/**
+ * JMX view of the metrics of an operation of the server, see {@link OperationMetrics}.
+ */
+public interface OperationMetricsMBean {
+
+    long getCount();
+
+    long getErrors();
+
+    long getEvents();
+
+    long getBytes();
+
+    double getMeanMicros();
+
+    long getP50Micros();
+
+    long getP99Micros();
+
+    long getMaxMicros();
+
+}
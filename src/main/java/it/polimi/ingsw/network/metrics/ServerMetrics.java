@@ -0,0 +1,332 @@
+package it.polimi.ingsw.network.metrics;
+
+import it.polimi.ingsw.common.model.enums.LobbyState;
+import it.polimi.ingsw.common.model.events.Event;
+import it.polimi.ingsw.common.model.events.EventContext;
+import it.polimi.ingsw.controller.GameController;
+import it.polimi.ingsw.controller.MatchController;
+import it.polimi.ingsw.controller.journal.GameCommand;
+import it.polimi.ingsw.model.factory.CardFactory;
+import it.polimi.ingsw.model.game.Lobby;
+import it.polimi.ingsw.model.game.objects.HourglassScheduler;
+import it.polimi.ingsw.network.User;
+import it.polimi.ingsw.network.messages.MessageType;
+import it.polimi.ingsw.network.socket.server.ClientHandler;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Metrics of the server, recorded by the request handlers and the game controllers:
+ * <ul>
+ *     <li>requests: count and service time of the requests, by {@link MessageType}, on both transports</li>
+ *     <li>commands: count, service time, events and errors of the {@link GameController} commands, by {@link GameCommand}</li>
+ *     <li>events: events sent to the users and their bytes, by {@link MessageType}</li>
+ *     <li>encodings: frames encoded for the socket clients, once per event and format, and their bytes</li>
+ * </ul>
+ * the savings of the event coalescing and of the card serialization cache, read from {@link EventContext} and {@link CardFactory},
+ * and the current state of the server (lobbies, games, users, hourglasses, outbound queues, heap), read when requested.
+ * Recording only increments preallocated counters, indexed by the ordinal of the enums.
+ * <p>
+ * The metrics are exposed as MBeans under the {@value #DOMAIN} domain and as text by the {@link MetricsEndpoint}.
+ */
+public class ServerMetrics implements ServerMetricsMBean {
+
+    /**
+     * JMX domain of the MBeans
+     */
+    public static final String DOMAIN = "it.polimi.ingsw";
+
+    /**
+     * Singleton Pattern, instance of the class, created eagerly so the recording threads never synchronize on it
+     */
+    private static final ServerMetrics instance = new ServerMetrics();
+
+    private final OperationMetrics[] requests;
+
+    private final OperationMetrics[] commands;
+
+    private final OperationMetrics[] events;
+
+    private final OperationMetrics[] encodings;
+
+    private ServerMetrics() {
+        this.requests = create(MessageType.values());
+        this.commands = create(GameCommand.values());
+        this.events = create(MessageType.values());
+        this.encodings = create(MessageType.values());
+    }
+
+    /**
+     * Singleton Pattern
+     *
+     * @return the only one instance of the ServerMetrics class
+     */
+    public static ServerMetrics getInstance() {
+        return instance;
+    }
+
+    private static OperationMetrics[] create(Enum<?>[] operations) {
+        OperationMetrics[] metrics = new OperationMetrics[operations.length];
+        for (Enum<?> operation : operations)
+            metrics[operation.ordinal()] = new OperationMetrics(operation.name());
+        return metrics;
+    }
+
+    /**
+     * @param type  type of the request
+     * @param nanos time spent handling it
+     */
+    public void recordRequest(MessageType type, long nanos) {
+        requests[type.ordinal()].recordTime(nanos);
+    }
+
+    /**
+     * @param command command run by a game controller
+     * @param nanos   time spent running it, including the wait for the game and the journal
+     * @param events  events it produced
+     */
+    public void recordCommand(GameCommand command, long nanos, List<Event> events) {
+        boolean error = false;
+        for (int i = 0; i < events.size(); i++)
+            error |= events.get(i).eventType() == MessageType.ERROR;
+        commands[command.ordinal()].recordTime(nanos, events.size(), error);
+    }
+
+    /**
+     * @param type  type of the event sent to a user
+     * @param bytes bytes of its frame, 0 for RMI users
+     */
+    public void recordEvent(MessageType type, int bytes) {
+        events[type.ordinal()].recordBytes(bytes);
+    }
+
+    /**
+     * @param type  type of the encoded event
+     * @param bytes bytes of its frame
+     * @param nanos time spent encoding it
+     */
+    public void recordEncoding(MessageType type, int bytes, long nanos) {
+        OperationMetrics metrics = encodings[type.ordinal()];
+        metrics.recordTime(nanos);
+        metrics.recordBytes(bytes);
+    }
+
+    public OperationMetrics getRequest(MessageType type) {
+        return requests[type.ordinal()];
+    }
+
+    public OperationMetrics getCommand(GameCommand command) {
+        return commands[command.ordinal()];
+    }
+
+    public OperationMetrics getEvent(MessageType type) {
+        return events[type.ordinal()];
+    }
+
+    @Override
+    public int getLobbies() {
+        return MatchController.getInstance().getLobbies().size();
+    }
+
+    @Override
+    public int getActiveGames() {
+        int games = 0;
+        for (Lobby lobby : MatchController.getInstance().getLobbies())
+            if (lobby.getState() == LobbyState.IN_GAME) games++;
+        return games;
+    }
+
+    @Override
+    public int getActiveUsers() {
+        return User.getActiveUsers().size();
+    }
+
+    @Override
+    public int getInactiveUsers() {
+        return User.getInactiveUserCount();
+    }
+
+    @Override
+    public int getActiveHourglasses() {
+        return HourglassScheduler.getInstance().getLiveTimers();
+    }
+
+    @Override
+    public long getOutboundQueuedBytes() {
+        long bytes = 0;
+        for (User user : User.getActiveUsers())
+            if (user instanceof ClientHandler connection) bytes += connection.getOutboundBytes();
+        return bytes;
+    }
+
+    @Override
+    public long getMaxOutboundQueuedBytes() {
+        long max = 0;
+        for (User user : User.getActiveUsers())
+            if (user instanceof ClientHandler connection) max = Math.max(max, connection.getOutboundBytes());
+        return max;
+    }
+
+    @Override
+    public int getMaxGameQueueDepth() {
+        int max = 0;
+        for (Lobby lobby : MatchController.getInstance().getLobbies()) {
+            GameController game = lobby.getGame();
+            if (game != null) max = Math.max(max, game.getActor().getQueueDepth());
+        }
+        return max;
+    }
+
+    @Override
+    public long getHeapUsedBytes() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * @return heap used after the last collection of each heap pool, i.e. without the garbage collected since,
+     * 0 before the first collection
+     */
+    @Override
+    public long getHeapLiveBytes() {
+        long bytes = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage usage = pool.getType() == MemoryType.HEAP ? pool.getCollectionUsage() : null;
+            if (usage != null) bytes += usage.getUsed();
+        }
+        return bytes;
+    }
+
+    /**
+     * @return events dropped by the coalescing because a later event of the same batch replaces them
+     */
+    @Override
+    public long getCoalescedEvents() {
+        return EventContext.getCoalescingStats().coalescedEvents();
+    }
+
+    /**
+     * @return bytes not sent thanks to the coalescing, estimated from the last frame of each event type
+     */
+    @Override
+    public long getCoalescingBytesSaved() {
+        return EventContext.getCoalescingStats().bytesSaved();
+    }
+
+    @Override
+    public long getCardCacheHits() {
+        return CardFactory.getSerializationStats().hits();
+    }
+
+    @Override
+    public long getCardCacheMisses() {
+        return CardFactory.getSerializationStats().misses();
+    }
+
+    @Override
+    public double getCardCacheHitRate() {
+        return CardFactory.getSerializationStats().hitRate();
+    }
+
+    /**
+     * @return time saved by the card serialization cache, estimated from the average time of a miss
+     */
+    @Override
+    public long getCardSerializationSavedMicros() {
+        return CardFactory.getSerializationStats().savedNanos() / 1000;
+    }
+
+    /**
+     * Registers the MBeans of the server and of every operation in the platform MBean server.
+     * Calling it again has no effect.
+     */
+    public synchronized void registerMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(DOMAIN + ":type=Server");
+            if (server.isRegistered(name)) return;
+            server.registerMBean(this, name);
+            register(server, "Requests", requests);
+            register(server, "Commands", commands);
+            register(server, "Events", events);
+            register(server, "Encodings", encodings);
+        } catch (JMException e) {
+            System.err.println("[METRICS] MBeans cannot be registered: " + e.getMessage());
+        }
+    }
+
+    private static void register(MBeanServer server, String type, OperationMetrics[] metrics) throws JMException {
+        for (OperationMetrics operation : metrics)
+            server.registerMBean(operation, new ObjectName(DOMAIN + ":type=" + type + ",name=" + operation.getName()));
+    }
+
+    /**
+     * Writes the metrics in a line-oriented text format, one value per line with its labels.
+     * The operations that have never been recorded are skipped.
+     *
+     * @return the metrics as text
+     */
+    public String toText() {
+        StringBuilder text = new StringBuilder();
+        gauge(text, "lobbies", getLobbies());
+        gauge(text, "active_games", getActiveGames());
+        gauge(text, "active_users", getActiveUsers());
+        gauge(text, "inactive_users", getInactiveUsers());
+        gauge(text, "active_hourglasses", getActiveHourglasses());
+        gauge(text, "max_game_queue_depth", getMaxGameQueueDepth());
+        gauge(text, "heap_used_bytes", getHeapUsedBytes());
+        gauge(text, "heap_live_bytes", getHeapLiveBytes());
+
+        EventContext.CoalescingStats coalescing = EventContext.getCoalescingStats();
+        gauge(text, "coalesced_events", coalescing.coalescedEvents());
+        gauge(text, "coalescing_bytes_saved", coalescing.bytesSaved());
+
+        CardFactory.SerializationStats cards = CardFactory.getSerializationStats();
+        gauge(text, "card_cache_hits", cards.hits());
+        gauge(text, "card_cache_misses", cards.misses());
+        text.append(String.format(Locale.ROOT, "card_cache_hit_rate %.3f%n", cards.hitRate()));
+        gauge(text, "card_serialization_saved_micros", cards.savedNanos() / 1000);
+
+        for (User user : User.getActiveUsers())
+            if (user instanceof ClientHandler connection)
+                text.append(String.format(Locale.ROOT, "outbound_queue_bytes{connection=\"%s\",user=\"%s\"} %d%n",
+                        connection.getConnectionCode(), connection.getUsername(), connection.getOutboundBytes()));
+
+        operations(text, "request", requests);
+        operations(text, "command", commands);
+        operations(text, "event", events);
+        operations(text, "encoding", encodings);
+        return text.toString();
+    }
+
+    private static void gauge(StringBuilder text, String name, long value) {
+        text.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void operations(StringBuilder text, String kind, OperationMetrics[] metrics) {
+        for (OperationMetrics operation : metrics) {
+            long count = operation.getCount();
+            if (count == 0) continue;
+
+            String labels = "{type=\"" + operation.getName() + "\"}";
+            text.append(kind).append("_count").append(labels).append(' ').append(count).append('\n');
+            if (operation.getErrors() > 0)
+                text.append(kind).append("_errors").append(labels).append(' ').append(operation.getErrors()).append('\n');
+            if (operation.getEvents() > 0)
+                text.append(kind).append("_events").append(labels).append(' ').append(operation.getEvents()).append('\n');
+            if (operation.getBytes() > 0)
+                text.append(kind).append("_bytes").append(labels).append(' ').append(operation.getBytes()).append('\n');
+            if (operation.getLatency().getCount() > 0)
+                text.append(String.format(Locale.ROOT, "%s_micros%s mean=%.1f p50=%d p99=%d max=%d%n", kind, labels,
+                        operation.getMeanMicros(), operation.getP50Micros(), operation.getP99Micros(), operation.getMaxMicros()));
+        }
+    }
+
+}
@@ -0,0 +1,40 @@
+package it.polimi.ingsw.network.metrics;
+
+/**
+ * JMX view of the state of the server, see {@link ServerMetrics}.
+ */
+public interface ServerMetricsMBean {
+
+    int getLobbies();
+
+    int getActiveGames();
+
+    int getActiveUsers();
+
+    int getInactiveUsers();
+
+    int getActiveHourglasses();
+
+    long getOutboundQueuedBytes();
+
+    long getMaxOutboundQueuedBytes();
+
+    int getMaxGameQueueDepth();
+
+    long getHeapUsedBytes();
+
+    long getHeapLiveBytes();
+
+    long getCoalescedEvents();
+
+    long getCoalescingBytesSaved();
+
+    long getCardCacheHits();
+
+    long getCardCacheMisses();
+
+    double getCardCacheHitRate();
+
+    long getCardSerializationSavedMicros();
+
+}
@@ -0,0 +1,67 @@
+package it.polimi.ingsw.network.metrics.jfr;
+
+import it.polimi.ingsw.model.ModelFacade;
+import it.polimi.ingsw.model.cards.Card;
+import jdk.jfr.*;
+
+/**
+ * Flight Recorder event of the start or the end of an adventure card.
+ */
+@Name("it.polimi.ingsw.Card")
+@Label("Card")
+@Category({"Galaxy Trucker", "Game"})
+@Description("Start or end of an adventure card")
+@StackTrace(false)
+public class CardJfrEvent extends Event {
+
+    @Label("Phase")
+    private String phase;
+
+    @Label("Card Type")
+    private String cardType;
+
+    @Label("Card")
+    private int cardId;
+
+    @Label("Level")
+    private int level;
+
+    @Label("Game")
+    private String gameId;
+
+    @Label("Username")
+    @Description("Player who has drawn the card, only when it starts")
+    private String username;
+
+    @Label("Player State")
+    @Description("State of the player who has drawn the card, once it has started")
+    private String playerState;
+
+    @Label("Finished")
+    @Description("True if the card has been resolved without waiting for the players")
+    private boolean finished;
+
+    /**
+     * Commits the event if it's enabled and above its threshold.
+     *
+     * @param phase    "start" or "end"
+     * @param card     the card
+     * @param model    model of the game
+     * @param username player who has drawn the card, null at its end
+     * @param finished true if the card has been resolved
+     */
+    public void complete(String phase, Card card, ModelFacade model, String username, boolean finished) {
+        if (!shouldCommit()) return;
+        this.phase = phase;
+        this.cardType = card.getClass().getSimpleName();
+        this.cardId = card.getId();
+        this.level = card.getLevel();
+        this.gameId = model.getGameID();
+        this.username = username;
+        if (username != null)
+            this.playerState = String.valueOf(model.getPlayerState(username));
+        this.finished = finished;
+        commit();
+    }
+
+}
@@ -0,0 +1,88 @@
+package it.polimi.ingsw.network.metrics.jfr;
+
+import it.polimi.ingsw.common.model.events.game.ErrorEvent;
+import it.polimi.ingsw.controller.journal.GameCommand;
+import it.polimi.ingsw.model.ModelFacade;
+import jdk.jfr.*;
+
+import java.util.List;
+
+/**
+ * Flight Recorder event of a command run by a game controller, from its call to the commit of its journal.
+ * The wait is the time spent before the command could modify the game, in the mailbox or for the locks of the game,
+ * the rest of the duration is spent in the model and in the journal.
+ */
+@Name("it.polimi.ingsw.Command")
+@Label("Game Command")
+@Category({"Galaxy Trucker", "Game"})
+@Description("Command run on the model of a game")
+@StackTrace(false)
+public class CommandJfrEvent extends Event {
+
+    @Label("Command")
+    private String command;
+
+    @Label("Game")
+    private String gameId;
+
+    @Label("Username")
+    private String username;
+
+    @Label("Player State")
+    @Description("State of the player when the command started")
+    private String playerState;
+
+    @Label("Wait")
+    @Description("Time spent waiting for the mailbox or the locks of the game")
+    @Timespan
+    private long wait;
+
+    @Label("Events")
+    private int events;
+
+    @Label("Error")
+    private boolean error;
+
+    /** Start of the command, to compute the wait */
+    private transient long startNanos;
+
+    /**
+     * Starts timing the command.
+     */
+    public void start() {
+        begin();
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * Marks the end of the wait, called when the command starts modifying the model.
+     *
+     * @param model    model of the game
+     * @param username player running the command, null for a command of the game
+     */
+    public void running(ModelFacade model, String username) {
+        if (!isEnabled()) return;
+        wait = System.nanoTime() - startNanos;
+        gameId = model.getGameID();
+        if (username != null)
+            playerState = String.valueOf(model.getPlayerState(username));
+    }
+
+    /**
+     * Commits the event if it's enabled and above its threshold.
+     *
+     * @param command  command that has run
+     * @param username player running the command
+     * @param events   events produced by the command
+     */
+    public void complete(GameCommand command, String username, List<?> events) {
+        if (!shouldCommit()) return;
+        this.command = command.name();
+        this.username = username;
+        this.events = events.size();
+        for (int i = 0; i < events.size(); i++)
+            error |= events.get(i) instanceof ErrorEvent;
+        commit();
+    }
+
+}
@@ -0,0 +1,76 @@
+package it.polimi.ingsw.network.metrics.jfr;
+
+import it.polimi.ingsw.model.game.Lobby;
+import jdk.jfr.*;
+
+/**
+ * Flight Recorder event of a batch of events sent to the players of a game.
+ * The duration includes the wait for the log of the game, reported separately, and the encoding of the events.
+ */
+@Name("it.polimi.ingsw.FanOut")
+@Label("Event Fan-out")
+@Category({"Galaxy Trucker", "Network"})
+@Description("Batch of events sent to the players")
+@StackTrace(false)
+public class FanOutJfrEvent extends Event {
+
+    @Label("Game")
+    private String gameId;
+
+    @Label("Username")
+    @Description("Player the events were notified by")
+    private String username;
+
+    @Label("Events")
+    private int events;
+
+    @Label("Sequence")
+    private long sequence;
+
+    @Label("Lock Wait")
+    @Description("Time spent waiting for the event log of the game")
+    @Timespan
+    private long lockWait;
+
+    /** Start of the fan-out, to compute the lock wait */
+    private transient long startNanos;
+
+    /**
+     * Starts timing the fan-out.
+     */
+    public void start() {
+        begin();
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * Marks the end of the wait, called once the lock of the log is held.
+     */
+    public void locked() {
+        if (isEnabled())
+            lockWait = System.nanoTime() - startNanos;
+    }
+
+    /**
+     * @param sequence sequence of the batch in the log of the game
+     */
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    /**
+     * Commits the event if it's enabled and above its threshold.
+     *
+     * @param lobby    lobby of the game, null if the player isn't in one
+     * @param username player the events were notified by
+     * @param events   number of events
+     */
+    public void complete(Lobby lobby, String username, int events) {
+        if (!shouldCommit()) return;
+        this.gameId = lobby != null ? lobby.getGameID() : null;
+        this.username = username;
+        this.events = events;
+        commit();
+    }
+
+}
@@ -0,0 +1,21 @@
+package it.polimi.ingsw.network.metrics.jfr;
+
+import it.polimi.ingsw.model.game.Lobby;
+import it.polimi.ingsw.network.User;
+
+/**
+ * Tags shared by the Flight Recorder events.
+ */
+final class JfrTags {
+
+    private JfrTags() {}
+
+    /**
+     * @return id of the game of a user, null if he isn't in a lobby
+     */
+    static String gameOf(User user) {
+        Lobby lobby = user.getLobby();
+        return lobby != null ? lobby.getGameID() : null;
+    }
+
+}
@@ -0,0 +1,40 @@
+package it.polimi.ingsw.network.metrics.jfr;
+
+import it.polimi.ingsw.model.ModelFacade;
+import jdk.jfr.*;
+
+/**
+ * Flight Recorder event of the change of the adventure card, at the end of the previous one.
+ */
+@Name("it.polimi.ingsw.PickCard")
+@Label("Pick Card")
+@Category({"Galaxy Trucker", "Game"})
+@Description("Move to the next adventure card, or to the end of the game")
+@StackTrace(false)
+public class PickCardJfrEvent extends Event {
+
+    @Label("Game")
+    private String gameId;
+
+    @Label("Card Position")
+    private int cardPosition;
+
+    @Label("Game Ended")
+    private boolean gameEnded;
+
+    /**
+     * Commits the event if it's enabled and above its threshold.
+     *
+     * @param model        model of the game
+     * @param cardPosition position of the new card in the pile
+     * @param gameEnded    true if there are no more cards or players
+     */
+    public void complete(ModelFacade model, int cardPosition, boolean gameEnded) {
+        if (!shouldCommit()) return;
+        this.gameId = model.getGameID();
+        this.cardPosition = cardPosition;
+        this.gameEnded = gameEnded;
+        commit();
+    }
+
+}
@@ -0,0 +1,45 @@
+package it.polimi.ingsw.network.metrics.jfr;
+
+import it.polimi.ingsw.network.User;
+import it.polimi.ingsw.network.messages.MessageType;
+import jdk.jfr.*;
+
+/**
+ * Flight Recorder event of a request received from a client, from the start to the end of its handler.
+ */
+@Name("it.polimi.ingsw.Request")
+@Label("Request")
+@Category({"Galaxy Trucker", "Network"})
+@Description("Request of a client, handled by the server")
+@StackTrace(false)
+public class RequestJfrEvent extends Event {
+
+    @Label("Message Type")
+    private String messageType;
+
+    @Label("Transport")
+    private String transport;
+
+    @Label("Game")
+    private String gameId;
+
+    @Label("Username")
+    private String username;
+
+    /**
+     * Commits the event if it's enabled and above its threshold, the tags are only read in that case.
+     *
+     * @param type      type of the request
+     * @param transport "socket" or "rmi"
+     * @param user      user sending the request
+     */
+    public void complete(MessageType type, String transport, User user) {
+        if (!shouldCommit()) return;
+        this.messageType = type.name();
+        this.transport = transport;
+        this.gameId = JfrTags.gameOf(user);
+        this.username = user.getUsername();
+        commit();
+    }
+
+}
@@ -0,0 +1,51 @@
+package it.polimi.ingsw.network.metrics.jfr;
+
+import it.polimi.ingsw.network.User;
+import jdk.jfr.*;
+
+/**
+ * Flight Recorder event of a write of the queued frames of a socket connection.
+ */
+@Name("it.polimi.ingsw.SocketWrite")
+@Label("Socket Write")
+@Category({"Galaxy Trucker", "Network"})
+@Description("Frames written to a socket client")
+@StackTrace(false)
+public class SocketWriteJfrEvent extends Event {
+
+    @Label("Connection")
+    private String connection;
+
+    @Label("Game")
+    private String gameId;
+
+    @Label("Username")
+    private String username;
+
+    @Label("Bytes Written")
+    @DataAmount
+    private long bytes;
+
+    @Label("Bytes Queued")
+    @Description("Bytes left in the outbound queue, waiting for the client")
+    @DataAmount
+    private long queued;
+
+    /**
+     * Commits the event if it's enabled, something has been written and it's above its threshold.
+     *
+     * @param user   the connection
+     * @param bytes  bytes written
+     * @param queued bytes left in the queue
+     */
+    public void complete(User user, long bytes, long queued) {
+        if (bytes == 0 || !shouldCommit()) return;
+        this.connection = user.getConnectionCode();
+        this.gameId = JfrTags.gameOf(user);
+        this.username = user.getUsername();
+        this.bytes = bytes;
+        this.queued = queued;
+        commit();
+    }
+
+}
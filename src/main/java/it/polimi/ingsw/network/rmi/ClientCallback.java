@@ -10,7 +10,6 @@ import it.polimi.ingsw.common.dto.ModelDTO;
 import it.polimi.ingsw.common.model.enums.AlienType;
 import it.polimi.ingsw.common.model.enums.PlayerState;
 import it.polimi.ingsw.common.model.enums.ColorType;
-import it.polimi.ingsw.common.model.events.game.ErrorEvent;
 import it.polimi.ingsw.network.Client;
 import it.polimi.ingsw.network.UserState;
 import it.polimi.ingsw.network.messages.MessageType;
@@ -51,17 +50,19 @@ public class ClientCallback extends UnicastRemoteObject implements ClientCallbac
     public void notifyGameEvent(MessageType eventType, Object... args) throws RemoteException {
 
         switch (eventType) {
-            case ERROR -> ClientEventBus.getInstance().publish(new ErrorEvent((String) args[0]));
+            case ERROR -> client.receiveError((String) args[0]);
             case BATCH_START -> ClientEventBus.getInstance().startBatch();
-            case BATCH_END -> ClientEventBus.getInstance().endBatch();
+            case BATCH_END -> {
+                ClientEventBus.getInstance().endBatch();
+                if (args.length > 0) client.setLastSequence((Long) args[0]);
+            }
 
             case USERNAME_OK_EVENT -> {
                 client.setState(UserState.LOBBY_SELECTION);
                 client.setUsername((String) args[0]);
             }
             case CREATED_LOBBY_EVENT -> {
-                client.setState(UserState.IN_LOBBY);
-                client.setLobby(new ClientLobby((String) args[0], (List<String>) args[1], (Boolean) args[2], (Integer) args[3]));
+                client.updateLobby((String) args[0], (List<String>) args[1], (Boolean) args[2], (Integer) args[3]);
             }
             case JOINED_LOBBY_EVENT -> client.getLobby().addPlayer((String) args[0]);
             case LEFT_LOBBY_EVENT -> {
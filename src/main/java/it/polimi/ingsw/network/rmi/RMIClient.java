@@ -29,19 +29,25 @@ import java.util.concurrent.TimeUnit;
  * <p>
  * The client manages its own session, handles server discovery or direct connection,
  * implements connection retry logic with exponential backoff, and maintains
- * connection health through periodic ping messages.
+ * connection health through periodic ping messages. When a ping fails the client
+ * registers a new session and resumes the one of the user.
  */
 public class RMIClient extends Client {
 
     /**
-     * Unique session identifier for this client instance
+     * Unique session identifier for this client instance, replaced when the client reconnects
      */
-    private final String sessionCode;
+    private volatile String sessionCode;
+
+    /**
+     * Server IP address, null if the server is found by discovery
+     */
+    private final String ip;
 
     /**
      * Reference to the remote server interface
      */
-    private RMIServerInterface server;
+    private volatile RMIServerInterface server;
 
     /**
      * Callback object for receiving messages from the server
@@ -62,6 +68,7 @@ public class RMIClient extends Client {
         System.setProperty("sun.rmi.transport.tcp.responseTimeout", String.valueOf(Constants.NETWORK_TIMEOUT));
         System.setProperty("sun.rmi.transport.tcp.handshakeTimeout", "10000");
 
+        this.ip = null;
         this.sessionCode = UUID.randomUUID().toString();
         connect();
 
@@ -79,6 +86,7 @@ public class RMIClient extends Client {
         System.setProperty("sun.rmi.transport.tcp.responseTimeout", String.valueOf(Constants.NETWORK_TIMEOUT));
         System.setProperty("sun.rmi.transport.tcp.handshakeTimeout", "10000");
 
+        this.ip = ip;
         this.sessionCode = UUID.randomUUID().toString();
         connect(ip);
 
@@ -159,15 +167,40 @@ public class RMIClient extends Client {
      * Sends a ping message to the server to maintain connection health.
      * This method is called periodically by the scheduler to verify
      * that the connection is still active. If the ping fails, the
-     * server will eventually close the session.
+     * client reconnects.
      */
     private void sendPing() {
         try {
             server.ping(sessionCode);
         } catch (RemoteException e) {
-            // Error while sending ping, do nothing
-            // Server-side session will be eventually closed
+            reconnect();
+        }
+    }
+
+    /**
+     * Looks up the server again and registers a new session, then resumes the session of the user
+     * keeping the lobby, the game and the sequence of the last batch received.
+     * The previous session is unregistered if the server still has it, so the username is free again.
+     */
+    private void reconnect() {
+        System.out.println("[RMI CLIENT] Connection lost, reconnecting...");
+        String oldSessionCode = sessionCode;
+        try {
+            UnicastRemoteObject.unexportObject(clientCallback, true);
+        } catch (RemoteException e) {
+            // Already unexported
+        }
+
+        sessionCode = UUID.randomUUID().toString();
+        if (ip == null) connect();
+        else connect(ip);
+
+        try {
+            server.unregisterClient(oldSessionCode);
+        } catch (RemoteException | RuntimeException e) {
+            // The server has already dropped the previous session
         }
+        resumeAfterReconnect();
     }
 
     /**
@@ -204,6 +237,7 @@ public class RMIClient extends Client {
         try {
             switch (messageType) {
                 case SET_USERNAME -> server.setUsernameHandler(sessionCode, (String) args[0]);
+                case RESUME_SESSION -> server.resumeSessionHandler(sessionCode, (String) args[0], (Long) args[1]);
                 case CREATE_LOBBY ->
                         server.createLobbyHandler(sessionCode, (String) args[0], (Integer) args[1], (Boolean) args[2]);
                 case JOIN_LOBBY -> server.joinLobbyHandler(sessionCode, (String) args[0]);
@@ -3,9 +3,14 @@ package it.polimi.ingsw.network.rmi;
 import it.polimi.ingsw.Constants;
 import it.polimi.ingsw.common.model.enums.AlienType;
 import it.polimi.ingsw.common.model.enums.ColorType;
+import it.polimi.ingsw.common.model.events.game.ErrorEvent;
+import it.polimi.ingsw.network.RequestDispatcher;
 import it.polimi.ingsw.network.ServerBasis;
 import it.polimi.ingsw.network.exceptions.ServerException;
 import it.polimi.ingsw.network.exceptions.UserNotFoundException;
+import it.polimi.ingsw.network.messages.MessageType;
+import it.polimi.ingsw.network.metrics.ServerMetrics;
+import it.polimi.ingsw.network.metrics.jfr.RequestJfrEvent;
 import it.polimi.ingsw.network.User;
 
 import java.rmi.NotBoundException;
@@ -114,6 +119,42 @@ public class RMIServer extends ServerBasis implements RMIServerInterface {
         return user;
     }
 
+    /**
+     * Runs a request of a user.
+     * With virtual threads the request is handed to the {@link RequestDispatcher}, so the RMI connection thread
+     * is released immediately and the errors are sent back as events; otherwise it runs on the RMI thread.
+     *
+     * @param user    user sending the request
+     * @param type    type of the request, for the {@link ServerMetrics}
+     * @param request request to run
+     */
+    private void dispatch(User user, MessageType type, Runnable request) {
+        if (RequestDispatcher.getInstance().getMode() == RequestDispatcher.Mode.PLATFORM) {
+            measured(user, type, request);
+            return;
+        }
+
+        user.getRequests().execute(() -> {
+            try {
+                measured(user, type, request);
+            } catch (RuntimeException e) {
+                user.sendEvent(new ErrorEvent(e.getMessage()));
+            }
+        });
+    }
+
+    private static void measured(User user, MessageType type, Runnable request) {
+        long start = System.nanoTime();
+        RequestJfrEvent recording = new RequestJfrEvent();
+        recording.begin();
+        try {
+            request.run();
+        } finally {
+            ServerMetrics.getInstance().recordRequest(type, System.nanoTime() - start);
+            recording.complete(type, "rmi", user);
+        }
+    }
+
     /**
      * Periodically checks all active clients and removes those that have timed out.
      * This method is called by the scheduled executor service to maintain
@@ -166,169 +207,175 @@ public class RMIServer extends ServerBasis implements RMIServerInterface {
     @Override
     public void setUsernameHandler(String sessionCode, String username) throws RemoteException {
         User user = getUserInRmiSessions(sessionCode);
-        setUsername(user, username);
+        dispatch(user, MessageType.SET_USERNAME, () -> setUsername(user, username));
+    }
+
+    @Override
+    public void resumeSessionHandler(String sessionCode, String username, Long lastSequence) throws RemoteException {
+        User user = getUserInRmiSessions(sessionCode);
+        dispatch(user, MessageType.RESUME_SESSION, () -> resumeSession(user, username, lastSequence));
     }
 
     @Override
     public void createLobbyHandler(String sessionCode, String name, Integer maxPlayers, Boolean learnerMode) throws RemoteException {
         User user = getUserInRmiSessions(sessionCode);
-        createLobby(user, name, maxPlayers, learnerMode);
+        dispatch(user, MessageType.CREATE_LOBBY, () -> createLobby(user, name, maxPlayers, learnerMode));
     }
 
     @Override
     public void joinLobbyHandler(String sessionCode, String lobbyName) throws RemoteException {
         User user = getUserInRmiSessions(sessionCode);
-        joinLobby(user, lobbyName);
+        dispatch(user, MessageType.JOIN_LOBBY, () -> joinLobby(user, lobbyName));
     }
 
     @Override
     public void joinRandomLobbyHandler(String sessionCode, Boolean learnerMode) throws RemoteException {
         User user = getUserInRmiSessions(sessionCode);
-        joinRandomLobby(user, learnerMode);
+        dispatch(user, MessageType.JOIN_RANDOM_LOBBY, () -> joinRandomLobby(user, learnerMode));
     }
 
     @Override
     public void leaveGameHandler(String sessionCode) throws RemoteException {
         User user = getUserInRmiSessions(sessionCode);
-        leaveGame(user);
+        dispatch(user, MessageType.LEAVE_GAME, () -> leaveGame(user));
     }
 
     @Override
     public void pickComponentHandler(String sessionCode, Integer id) throws RemoteException {
         User user = getUserInRmiSessions(sessionCode);
-        pickComponent(user, id);
+        dispatch(user, MessageType.PICK_COMPONENT, () -> pickComponent(user, id));
     }
 
     @Override
     public void releaseComponentHandler(String sessionCode, Integer id) throws RemoteException {
         User user = getUserInRmiSessions(sessionCode);
-        releaseComponent(user, id);
+        dispatch(user, MessageType.RELEASE_COMPONENT, () -> releaseComponent(user, id));
     }
 
     @Override
     public void reserveComponentHandler(String sessionCode, Integer id) throws RemoteException {
         User user = getUserInRmiSessions(sessionCode);
-        reserveComponent(user, id);
+        dispatch(user, MessageType.RESERVE_COMPONENT, () -> reserveComponent(user, id));
     }
 
     @Override
     public void insertComponentHandler(String sessionCode, Integer id, Integer row, Integer col, Integer rotations) throws RemoteException {
         User user = getUserInRmiSessions(sessionCode);
-        insertComponent(user, id, row, col, rotations);
+        dispatch(user, MessageType.INSERT_COMPONENT, () -> insertComponent(user, id, row, col, rotations));
     }
 
     @Override
     public void moveComponentHandler(String sessionCode, Integer id, Integer row, Integer col, Integer rotations) throws RemoteException {
         User user = getUserInRmiSessions(sessionCode);
-        moveComponent(user, id, row, col, rotations);
+        dispatch(user, MessageType.MOVE_COMPONENT, () -> moveComponent(user, id, row, col, rotations));
     }
 
     @Override
     public void rotateComponentHandler(String sessionCode, Integer id, Integer num) throws RemoteException {
         User user = getUserInRmiSessions(sessionCode);
-        rotateComponent(user, id, num);
+        dispatch(user, MessageType.ROTATE_COMPONENT, () -> rotateComponent(user, id, num));
     }
 
     @Override
     public void lookCardPileHandler(String sessionCode, Integer pileIndex) throws RemoteException {
         User user = getUserInRmiSessions(sessionCode);
-        lookCardPile(user, pileIndex);
+        dispatch(user, MessageType.LOOK_CARD_PILE, () -> lookCardPile(user, pileIndex));
     }
 
     @Override
     public void releaseCardPileHandler(String sessionCode) throws RemoteException {
         User user = getUserInRmiSessions(sessionCode);
-        releaseCardPile(user);
+        dispatch(user, MessageType.RELEASE_CARD_PILE, () -> releaseCardPile(user));
     }
 
     @Override
     public void moveHourglassHandler(String sessionCode) throws RemoteException {
         User user = getUserInRmiSessions(sessionCode);
-        moveHourglass(user);
+        dispatch(user, MessageType.MOVE_HOURGLASS, () -> moveHourglass(user));
     }
 
     @Override
     public void setReadyHandler(String sessionCode) throws RemoteException {
         User user = getUserInRmiSessions(sessionCode);
-        setReady(user);
+        dispatch(user, MessageType.SET_READY, () -> setReady(user));
     }
 
     @Override
     public void checkShipHandler(String sessionCode, List<Integer> toRemove) throws RemoteException {
         User user = getUserInRmiSessions(sessionCode);
-        checkShip(user, toRemove);
+        dispatch(user, MessageType.CHECK_SHIP, () -> checkShip(user, toRemove));
     }
 
     @Override
     public void chooseAlienHandler(String sessionCode, Map<Integer, AlienType> aliensIds) throws RemoteException {
         User user = getUserInRmiSessions(sessionCode);
-        chooseAlien(user, aliensIds);
+        dispatch(user, MessageType.CHOOSE_ALIEN, () -> chooseAlien(user, aliensIds));
     }
 
     @Override
     public void chooseShipPartHandler(String sessionCode, Integer partIndex) throws RemoteException {
         User user = getUserInRmiSessions(sessionCode);
-        chooseShipPart(user, partIndex);
+        dispatch(user, MessageType.CHOOSE_SHIP_PART, () -> chooseShipPart(user, partIndex));
     }
 
     @Override
     public void drawCardHandler(String sessionCode) throws RemoteException {
         User user = getUserInRmiSessions(sessionCode);
-        drawCard(user);
+        dispatch(user, MessageType.DRAW_CARD, () -> drawCard(user));
     }
 
     @Override
     public void activateCannonsHandler(String sessionCode, List<Integer> batteriesIds, List<Integer> cannonComponentsIds) throws RemoteException {
         User user = getUserInRmiSessions(sessionCode);
-        activateCannons(user, batteriesIds, cannonComponentsIds);
+        dispatch(user, MessageType.ACTIVATE_CANNONS, () -> activateCannons(user, batteriesIds, cannonComponentsIds));
     }
 
     @Override
     public void activateEnginesHandler(String sessionCode, List<Integer> batteriesIds, List<Integer> engineComponentsIds) throws RemoteException {
         User user = getUserInRmiSessions(sessionCode);
-        activateEngines(user, batteriesIds, engineComponentsIds);
+        dispatch(user, MessageType.ACTIVATE_ENGINES, () -> activateEngines(user, batteriesIds, engineComponentsIds));
     }
 
     @Override
     public void activateShieldHandler(String sessionCode, Integer batteryId) throws RemoteException {
         User user = getUserInRmiSessions(sessionCode);
-        activateShield(user, batteryId);
+        dispatch(user, MessageType.ACTIVATE_SHIELD, () -> activateShield(user, batteryId));
     }
 
     @Override
     public void updateGoodsHandler(String sessionCode, Map<Integer, List<ColorType>> cargoHoldsIds, List<Integer> batteriesIds) throws RemoteException {
         User user = getUserInRmiSessions(sessionCode);
-        updateGoods(user, cargoHoldsIds, batteriesIds);
+        dispatch(user, MessageType.UPDATE_GOODS, () -> updateGoods(user, cargoHoldsIds, batteriesIds));
     }
 
     @Override
     public void removeCrewHandler(String sessionCode, List<Integer> cabinsIds) throws RemoteException {
         User user = getUserInRmiSessions(sessionCode);
-        removeCrew(user, cabinsIds);
+        dispatch(user, MessageType.REMOVE_CREW, () -> removeCrew(user, cabinsIds));
     }
 
     @Override
     public void rollDicesHandler(String sessionCode) throws RemoteException {
         User user = getUserInRmiSessions(sessionCode);
-        rollDices(user);
+        dispatch(user, MessageType.ROLL_DICES, () -> rollDices(user));
     }
 
     @Override
     public void getBooleanHandler(String sessionCode, Boolean value) throws RemoteException {
         User user = getUserInRmiSessions(sessionCode);
-        getBoolean(user, value);
+        dispatch(user, MessageType.GET_BOOLEAN, () -> getBoolean(user, value));
     }
 
     @Override
     public void getIndexHandler(String sessionCode, Integer value) throws RemoteException {
         User user = getUserInRmiSessions(sessionCode);
-        getIndex(user, value);
+        dispatch(user, MessageType.GET_INDEX, () -> getIndex(user, value));
     }
 
     @Override
     public void endFlightHandler(String sessionCode) throws RemoteException {
         User user = getUserInRmiSessions(sessionCode);
-        endFlight(user);
+        dispatch(user, MessageType.END_FLIGHT, () -> endFlight(user));
     }
 
 }
\ No newline at end of file
@@ -50,6 +50,16 @@ public interface RMIServerInterface extends Remote {
      */
     void setUsernameHandler(String sessionCode, String username) throws RemoteException;
 
+    /**
+     * Sets the username for the specified session, reconnecting with the state of a previous session.
+     *
+     * @param sessionCode  the session code
+     * @param username     the username to associate with the session
+     * @param lastSequence sequence of the last batch of game events received by the client
+     * @throws RemoteException if an RMI communication error occurs
+     */
+    void resumeSessionHandler(String sessionCode, String username, Long lastSequence) throws RemoteException;
+
     /**
      * Creates a new game lobby.
      *
@@ -8,11 +8,11 @@ import it.polimi.ingsw.network.exceptions.ClientException;
 import it.polimi.ingsw.network.messages.Message;
 import it.polimi.ingsw.network.messages.MessageType;
 import it.polimi.ingsw.network.socket.Heartbeat;
+import it.polimi.ingsw.network.socket.codec.MessageStream;
+import it.polimi.ingsw.network.socket.codec.WireFormat;
 import it.polimi.ingsw.view.UserInterface;
 
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.net.Socket;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -21,28 +21,39 @@ import java.util.concurrent.TimeUnit;
 /**
  * Client-side socket connection.
  * Manages bidirectional communication with socket clients and message processing.
+ * A lost connection is reopened and the session of the user resumed.
  */
 public class ClientSocket extends Client {
 
     /**
      * TCP socket connection to the client
      */
-    private Socket socket;
+    private volatile Socket socket;
 
     /**
-     * Output stream for sending serialized objects to the server
+     * Stream for exchanging objects with the server, in the format negotiated at connect time
      */
-    private ObjectOutputStream output;
+    private volatile MessageStream stream;
 
     /**
-     * Output lock for sending objects from multiple threads
+     * Server IP address, null if the server is found by discovery
      */
-    private final Object outputLock = new Object();
+    private final String ip;
+
+    /**
+     * True once the connection has been closed by the client, so a broken connection isn't reopened
+     */
+    private volatile boolean closed;
+
+    /**
+     * Lock held while a broken connection is reopened
+     */
+    private final Object reconnectLock = new Object();
 
     /**
-     * Input stream for receiving serialized objects from the server
+     * Output lock for sending objects from multiple threads
      */
-    private ObjectInputStream input;
+    private final Object outputLock = new Object();
 
     /**
      * Input lock for sending objects from multiple threads
@@ -62,6 +73,7 @@ public class ClientSocket extends Client {
      */
     public ClientSocket(UserInterface ui) {
         super(ui);
+        this.ip = null;
         this.connect();
 
         listenLoop = new ListenLoopOfClient(this);
@@ -78,6 +90,7 @@ public class ClientSocket extends Client {
      */
     public ClientSocket(UserInterface ui, String ip) {
         super(ui);
+        this.ip = ip;
         this.connect(ip);
 
         listenLoop = new ListenLoopOfClient(this);
@@ -97,11 +110,10 @@ public class ClientSocket extends Client {
                 if (serverInfo == null) throw new ClientException();
 
                 this.socket = new Socket(serverInfo.ipAddress, serverInfo.socketPort);
-                this.output = new ObjectOutputStream(socket.getOutputStream());
-                this.input = new ObjectInputStream(socket.getInputStream());
-                this.socket.setSoTimeout(Constants.NETWORK_TIMEOUT);
+                this.socket.setSoTimeout(Constants.NETWORK_TIMEOUT); // Also bounds the handshake
                 this.socket.setKeepAlive(true);
                 this.socket.setTcpNoDelay(true);
+                this.stream = MessageStream.connect(socket, WireFormat.fromProperty());
                 break;
 
             } catch (ClientException | IOException e) {
@@ -121,11 +133,10 @@ public class ClientSocket extends Client {
 
             try {
                 this.socket = new Socket(ip, Constants.DEFAULT_SOCKET_PORT);
-                this.output = new ObjectOutputStream(socket.getOutputStream());
-                this.input = new ObjectInputStream(socket.getInputStream());
-                this.socket.setSoTimeout(Constants.NETWORK_TIMEOUT);
+                this.socket.setSoTimeout(Constants.NETWORK_TIMEOUT); // Also bounds the handshake
                 this.socket.setKeepAlive(true);
                 this.socket.setTcpNoDelay(true);
+                this.stream = MessageStream.connect(socket, WireFormat.fromProperty());
                 break;
 
             } catch (IOException e) {
@@ -175,6 +186,7 @@ public class ClientSocket extends Client {
     @SuppressWarnings("Duplicates")
     @Override
     public void closeConnection() {
+        closed = true;
         scheduler.shutdownNow();
         if (this.socket == null) return; // Already closed
 
@@ -188,28 +200,46 @@ public class ClientSocket extends Client {
             this.listenLoop = null;
         }
 
-        try {
-            this.input.close();
-        } catch (IOException _) {
-        } finally {
-            this.input = null;
-        }
+        closeSocket();
+        System.out.println("[CLIENT SOCKET] Closing connection...");
+    }
 
+    /**
+     * Closes the stream and the socket of the current connection.
+     */
+    private void closeSocket() {
         try {
-            this.output.close();
+            if (this.stream != null) this.stream.close();
         } catch (IOException _) {
         } finally {
-            this.output = null;
+            this.stream = null;
         }
 
         try {
-            this.socket.close();
+            if (this.socket != null) this.socket.close();
         } catch (IOException _) {
         } finally {
             this.socket = null;
         }
+    }
 
-        System.out.println("[CLIENT SOCKET] Closing connection...");
+    /**
+     * Reopens a broken connection and resumes the session of the user, keeping the lobby, the game
+     * and the sequence of the last batch received.
+     * The listen loop goes on reading from the new connection.
+     *
+     * @param broken stream of the broken connection, nothing is done if it has already been replaced
+     */
+    private void reconnect(MessageStream broken) {
+        synchronized (reconnectLock) {
+            if (closed || this.stream != broken) return; // Closed by the client, or already reopened by another thread
+
+            System.out.println("[CLIENT SOCKET] Connection lost, reconnecting...");
+            closeSocket();
+            if (ip == null) this.connect();
+            else this.connect(ip);
+        }
+        resumeAfterReconnect();
     }
 
     /**
@@ -220,12 +250,14 @@ public class ClientSocket extends Client {
      */
     public Object readObject() throws ClientException {
         synchronized (this.inputLock) {
+            MessageStream stream = this.stream;
+            if (stream == null) throw new ClientException("Connection closed");
             try {
-                return this.input.readObject();
+                return stream.readObject();
             } catch (IOException | ClassNotFoundException e) {
                 System.out.println("[CLIENT SOCKET - readObject] " + System.currentTimeMillis());
                 e.printStackTrace();
-                this.closeConnection();
+                this.reconnect(stream);
                 throw new ClientException(e.getMessage());
             }
         }
@@ -239,14 +271,14 @@ public class ClientSocket extends Client {
      */
     public void sendObject(Object data) throws ClientException {
         synchronized (this.outputLock) {
+            MessageStream stream = this.stream;
+            if (stream == null) throw new ClientException("Connection closed");
             try {
-                // this.output.reset(); // Use reset otherwise it sends a previous instance of the objects
-                this.output.writeObject(data);
-                this.output.flush();
+                stream.writeObject(data);
             } catch (IOException e) {
                 System.out.println("[CLIENT SOCKET - sendObject] " + System.currentTimeMillis());
                 e.printStackTrace();
-                this.closeConnection();
+                this.reconnect(stream);
                 throw new ClientException(e.getMessage());
             }
         }
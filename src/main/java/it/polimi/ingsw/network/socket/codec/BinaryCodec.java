@@ -0,0 +1,261 @@
+package it.polimi.ingsw.network.socket.codec;
+
+import it.polimi.ingsw.Constants;
+import it.polimi.ingsw.common.model.enums.AlienType;
+import it.polimi.ingsw.common.model.enums.ColorType;
+import it.polimi.ingsw.common.model.enums.PlayerState;
+import it.polimi.ingsw.network.messages.Message;
+import it.polimi.ingsw.network.messages.MessageType;
+import it.polimi.ingsw.network.socket.Heartbeat;
+import it.polimi.ingsw.network.socket.Sense;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.AbstractMap.SimpleEntry;
+
+/**
+ * Compact binary encoding of the objects exchanged over a socket, used for the body of {@link WireFormat#BINARY} frames:
+ * <ul>
+ *     <li>a kind byte (message, heartbeat or sense)</li>
+ *     <li>for messages, the {@link MessageType} ordinal, the number of arguments and the tagged arguments</li>
+ * </ul>
+ * Arguments are encoded with a one-byte tag: ints use zig-zag varints, longs (event sequences) are 8 bytes,
+ * strings (usernames, card and DTO payloads) are UTF-8 bytes with a varint length, enums are encoded by ordinal.
+ * Lists, maps and entries are encoded recursively.
+ * Any other serializable value falls back to Java serialization.
+ */
+public final class BinaryCodec {
+
+    private static final byte KIND_MESSAGE = 0;
+    private static final byte KIND_HEARTBEAT = 1;
+    private static final byte KIND_SENSE = 2;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_INT = 1;
+    private static final byte TAG_TRUE = 2;
+    private static final byte TAG_FALSE = 3;
+    private static final byte TAG_STRING = 4;
+    private static final byte TAG_LIST = 5;
+    private static final byte TAG_MAP = 6;
+    private static final byte TAG_ENTRY = 7;
+    private static final byte TAG_PLAYER_STATE = 8;
+    private static final byte TAG_ALIEN_TYPE = 9;
+    private static final byte TAG_COLOR_TYPE = 10;
+    private static final byte TAG_SERIALIZED = 11;
+    private static final byte TAG_LONG = 12;
+
+    private static final MessageType[] MESSAGE_TYPES = MessageType.values();
+    private static final PlayerState[] PLAYER_STATES = PlayerState.values();
+    private static final AlienType[] ALIEN_TYPES = AlienType.values();
+    private static final ColorType[] COLOR_TYPES = ColorType.values();
+
+    private BinaryCodec() {}
+
+    /**
+     * @param data a {@link Message}, {@link Heartbeat} or {@link Sense}
+     * @return the body of the frame
+     * @throws IOException if an argument cannot be encoded
+     */
+    public static byte[] encode(Object data) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(buffer);
+
+        switch (data) {
+            case Heartbeat _ -> out.writeByte(KIND_HEARTBEAT);
+            case Sense _ -> out.writeByte(KIND_SENSE);
+            case Message message -> {
+                Object[] args = message.getArgs();
+                out.writeByte(KIND_MESSAGE);
+                writeVarInt(out, message.getMessageType().ordinal());
+                out.writeByte(args.length);
+                for (Object arg : args)
+                    writeValue(out, arg);
+            }
+            default -> throw new NotSerializableException(data.getClass().getName());
+        }
+
+        out.flush();
+        return buffer.toByteArray();
+    }
+
+    /**
+     * @param body the body of a frame
+     * @return decoded object
+     * @throws IOException if the frame is malformed
+     */
+    public static Object decode(byte[] body) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+
+        byte kind = in.readByte();
+        return switch (kind) {
+            case KIND_HEARTBEAT -> new Heartbeat();
+            case KIND_SENSE -> new Sense();
+            case KIND_MESSAGE -> {
+                MessageType type = ordinal(MESSAGE_TYPES, readVarInt(in));
+                Object[] args = new Object[in.readUnsignedByte()];
+                for (int i = 0; i < args.length; i++)
+                    args[i] = readValue(in);
+                yield Constants.createMessage(type, args);
+            }
+            default -> throw new StreamCorruptedException("Unknown frame kind: " + kind);
+        };
+    }
+
+    /**
+     * Writes a tagged value, e.g. an argument of a message.
+     *
+     * @param out   stream to write to
+     * @param value the value, encoded with Java serialization if it has no tag
+     * @throws IOException if the value can't be written
+     */
+    public static void writeValue(DataOutputStream out, Object value) throws IOException {
+        switch (value) {
+            case null -> out.writeByte(TAG_NULL);
+            case Integer i -> {
+                out.writeByte(TAG_INT);
+                writeVarInt(out, (i << 1) ^ (i >> 31));
+            }
+            case Long l -> {
+                out.writeByte(TAG_LONG);
+                out.writeLong(l);
+            }
+            case Boolean b -> out.writeByte(b ? TAG_TRUE : TAG_FALSE);
+            case String s -> {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                out.writeByte(TAG_STRING);
+                writeVarInt(out, bytes.length);
+                out.write(bytes);
+            }
+            case PlayerState state -> {
+                out.writeByte(TAG_PLAYER_STATE);
+                writeVarInt(out, state.ordinal());
+            }
+            case AlienType type -> {
+                out.writeByte(TAG_ALIEN_TYPE);
+                writeVarInt(out, type.ordinal());
+            }
+            case ColorType type -> {
+                out.writeByte(TAG_COLOR_TYPE);
+                writeVarInt(out, type.ordinal());
+            }
+            case List<?> list -> {
+                out.writeByte(TAG_LIST);
+                writeVarInt(out, list.size());
+                for (Object element : list)
+                    writeValue(out, element);
+            }
+            case Map<?, ?> map -> {
+                out.writeByte(TAG_MAP);
+                writeVarInt(out, map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    writeValue(out, entry.getKey());
+                    writeValue(out, entry.getValue());
+                }
+            }
+            case SimpleEntry<?, ?> entry -> {
+                out.writeByte(TAG_ENTRY);
+                writeValue(out, entry.getKey());
+                writeValue(out, entry.getValue());
+            }
+            default -> {
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                try (ObjectOutputStream serialized = new ObjectOutputStream(buffer)) {
+                    serialized.writeObject(value);
+                }
+                out.writeByte(TAG_SERIALIZED);
+                writeVarInt(out, buffer.size());
+                buffer.writeTo(out);
+            }
+        }
+    }
+
+    /**
+     * Reads a value written by {@link #writeValue(DataOutputStream, Object)}.
+     *
+     * @param in stream to read from
+     * @return the value
+     * @throws IOException if the stream is malformed
+     */
+    public static Object readValue(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        return switch (tag) {
+            case TAG_NULL -> null;
+            case TAG_INT -> {
+                int zigZag = readVarInt(in);
+                yield (zigZag >>> 1) ^ -(zigZag & 1);
+            }
+            case TAG_LONG -> in.readLong();
+            case TAG_TRUE -> true;
+            case TAG_FALSE -> false;
+            case TAG_STRING -> new String(readBytes(in), StandardCharsets.UTF_8);
+            case TAG_PLAYER_STATE -> ordinal(PLAYER_STATES, readVarInt(in));
+            case TAG_ALIEN_TYPE -> ordinal(ALIEN_TYPES, readVarInt(in));
+            case TAG_COLOR_TYPE -> ordinal(COLOR_TYPES, readVarInt(in));
+            case TAG_LIST -> {
+                int size = readLength(in);
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++)
+                    list.add(readValue(in));
+                yield list;
+            }
+            case TAG_MAP -> {
+                int size = readLength(in);
+                Map<Object, Object> map = new HashMap<>();
+                for (int i = 0; i < size; i++)
+                    map.put(readValue(in), readValue(in));
+                yield map;
+            }
+            case TAG_ENTRY -> new SimpleEntry<>(readValue(in), readValue(in));
+            case TAG_SERIALIZED -> {
+                try (ObjectInputStream serialized = new ObjectInputStream(new ByteArrayInputStream(readBytes(in)))) {
+                    yield serialized.readObject();
+                } catch (ClassNotFoundException e) {
+                    throw new InvalidClassException(e.getMessage());
+                }
+            }
+            default -> throw new StreamCorruptedException("Unknown value tag: " + tag);
+        };
+    }
+
+    private static <T> T ordinal(T[] values, int ordinal) throws StreamCorruptedException {
+        if (ordinal < 0 || ordinal >= values.length) throw new StreamCorruptedException("Invalid ordinal: " + ordinal);
+        return values[ordinal];
+    }
+
+    private static int readLength(DataInputStream in) throws IOException {
+        int length = readVarInt(in);
+        if (length < 0 || length > WireFormat.MAX_FRAME_SIZE) throw new StreamCorruptedException("Invalid length: " + length);
+        return length;
+    }
+
+    /**
+     * @return bytes prefixed by their length
+     * @throws EOFException if the stream ends before them, so a truncated frame is never decoded
+     */
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[readLength(in)];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new StreamCorruptedException("Malformed varint");
+    }
+
+}
@@ -0,0 +1,89 @@
+package it.polimi.ingsw.network.socket.codec;
+
+import java.io.*;
+import java.net.Socket;
+
+/**
+ * Blocking stream of frames over a socket, used by the client.
+ * Messages, {@link it.polimi.ingsw.network.socket.Heartbeat} and {@link it.polimi.ingsw.network.socket.Sense} objects can be sent.
+ */
+public class MessageStream implements Closeable {
+
+    private final WireFormat format;
+    private final DataOutputStream output;
+    private final DataInputStream input;
+
+    private MessageStream(WireFormat format, DataOutputStream output, DataInputStream input) {
+        this.format = format;
+        this.output = output;
+        this.input = input;
+    }
+
+    /**
+     * Opens a connection, negotiating the format with the server.
+     *
+     * @param socket    connected socket
+     * @param requested format the client would like to use
+     * @return stream using the negotiated format
+     * @throws IOException if the handshake fails
+     */
+    public static MessageStream connect(Socket socket, WireFormat requested) throws IOException {
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+
+        output.write(WireFormat.HELLO);
+        output.writeByte(WireFormat.VERSION);
+        output.writeByte(requested.ordinal());
+        output.flush();
+
+        int answer = input.readUnsignedByte();
+        if (answer >= WireFormat.values().length) throw new StreamCorruptedException("Unknown format: " + answer);
+        return new MessageStream(WireFormat.values()[answer], output, input);
+    }
+
+    /**
+     * Sends an object and flushes the stream.
+     *
+     * @param data object to send
+     * @throws IOException if sending fails
+     */
+    public void writeObject(Object data) throws IOException {
+        byte[] body = format.encode(data);
+        output.writeInt(body.length);
+        output.write(body);
+        output.flush();
+    }
+
+    /**
+     * Blocks until an object is received.
+     *
+     * @return received object
+     * @throws IOException            if reading fails
+     * @throws ClassNotFoundException if the class of the object is unknown
+     */
+    public Object readObject() throws IOException, ClassNotFoundException {
+        int length = input.readInt();
+        if (length < 0 || length > WireFormat.MAX_FRAME_SIZE) throw new StreamCorruptedException("Invalid frame length: " + length);
+
+        byte[] body = new byte[length];
+        input.readFully(body);
+        return format.decode(body);
+    }
+
+    /**
+     * @return format used by this stream
+     */
+    public WireFormat getFormat() {
+        return format;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            input.close();
+        } finally {
+            output.close();
+        }
+    }
+
+}
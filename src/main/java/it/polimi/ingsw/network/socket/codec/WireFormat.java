@@ -0,0 +1,129 @@
+package it.polimi.ingsw.network.socket.codec;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+
+/**
+ * Formats a socket connection can use to encode its frames.
+ * Every frame is made of its length (4 bytes) followed by its body, encoded by the format.
+ * The format is negotiated when the connection is opened: the client sends {@link #HELLO}, the version
+ * and the format it would like to use, then the server answers with the ordinal of the chosen format.
+ * Both sides read the preferred format from the {@value #PROPERTY} system property.
+ */
+public enum WireFormat {
+
+    /**
+     * Java serialization, one self-contained stream for each frame
+     */
+    JAVA {
+        @Override
+        public byte[] encode(Object data) throws IOException {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+            try (ObjectOutputStream stream = new ObjectOutputStream(buffer)) {
+                stream.writeObject(data);
+            }
+            return buffer.toByteArray();
+        }
+
+        @Override
+        public Object decode(byte[] body) throws IOException, ClassNotFoundException {
+            try (ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(body))) {
+                return stream.readObject();
+            }
+        }
+    },
+
+    /**
+     * Compact encoding of {@link BinaryCodec}
+     */
+    BINARY {
+        @Override
+        public byte[] encode(Object data) throws IOException {
+            return BinaryCodec.encode(data);
+        }
+
+        @Override
+        public Object decode(byte[] body) throws IOException {
+            return BinaryCodec.decode(body);
+        }
+    };
+
+    /**
+     * System property used to choose the format, either "java" or "binary"
+     */
+    public static final String PROPERTY = "wire.format";
+
+    /**
+     * Bytes opening every connection, followed by {@link #VERSION} and the ordinal of the requested format
+     */
+    public static final byte[] HELLO = {'G', 'T', 'B', 'C'};
+
+    /**
+     * Version of the protocol
+     */
+    public static final byte VERSION = 1;
+
+    /**
+     * Size of the hello sent by the client
+     */
+    public static final int HELLO_SIZE = HELLO.length + 2;
+
+    /**
+     * Frames larger than this are rejected, the biggest one is the sync of a whole game
+     */
+    public static final int MAX_FRAME_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * @param data a {@link it.polimi.ingsw.network.messages.Message}, {@link it.polimi.ingsw.network.socket.Heartbeat} or {@link it.polimi.ingsw.network.socket.Sense}
+     * @return the body of the frame
+     * @throws IOException if the object cannot be encoded
+     */
+    public abstract byte[] encode(Object data) throws IOException;
+
+    /**
+     * @param body the body of a frame
+     * @return decoded object
+     * @throws IOException            if the frame is malformed
+     * @throws ClassNotFoundException if the class of the object is unknown
+     */
+    public abstract Object decode(byte[] body) throws IOException, ClassNotFoundException;
+
+    /**
+     * Encodes a whole frame, that can be shared by many connections using their own duplicate.
+     *
+     * @param data a {@link it.polimi.ingsw.network.messages.Message}, {@link it.polimi.ingsw.network.socket.Heartbeat} or {@link it.polimi.ingsw.network.socket.Sense}
+     * @return read-only buffer with the length and the body of the frame
+     * @throws IOException if the object cannot be encoded
+     */
+    public ByteBuffer encodeFrame(Object data) throws IOException {
+        byte[] body = encode(data);
+        ByteBuffer frame = ByteBuffer.allocate(Integer.BYTES + body.length);
+        frame.putInt(body.length).put(body).flip();
+        return frame.asReadOnlyBuffer();
+    }
+
+    /**
+     * @return the format set through the {@value #PROPERTY} system property, JAVA if not set.
+     * On the client it's the requested format, on the server {@link #BINARY} means that binary requests are accepted.
+     */
+    public static WireFormat fromProperty() {
+        return "binary".equalsIgnoreCase(System.getProperty(PROPERTY)) ? BINARY : JAVA;
+    }
+
+    /**
+     * Chooses the format of a connection on the server side.
+     *
+     * @param hello   hello sent by the client, {@link #HELLO_SIZE} bytes
+     * @param allowed format the server accepts besides Java serialization
+     * @return the chosen format
+     * @throws StreamCorruptedException if the hello is not valid
+     */
+    public static WireFormat negotiate(byte[] hello, WireFormat allowed) throws StreamCorruptedException {
+        for (int i = 0; i < HELLO.length; i++)
+            if (hello[i] != HELLO[i]) throw new StreamCorruptedException("Unknown protocol");
+        if (hello[HELLO.length] != VERSION) throw new StreamCorruptedException("Unsupported protocol version: " + hello[HELLO.length]);
+
+        return hello[HELLO.length + 1] == BINARY.ordinal() && allowed == BINARY ? BINARY : JAVA;
+    }
+
+}
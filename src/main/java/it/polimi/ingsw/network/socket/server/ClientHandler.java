@@ -1,114 +1,128 @@
 package it.polimi.ingsw.network.socket.server;
 
 import it.polimi.ingsw.Constants;
-import it.polimi.ingsw.common.model.events.Event;
+import it.polimi.ingsw.network.EncodedEvent;
 import it.polimi.ingsw.network.User;
 import it.polimi.ingsw.network.exceptions.ServerException;
 import it.polimi.ingsw.network.messages.Message;
 import it.polimi.ingsw.network.messages.MessageType;
+import it.polimi.ingsw.network.metrics.ServerMetrics;
+import it.polimi.ingsw.network.metrics.jfr.RequestJfrEvent;
+import it.polimi.ingsw.network.metrics.jfr.SocketWriteJfrEvent;
+import it.polimi.ingsw.network.socket.Heartbeat;
+import it.polimi.ingsw.network.socket.Sense;
+import it.polimi.ingsw.network.socket.codec.WireFormat;
 
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.net.Socket;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
 /**
  * Server-side socket connection handler.
  * Manages bidirectional communication with socket clients and message processing.
+ * The connection is served by an {@link IoWorker}: received frames are executed in order on the request dispatcher,
+ * sent objects are queued and written by the worker when the client is able to receive them.
+ * A slow client first loses the frames that can be dropped (heartbeat answers), then it's disconnected
+ * when its queue exceeds {@link Constants#OUTBOUND_LIMIT}. While its queue is above
+ * {@link Constants#OUTBOUND_HIGH_WATERMARK} its requests are not read.
  */
 public class ClientHandler extends User {
 
+    private static final int READ_BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * TCP connection to the client
+     */
+    private final SocketChannel channel;
+
+    /**
+     * I/O thread serving this connection
+     */
+    private final IoWorker worker;
+
     /**
-     * TCP socket connection to the client
+     * Key of the channel in the worker's selector, null until the connection is registered
      */
-    private Socket socket;
+    private volatile SelectionKey key;
 
     /**
-     * Output stream for sending serialized objects to the client
+     * Format negotiated with the client, null until the hello is received
      */
-    private ObjectOutputStream output;
+    private volatile WireFormat format;
 
     /**
-     * Output lock for sending objects from multiple threads
+     * Received bytes not processed yet, only used by the worker
      */
-    private final Object outputLock = new Object();
+    private ByteBuffer readBuffer;
 
     /**
-     * Input stream for receiving serialized objects from the client
+     * Frames waiting to be written, guarded by itself
      */
-    private ObjectInputStream input;
+    private final Deque<ByteBuffer> outbound;
 
     /**
-     * Input lock for reading objects from multiple threads
+     * Bytes waiting in {@link #outbound}
      */
-    private final Object inputLock = new Object();
+    private long outboundBytes;
 
-    /** Thread for listening to client messages */
-    private ListenLoop listenLoop;
+    private volatile boolean closed;
 
     /**
      * @param connectionCode unique connection identifier
-     * @param socket client socket connection
-     * @throws IOException if connection setup fails
+     * @param channel        client socket connection, in non-blocking mode
+     * @param worker         I/O thread serving the connection
      */
-    public ClientHandler(String connectionCode, Socket socket) throws IOException {
+    public ClientHandler(String connectionCode, SocketChannel channel, IoWorker worker) {
         super(connectionCode, null);
-        this.socket = socket;
-        this.output = new ObjectOutputStream(socket.getOutputStream());
-        this.input = new ObjectInputStream(socket.getInputStream());
-        this.listenLoop = new ListenLoop(this);
+        this.channel = channel;
+        this.worker = worker;
+        this.readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        this.outbound = new ArrayDeque<>();
     }
 
     /**
-     * Sends a serialized object to a client with connection cleanup on error.
+     * Sends an object to a client.
+     * The object is encoded on the caller thread and queued, so it never blocks on a slow client.
      *
      * @param data object to send
-     * @throws ServerException if sending fails
+     * @throws ServerException if the connection is closed or the object cannot be encoded
      */
     public void sendObject(Object data) throws ServerException {
-        synchronized (this.outputLock) {
-            try {
-                // this.output.reset(); // Use reset otherwise it sends a previous instance of the objects
-                this.output.writeObject(data);
-                this.output.flush();
-            } catch (IOException e) {
-                System.out.println("[CLIENT HANDLER - sendObject] " + System.currentTimeMillis());
-                e.printStackTrace();
-                SocketServer.getInstance().closeConnection(connectionCode);
-            }
-        }
-    }
+        WireFormat format = this.format;
+        if (format == null || closed) throw new ServerException("[CLIENT HANDLER] Connection is not open");
 
-    /**
-     * Reads a serialized object from a client with connection cleanup on error.
-     *
-     * @return received object
-     * @throws ServerException if reading fails or object is null
-     */
-    public Object readObject() throws ServerException {
-        synchronized (this.inputLock) {
-            try {
-                return input.readObject();
-            } catch (IOException | ClassNotFoundException e) {
-                System.out.println("[CLIENT HANDLER - readObject] " + System.currentTimeMillis());
-                e.printStackTrace();
-                SocketServer.getInstance().closeConnection(connectionCode);
-                throw new ServerException("[CLIENT CONNECTION] Object is null or could not be read");
-            }
+        ByteBuffer frame;
+        try {
+            frame = format.encodeFrame(data);
+        } catch (IOException e) {
+            throw new ServerException("[CLIENT HANDLER] Object could not be encoded: " + e.getMessage());
         }
+        enqueue(frame, data instanceof Sense);
     }
 
     /**
      * Sends game event to a client as a message.
+     * The frame is shared with the other recipients using the same format, only a view of it is queued.
      *
      * @param event game event to send
      */
     @Override
-    public void sendEvent(Event event) {
-        Message message = Constants.createMessage(event.eventType(), event.getArgs());
+    public void sendEvent(EncodedEvent event) {
+        WireFormat format = this.format;
+        if (format == null || closed) return;
 
         try {
-            sendObject(message);
+            ByteBuffer frame = event.getFrame(format);
+            enqueue(frame, false);
+            ServerMetrics.getInstance().recordEvent(event.getEventType(), frame.limit());
+        } catch (IOException e) {
+            System.err.println("[CLIENT HANDLER] Event could not be encoded: " + e.getMessage());
         } catch (ServerException e) {
             // Everything should be closed
         }
@@ -120,6 +134,9 @@ public class ClientHandler extends User {
      * @param message received message to process
      */
     public void receive(Message message) {
+        long start = System.nanoTime();
+        RequestJfrEvent recording = new RequestJfrEvent();
+        recording.begin();
         try {
             message.execute(this);
         } catch (RuntimeException e) {
@@ -131,41 +148,243 @@ public class ClientHandler extends User {
             } catch (ServerException e1) {
                 // Everything should be closed
             }
+        } finally {
+            ServerMetrics.getInstance().recordRequest(message.getMessageType(), System.nanoTime() - start);
+            recording.complete(message.getMessageType(), "socket", this);
+        }
+    }
+
+    /**
+     * @return the bytes waiting to be written to the client
+     */
+    public long getOutboundBytes() {
+        synchronized (outbound) {
+            return outboundBytes;
         }
     }
 
     /**
      * Closes connection and cleans up all resources.
      */
-    @SuppressWarnings("Duplicates")
     public void close() {
-        if (this.socket == null) return; // Already closed
+        if (closed) return; // Already closed
+        closed = true;
 
-        if (this.listenLoop.isAlive()) {
-            this.listenLoop.interrupt();
-            this.listenLoop = null;
+        synchronized (outbound) {
+            outbound.clear();
+            outboundBytes = 0;
         }
 
+        if (key != null)
+            key.cancel();
+
         try {
-            this.input.close();
+            channel.close();
         } catch (IOException _) {
-        } finally {
-            this.input = null;
         }
+    }
 
+    /**
+     * Registers the channel on the worker's selector, called by the worker.
+     *
+     * @param selector selector of the worker
+     */
+    void register(Selector selector) {
         try {
-            this.output.close();
-        } catch (IOException _) {
-        } finally {
-            this.output = null;
+            key = channel.register(selector, SelectionKey.OP_READ, this);
+            if (closed) key.cancel();
+        } catch (ClosedChannelException e) {
+            // Connection has been closed before being registered
+        }
+    }
+
+    /**
+     * Reads from the channel and queues complete frames, called by the worker.
+     */
+    void onReadable() {
+        int read;
+        try {
+            read = channel.read(readBuffer);
+        } catch (IOException e) {
+            read = -1;
+        }
+        if (read < 0) {
+            disconnect();
+            return;
         }
 
+        readBuffer.flip();
         try {
-            this.socket.close();
+            if (format == null && readBuffer.remaining() >= WireFormat.HELLO_SIZE) {
+                byte[] hello = new byte[WireFormat.HELLO_SIZE];
+                readBuffer.get(hello);
+                WireFormat chosen = WireFormat.negotiate(hello, SocketServer.getWireFormat());
+                enqueue(ByteBuffer.wrap(new byte[]{(byte) chosen.ordinal()}), false);
+                format = chosen;
+            }
+
+            while (format != null && readBuffer.remaining() >= Integer.BYTES) {
+                int length = readBuffer.getInt(readBuffer.position());
+                if (length < 0 || length > WireFormat.MAX_FRAME_SIZE) throw new StreamCorruptedException("Invalid frame length: " + length);
+                if (readBuffer.remaining() < Integer.BYTES + length) {
+                    if (readBuffer.capacity() < Integer.BYTES + length) { // Frame doesn't fit, grow the buffer
+                        ByteBuffer bigger = ByteBuffer.allocate(Integer.BYTES + length);
+                        bigger.put(readBuffer).flip();
+                        readBuffer = bigger;
+                    }
+                    break;
+                }
+
+                byte[] body = new byte[length];
+                readBuffer.position(readBuffer.position() + Integer.BYTES);
+                readBuffer.get(body);
+                getRequests().execute(() -> dispatch(body));
+            }
+        } catch (StreamCorruptedException | ServerException e) {
+            System.out.println("[CLIENT HANDLER - onReadable] " + e.getMessage());
+            disconnect();
+            return;
+        }
+        readBuffer.compact();
+    }
+
+    /**
+     * Writes the queued frames, called by the worker.
+     */
+    void onWritable() {
+        synchronized (outbound) {
+            flush();
+        }
+        updateInterest();
+    }
+
+    /**
+     * Sets the interest set of the channel according to the outbound queue, called by the worker.
+     * Reading is paused while the queue is above the high watermark.
+     */
+    void updateInterest() {
+        if (key == null || !key.isValid()) return;
+
+        int ops;
+        synchronized (outbound) {
+            ops = outboundBytes < Constants.OUTBOUND_HIGH_WATERMARK ? SelectionKey.OP_READ : 0;
+            if (!outbound.isEmpty())
+                ops |= SelectionKey.OP_WRITE;
+        }
+        key.interestOps(ops);
+    }
+
+    /**
+     * Queues a frame, writing it immediately if the queue is empty and the socket can accept it.
+     *
+     * @param frame     frame to send
+     * @param droppable true if the frame can be discarded when the client is slow
+     * @throws ServerException if the connection is closed or the client is too slow
+     */
+    private void enqueue(ByteBuffer frame, boolean droppable) throws ServerException {
+        boolean overflow = false;
+        boolean pending;
+
+        synchronized (outbound) {
+            if (closed) throw new ServerException("[CLIENT HANDLER] Connection is not open");
+            if (droppable && outboundBytes >= Constants.OUTBOUND_HIGH_WATERMARK) return;
+
+            if (outboundBytes + frame.remaining() > Constants.OUTBOUND_LIMIT)
+                overflow = true;
+            else {
+                boolean wasEmpty = outbound.isEmpty();
+                outbound.addLast(frame);
+                outboundBytes += frame.remaining();
+                if (wasEmpty)
+                    flush();
+            }
+            pending = !outbound.isEmpty();
+        }
+
+        if (overflow) {
+            System.out.println("[CLIENT HANDLER] Slow consumer, closing connection " + connectionCode);
+            disconnect();
+            throw new ServerException("[CLIENT HANDLER] Outbound queue is full");
+        }
+        if (pending)
+            worker.requestUpdate(this);
+    }
+
+    /**
+     * Writes as many queued frames as the socket accepts, must be called holding the outbound lock.
+     */
+    private void flush() {
+        SocketWriteJfrEvent recording = new SocketWriteJfrEvent();
+        recording.begin();
+        long written = 0;
+        try {
+            while (!outbound.isEmpty()) {
+                ByteBuffer head = outbound.peekFirst();
+                int bytes = channel.write(head);
+                outboundBytes -= bytes;
+                written += bytes;
+                if (head.hasRemaining())
+                    break;
+                outbound.pollFirst();
+            }
+        } catch (IOException e) {
+            outbound.clear();
+            outboundBytes = 0;
+            disconnect();
+        }
+        recording.complete(this, written, outboundBytes);
+    }
+
+    /**
+     * Executes a received frame, on a {@link it.polimi.ingsw.network.RequestDispatcher} thread.
+     *
+     * @param body body of the frame
+     */
+    private void dispatch(byte[] body) {
+        if (closed) return;
+
+        Object read;
+        try {
+            read = format.decode(body);
+        } catch (IOException | ClassNotFoundException e) {
+            System.out.println("[CLIENT HANDLER - dispatch] " + e.getMessage());
+            disconnect();
+            return;
+        }
+
+        if (read instanceof Heartbeat) {
+            this.setLastPing(System.currentTimeMillis());
+            try {
+                sendObject(new Sense());
+            } catch (ServerException e) {
+                // Connection is already closed
+            }
+        } else if (read instanceof Message message) {
+            receive(message);
+        }
+    }
+
+    /**
+     * Closes the channel immediately and removes the user after its pending requests, away from the I/O thread.
+     */
+    private void disconnect() {
+        if (closed) return;
+        closed = true;
+
+        if (key != null)
+            key.cancel();
+        try {
+            channel.close();
         } catch (IOException _) {
-        } finally {
-            this.socket = null;
         }
+
+        getRequests().execute(() -> {
+            try {
+                SocketServer.getInstance().closeConnection(connectionCode);
+            } catch (ServerException e) {
+                // Server is stopped
+            }
+        });
     }
 
 }
@@ -0,0 +1,112 @@
+package it.polimi.ingsw.network.socket.server;
+
+import java.io.IOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * I/O thread of the socket server.
+ * It owns a {@link Selector} shared by many connections: it reads their frames and flushes their outbound queues,
+ * without ever running game logic, which is dispatched by each {@link ClientHandler}.
+ */
+public class IoWorker extends Thread {
+
+    private final Selector selector;
+
+    /**
+     * Connections waiting to be registered on the selector
+     */
+    private final Queue<ClientHandler> registrations;
+
+    /**
+     * Connections whose interest set must be updated, because they have something to write or their queue has drained
+     */
+    private final Queue<ClientHandler> updates;
+
+    /**
+     * @param id index of the worker, used in the thread name
+     * @throws IOException if the selector cannot be opened
+     */
+    public IoWorker(int id) throws IOException {
+        super("socket-io-" + id);
+        this.selector = Selector.open();
+        this.registrations = new ConcurrentLinkedQueue<>();
+        this.updates = new ConcurrentLinkedQueue<>();
+        this.setDaemon(true);
+        this.start();
+    }
+
+    /**
+     * Starts serving a new connection.
+     *
+     * @param clientHandler connection to serve
+     */
+    public void register(ClientHandler clientHandler) {
+        registrations.add(clientHandler);
+        selector.wakeup();
+    }
+
+    /**
+     * Asks the worker to recompute the interest set of a connection.
+     *
+     * @param clientHandler connection to update
+     */
+    public void requestUpdate(ClientHandler clientHandler) {
+        updates.add(clientHandler);
+        selector.wakeup();
+    }
+
+    /**
+     * Stops the worker and closes its selector.
+     */
+    public void shutdown() {
+        this.interrupt();
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        while (!Thread.interrupted()) {
+
+            try {
+                selector.select();
+            } catch (IOException e) {
+                System.err.println("[IO WORKER] Select failed: " + e.getMessage());
+                break;
+            }
+
+            ClientHandler clientHandler;
+            while ((clientHandler = registrations.poll()) != null)
+                clientHandler.register(selector);
+            while ((clientHandler = updates.poll()) != null)
+                clientHandler.updateInterest();
+
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                ClientHandler handler = (ClientHandler) key.attachment();
+
+                try {
+                    if (key.isReadable())
+                        handler.onReadable();
+                    if (key.isValid() && key.isWritable())
+                        handler.onWritable();
+                } catch (CancelledKeyException e) {
+                    // Connection has been closed in the meantime
+                }
+            }
+
+        }
+
+        try {
+            selector.close();
+        } catch (IOException _) {
+        }
+    }
+
+}
@@ -1,32 +1,43 @@
 package it.polimi.ingsw.network.socket.server;
 
 import it.polimi.ingsw.Constants;
+import it.polimi.ingsw.network.RequestDispatcher;
 import it.polimi.ingsw.network.ServerBasis;
 import it.polimi.ingsw.network.User;
 import it.polimi.ingsw.network.exceptions.ServerException;
+import it.polimi.ingsw.network.socket.codec.WireFormat;
 
 import java.io.IOException;
-import java.net.ServerSocket;
-import java.net.Socket;
-import java.util.HashMap;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
 
 /**
  * A server implementation utilizing sockets to handle client connections.
  * This class extends {@code ServerBasis} and implements {@code Runnable}.
  * It manages client connections and operations such as accepting and closing connections,
  * and periodically checks for inactive clients.
+ * Connections are non-blocking: a fixed set of {@link IoWorker} threads serves all of them,
+ * received messages are executed by the {@link RequestDispatcher}.
  */
 public class SocketServer extends ServerBasis implements Runnable {
 
     private static SocketServer instance;
 
-    private final ServerSocket serverSocket;
-    private final HashMap<String, ClientHandler> connections;
+    /**
+     * Format accepted by the server besides Java serialization
+     */
+    private static final WireFormat wireFormat = WireFormat.fromProperty();
+
+    private final ServerSocketChannel serverChannel;
+    private final Map<String, ClientHandler> connections;
+
+    private final IoWorker[] workers;
+    private int nextWorker;
 
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
 
@@ -38,10 +49,14 @@ public class SocketServer extends ServerBasis implements Runnable {
         if (port < 0 || port > 65535)
             throw new ServerException("[SOCKET SERVER] Port is not valid");
 
-        connections = new HashMap<>();
+        connections = new ConcurrentHashMap<>();
 
         try {
-            this.serverSocket = new ServerSocket(port);
+            this.serverChannel = ServerSocketChannel.open();
+            this.serverChannel.bind(new InetSocketAddress(port));
+            this.workers = new IoWorker[Constants.SOCKET_IO_THREADS];
+            for (int i = 0; i < workers.length; i++)
+                workers[i] = new IoWorker(i + 1);
             scheduler.scheduleAtFixedRate(this::checkActiveClients, Constants.SERVER_CHECK_INTERVAL, Constants.SERVER_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
             System.out.println("[SOCKET SERVER] Server started on port " + port);
         } catch (IOException e) {
@@ -72,57 +87,54 @@ public class SocketServer extends ServerBasis implements Runnable {
     }
 
     /**
-     * Opens a connection with a client
+     * @return format accepted by the server besides Java serialization
+     */
+    public static WireFormat getWireFormat() {
+        return wireFormat;
+    }
+
+    /**
+     * Accepts a connection with a client and hands it to an I/O worker
      *
      * @throws ServerException if there's an error accepting the client connection
      */
     private void openConnection() throws ServerException {
         String connectionCode = UUID.randomUUID().toString();
 
-        synchronized (this.connections) {
-            if (this.connections.containsKey(connectionCode))
-                throw new ServerException("[SOCKET SERVER] Connection codes must be unique");
-        }
+        if (this.connections.containsKey(connectionCode))
+            throw new ServerException("[SOCKET SERVER] Connection codes must be unique");
 
         try {
-            Socket socket = serverSocket.accept();
-            socket.setSoTimeout(Constants.NETWORK_TIMEOUT);
-            socket.setKeepAlive(true);
-            socket.setTcpNoDelay(true);
-            ClientHandler connection = new ClientHandler(connectionCode, socket);
-
-            synchronized (this.connections) {
-                if (this.connections.containsKey(connectionCode)) {
-                    connection.close(); // Close the connection
-                    throw new ServerException("[SOCKET SERVER] Created a none unique connection");
-                }
-                this.connections.put(connectionCode, connection);
+            SocketChannel channel = serverChannel.accept();
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.SO_KEEPALIVE, true);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+
+            IoWorker worker = workers[nextWorker];
+            nextWorker = (nextWorker + 1) % workers.length;
+            ClientHandler connection = new ClientHandler(connectionCode, channel, worker);
+
+            if (this.connections.putIfAbsent(connectionCode, connection) != null) {
+                connection.close(); // Close the connection
+                throw new ServerException("[SOCKET SERVER] Created a none unique connection");
             }
+            worker.register(connection);
         } catch (IOException e) {
             throw new ServerException("[SOCKET SERVER] Error accepting client connection: " + e.getMessage());
         }
     }
 
     public void closeConnection(String connectionCode) {
-        synchronized (this.connections) {
-            ClientHandler conn = this.connections.get(connectionCode);
-            if (conn != null) {
-                User.removeUser(conn);
-                conn.close();
-                this.connections.remove(connectionCode);
-            }
+        ClientHandler conn = this.connections.remove(connectionCode);
+        if (conn != null) {
+            User.removeUser(conn);
+            conn.close();
         }
     }
 
     private void checkActiveClients() {
         long now = System.currentTimeMillis();
-        Map<String, ClientHandler> connectionsCopy;
-
-        synchronized (connections) {
-            connectionsCopy = new HashMap<>(connections);
-        }
-
-        for (Map.Entry<String, ClientHandler> entry : connectionsCopy.entrySet()) {
+        for (Map.Entry<String, ClientHandler> entry : connections.entrySet()) {
             ClientHandler clientHandler = entry.getValue();
             String connectionCode = entry.getKey();
             if (now - clientHandler.getLastPing() > Constants.NETWORK_TIMEOUT) {
@@ -141,18 +153,16 @@ public class SocketServer extends ServerBasis implements Runnable {
         scheduler.shutdownNow();
         Thread.currentThread().interrupt();
 
-        synchronized (this.connections) {
-            for (String connectionCode : this.connections.keySet()) {
-                ClientHandler conn = this.connections.get(connectionCode);
-                if (conn != null)
-                    conn.close();
-            }
-            this.connections.clear();
-        }
+        for (ClientHandler conn : this.connections.values())
+            conn.close();
+        this.connections.clear();
+
+        for (IoWorker worker : workers)
+            worker.shutdown();
 
         try {
-            if (serverSocket != null && !serverSocket.isClosed())
-                serverSocket.close();
+            if (serverChannel != null && serverChannel.isOpen())
+                serverChannel.close();
         } catch (IOException e) {
             // Error while closing server socket, ignore it
         }
@@ -249,6 +249,11 @@ public class BuildController implements MessageHandler, Initializable {
             slot.setStroke(Color.rgb(140, 140, 200));
             slot.setStrokeWidth(2);
         }
+        else if (!isLegalPlacement(slot.getId())) { // The component in hand can't be placed here as it's rotated
+            slot.setFill(Color.ORANGE.deriveColor(0, 1, 1, 0.4));
+            slot.setStroke(Color.ORANGE);
+            slot.setStrokeWidth(2);
+        }
         else {
             slot.setFill(Color.LIGHTBLUE.deriveColor(0, 1, 1, 0.4));
             slot.setStroke(Color.LIGHTBLUE);
@@ -673,6 +678,22 @@ public class BuildController implements MessageHandler, Initializable {
         iv.setImage(image);
     }
 
+    /**
+     * Checks if the component in hand can be placed in a slot of the ship without rotating it.
+     *
+     * @param slotId id of the slot, "slot_row_col"
+     * @return true if the placement is legal or there's no component in hand
+     */
+    private boolean isLegalPlacement(String slotId) {
+        ClientShip ship = getClientShip(client.getUsername());
+        if (ship.getComponentInHand().isEmpty()) return true;
+
+        int row = Integer.parseInt(slotId.split("_")[1]);
+        int col = Integer.parseInt(slotId.split("_")[2]);
+        return ship.getPlacementHints(ship.getComponentInHand().get()).stream()
+                .anyMatch(placement -> placement.row() == row && placement.col() == col && placement.rotations() == 0);
+    }
+
     private ClientShip getClientShip(String username) {
         return client.getGameController().getModel().getBoard().getPlayerEntityByUsername(username).getShip();
     }
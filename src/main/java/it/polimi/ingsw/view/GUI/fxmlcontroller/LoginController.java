@@ -93,7 +93,7 @@ public class LoginController implements MessageHandler {
                     status.setVisible(true);
 
                     hideHint();
-                    App.getClientInstance().send(MessageType.SET_USERNAME, usernameText);
+                    App.getClientInstance().resumeSession(usernameText);
                 }
                 else
                     event.consume();
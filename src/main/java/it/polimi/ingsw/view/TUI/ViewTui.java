@@ -140,7 +140,7 @@ public class ViewTui implements UserInterface {
                 case USERNAME:
                     if (input.length() < 3 || input.length() > 18)
                         throw new IllegalArgumentException("Username length must be between 3 and 18.");
-                    client.send(MessageType.SET_USERNAME, input);
+                    client.resumeSession(input);
                     break;
 
                 case LOBBY_SELECTION:
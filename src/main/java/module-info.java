@@ -3,6 +3,9 @@ module it.polimi.ingsw {
     requires javafx.fxml;
     requires java.rmi;
     requires jdk.xml.dom;
+    requires java.management;
+    requires jdk.httpserver;
+    requires jdk.jfr;
 
     exports it.polimi.ingsw.model;
     exports it.polimi.ingsw.model.cards;
@@ -11,6 +14,7 @@ module it.polimi.ingsw {
     exports it.polimi.ingsw.model.player;
     exports it.polimi.ingsw.model.components;
     exports it.polimi.ingsw.controller;
+    exports it.polimi.ingsw.controller.journal;
 
     exports it.polimi.ingsw.network.exceptions;
     exports it.polimi.ingsw.network.messages;
@@ -43,7 +47,9 @@ module it.polimi.ingsw {
     exports it.polimi.ingsw.network;
     exports it.polimi.ingsw.network.socket.client;
     exports it.polimi.ingsw.network.socket.server;
+    exports it.polimi.ingsw.network.socket.codec;
     exports it.polimi.ingsw.network.rmi to java.rmi;
+    exports it.polimi.ingsw.network.metrics to java.management;
 
     exports it.polimi.ingsw.view;
     exports it.polimi.ingsw.view.GUI.fxmlcontroller to javafx.graphics, javafx.fxml;
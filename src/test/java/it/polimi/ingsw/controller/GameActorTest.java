@@ -0,0 +1,170 @@
+package it.polimi.ingsw.controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Timeout(30) // A broken mailbox may deadlock instead of failing
+class GameActorTest {
+
+    private static final int PRODUCERS = 4;
+    private static final int COMMANDS = 500;
+
+    @Test
+    void testCallerShouldReturnWhenItsCommandCompletesWhileOthersAreQueued() throws InterruptedException {
+        GameActor actor = new GameActor();
+        CountDownLatch firstRunning = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        CountDownLatch releaseQueued = new CountDownLatch(1);
+        AtomicBoolean queuedCompleted = new AtomicBoolean();
+
+        AtomicReference<String> result = new AtomicReference<>();
+        Thread caller = Thread.ofPlatform().start(() -> result.set(actor.call(() -> {
+            firstRunning.countDown();
+            await(releaseFirst);
+            return "first";
+        })));
+        assertTrue(firstRunning.await(5, TimeUnit.SECONDS));
+
+        actor.execute(() -> { // Queued behind the first command, blocks until the caller has returned
+            await(releaseQueued);
+            queuedCompleted.set(true);
+        });
+        assertEquals(1, actor.getQueueDepth());
+
+        releaseFirst.countDown();
+        caller.join(5000);
+        assertFalse(caller.isAlive(), "The caller waits for the commands queued behind it");
+        assertEquals("first", result.get());
+        assertFalse(queuedCompleted.get());
+
+        releaseQueued.countDown();
+        CountDownLatch last = new CountDownLatch(1);
+        actor.execute(last::countDown);
+        assertTrue(last.await(5, TimeUnit.SECONDS));
+        assertTrue(queuedCompleted.get());
+    }
+
+    @Test
+    void testExecuteShouldNeverRunOnTheCallerThread() throws InterruptedException {
+        GameActor actor = new GameActor();
+        for (int i = 0; i < 100; i++) {
+            AtomicReference<Thread> runner = new AtomicReference<>();
+            CountDownLatch done = new CountDownLatch(1);
+            actor.execute(() -> { // The mailbox is idle
+                runner.set(Thread.currentThread());
+                done.countDown();
+            });
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertNotSame(Thread.currentThread(), runner.get());
+        }
+
+        AtomicReference<Thread> runner = new AtomicReference<>();
+        actor.call(() -> { // Sent while the caller is processing the mailbox
+            actor.execute(() -> runner.set(Thread.currentThread()));
+            return null;
+        });
+        CountDownLatch done = new CountDownLatch(1);
+        actor.execute(done::countDown);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertNotSame(Thread.currentThread(), runner.get());
+    }
+
+    @Test
+    void testCommandsShouldRunInOrderOneAtATime() throws InterruptedException {
+        GameActor actor = new GameActor();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        List<int[]> order = Collections.synchronizedList(new ArrayList<>());
+
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < PRODUCERS; p++) {
+            int producer = p;
+            producers.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < COMMANDS; i++) {
+                    int[] command = {producer, i};
+                    Runnable action = () -> {
+                        if (running.incrementAndGet() != 1) overlaps.incrementAndGet();
+                        order.add(command);
+                        Thread.yield(); // Gives the other threads a chance to run a command at the same time
+                        running.decrementAndGet();
+                    };
+                    if (i % 2 == 0)
+                        actor.execute(action);
+                    else
+                        actor.call(() -> {
+                            action.run();
+                            return null;
+                        });
+                }
+            }));
+        }
+        for (Thread producer : producers)
+            producer.join();
+        long processed = actor.call(actor::getProcessedCommands); // Runs after the queued commands, which are all counted
+
+        assertEquals(0, overlaps.get());
+        assertEquals(PRODUCERS * COMMANDS, order.size());
+        int[] next = new int[PRODUCERS];
+        for (int[] command : order) // The commands of each producer in the order they were sent
+            assertEquals(next[command[0]]++, command[1]);
+        assertEquals(PRODUCERS * COMMANDS, processed);
+    }
+
+    @Test
+    void testIsolatedActionsShouldExcludeTheCommandsOfTheMailbox() throws InterruptedException {
+        ReentrantReadWriteLock phaseLock = new ReentrantReadWriteLock();
+        GameActor actor = new GameActor(phaseLock.writeLock());
+        AtomicBoolean commandRan = new AtomicBoolean();
+        CountDownLatch commandDone = new CountDownLatch(1);
+
+        phaseLock.readLock().lock(); // As a move of the building phase
+        try {
+            GameActor.isolated(() -> {
+                actor.execute(() -> {
+                    commandRan.set(true);
+                    commandDone.countDown();
+                });
+                while (!phaseLock.hasQueuedThreads() && commandDone.getCount() > 0) // The command waits for the move
+                    Thread.onSpinWait();
+                assertFalse(commandRan.get());
+                return null;
+            });
+        } finally {
+            phaseLock.readLock().unlock();
+        }
+        assertTrue(commandDone.await(5, TimeUnit.SECONDS));
+
+        CountDownLatch commandRunning = new CountDownLatch(1);
+        CountDownLatch releaseCommand = new CountDownLatch(1);
+        actor.execute(() -> {
+            commandRunning.countDown();
+            await(releaseCommand);
+        });
+        assertTrue(commandRunning.await(5, TimeUnit.SECONDS));
+        assertFalse(phaseLock.readLock().tryLock(), "A move runs while a command is running");
+        releaseCommand.countDown();
+        assertTrue(phaseLock.readLock().tryLock(5, TimeUnit.SECONDS));
+        phaseLock.readLock().unlock();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,109 @@
+package it.polimi.ingsw.controller.journal;
+
+import it.polimi.ingsw.common.dto.GameStateDTOFactory;
+import it.polimi.ingsw.controller.GameController;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameJournalTest {
+
+    private static final List<String> PLAYERS = List.of("Tommaso", "Simone", "Davide");
+
+    @TempDir
+    Path directory;
+
+    private JournalStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new JournalStore(directory, 256); // Small segments, so the journal is compacted many times
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.shutdown();
+    }
+
+    @Test
+    void testReplayAfterTornRecordShouldRebuildTheGame() throws IOException {
+        GameController game = new GameController(PLAYERS, false, 25L);
+        game.setGameID("lobby");
+        game.attachJournal(store.create("lobby", PLAYERS.size(), false, PLAYERS, game.getSeed()));
+        game.startMatch();
+
+        game.pickComponent("Tommaso", 102);
+        game.insertComponent("Tommaso", 102, 0, 2, 0, true);
+        game.pickComponent("Simone", 16);
+        game.rotateComponent("Simone", 16, 3);
+        game.insertComponent("Simone", 16, 1, 1, 0, false);
+        game.moveComponent("Simone", 16, 1, 2, 1);
+        game.pickComponent("Davide", 60);
+        game.releaseComponent("Davide", 60);
+        game.pickComponent("Tommaso", 60);
+        game.rotateComponent("Tommaso", 60, 3);
+        game.insertComponent("Tommaso", 60, 1, 2, 0, true);
+        game.pickComponent("Davide", 131);
+        game.reserveComponent("Davide", 131);
+        game.lookCardPile("Simone", 0);
+        game.releaseCardPile("Simone");
+        String original = GameStateDTOFactory.serializeDTO(game.toDTO());
+
+        game.pickComponent("Simone", 125); // Torn below, so it's not replayed
+        assertNotEquals(original, GameStateDTOFactory.serializeDTO(game.toDTO()));
+        store.shutdown();
+
+        tearLastRecord();
+        store = new JournalStore(directory); // As after a restart of the server
+        List<GameJournal> journals = store.recover();
+        assertEquals(1, journals.size());
+        GameJournal journal = journals.getFirst();
+        assertEquals("lobby", journal.getGameID());
+        assertEquals(PLAYERS, journal.getPlayers());
+        assertEquals(25L, journal.getSeed());
+        assertEquals(15, journal.getRecoveredCommands());
+
+        GameJournal.ReplayedGame replayed = journal.replay(_ -> {});
+        assertEquals(original, GameStateDTOFactory.serializeDTO(replayed.game().toDTO()));
+        assertEquals(PLAYERS, replayed.absentPlayers());
+        assertTrue(replayed.players().isEmpty());
+        replayed.game().close();
+    }
+
+    /**
+     * Cuts the last record of the only segment in half, as a crash in the middle of a write would.
+     */
+    private void tearLastRecord() throws IOException {
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files.filter(path -> path.toString().endsWith(JournalStore.EXTENSION)).toList();
+            assertEquals(1, segments.size());
+            segment = segments.getFirst();
+        }
+
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer content = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            int last = 0;
+            for (int offset = 0; content.getInt(offset) > 0; offset += 8 + content.getInt(offset))
+                last = offset;
+
+            int length = content.getInt(last);
+            assertTrue(last > 0, "The last record is a command, not the snapshot");
+            for (int i = last + 8 + length / 2; i < last + 8 + length; i++)
+                content.put(i, (byte) 0);
+        }
+    }
+
+}
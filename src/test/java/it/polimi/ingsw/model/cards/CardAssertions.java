@@ -0,0 +1,23 @@
+package it.polimi.ingsw.model.cards;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import it.polimi.ingsw.model.factory.CardFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+final class CardAssertions {
+
+    private static final ObjectMapper mapper = new ObjectMapper().registerModule(new Jdk8Module());
+
+    private CardAssertions() {}
+
+    /**
+     * Checks that the cached JSON of the card, sent to the clients, is the same as a fresh serialization
+     */
+    static void assertSerializationUpToDate(Card card) throws JsonProcessingException {
+        assertEquals(mapper.writeValueAsString(card), CardFactory.serializeCard(card));
+    }
+
+}
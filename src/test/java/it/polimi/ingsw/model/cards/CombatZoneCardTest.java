@@ -1,5 +1,6 @@
 package it.polimi.ingsw.model.cards;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import it.polimi.ingsw.controller.GameController;
 
 import it.polimi.ingsw.model.cards.utils.*;
@@ -7,6 +8,7 @@ import it.polimi.ingsw.model.components.*;
 import it.polimi.ingsw.model.game.Board;
 import it.polimi.ingsw.common.model.enums.AlienType;
 import it.polimi.ingsw.common.model.enums.ColorType;
+import it.polimi.ingsw.common.model.enums.PlayerState;
 import it.polimi.ingsw.model.player.PlayerData;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,6 +16,9 @@ import org.junit.jupiter.api.Test;
 
 import java.util.*;
 
+import static it.polimi.ingsw.common.model.enums.DirectionType.NORTH;
+import static it.polimi.ingsw.model.cards.CardAssertions.assertSerializationUpToDate;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class CombatZoneCardTest {
     private List<String> usernames;
@@ -184,5 +189,106 @@ class CombatZoneCardTest {
 
     }
 
+    @Test
+    void testShouldSendTheUpToDateCardWhileTheCannonFirePenaltyIsResolved() throws JsonProcessingException {
+
+        controller.pickComponent("Simone", 132);
+        controller.insertComponent("Simone", 132, 1, 1, 0, true);
+
+        controller.pickComponent("Simone", 15);
+        controller.rotateComponent("Simone", 15, 2);
+        controller.insertComponent("Simone", 15, 1, 2, 0, true);
+
+        controller.pickComponent("Simone", 36);
+        controller.rotateComponent("Simone", 36, 2);
+        controller.insertComponent("Simone", 36, 2, 1, 0, true);
+
+        controller.pickComponent("Simone", 148);
+        controller.insertComponent("Simone", 148, 2, 2, 0, true);
+
+        controller.pickComponent("Davide", 28);
+        controller.insertComponent("Davide", 28, 2, 4, 0, true);
+
+        controller.pickComponent("Tommaso", 22);
+        controller.insertComponent("Tommaso", 22, 2, 4, 0, true);
+
+        controller.setReady("Simone");
+        controller.setReady("Davide");
+        controller.setReady("Tommaso");
+
+        CannonFirePenaltyCombatZone penalty = new CannonFirePenaltyCombatZone(new ArrayList<>(List.of(new CannonFire(false, NORTH), new CannonFire(true, NORTH))));
+        CombatZoneCard combatZoneCard = new CombatZoneCard(0, 2, false, new ArrayList<>(List.of(new WarLine(CriteriaType.CANNON, penalty))));
+        board.getCardPile().clear();
+        board.getCardPile().add(combatZoneCard);
+        board.getCardPile().add(combatZoneCard);
+
+        controller.drawCard("Simone");
+        assertSerializationUpToDate(combatZoneCard);
+
+        // Simone doesn't activate its double cannon, so it's the worst
+        controller.activateCannons("Simone", new ArrayList<>(), new ArrayList<>());
+        assertEquals(PlayerState.WAIT_ROLL_DICES, controller.getModel().getPlayerState("Simone"));
+        assertSerializationUpToDate(combatZoneCard);
+
+        // set dice manually, the penalty stores the coordinates and the index of the cannon fire
+        boolean finish = combatZoneCard.doCommandEffects(PlayerState.WAIT_ROLL_DICES, 6, controller.getModel(), board, "Simone");
+        if (finish) { board.pickNewCard(controller.getModel()); }
+        assertEquals(PlayerState.WAIT_SHIELD, controller.getModel().getPlayerState("Simone"));
+        assertSerializationUpToDate(combatZoneCard);
+
+        controller.activateShield("Simone", 15);
+        assertEquals(PlayerState.WAIT_ROLL_DICES, controller.getModel().getPlayerState("Simone"));
+        assertSerializationUpToDate(combatZoneCard);
+
+        finish = combatZoneCard.doCommandEffects(PlayerState.WAIT_ROLL_DICES, 6, controller.getModel(), board, "Simone");
+        if (finish) { board.pickNewCard(controller.getModel()); }
+        assertSerializationUpToDate(combatZoneCard);
+    }
+
+    @Test
+    void testShouldSendTheWorstPlayerFoundWhileAnotherPlayerIsWaiting() throws JsonProcessingException {
+        controller = new GameController(new ArrayList<>(List.of("A", "B", "C", "D")), false);
+        controller.startMatch();
+        board = controller.getModel().getBoard();
+
+        controller.pickComponent("A", 74);
+        controller.insertComponent("A", 74, 3, 3, 0, true);
+        controller.pickComponent("A", 79);
+        controller.insertComponent("A", 79, 3, 4, 0, true);
+
+        controller.pickComponent("B", 91);
+        controller.insertComponent("B", 91, 3, 3, 0, true);
+        controller.pickComponent("B", 5);
+        controller.insertComponent("B", 5, 2, 4, 0, true);
+
+        controller.pickComponent("C", 73);
+        controller.insertComponent("C", 73, 3, 3, 0, true);
+
+        controller.pickComponent("D", 93);
+        controller.insertComponent("D", 93, 3, 3, 0, true);
+        controller.pickComponent("D", 8);
+        controller.insertComponent("D", 8, 2, 4, 0, true);
+
+        controller.setReady("A");
+        controller.setReady("B");
+        controller.setReady("C");
+        controller.setReady("D");
+
+        CombatZoneCard combatZoneCard = new CombatZoneCard(0, 2, false, new ArrayList<>(List.of(new WarLine(CriteriaType.ENGINE, new CountablePenaltyZone(1, MalusType.DAYS)))));
+        board.getCardPile().clear();
+        board.getCardPile().add(combatZoneCard);
+        board.getCardPile().add(combatZoneCard);
+
+        controller.drawCard("A"); // A is the worst, B has to choose its engines
+        assertSerializationUpToDate(combatZoneCard);
+
+        // B doesn't beat A, then C becomes the worst while D has to choose its engines
+        controller.activateEngines("B", new ArrayList<>(List.of(5)), new ArrayList<>(List.of(91)));
+        assertEquals(PlayerState.WAIT_ENGINES, controller.getModel().getPlayerState("D"));
+        assertSerializationUpToDate(combatZoneCard);
+
+        controller.activateEngines("D", new ArrayList<>(), new ArrayList<>());
+        assertSerializationUpToDate(combatZoneCard);
+    }
 
 }
\ No newline at end of file
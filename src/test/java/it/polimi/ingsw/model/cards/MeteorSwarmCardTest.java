@@ -1,5 +1,6 @@
 package it.polimi.ingsw.model.cards;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import it.polimi.ingsw.common.model.enums.PlayerState;
 import it.polimi.ingsw.controller.GameController;
 import it.polimi.ingsw.model.cards.utils.Meteor;
@@ -15,6 +16,7 @@ import org.junit.jupiter.api.Test;
 import java.util.ArrayList;
 import java.util.List;
 
+import static it.polimi.ingsw.model.cards.CardAssertions.assertSerializationUpToDate;
 import static org.junit.jupiter.api.Assertions.*;
 
 class MeteorSwarmCardTest {
@@ -368,4 +370,49 @@ class MeteorSwarmCardTest {
         assertEquals(1, p1.getShip().getComponentByType(CannonComponent.class).size());
     }
 
+    @Test
+    void testShouldSendTheUpToDateCardAfterEveryCommand() throws JsonProcessingException {
+
+        controller.setReady("Simone");
+        controller.setReady("Davide");
+        controller.setReady("Tommaso");
+
+        board.movePlayer(p1, 9);
+        board.movePlayer(p2, 9);
+        board.movePlayer(p3, 10);
+
+
+        List<Meteor> meteors = new ArrayList<>();
+        meteors.add(new Meteor(false, DirectionType.NORTH));
+        meteors.add(new Meteor(true, DirectionType.NORTH));
+        meteors.add(new Meteor(true, DirectionType.NORTH));
+
+        MeteorSwarmCard meteorSwarmCard = new MeteorSwarmCard(0, 2, false, meteors);
+        board.getCardPile().clear();
+        board.getCardPile().add(meteorSwarmCard);
+        board.getCardPile().add(meteorSwarmCard);
+
+        controller.drawCard("Simone");
+        assertSerializationUpToDate(meteorSwarmCard);
+
+        // set dice manually
+        boolean finish = meteorSwarmCard.doCommandEffects(PlayerState.WAIT_ROLL_DICES, 6, controller.getModel(), controller.getModel().getBoard(), "Simone");
+        if (finish) { controller.getModel().getBoard().pickNewCard(controller.getModel()); }
+        assertSerializationUpToDate(meteorSwarmCard);
+
+        controller.activateShield("Simone", 15);
+        assertSerializationUpToDate(meteorSwarmCard);
+
+        finish = meteorSwarmCard.doCommandEffects(PlayerState.WAIT_ROLL_DICES, 6, controller.getModel(), controller.getModel().getBoard(), "Simone");
+        if (finish) { controller.getModel().getBoard().pickNewCard(controller.getModel()); }
+        assertSerializationUpToDate(meteorSwarmCard);
+
+        finish = meteorSwarmCard.doCommandEffects(PlayerState.WAIT_ROLL_DICES, 6, controller.getModel(), controller.getModel().getBoard(), "Simone");
+        if (finish) { controller.getModel().getBoard().pickNewCard(controller.getModel()); }
+        assertSerializationUpToDate(meteorSwarmCard);
+
+        controller.chooseShipPart("Simone", 0);
+        assertSerializationUpToDate(meteorSwarmCard);
+    }
+
 }
\ No newline at end of file
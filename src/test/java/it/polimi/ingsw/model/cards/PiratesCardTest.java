@@ -1,5 +1,6 @@
 package it.polimi.ingsw.model.cards;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import it.polimi.ingsw.common.model.enums.PlayerState;
 import it.polimi.ingsw.controller.GameController;
 import it.polimi.ingsw.model.cards.utils.CannonFire;
@@ -13,6 +14,7 @@ import org.junit.jupiter.api.Test;
 import java.util.*;
 
 import static it.polimi.ingsw.common.model.enums.DirectionType.*;
+import static it.polimi.ingsw.model.cards.CardAssertions.assertSerializationUpToDate;
 import static org.junit.jupiter.api.Assertions.*;
 
 class PiratesCardTest {
@@ -233,4 +235,79 @@ class PiratesCardTest {
         assertEquals(11, board.getPlayers().stream().filter(entry -> entry.getKey().equals(p3)).findFirst().orElseThrow().getValue());
     }
 
+    @Test
+    void testShouldSendTheUpToDateCardAfterEveryCommand() throws JsonProcessingException {
+
+        controller.pickComponent("Simone", 15);
+        controller.rotateComponent("Simone", 15, 2);
+        controller.insertComponent("Simone", 15, 1, 4, 0, true);
+
+        controller.pickComponent("Simone", 132);
+        controller.insertComponent("Simone", 132, 1, 3, 0, true);
+
+        controller.pickComponent("Simone", 155);
+        controller.rotateComponent("Simone", 155, 3);
+        controller.insertComponent("Simone", 155, 2, 2, 0, true);
+
+        controller.pickComponent("Simone", 150);
+        controller.rotateComponent("Simone", 150, 3);
+        controller.insertComponent("Simone", 150, 3, 2, 0, true);
+
+
+        controller.pickComponent("Davide", 74);
+        controller.insertComponent("Davide", 74, 3, 3, 0, true);
+
+
+        controller.pickComponent("Tommaso", 9);
+        controller.insertComponent("Tommaso", 9, 2, 2, 0, true);
+
+        controller.pickComponent("Tommaso", 121);
+        controller.insertComponent("Tommaso", 121, 1, 3, 0, true);
+
+        controller.pickComponent("Tommaso", 126);
+        controller.rotateComponent("Tommaso", 126, 1);
+        controller.insertComponent("Tommaso", 126, 1, 4, 0, true);
+
+        controller.setReady("Simone");
+        controller.setReady("Davide");
+        controller.setReady("Tommaso");
+
+        board.movePlayer(p1, 9);
+        board.movePlayer(p2, 9);
+        board.movePlayer(p3, 10);
+
+
+        CannonFire c1 = new CannonFire(false, NORTH);
+        CannonFire c2 = new CannonFire(true, EAST);
+        cannonFires = new ArrayList<>(List.of(c1, c2));
+        PiratesCard piratesCard = new PiratesCard(0, 2, false, 1, 5, 3, cannonFires);
+        board.getCardPile().clear();
+        board.getCardPile().add(piratesCard);
+        board.getCardPile().add(piratesCard);
+
+
+        controller.drawCard("Simone");
+        assertSerializationUpToDate(piratesCard);
+
+        controller.activateCannons("Simone", new ArrayList<>(), new ArrayList<>());
+        assertSerializationUpToDate(piratesCard);
+
+        controller.activateCannons("Tommaso", new ArrayList<>(List.of(9)), new ArrayList<>(List.of(126)));
+        assertSerializationUpToDate(piratesCard);
+
+        controller.getBoolean("Tommaso", false);
+        assertSerializationUpToDate(piratesCard);
+
+        boolean finish = piratesCard.doCommandEffects(PlayerState.WAIT_ROLL_DICES, 6, controller.getModel(), controller.getModel().getBoard(), "Simone");
+        if (finish) { controller.getModel().getBoard().pickNewCard(controller.getModel()); }
+        assertSerializationUpToDate(piratesCard);
+
+        controller.activateShield("Simone", 15);
+        assertSerializationUpToDate(piratesCard);
+
+        finish = piratesCard.doCommandEffects(PlayerState.WAIT_ROLL_DICES, 8, controller.getModel(), controller.getModel().getBoard(), "Simone");
+        if (finish) { controller.getModel().getBoard().pickNewCard(controller.getModel()); }
+        assertSerializationUpToDate(piratesCard);
+    }
+
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package it.polimi.ingsw.model.cards;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import it.polimi.ingsw.controller.GameController;
 import it.polimi.ingsw.model.cards.utils.Planet;
 import it.polimi.ingsw.model.components.*;
@@ -12,6 +13,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.*;
 
+import static it.polimi.ingsw.model.cards.CardAssertions.assertSerializationUpToDate;
 import static org.junit.jupiter.api.Assertions.*;
 
 class PlanetCardTest {
@@ -157,7 +159,46 @@ class PlanetCardTest {
 
     }
 
+    @Test
+    void testShouldSendTheUpToDateCardAfterEveryCommand() throws JsonProcessingException {
+
+        controller.pickComponent("Simone", 68);
+        controller.insertComponent("Simone", 68, 2, 2, 0, true);
+
+
+        controller.pickComponent("Davide", 31);
+        controller.insertComponent("Davide", 31, 2, 4, 0, true);
 
 
+        controller.pickComponent("Tommaso", 69);
+        controller.insertComponent("Tommaso", 69, 2, 4, 0, true);
+
+        controller.setReady("Simone");
+        controller.setReady("Davide");
+        controller.setReady("Tommaso");
+
+        Card planetCard = controller.getModel().getBoard().getCardPile().getFirst();
+        controller.drawCard("Simone");
+        assertSerializationUpToDate(planetCard);
+
+        controller.getIndex("Simone", 0);
+        assertSerializationUpToDate(planetCard);
+
+        controller.getIndex("Davide", null);
+        assertSerializationUpToDate(planetCard);
+
+        controller.getIndex("Tommaso", 1);
+        assertSerializationUpToDate(planetCard);
+
+        Map<Integer, List<ColorType>> cargoMap1 = new HashMap<>();
+        cargoMap1.put(68, new ArrayList<>(List.of(ColorType.RED, ColorType.RED)));
+        controller.updateGoods(p1.getUsername(), cargoMap1, new ArrayList<>());
+        assertSerializationUpToDate(planetCard);
+
+        Map<Integer, List<ColorType>> cargoMap3 = new HashMap<>();
+        cargoMap3.put(69, new ArrayList<>(List.of(ColorType.RED)));
+        controller.updateGoods(p3.getUsername(), cargoMap3, new ArrayList<>());
+        assertSerializationUpToDate(planetCard);
+    }
 
 }
\ No newline at end of file
@@ -0,0 +1,197 @@
+package it.polimi.ingsw.model.game;
+
+import it.polimi.ingsw.Constants;
+import it.polimi.ingsw.common.model.enums.ConnectorType;
+import it.polimi.ingsw.controller.GameController;
+import it.polimi.ingsw.model.components.BatteryComponent;
+import it.polimi.ingsw.model.components.Component;
+import it.polimi.ingsw.model.components.Tile;
+import it.polimi.ingsw.model.exceptions.ComponentNotValidException;
+import it.polimi.ingsw.model.game.ComponentPool.TileState;
+import it.polimi.ingsw.model.player.PlayerData;
+import it.polimi.ingsw.model.player.Ship;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComponentPoolTest {
+
+    private static final ConnectorType[] UNIVERSAL = {ConnectorType.UNIVERSAL, ConnectorType.UNIVERSAL, ConnectorType.UNIVERSAL, ConnectorType.UNIVERSAL};
+    private static final List<String> PLAYERS = List.of("Tommaso", "Simone", "Davide", "Demetrio");
+
+    @Test
+    void testOnlyOnePlayerShouldTakeATile() throws InterruptedException {
+        for (int round = 0; round < 100; round++) {
+            List<Component> tiles = tiles(1);
+            ComponentPool pool = pool(tiles, 0);
+            Component tile = tiles.getFirst();
+
+            int threads = 8;
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicInteger winners = new AtomicInteger();
+            AtomicInteger rejected = new AtomicInteger();
+            List<Thread> players = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                PlayerData player = new PlayerData("Player" + i);
+                players.add(Thread.ofPlatform().start(() -> {
+                    try {
+                        start.await();
+                        pool.take(tile, player);
+                        winners.incrementAndGet();
+                    } catch (ComponentNotValidException e) {
+                        rejected.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+            }
+            start.countDown();
+            for (Thread player : players)
+                player.join();
+
+            assertEquals(1, winners.get());
+            assertEquals(threads - 1, rejected.get());
+            assertEquals(TileState.IN_HAND, pool.getState(tile));
+            assertTrue(pool.getFreeComponents().isEmpty());
+        }
+    }
+
+    @Test
+    void testReleasedTileShouldGoAfterTheOtherFreeTiles() {
+        List<Component> tiles = tiles(4);
+        ComponentPool pool = pool(tiles, 0);
+        PlayerData player = new PlayerData("Tommaso");
+
+        pool.take(tiles.get(1), player);
+        assertEquals(List.of(tiles.get(0), tiles.get(2), tiles.get(3)), pool.getFreeComponents());
+
+        pool.release(tiles.get(1), player);
+        assertEquals(List.of(tiles.get(0), tiles.get(2), tiles.get(3), tiles.get(1)), pool.getFreeComponents());
+        assertEquals(TileState.FACE_UP, pool.getState(tiles.get(1)));
+        assertFalse(pool.isOwnedBy(tiles.get(1), player));
+
+        pool.take(tiles.get(0), player); // Also a tile placed and released later
+        pool.markPlaced(tiles.get(0), player);
+        pool.release(tiles.get(0), player);
+        assertEquals(List.of(tiles.get(2), tiles.get(3), tiles.get(1), tiles.get(0)), pool.getFreeComponents());
+    }
+
+    @Test
+    void testTransitionsNotAllowedShouldBeRejected() {
+        List<Component> tiles = tiles(3);
+        ComponentPool pool = pool(tiles, 1); // The last one is a starting cabin
+        PlayerData tommaso = new PlayerData("Tommaso");
+        PlayerData simone = new PlayerData("Simone");
+        Component tile = tiles.getFirst();
+
+        pool.take(tile, tommaso);
+        assertThrows(ComponentNotValidException.class, () -> pool.take(tile, simone), "Taking a tile in the hand of another player");
+        assertThrows(ComponentNotValidException.class, () -> pool.release(tile, simone), "Releasing the tile of another player");
+        assertThrows(ComponentNotValidException.class, () -> pool.markReserved(tile, simone), "Reserving the tile of another player");
+        assertThrows(ComponentNotValidException.class, () -> pool.markPlaced(tile, simone), "Placing the tile of another player");
+        assertThrows(ComponentNotValidException.class, () -> pool.markReserved(tiles.get(1), tommaso), "Reserving a tile of the pool");
+
+        pool.markReserved(tile, tommaso);
+        assertThrows(ComponentNotValidException.class, () -> pool.release(tile, tommaso), "Releasing a reserved tile");
+        assertThrows(ComponentNotValidException.class, () -> pool.markReserved(tile, tommaso), "Reserving a reserved tile");
+        assertEquals(TileState.RESERVED, pool.getState(tile));
+
+        pool.markPlaced(tile, tommaso);
+        assertThrows(ComponentNotValidException.class, () -> pool.take(tile, tommaso), "Taking a placed tile");
+        assertThrows(ComponentNotValidException.class, () -> pool.take(tile, simone), "Taking a tile placed by another player");
+        assertThrows(ComponentNotValidException.class, () -> pool.take(tiles.get(2), simone), "Taking a starting cabin");
+        assertEquals(TileState.PLACED, pool.getState(tile));
+        assertTrue(pool.isOwnedBy(tile, tommaso));
+        assertEquals(List.of(tiles.get(1)), pool.getFreeComponents());
+    }
+
+    @Test
+    void testPlayersBuildingTogetherShouldLeaveEveryTileInOnePlace() throws InterruptedException {
+        GameController controller = new GameController(new ArrayList<>(PLAYERS), false);
+        controller.startMatch();
+        Board board = controller.getModel().getBoard();
+        List<Integer> ids = board.getCommonComponents().stream().map(Component::getId).toList();
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> players = new ArrayList<>();
+        for (int i = 0; i < PLAYERS.size(); i++) {
+            String username = PLAYERS.get(i);
+            Random random = new Random(i);
+            players.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int move = 0; move < 2000; move++) { // Every player picks from the whole pool, so they often race for a tile
+                    int id = ids.get(random.nextInt(ids.size()));
+                    controller.pickComponent(username, id);
+                    switch (random.nextInt(4)) {
+                        case 0 -> controller.releaseComponent(username, id);
+                        case 1 -> controller.reserveComponent(username, id);
+                        case 2 -> controller.insertComponent(username, id, random.nextInt(Constants.SHIP_ROWS), random.nextInt(Constants.SHIP_COLUMNS), 0, false);
+                        default -> {
+                            controller.insertComponent(username, id, random.nextInt(Constants.SHIP_ROWS), random.nextInt(Constants.SHIP_COLUMNS), 0, false);
+                            controller.releaseComponent(username, id); // From the dashboard, or from the hand if it couldn't be inserted
+                        }
+                    }
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread player : players)
+            player.join();
+
+        ComponentPool pool = board.getComponentPool();
+        Map<Integer, String> places = new HashMap<>();
+        for (Component component : board.getCommonComponents()) {
+            assertNull(places.put(component.getId(), "pool"), "Tile " + component.getId() + " twice in the pool");
+            assertTrue(pool.isFree(component));
+        }
+        for (String username : PLAYERS) {
+            PlayerData player = board.getPlayerEntityByUsername(username);
+            Ship ship = player.getShip();
+            ship.getHandComponent().ifPresent(component -> assertPlace(places, pool, player, component, TileState.IN_HAND));
+            for (Component component : ship.getReserves())
+                assertPlace(places, pool, player, component, TileState.RESERVED);
+            for (Optional<Component>[] row : ship.getDashboard())
+                for (Optional<Component> cell : row)
+                    cell.filter(component -> ids.contains(component.getId())) // Not the starting cabin
+                            .ifPresent(component -> assertPlace(places, pool, player, component, TileState.PLACED));
+        }
+        assertEquals(new HashSet<>(ids), places.keySet());
+        controller.close();
+    }
+
+    /**
+     * Checks that a tile in the ship of a player is owned by the player in the given state, and records where it is.
+     */
+    private static void assertPlace(Map<Integer, String> places, ComponentPool pool, PlayerData player, Component component, TileState state) {
+        String previous = places.put(component.getId(), player.getUsername());
+        assertNull(previous, "Tile " + component.getId() + " of " + player.getUsername() + " also in " + previous);
+        assertEquals(state, pool.getState(component));
+        assertTrue(pool.isOwnedBy(component, player));
+    }
+
+    private static List<Component> tiles(int count) {
+        List<Component> tiles = new ArrayList<>();
+        for (int id = 0; id < count; id++)
+            tiles.add(new BatteryComponent(new Tile(id, UNIVERSAL), false));
+        return tiles;
+    }
+
+    /**
+     * @param placed number of tiles at the end of the list not in the pool, as the starting cabins
+     */
+    private static ComponentPool pool(List<Component> tiles, int placed) {
+        Map<Integer, Component> components = new HashMap<>();
+        for (Component tile : tiles)
+            components.put(tile.getId(), tile);
+        return new ComponentPool(components, tiles.subList(0, tiles.size() - placed));
+    }
+
+}
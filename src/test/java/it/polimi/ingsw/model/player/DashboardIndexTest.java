@@ -0,0 +1,145 @@
+package it.polimi.ingsw.model.player;
+
+import it.polimi.ingsw.Constants;
+import it.polimi.ingsw.common.model.enums.ConnectorType;
+import it.polimi.ingsw.common.model.enums.DirectionType;
+import it.polimi.ingsw.model.components.BatteryComponent;
+import it.polimi.ingsw.model.components.Component;
+import it.polimi.ingsw.model.components.Tile;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DashboardIndexTest {
+
+    private static final ConnectorType[] TYPES = ConnectorType.values();
+    private static final int[][] NEIGHBOURS = {{-1, 0}, {0, 1}, {1, 0}, {0, -1}}; // North, East, South, West
+
+    private int nextId = 200;
+
+    @Test
+    void testRemovingALinkShouldSplitThePart() {
+        Ship ship = new ShipAdvancedMode();
+        ConnectorType[] universal = {ConnectorType.UNIVERSAL, ConnectorType.UNIVERSAL, ConnectorType.UNIVERSAL, ConnectorType.UNIVERSAL};
+        for (int col = 2; col <= 4; col++)
+            ship.setDashboard(2, col, Optional.of(component(universal)));
+        assertEquals(1, ship.countShipParts());
+
+        ship.setDashboard(2, 3, Optional.empty());
+        assertEquals(2, ship.countShipParts());
+        assertParts(ship);
+
+        ship.setDashboard(2, 3, Optional.of(component(new ConnectorType[]{ConnectorType.EMPTY, ConnectorType.SINGLE, ConnectorType.EMPTY, ConnectorType.EMPTY})));
+        assertEquals(2, ship.countShipParts()); // Linked to the east only
+        assertParts(ship);
+
+        ship.setDashboard(2, 3, Optional.of(component(universal)));
+        assertEquals(1, ship.countShipParts());
+        assertParts(ship);
+    }
+
+    @Test
+    void testIndexShouldMatchDashboardScansOnRandomShips() {
+        Random random = new Random(17);
+        for (int round = 0; round < 200; round++) {
+            Ship ship = new ShipAdvancedMode();
+            for (int step = 0; step < 60; step++) {
+                int row = random.nextInt(Constants.SHIP_ROWS);
+                int col = random.nextInt(Constants.SHIP_COLUMNS);
+                if (ship.validPositions(row, col)) continue;
+
+                if (ship.getDashboard(row, col).isPresent() && random.nextInt(3) == 0)
+                    ship.setDashboard(row, col, Optional.empty()); // Removals may split a part
+                else
+                    ship.setDashboard(row, col, Optional.of(randomComponent(random))); // Also replaces the connectors of an occupied cell
+
+                assertParts(ship);
+                assertEquals(exposedConnectors(ship), ship.countExposedConnectors());
+                for (DirectionType direction : DirectionType.values())
+                    for (int line = 3; line <= 11; line++) {
+                        List<Component> expected = line(ship, direction, line);
+                        assertEquals(expected, ship.getComponentsFromThisDirection(direction, line));
+                        assertEquals(expected.stream().findFirst(), ship.getFirstComponentFromThisDirection(direction, line));
+                    }
+            }
+        }
+    }
+
+    private Component component(ConnectorType[] connectors) {
+        return new BatteryComponent(new Tile(nextId++, connectors), false);
+    }
+
+    private Component randomComponent(Random random) {
+        ConnectorType[] connectors = new ConnectorType[4];
+        for (int side = 0; side < 4; side++)
+            connectors[side] = TYPES[random.nextInt(TYPES.length)];
+        return component(connectors);
+    }
+
+    /**
+     * Checks the parts of the index against a depth-first search over the dashboard.
+     */
+    private static void assertParts(Ship ship) {
+        Set<Set<Component>> expected = new HashSet<>();
+        boolean[][] visited = new boolean[Constants.SHIP_ROWS][Constants.SHIP_COLUMNS];
+        for (int row = 0; row < Constants.SHIP_ROWS; row++)
+            for (int col = 0; col < Constants.SHIP_COLUMNS; col++)
+                if (ship.getDashboard(row, col).isPresent() && !visited[row][col]) {
+                    Set<Component> part = new HashSet<>();
+                    dfs(ship, row, col, visited, part);
+                    expected.add(part);
+                }
+
+        Set<Set<Component>> actual = new HashSet<>();
+        for (List<Component> part : ship.calcShipParts())
+            actual.add(new HashSet<>(part));
+        assertEquals(expected, actual);
+        assertEquals(expected.size(), ship.countShipParts());
+    }
+
+    private static void dfs(Ship ship, int row, int col, boolean[][] visited, Set<Component> part) {
+        visited[row][col] = true;
+        Component component = ship.getDashboard(row, col).orElseThrow();
+        part.add(component);
+        for (int side = 0; side < 4; side++) {
+            int neighbourRow = row + NEIGHBOURS[side][0];
+            int neighbourCol = col + NEIGHBOURS[side][1];
+            Optional<Component> neighbour = ship.getDashboard(neighbourRow, neighbourCol);
+            if (neighbour.isPresent() && !visited[neighbourRow][neighbourCol] && Component.areConnectorsLinked(component.getConnectors()[side], neighbour.get().getConnectors()[(side + 2) % 4]))
+                dfs(ship, neighbourRow, neighbourCol, visited, part);
+        }
+    }
+
+    private static int exposedConnectors(Ship ship) {
+        int exposed = 0;
+        for (int row = 0; row < Constants.SHIP_ROWS; row++)
+            for (int col = 0; col < Constants.SHIP_COLUMNS; col++) {
+                if (ship.getDashboard(row, col).isEmpty()) continue;
+                ConnectorType[] connectors = ship.getDashboard(row, col).get().getConnectors();
+                for (int side = 0; side < 4; side++)
+                    if (connectors[side] != ConnectorType.EMPTY && ship.getDashboard(row + NEIGHBOURS[side][0], col + NEIGHBOURS[side][1]).isEmpty())
+                        exposed++;
+            }
+        return exposed;
+    }
+
+    /**
+     * Components of a line scanned cell by cell from a side, lines numbered as on the dice.
+     */
+    private static List<Component> line(Ship ship, DirectionType direction, int line) {
+        List<Component> components = new ArrayList<>();
+        boolean vertical = direction == DirectionType.NORTH || direction == DirectionType.SOUTH;
+        int index = vertical ? line - 4 : line - 5;
+        int length = vertical ? Constants.SHIP_ROWS : Constants.SHIP_COLUMNS;
+        if (index < 0 || index >= (vertical ? Constants.SHIP_COLUMNS : Constants.SHIP_ROWS)) return components;
+
+        for (int i = 0; i < length; i++) {
+            int step = direction == DirectionType.NORTH || direction == DirectionType.WEST ? i : length - 1 - i;
+            (vertical ? ship.getDashboard(step, index) : ship.getDashboard(index, step)).ifPresent(components::add);
+        }
+        return components;
+    }
+
+}
@@ -0,0 +1,145 @@
+package it.polimi.ingsw.model.player;
+
+import it.polimi.ingsw.Constants;
+import it.polimi.ingsw.common.model.PlacementHints.Placement;
+import it.polimi.ingsw.common.model.enums.ConnectorType;
+import it.polimi.ingsw.common.model.enums.DirectionType;
+import it.polimi.ingsw.model.components.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlacementHintsTest {
+
+    private static final ConnectorType[] TYPES = ConnectorType.values();
+    private static final DirectionType[] DIRECTIONS = DirectionType.values();
+
+    private int nextId = 200;
+
+    @Test
+    void testHintsShouldMatchCellByCellCheckOnRandomShips() {
+        Random random = new Random(18);
+        for (int ship = 0; ship < 200; ship++) {
+            Ship s = new ShipAdvancedMode();
+            s.setDashboard(2, 3, Optional.of(new CabinComponent(new Tile(nextId++, new ConnectorType[]{ConnectorType.UNIVERSAL, ConnectorType.UNIVERSAL, ConnectorType.UNIVERSAL, ConnectorType.UNIVERSAL}), true)));
+
+            for (int step = 0; step < 40; step++) {
+                int row = random.nextInt(Constants.SHIP_ROWS);
+                int col = random.nextInt(Constants.SHIP_COLUMNS);
+                if (s.validPositions(row, col)) continue;
+
+                if (s.getDashboard(row, col).isPresent() && random.nextInt(4) == 0)
+                    s.setDashboard(row, col, Optional.empty()); // Also removals, the hints must follow every change
+                else
+                    s.setDashboard(row, col, Optional.of(randomComponent(random)));
+
+                Component tile = randomComponent(random);
+                List<Placement> hints = s.getPlacementHints(tile);
+                assertEquals(bruteForce(s, tile), new HashSet<>(hints));
+                for (int i = 1; i < hints.size(); i++)
+                    assertTrue(hints.get(i - 1).exposedConnectors() <= hints.get(i).exposedConnectors());
+            }
+        }
+    }
+
+    private Component randomComponent(Random random) {
+        ConnectorType[] connectors = new ConnectorType[4];
+        for (int side = 0; side < 4; side++)
+            connectors[side] = TYPES[random.nextInt(TYPES.length)];
+
+        return switch (random.nextInt(3)) {
+            case 0 -> new CannonComponent(new Tile(nextId++, connectors, DIRECTIONS[random.nextInt(4)]), random.nextBoolean());
+            case 1 -> new EngineComponent(new Tile(nextId++, connectors, DirectionType.SOUTH), random.nextBoolean());
+            default -> new BatteryComponent(new Tile(nextId++, connectors), random.nextBoolean());
+        };
+    }
+
+    /**
+     * Legal placements found by checking every cell and rotation one by one.
+     */
+    private static Set<Placement> bruteForce(Ship ship, Component tile) {
+        DirectionType direction = switch (tile) {
+            case CannonComponent cannon -> cannon.getDirection();
+            case EngineComponent engine -> engine.getDirection();
+            default -> null;
+        };
+
+        Set<Placement> placements = new HashSet<>();
+        for (int row = 0; row < Constants.SHIP_ROWS; row++)
+            for (int col = 0; col < Constants.SHIP_COLUMNS; col++) {
+                if (ship.validPositions(row, col) || ship.getDashboard(row, col).isPresent() || isFaced(ship, row, col)) continue;
+
+                for (int rotations = 0; rotations < 4; rotations++) {
+                    ConnectorType[] connectors = tile.getTile().getConnectors(rotations);
+                    boolean legal = true;
+                    boolean linked = false;
+                    for (int side = 0; side < 4; side++) {
+                        Optional<Component> neighbour = neighbour(ship, row, col, side);
+                        if (neighbour.isEmpty()) continue;
+                        ConnectorType facing = neighbour.get().getConnectors()[(side + 2) % 4];
+                        legal &= Component.areConnectorsCompatible(facing, connectors[side]);
+                        linked |= Component.areConnectorsLinked(facing, connectors[side]);
+                    }
+
+                    if (direction != null) {
+                        int faces = (direction.ordinal() + rotations) % 4;
+                        if (tile instanceof EngineComponent && faces != DirectionType.SOUTH.ordinal()) continue;
+                        legal &= neighbour(ship, row, col, faces).isEmpty();
+                    }
+
+                    if (legal && linked)
+                        placements.add(new Placement(row, col, rotations, exposedAfter(ship, row, col, connectors)));
+                }
+            }
+        return placements;
+    }
+
+    /**
+     * @return true if a cannon or an engine next to the cell points to it
+     */
+    private static boolean isFaced(Ship ship, int row, int col) {
+        for (int side = 0; side < 4; side++) {
+            DirectionType direction = switch (neighbour(ship, row, col, side).orElse(null)) {
+                case CannonComponent cannon -> cannon.getDirection();
+                case EngineComponent engine -> engine.getDirection();
+                case null, default -> null;
+            };
+            if (direction != null && direction.ordinal() == (side + 2) % 4) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return non-empty connectors facing an empty cell or the border, with the tile placed in a cell
+     */
+    private static int exposedAfter(Ship ship, int tileRow, int tileCol, ConnectorType[] tileConnectors) {
+        int exposed = 0;
+        for (int row = 0; row < Constants.SHIP_ROWS; row++)
+            for (int col = 0; col < Constants.SHIP_COLUMNS; col++) {
+                boolean isTile = row == tileRow && col == tileCol;
+                if (!isTile && ship.getDashboard(row, col).isEmpty()) continue;
+                ConnectorType[] connectors = isTile ? tileConnectors : ship.getDashboard(row, col).get().getConnectors();
+
+                for (int side = 0; side < 4; side++) {
+                    int neighbourRow = row + (side == 0 ? -1 : side == 2 ? 1 : 0);
+                    int neighbourCol = col + (side == 1 ? 1 : side == 3 ? -1 : 0);
+                    boolean covered = neighbourRow == tileRow && neighbourCol == tileCol || ship.getDashboard(neighbourRow, neighbourCol).isPresent();
+                    if (connectors[side] != ConnectorType.EMPTY && !covered) exposed++;
+                }
+            }
+        return exposed;
+    }
+
+    private static Optional<Component> neighbour(Ship ship, int row, int col, int side) {
+        return switch (side) {
+            case 0 -> ship.getDashboard(row - 1, col);
+            case 1 -> ship.getDashboard(row, col + 1);
+            case 2 -> ship.getDashboard(row + 1, col);
+            default -> ship.getDashboard(row, col - 1);
+        };
+    }
+
+}
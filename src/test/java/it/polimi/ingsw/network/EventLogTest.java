@@ -0,0 +1,74 @@
+package it.polimi.ingsw.network;
+
+import it.polimi.ingsw.common.model.events.game.ComponentPickedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventLogTest {
+
+    @Test
+    void testSinceShouldReturnTheBatchesAfterASequenceInOrder() {
+        EventLog log = new EventLog();
+        long initial = log.getLastSequence();
+        assertEquals(List.of(), log.since(initial));
+
+        for (int i = 0; i < 10; i++)
+            assertEquals(initial + i + 1, append(log, i));
+
+        List<EventLog.Batch> missed = log.since(initial + 4);
+        assertEquals(6, missed.size());
+        for (int i = 0; i < missed.size(); i++) {
+            assertEquals(initial + 5 + i, missed.get(i).sequence());
+            assertEquals(new ComponentPickedEvent("Tommaso", 4 + i), missed.get(i).events().getFirst().getEvent());
+        }
+        assertEquals(List.of(), log.since(log.getLastSequence()));
+        assertNull(log.since(log.getLastSequence() + 1), "A sequence not appended yet");
+    }
+
+    @Test
+    void testSinceShouldRejectTheSequenceOfAClientWithoutState() {
+        EventLog log = new EventLog();
+        assertNull(log.since(EventLog.NONE));
+        append(log, 0);
+        assertNull(log.since(EventLog.NONE));
+    }
+
+    @Test
+    void testSinceShouldRejectASequenceOfAnotherGame() {
+        EventLog log = new EventLog();
+        EventLog other = new EventLog();
+        for (int i = 0; i < 5; i++) {
+            append(log, i);
+            append(other, i);
+        }
+        assertNull(log.since(other.getLastSequence()));
+        assertNull(other.since(log.getLastSequence()));
+    }
+
+    @Test
+    void testSinceShouldRejectOverrunBatchesFromTheOldestMinusOne() {
+        EventLog log = new EventLog();
+        long initial = log.getLastSequence();
+        for (int i = 0; i < EventLog.CAPACITY + 10; i++)
+            append(log, i);
+
+        long last = log.getLastSequence();
+        long oldest = last - EventLog.CAPACITY + 1;
+        assertNull(log.since(initial), "The first batches have been replaced");
+        assertNull(log.since(oldest - 2), "The oldest batch kept isn't enough, the one before is missing");
+
+        List<EventLog.Batch> missed = log.since(oldest - 1); // Every batch kept
+        assertEquals(EventLog.CAPACITY, missed.size());
+        assertEquals(oldest, missed.getFirst().sequence());
+        assertEquals(last, missed.getLast().sequence());
+        assertEquals(new ComponentPickedEvent("Tommaso", 10), missed.getFirst().events().getFirst().getEvent());
+    }
+
+    private static long append(EventLog log, int id) {
+        return log.append("Tommaso", List.of(new EncodedEvent(new ComponentPickedEvent("Tommaso", id))));
+    }
+
+}
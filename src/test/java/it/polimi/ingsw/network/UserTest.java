@@ -0,0 +1,179 @@
+package it.polimi.ingsw.network;
+
+import it.polimi.ingsw.common.model.events.BatchEndedEvent;
+import it.polimi.ingsw.common.model.events.BatchStartedEvent;
+import it.polimi.ingsw.common.model.events.Event;
+import it.polimi.ingsw.common.model.events.game.ComponentPickedEvent;
+import it.polimi.ingsw.model.game.Lobby;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserTest {
+
+    private static final int RESUMING_USERS = 3;
+
+    private final List<User> users = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        for (User user : users) {
+            user.setLobby(null);
+            User.removeUser(user);
+        }
+    }
+
+    @Test
+    void testResyncShouldSendEveryBatchOnceAndInOrderWhileTheGameGoesOn() throws InterruptedException {
+        List<String> players = new CopyOnWriteArrayList<>(List.of("Tommaso"));
+        for (int i = 0; i < RESUMING_USERS; i++)
+            players.add("Player" + i);
+        Lobby lobby = new Lobby("resync", 4, false, players, null);
+        EventLog log = lobby.getEventLog();
+        long initial = log.getLastSequence();
+
+        RecordingUser sender = user("Tommaso", lobby);
+        List<RecordingUser> resuming = new ArrayList<>();
+        for (int i = 0; i < RESUMING_USERS; i++) {
+            RecordingUser user = user("Player" + i, lobby);
+            user.holdEvents(); // As while they rejoin the game
+            resuming.add(user);
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread game = Thread.ofPlatform().start(() -> { // Notifies as fast as it can, so the resyncs race with its batches
+            for (int i = 0; running.get(); i++)
+                sender.notifyEvents(List.of(new ComponentPickedEvent("Tommaso", i)));
+        });
+
+        List<Integer> firstIds = new ArrayList<>();
+        for (RecordingUser user : resuming) {
+            while (log.getLastSequence() < initial + 10 * (firstIds.size() + 1))
+                Thread.onSpinWait();
+
+            log.getLock().lock(); // Until the resync, or on a busy machine the game could overrun the log before it
+            try {
+                long received = log.getLastSequence() - 5; // Their client has missed the last 5 batches
+                assertTrue(user.resync(received));
+                firstIds.add((int) (received - initial));
+            } finally {
+                log.getLock().unlock();
+            }
+        }
+        running.set(false);
+        game.join();
+
+        long last = log.getLastSequence();
+        int batches = (int) (last - initial);
+        assertEquals(initial + 1, assertBatches(sender.events, 0, batches, last));
+        for (int i = 0; i < RESUMING_USERS; i++) // The missed events in a single batch, then the live ones
+            assertBatches(resuming.get(i).events, firstIds.get(i), batches, last);
+    }
+
+    @Test
+    void testResyncDuringABatchShouldWaitForItToBeSent() throws InterruptedException {
+        Lobby lobby = new Lobby("resync", 2, false, new CopyOnWriteArrayList<>(List.of("Tommaso", "Simone")), null);
+        EventLog log = lobby.getEventLog();
+        long initial = log.getLastSequence();
+        RecordingUser sender = user("Tommaso", lobby);
+        RecordingUser resuming = user("Simone", lobby);
+        resuming.holdEvents();
+
+        for (int i = 0; i < 20; i++)
+            sender.notifyEvents(List.of(new ComponentPickedEvent("Tommaso", i)));
+
+        AtomicBoolean resynced = new AtomicBoolean();
+        Thread[] resync = new Thread[1];
+        sender.onBatchStarted = () -> { // The batch is appended and being sent, the log is locked
+            sender.onBatchStarted = null;
+            resync[0] = Thread.ofPlatform().start(() -> resynced.set(resuming.resync(initial + 5)));
+            while (resync[0].isAlive() && !log.getLock().hasQueuedThread(resync[0]))
+                Thread.onSpinWait();
+        };
+        sender.notifyEvents(List.of(new ComponentPickedEvent("Tommaso", 20)));
+        resync[0].join(); // Before the next batch, as the lock isn't fair and the next batch could take it first
+        for (int i = 21; i < 40; i++)
+            sender.notifyEvents(List.of(new ComponentPickedEvent("Tommaso", i)));
+
+        assertTrue(resynced.get());
+        assertEquals(initial + 21, assertBatches(resuming.events, 5, 40, log.getLastSequence())); // Up to the batch being sent
+    }
+
+    /**
+     * Checks that the events are whole batches, numbered by consecutive sequences up to the last one after the first batch,
+     * and that the picked components are consecutive from the first id.
+     *
+     * @return the sequence of the first batch
+     */
+    private static long assertBatches(List<Event> events, int firstId, int batches, long lastSequence) {
+        List<Long> sequences = new ArrayList<>();
+        int nextId = firstId;
+        boolean inBatch = false;
+        for (Event event : events) {
+            switch (event) {
+                case BatchStartedEvent _ -> {
+                    assertFalse(inBatch, "Nested batch");
+                    inBatch = true;
+                }
+                case BatchEndedEvent end -> {
+                    assertTrue(inBatch, "End without start");
+                    sequences.add(end.sequence());
+                    inBatch = false;
+                }
+                case ComponentPickedEvent picked -> {
+                    assertTrue(inBatch, "Event outside a batch");
+                    assertEquals(nextId++, picked.id());
+                }
+                default -> fail("Unexpected event " + event);
+            }
+        }
+
+        assertFalse(inBatch);
+        assertEquals(batches, nextId);
+        for (int i = 1; i < sequences.size(); i++)
+            assertEquals(sequences.get(i - 1) + 1, sequences.get(i));
+        assertEquals(lastSequence, sequences.getLast());
+        return sequences.getFirst();
+    }
+
+    private RecordingUser user(String username, Lobby lobby) {
+        RecordingUser user = new RecordingUser();
+        user.setUsername(username);
+        user.setLobby(lobby);
+        users.add(user);
+        return user;
+    }
+
+    /**
+     * User recording the events sent to his client.
+     */
+    private static class RecordingUser extends User {
+
+        private final List<Event> events = Collections.synchronizedList(new ArrayList<>());
+
+        RecordingUser() {
+            super(UUID.randomUUID().toString(), null);
+        }
+
+        /** Run once the next time a batch starts, while the log of the game is locked */
+        private volatile Runnable onBatchStarted;
+
+        @Override
+        public void sendEvent(EncodedEvent event) {
+            events.add(event.getEvent());
+            Runnable hook = onBatchStarted;
+            if (hook != null && event.getEvent() instanceof BatchStartedEvent)
+                hook.run();
+        }
+
+    }
+
+}
@@ -0,0 +1,145 @@
+package it.polimi.ingsw.network.socket.codec;
+
+import it.polimi.ingsw.Constants;
+import it.polimi.ingsw.common.model.enums.AlienType;
+import it.polimi.ingsw.common.model.enums.ColorType;
+import it.polimi.ingsw.common.model.enums.DirectionType;
+import it.polimi.ingsw.common.model.enums.PlayerState;
+import it.polimi.ingsw.network.messages.Message;
+import it.polimi.ingsw.network.messages.MessageType;
+import it.polimi.ingsw.network.socket.Heartbeat;
+import it.polimi.ingsw.network.socket.Sense;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.*;
+import java.util.AbstractMap.SimpleEntry;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryCodecTest {
+
+    @Test
+    void testEveryTagShouldRoundTrip() throws IOException {
+        List<Object> values = new ArrayList<>(Arrays.asList(
+                null, true, false,
+                0, 1, -1, 63, -64, 64, -65, 300, -300, Integer.MAX_VALUE, Integer.MIN_VALUE,
+                0L, -1L, 42L, Long.MAX_VALUE, Long.MIN_VALUE,
+                "", "alice", "àèìòù ✈ 🚀", "x".repeat(1000)
+        ));
+        values.addAll(Arrays.asList(PlayerState.values()));
+        values.addAll(Arrays.asList(AlienType.values()));
+        values.addAll(Arrays.asList(ColorType.values()));
+        values.add(List.of());
+        values.add(Arrays.asList(1, null, "two", List.of(3L, List.of(ColorType.RED))));
+        values.add(Map.of());
+        values.add(Map.of("a", 1, "b", List.of(Map.of(2, ColorType.BLUE)), "c", new SimpleEntry<>("d", -5)));
+        values.add(new SimpleEntry<>(null, null));
+        values.add(new SimpleEntry<>(PlayerState.DONE, List.of(Map.of("x", 7L))));
+        values.add(DirectionType.WEST); // Enum without a tag, serialized
+        values.add(new TreeSet<>(List.of(3, 1, 2))); // Serialized
+        values.add(List.of(new TreeSet<>(List.of("nested")), false));
+
+        for (Object value : values)
+            assertEquals(value, roundTrip(value), "Value " + value);
+    }
+
+    @Test
+    void testIntsShouldUseZigZagVarInts() throws IOException {
+        assertEquals(2, encodeValue(0).length);
+        assertEquals(2, encodeValue(-1).length);
+        assertEquals(2, encodeValue(63).length);
+        assertEquals(2, encodeValue(-64).length);
+        assertEquals(3, encodeValue(64).length);
+        assertEquals(6, encodeValue(Integer.MIN_VALUE).length);
+    }
+
+    @Test
+    void testFramesShouldRoundTrip() throws IOException {
+        assertInstanceOf(Heartbeat.class, BinaryCodec.decode(BinaryCodec.encode(new Heartbeat())));
+        assertInstanceOf(Sense.class, BinaryCodec.decode(BinaryCodec.encode(new Sense())));
+
+        for (Object[] args : List.of(new Object[]{}, new Object[]{"alice"}, new Object[]{"alice", 3}, new Object[]{1, -2, List.of(3)}, new Object[]{null, 4L, PlayerState.DONE, Map.of(1, 2)})) {
+            Message message = Constants.createMessage(MessageType.JOIN_LOBBY, args);
+            Message decoded = (Message) BinaryCodec.decode(BinaryCodec.encode(message));
+            assertEquals(MessageType.JOIN_LOBBY, decoded.getMessageType());
+            assertArrayEquals(args, decoded.getArgs());
+        }
+    }
+
+    @Test
+    void testTruncatedFramesShouldBeRejected() throws IOException {
+        Message message = Constants.createMessage(MessageType.SYNC_ALL_EVENT, List.of(1, "two", Map.of(3L, ColorType.GREEN)), new TreeSet<>(List.of(4)), new SimpleEntry<>(-5, true), "payload"); // A cut string must not be decoded as a shorter one
+        byte[] body = BinaryCodec.encode(message);
+        for (int length = 0; length < body.length; length++) {
+            byte[] truncated = Arrays.copyOf(body, length);
+            assertThrows(IOException.class, () -> BinaryCodec.decode(truncated), "Truncated to " + length + " bytes");
+        }
+    }
+
+    @Test
+    void testCorruptFramesShouldBeRejected() {
+        int messageType = MessageType.JOIN_LOBBY.ordinal();
+        assertThrows(StreamCorruptedException.class, () -> BinaryCodec.decode(new byte[]{9}), "Unknown kind");
+        assertThrows(StreamCorruptedException.class, () -> BinaryCodec.decode(new byte[]{0, 127}), "Unknown message type");
+        assertThrows(StreamCorruptedException.class, () -> BinaryCodec.decode(new byte[]{0, (byte) messageType, 1, 99}), "Unknown tag");
+        assertThrows(StreamCorruptedException.class, () -> BinaryCodec.decode(new byte[]{0, (byte) messageType, 1, 8, 120}), "Invalid player state");
+        assertThrows(StreamCorruptedException.class, () -> BinaryCodec.decode(new byte[]{0, (byte) messageType, 1, 1, -1, -1, -1, -1, -1}), "Malformed varint");
+        assertThrows(StreamCorruptedException.class, () -> BinaryCodec.decode(new byte[]{0, (byte) messageType, 1, 4, -1, -1, -1, -1, 15}), "Negative length");
+        assertThrows(StreamCorruptedException.class, () -> BinaryCodec.decode(new byte[]{0, (byte) messageType, 1, 5, -127, -128, -128, 8}), "Length over the maximum frame size");
+        assertThrows(IOException.class, () -> BinaryCodec.decode(new byte[]{0, (byte) messageType, 1, 11, 3, 1, 2, 3}), "Corrupt serialized value");
+        assertThrows(NotSerializableException.class, () -> BinaryCodec.encode("not a message"));
+    }
+
+    @Test
+    void testFramesNearTheMaximumSizeShouldBeAcceptedUpToTheLimit() throws Exception {
+        int header = BinaryCodec.encode(Constants.createMessage(MessageType.ERROR, "")).length;
+        String payload = "x".repeat(WireFormat.MAX_FRAME_SIZE - header - 3); // The length of the payload takes 4 bytes instead of 1
+        Message largest = Constants.createMessage(MessageType.ERROR, payload);
+        assertEquals(WireFormat.MAX_FRAME_SIZE, BinaryCodec.encode(largest).length);
+
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+             Socket client = new Socket(InetAddress.getLoopbackAddress(), server.getLocalPort());
+             Socket accepted = server.accept()) {
+            DataOutputStream serverOutput = new DataOutputStream(new BufferedOutputStream(accepted.getOutputStream()));
+            serverOutput.writeByte(WireFormat.BINARY.ordinal()); // Answer to the hello
+            serverOutput.flush();
+            MessageStream stream = MessageStream.connect(client, WireFormat.BINARY);
+            accepted.getInputStream().readNBytes(WireFormat.HELLO_SIZE);
+
+            byte[] body = BinaryCodec.encode(largest);
+            Thread writer = Thread.ofVirtual().start(() -> { // The frame doesn't fit in the socket buffers
+                try {
+                    serverOutput.writeInt(body.length);
+                    serverOutput.write(body);
+                    serverOutput.writeInt(WireFormat.MAX_FRAME_SIZE + 1);
+                    serverOutput.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            assertEquals(payload, ((Message) stream.readObject()).getArgs()[0]);
+            assertThrows(StreamCorruptedException.class, stream::readObject);
+            writer.join();
+        }
+    }
+
+    private static byte[] encodeValue(Object value) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+        BinaryCodec.writeValue(out, value);
+        out.flush();
+        return buffer.toByteArray();
+    }
+
+    private static Object roundTrip(Object value) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(encodeValue(value)));
+        Object decoded = BinaryCodec.readValue(in);
+        assertEquals(-1, in.read(), "Bytes left after " + value);
+        return decoded;
+    }
+
+}